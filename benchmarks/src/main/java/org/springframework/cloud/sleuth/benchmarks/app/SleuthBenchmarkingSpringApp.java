@@ -17,7 +17,9 @@
 package org.springframework.cloud.sleuth.benchmarks.app;
 
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -67,6 +69,7 @@ public class SleuthBenchmarkingSpringApp implements
 
 	@Autowired(required = false) Tracer tracer;
 	@Autowired AClass aClass;
+	@Autowired Executor plainExecutor;
 
 	@RequestMapping("/foo")
 	public String foo() {
@@ -88,6 +91,12 @@ public class SleuthBenchmarkingSpringApp implements
 		return this.pool.submit(() -> "async");
 	}
 
+	public String executeInPlainExecutor() throws ExecutionException, InterruptedException {
+		CompletableFuture<String> future = new CompletableFuture<>();
+		this.plainExecutor.execute(() -> future.complete("executed"));
+		return future.get();
+	}
+
 	public String manualSpan() {
 		return this.aClass.manualSpan();
 	}
@@ -96,6 +105,10 @@ public class SleuthBenchmarkingSpringApp implements
 		return this.aClass.newSpan();
 	}
 
+	public String newSpanWithExpressionTag() {
+		return this.aClass.newSpanWithExpressionTag();
+	}
+
 	@Override
 	public void onApplicationEvent(EmbeddedServletContainerInitializedEvent event) {
 		this.port = event.getEmbeddedServletContainer().getPort();
@@ -112,6 +125,10 @@ public class SleuthBenchmarkingSpringApp implements
 		this.pool.shutdownNow();
 	}
 
+	@Bean Executor plainExecutor() {
+		return new PlainExecutor(this.pool);
+	}
+
  	@Bean Sampler alwaysSampler() {
 		return new AlwaysSampler();
 	}
@@ -132,6 +149,18 @@ public class SleuthBenchmarkingSpringApp implements
 		SpringApplication.run(SleuthBenchmarkingSpringApp.class, args);
 	}
 }
+class PlainExecutor implements Executor {
+	private final Executor delegate;
+
+	PlainExecutor(Executor delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override public void execute(Runnable command) {
+		this.delegate.execute(command);
+	}
+}
+
 class AClass {
 	private final Tracer tracer;
 	private final AnotherClass anotherClass;
@@ -154,6 +183,11 @@ class AClass {
 	public String newSpan() {
 		return this.anotherClass.continuedAnnotation("bar");
 	}
+
+	@NewSpan
+	public String newSpanWithExpressionTag() {
+		return this.anotherClass.continuedAnnotationWithExpressionTag("bar");
+	}
 }
 
 class AnotherClass {
@@ -168,6 +202,12 @@ class AnotherClass {
 		return "continued";
 	}
 
+	@ContinueSpan(log = "continuedspan")
+	public String continuedAnnotationWithExpressionTag(
+			@SpanTag(value = "foo", expression = "length() + 1") String tagValue) {
+		return "continued";
+	}
+
 	public String continuedSpan() {
 		Span continuedSpan = this.tracer.continueSpan(this.tracer.getCurrentSpan());
 		this.tracer.addTag("foo", "bar");
@@ -24,6 +24,7 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -50,11 +51,15 @@ public class AnnotationBenchmarks {
 		volatile ConfigurableApplicationContext withSleuth;
 		volatile SleuthBenchmarkingSpringApp sleuth;
 
+		@Param({ "off", "immediate" })
+		volatile String spelCompilerMode;
+
 		@Setup public void setup() {
 			this.withSleuth = new SpringApplication(
 					SleuthBenchmarkingSpringApp.class)
 					.run("--spring.jmx.enabled=false",
-							"--spring.application.name=withSleuth");
+							"--spring.application.name=withSleuth",
+							"--spring.sleuth.annotation.spel-compiler-mode=" + this.spelCompilerMode);
 			this.sleuth = this.withSleuth.getBean(
 					SleuthBenchmarkingSpringApp.class);
 		}
@@ -78,4 +83,11 @@ public class AnnotationBenchmarks {
 		then(context.sleuth.newSpan()).isEqualTo("continued");
 		then(ExceptionUtils.getLastException()).isNull();
 	}
+
+	@Benchmark
+	public void spanCreatedWithAnnotationsAndExpressionTag(BenchmarkContext context)
+			throws Exception {
+		then(context.sleuth.newSpanWithExpressionTag()).isEqualTo("continued");
+		then(ExceptionUtils.getLastException()).isNull();
+	}
 }
\ No newline at end of file
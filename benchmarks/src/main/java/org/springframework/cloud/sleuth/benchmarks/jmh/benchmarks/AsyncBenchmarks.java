@@ -47,8 +47,10 @@ public class AsyncBenchmarks {
 	public static class BenchmarkContext {
 		volatile ConfigurableApplicationContext withSleuth;
 		volatile ConfigurableApplicationContext withoutSleuth;
+		volatile ConfigurableApplicationContext withSleuthPropagationOnly;
 		volatile SleuthBenchmarkingSpringApp tracedAsyncMethodHavingBean;
 		volatile SleuthBenchmarkingSpringApp untracedAsyncMethodHavingBean;
+		volatile SleuthBenchmarkingSpringApp propagatingAsyncMethodHavingBean;
 
 		@Setup public void setup() {
 			this.withSleuth = new SpringApplication(
@@ -61,17 +63,26 @@ public class AsyncBenchmarks {
 							"--spring.application.name=withoutSleuth",
 							"--spring.sleuth.enabled=false",
 							"--spring.sleuth.async.enabled=false");
+			this.withSleuthPropagationOnly = new SpringApplication(
+					SleuthBenchmarkingSpringApp.class)
+					.run("--spring.jmx.enabled=false",
+							"--spring.application.name=withSleuthPropagationOnly",
+							"--spring.sleuth.async.propagation-only-executors=plainExecutor");
 			this.tracedAsyncMethodHavingBean = this.withSleuth.getBean(
 					SleuthBenchmarkingSpringApp.class);
 			this.untracedAsyncMethodHavingBean = this.withoutSleuth.getBean(
 					SleuthBenchmarkingSpringApp.class);
+			this.propagatingAsyncMethodHavingBean = this.withSleuthPropagationOnly.getBean(
+					SleuthBenchmarkingSpringApp.class);
 		}
 
 		@TearDown public void clean() {
 			this.tracedAsyncMethodHavingBean.clean();
 			this.untracedAsyncMethodHavingBean.clean();
+			this.propagatingAsyncMethodHavingBean.clean();
 			this.withSleuth.close();
 			this.withoutSleuth.close();
+			this.withSleuthPropagationOnly.close();
 		}
 	}
 
@@ -86,4 +97,22 @@ public class AsyncBenchmarks {
 			throws Exception {
 		then(context.tracedAsyncMethodHavingBean.async().get()).isEqualTo("async");
 	}
+
+	@Benchmark
+	public void plainExecutorWithoutSleuth(BenchmarkContext context)
+			throws Exception {
+		then(context.untracedAsyncMethodHavingBean.executeInPlainExecutor()).isEqualTo("executed");
+	}
+
+	@Benchmark
+	public void proxiedPlainExecutorWithSleuth(BenchmarkContext context)
+			throws Exception {
+		then(context.tracedAsyncMethodHavingBean.executeInPlainExecutor()).isEqualTo("executed");
+	}
+
+	@Benchmark
+	public void propagationOnlyProxiedPlainExecutorWithSleuth(BenchmarkContext context)
+			throws Exception {
+		then(context.propagatingAsyncMethodHavingBean.executeInPlainExecutor()).isEqualTo("executed");
+	}
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanTextMap;
+import org.springframework.cloud.sleuth.TraceKeys;
+import org.springframework.cloud.sleuth.instrument.messaging.HeaderBasedMessagingExtractor;
+import org.springframework.cloud.sleuth.instrument.messaging.HeaderBasedMessagingInjector;
+import org.springframework.cloud.sleuth.instrument.web.ZipkinHttpSpanExtractor;
+import org.springframework.cloud.sleuth.instrument.web.ZipkinHttpSpanInjector;
+import org.springframework.cloud.sleuth.util.TextMapUtil;
+
+/**
+ * We're checking how fast the tracing headers get injected into and extracted from a
+ * carrier that has a lot of other headers (40 by default), as it's the case for
+ * browser requests
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class B3HeaderCodecBenchmarks {
+
+	static final int OTHER_HEADERS = 40;
+
+	Span span = Span.builder().traceId(1L).spanId(2L).parent(3L).name("span")
+			.processId("process").build();
+	ZipkinHttpSpanInjector httpInjector = new ZipkinHttpSpanInjector();
+	ZipkinHttpSpanExtractor httpExtractor = new ZipkinHttpSpanExtractor(
+			Pattern.compile(""));
+	HeaderBasedMessagingInjector messagingInjector = new HeaderBasedMessagingInjector(
+			new TraceKeys());
+	HeaderBasedMessagingExtractor messagingExtractor = new HeaderBasedMessagingExtractor();
+	Map<String, String> otherHeaders = new LinkedHashMap<>();
+	Map<String, String> httpRequest = new LinkedHashMap<>();
+	Map<String, String> message = new LinkedHashMap<>();
+
+	@Setup
+	public void setup() {
+		for (int i = 0; i < OTHER_HEADERS; i++) {
+			this.otherHeaders.put("X-Some-Header-" + i, "some value " + i);
+		}
+		this.httpRequest.putAll(this.otherHeaders);
+		this.httpRequest.put(Span.TRACE_ID_NAME, "0000000000000001");
+		this.httpRequest.put(Span.SPAN_ID_NAME, "0000000000000002");
+		this.httpRequest.put(Span.SAMPLED_NAME, "1");
+		this.httpRequest.put("X-Span-Uri", "/foo");
+		this.message.putAll(this.otherHeaders);
+		this.message.put("spanTraceId", "0000000000000001");
+		this.message.put("spanId", "0000000000000002");
+		this.message.put("spanSampled", "1");
+	}
+
+	@Benchmark
+	public Map<String, String> copyToCaseInsensitiveMap() {
+		return TextMapUtil.asMap(textMap(this.httpRequest));
+	}
+
+	@Benchmark
+	public Map<String, String> injectHttpHeaders() {
+		Map<String, String> carrier = new LinkedHashMap<>(this.otherHeaders);
+		this.httpInjector.inject(this.span, textMap(carrier));
+		return carrier;
+	}
+
+	@Benchmark
+	public Span extractHttpHeaders() {
+		return this.httpExtractor.joinTrace(textMap(this.httpRequest));
+	}
+
+	@Benchmark
+	public Map<String, String> injectMessagingHeaders() {
+		Map<String, String> carrier = new LinkedHashMap<>(this.otherHeaders);
+		this.messagingInjector.inject(this.span, textMap(carrier));
+		return carrier;
+	}
+
+	@Benchmark
+	public Span extractMessagingHeaders() {
+		return this.messagingExtractor.joinTrace(textMap(this.message));
+	}
+
+	private SpanTextMap textMap(final Map<String, String> map) {
+		return new SpanTextMap() {
+			@Override public Iterator<Map.Entry<String, String>> iterator() {
+				return map.entrySet().iterator();
+			}
+
+			@Override public void put(String key, String value) {
+				map.put(key, value);
+			}
+		};
+	}
+}
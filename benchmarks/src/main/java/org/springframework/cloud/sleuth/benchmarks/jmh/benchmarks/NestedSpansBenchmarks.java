@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.sleuth.DefaultSpanNamer;
+import org.springframework.cloud.sleuth.NoOpSpanReporter;
+import org.springframework.cloud.sleuth.ScopedTracer;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanScope;
+import org.springframework.cloud.sleuth.TraceKeys;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.log.NoOpSpanLogger;
+import org.springframework.cloud.sleuth.sampler.NeverSampler;
+import org.springframework.cloud.sleuth.trace.DefaultTracer;
+
+/**
+ * We're checking how fast we can open and close a deep stack of spans in a single
+ * thread - via the {@link Tracer#createSpan(String)} / {@link Tracer#close(Span)} pair
+ * and via {@link SpanScope scopes}
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NestedSpansBenchmarks {
+
+	@Param({ "1", "30" })
+	int depth;
+
+	ScopedTracer tracer = new DefaultTracer(NeverSampler.INSTANCE, new Random(),
+			new DefaultSpanNamer(), new NoOpSpanLogger(), new NoOpSpanReporter(),
+			new TraceKeys());
+
+	@Benchmark
+	public Span createAndCloseSpans() {
+		return createAndClose(this.depth);
+	}
+
+	@Benchmark
+	public Span startAndCloseScopedSpans() {
+		return startAndCloseScope(this.depth);
+	}
+
+	private Span createAndClose(int remaining) {
+		Span span = this.tracer.createSpan("span");
+		try {
+			if (remaining > 1) {
+				createAndClose(remaining - 1);
+			}
+			return span;
+		}
+		finally {
+			this.tracer.close(span);
+		}
+	}
+
+	private Span startAndCloseScope(int remaining) {
+		try (SpanScope scope = this.tracer.startScopedSpan("span")) {
+			if (remaining > 1) {
+				startAndCloseScope(remaining - 1);
+			}
+			return scope.getSpan();
+		}
+	}
+}
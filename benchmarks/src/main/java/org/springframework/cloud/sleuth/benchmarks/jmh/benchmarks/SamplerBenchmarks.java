@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.sleuth.Sampler;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.sampler.PerThreadPercentageBasedSampler;
+import org.springframework.cloud.sleuth.sampler.PercentageBasedSampler;
+import org.springframework.cloud.sleuth.sampler.SamplerProperties;
+
+/**
+ * We're checking how the synchronized {@link PercentageBasedSampler} compares
+ * with the {@link PerThreadPercentageBasedSampler} under contention
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SamplerBenchmarks {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+		volatile Sampler synchronizedSampler;
+		volatile Sampler perThreadSampler;
+		volatile Span span;
+
+		@Setup public void setup() {
+			SamplerProperties properties = new SamplerProperties();
+			properties.setPercentage(0.1f);
+			this.synchronizedSampler = new PercentageBasedSampler(properties);
+			this.perThreadSampler = new PerThreadPercentageBasedSampler(properties);
+			this.span = Span.builder().traceId(1L).spanId(1L).name("span").build();
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean synchronizedSampler_1(BenchmarkContext context) {
+		return context.synchronizedSampler.isSampled(context.span);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean synchronizedSampler_8(BenchmarkContext context) {
+		return context.synchronizedSampler.isSampled(context.span);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public boolean synchronizedSampler_64(BenchmarkContext context) {
+		return context.synchronizedSampler.isSampled(context.span);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public boolean perThreadSampler_1(BenchmarkContext context) {
+		return context.perThreadSampler.isSampled(context.span);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean perThreadSampler_8(BenchmarkContext context) {
+		return context.perThreadSampler.isSampled(context.span);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public boolean perThreadSampler_64(BenchmarkContext context) {
+		return context.perThreadSampler.isSampled(context.span);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.benchmarks.jmh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.sleuth.Span;
+
+/**
+ * We're checking how many bytes get allocated per created span. Run it with the
+ * GC profiler and compare the {@code gc.alloc.rate.norm} results between versions:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar SpanAllocationBenchmarks -prof gc
+ * </pre>
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class SpanAllocationBenchmarks {
+
+	Span parent = Span.builder().traceId(1L).spanId(1L).name("parent").build();
+
+	@Benchmark
+	public Span unsampledRootSpan() {
+		return Span.builder().traceId(2L).spanId(2L).name("root")
+				.exportable(false).build();
+	}
+
+	@Benchmark
+	public Span unsampledChildSpan() {
+		return Span.builder().traceId(this.parent.getTraceId()).spanId(3L)
+				.parent(this.parent.getSpanId()).name("child").exportable(false)
+				.build();
+	}
+
+	@Benchmark
+	public Span sampledChildSpan() {
+		return Span.builder().traceId(this.parent.getTraceId()).spanId(3L)
+				.parent(this.parent.getSpanId()).name("child").build();
+	}
+
+	@Benchmark
+	public Span sampledChildSpanWithTagAndLog() {
+		Span span = Span.builder().traceId(this.parent.getTraceId()).spanId(3L)
+				.parent(this.parent.getSpanId()).name("child").build();
+		span.tag("foo", "bar");
+		span.logEvent(Span.CLIENT_SEND);
+		return span;
+	}
+}
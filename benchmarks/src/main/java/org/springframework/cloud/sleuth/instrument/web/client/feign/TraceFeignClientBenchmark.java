@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.web.client.feign;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.cloud.sleuth.benchmarks.app.SleuthBenchmarkingSpringApp;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * We're checking how much overhead does the instrumentation
+ * of the Feign client take. The delegate client returns a response right away, so
+ * only the cost of the span and of the headers injection gets measured.
+ *
+ * Placed in the package of the package scoped {@link TraceFeignClient}.
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(Threads.MAX)
+public class TraceFeignClientBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkContext {
+		volatile ConfigurableApplicationContext withSleuth;
+		volatile Client untracedClient;
+		volatile Client tracedClient;
+		volatile Request request;
+		final Request.Options options = new Request.Options();
+
+		@Setup public void setup() {
+			// the Feign auto-configuration needs Spring Cloud Netflix, the client is
+			// created manually instead
+			this.withSleuth = new SpringApplication(
+					SleuthBenchmarkingSpringApp.class)
+					.run("--spring.jmx.enabled=false",
+							"--spring.application.name=withSleuth",
+							"--spring.sleuth.feign.enabled=false");
+			final Response response = Response.builder().status(200).reason("OK")
+					.headers(Collections.<String, Collection<String>>emptyMap())
+					.body("foo", Charset.forName("UTF-8")).build();
+			this.untracedClient = new Client() {
+				@Override public Response execute(Request request, Request.Options options) {
+					return response;
+				}
+			};
+			this.tracedClient = new TraceFeignClient(this.withSleuth, this.untracedClient);
+			Map<String, Collection<String>> headers = new LinkedHashMap<>();
+			headers.put("Accept", Collections.singletonList("application/json"));
+			headers.put("Content-Type", Collections.singletonList("application/json"));
+			this.request = Request.create("POST", "http://localhost:8080/foo/bar", headers,
+					"{\"foo\":\"bar\"}".getBytes(), Charset.forName("UTF-8"));
+		}
+
+		@TearDown public void clean() {
+			this.withSleuth.getBean(SleuthBenchmarkingSpringApp.class).clean();
+			this.withSleuth.close();
+		}
+	}
+
+	@Benchmark
+	public void feignClientWithoutSleuth(BenchmarkContext context) throws IOException {
+		then(context.untracedClient.execute(context.request, context.options).status())
+				.isEqualTo(200);
+	}
+
+	@Benchmark
+	public void feignClientWithSleuth(BenchmarkContext context) throws IOException {
+		then(context.tracedClient.execute(context.request, context.options).status())
+				.isEqualTo(200);
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.util.ZipkinSpanConverter;
+
+import zipkin.Endpoint;
+import zipkin.reporter.Encoder;
+import zipkin.reporter.Encoding;
+
+/**
+ * We're checking how fast a finished span gets encoded to the bytes sent to Zipkin -
+ * converting it to a {@link zipkin.Span} first, like {@link ZipkinSpanListener} and
+ * {@link HttpZipkinSpanReporter} do, versus writing it directly via
+ * {@link ZipkinSpanEncoder}. The benchmark lives in the package of the encoder since
+ * the encoder is package private. Run with {@code -prof gc} to compare allocations.
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ZipkinSpanEncoderBenchmarks {
+
+	@Param({ "JSON", "THRIFT" })
+	public Encoding encoding;
+
+	final Endpoint endpoint = Endpoint.create("service", 10 << 24 | 1, 8080);
+	final ZipkinSpanConverter converter = new ZipkinSpanConverter();
+	Encoder<zipkin.Span> zipkinEncoder;
+	ZipkinSpanEncoder directEncoder;
+	Span span;
+
+	@Setup
+	public void setup() {
+		this.zipkinEncoder = this.encoding == Encoding.JSON ? Encoder.JSON : Encoder.THRIFT;
+		this.directEncoder = ZipkinSpanEncoder.forEncoding(this.encoding,
+				new EndpointLocator() {
+					@Override public Endpoint local() {
+						return ZipkinSpanEncoderBenchmarks.this.endpoint;
+					}
+				}, null);
+		this.span = Span.builder().traceId(1L).spanId(2L).parent(1L).name("http:/foo")
+				.processId("process").begin(1L).end(2L).build();
+		this.span.logEvent(Span.CLIENT_SEND);
+		this.span.tag("http.url", "http://localhost:8080/foo");
+		this.span.tag("http.method", "GET");
+		this.span.tag("http.path", "/foo");
+		this.span.logEvent(Span.CLIENT_RECV);
+	}
+
+	@Benchmark
+	public byte[] convertAndEncode() {
+		return this.zipkinEncoder.encode(this.converter.convert(this.span, this.endpoint));
+	}
+
+	@Benchmark
+	public byte[] encodeDirectly() {
+		return this.directEncoder.encode(this.span);
+	}
+}
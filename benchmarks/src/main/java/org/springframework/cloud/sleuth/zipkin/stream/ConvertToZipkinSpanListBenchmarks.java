@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.sleuth.zipkin.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.stream.Host;
+import org.springframework.cloud.sleuth.stream.Spans;
+
+/**
+ * We're checking how fast a {@link Spans} batch received by the Zipkin Stream
+ * collector gets converted to Zipkin spans. The benchmark lives in the package of the
+ * converter since the converter is package private.
+ */
+@Measurement(iterations = 5)
+@Warmup(iterations = 10)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ConvertToZipkinSpanListBenchmarks {
+
+	@Param({ "10", "100", "1000" })
+	public int batchSize;
+
+	Host host = new Host("service", "10.0.0.1", 8080);
+	Spans spans;
+
+	@Setup
+	public void setup() {
+		List<Span> list = new ArrayList<>(this.batchSize);
+		for (int i = 0; i < this.batchSize; i++) {
+			Span span = Span.builder().traceId(1L).spanId(i + 2L).parent(1L)
+					.name("http:/foo/" + i).processId("process").begin(1L).end(2L)
+					.build();
+			span.logEvent(Span.CLIENT_SEND);
+			span.tag("http.url", "http://localhost:8080/foo/" + i);
+			span.tag("http.method", "GET");
+			span.logEvent(Span.CLIENT_RECV);
+			list.add(span);
+		}
+		this.spans = new Spans(this.host, list);
+	}
+
+	@Benchmark
+	public List<zipkin.Span> convertBatch() {
+		return ConvertToZipkinSpanList.convert(this.spans);
+	}
+
+	@Benchmark
+	public List<zipkin.Span> convertSpanBySpan() {
+		List<zipkin.Span> result = new ArrayList<>(this.batchSize);
+		for (Span span : this.spans.getSpans()) {
+			result.add(ConvertToZipkinSpanList.convert(span, this.host));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth;
+
+/**
+ * A {@link Tracer} that can manage the thread context via {@link SpanScope scopes}.
+ * Restoring the previously current span when a scope gets closed takes constant time.
+ * Kept apart from {@link Tracer} so that existing implementations of it don't break.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public interface ScopedTracer extends Tracer {
+
+	/**
+	 * Creates a new span just like {@link #createSpan(String)} does and returns a scope
+	 * that manages it. Closing the scope stops and reports the span and restores the
+	 * previously current span in constant time.
+	 *
+	 * @param name The name field for the new span to create.
+	 * @return the scope of the created span, to be closed in the same thread
+	 * @since 1.3.0
+	 */
+	SpanScope startScopedSpan(String name);
+
+	/**
+	 * Makes the given span the current one, just like {@link #continueSpan(Span)} does,
+	 * and returns a scope that manages it. Closing the scope only removes the span from
+	 * the thread context (the span is neither stopped nor reported) and restores the
+	 * previously current span in constant time.
+	 *
+	 * @param span the span to put in the thread context
+	 * @return the scope of the span, to be closed in the same thread
+	 * @since 1.3.0
+	 */
+	SpanScope withSpanInScope(Span span);
+}
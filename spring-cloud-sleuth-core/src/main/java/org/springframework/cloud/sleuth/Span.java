@@ -34,6 +34,7 @@ import org.springframework.util.StringUtils;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Class for gathering and reporting statistics about a block of execution.
@@ -146,16 +147,24 @@ public class Span implements SpanContext {
 	private final String name;
 	private final long traceIdHigh;
 	private final long traceId;
-	private List<Long> parents = new ArrayList<>();
+	// the first (and almost always the only) parent is kept as a primitive
+	@JsonIgnore
+	private long parentId;
+	@JsonIgnore
+	private boolean hasParent;
+	// only set when the span has more than one parent
+	@JsonIgnore
+	private List<Long> multipleParents;
 	private final long spanId;
 	private boolean remote = false;
 	private boolean exportable = true;
-	private final Map<String, String> tags;
+	// tags, logs and baggage are created on first write, most spans never get any
+	private volatile ConcurrentHashMap<String, String> tags;
 	private final String processId;
-	private final Collection<Log> logs;
+	private volatile ConcurrentLinkedQueue<Log> logs;
 	private final Span savedSpan;
 	@JsonIgnore
-	private final Map<String,String> baggage;
+	private volatile ConcurrentHashMap<String,String> baggage;
 
 	// Null means we don't know the start tick, so fallback to time
 	@JsonIgnore
@@ -188,16 +197,19 @@ public class Span implements SpanContext {
 		this.name = current.getName();
 		this.traceIdHigh = current.getTraceIdHigh();
 		this.traceId = current.getTraceId();
-		this.parents = current.getParents();
+		this.parentId = current.parentId;
+		this.hasParent = current.hasParent;
+		this.multipleParents = current.multipleParents;
 		this.spanId = current.getSpanId();
 		this.remote = current.isRemote();
 		this.exportable = current.isExportable();
 		this.processId = current.getProcessId();
-		this.tags = current.tags;
-		this.logs = current.logs;
+		// both spans have to write to the same collections
+		this.tags = current.writableTags();
+		this.logs = current.writableLogs();
 		this.startNanos = current.startNanos;
 		this.durationMicros = current.durationMicros;
-		this.baggage = current.baggage;
+		this.baggage = current.writableBaggage();
 		this.savedSpan = savedSpan;
 		this.shared = current.shared;
 	}
@@ -235,23 +247,31 @@ public class Span implements SpanContext {
 		}
 		if (builder.end > 0) {
 			this.end = builder.end;
-			this.durationMicros = (this.end - this.begin) * 1000;
+			this.durationMicros = builder.durationMicros != null ? builder.durationMicros
+					: (this.end - this.begin) * 1000;
 		}
 		this.name = builder.name != null ? builder.name : "";
 		this.traceIdHigh = builder.traceIdHigh;
 		this.traceId = builder.traceId;
-		this.parents.addAll(builder.parents);
+		this.parentId = builder.parentId;
+		this.hasParent = builder.hasParent;
+		if (builder.parents != null) {
+			this.multipleParents = Collections.unmodifiableList(new ArrayList<>(builder.parents));
+		}
 		this.spanId = builder.spanId;
 		this.remote = builder.remote;
 		this.exportable = builder.exportable;
 		this.processId = builder.processId;
 		this.savedSpan = builder.savedSpan;
-		this.tags = new ConcurrentHashMap<>();
-		this.tags.putAll(builder.tags);
-		this.logs = new ConcurrentLinkedQueue<>();
-		this.logs.addAll(builder.logs);
-		this.baggage = new ConcurrentHashMap<>();
-		this.baggage.putAll(builder.baggage);
+		if (builder.tags != null && !builder.tags.isEmpty()) {
+			this.tags = new ConcurrentHashMap<>(builder.tags);
+		}
+		if (builder.logs != null && !builder.logs.isEmpty()) {
+			this.logs = new ConcurrentLinkedQueue<>(builder.logs);
+		}
+		if (builder.baggage != null && !builder.baggage.isEmpty()) {
+			this.baggage = new ConcurrentHashMap<>(builder.baggage);
+		}
 		this.shared = builder.shared;
 	}
 
@@ -325,7 +345,7 @@ public class Span implements SpanContext {
 	 */
 	public void tag(String key, String value) {
 		if (StringUtils.hasText(value)) {
-			this.tags.put(key, value);
+			writableTags().put(key, value);
 		}
 	}
 
@@ -341,7 +361,7 @@ public class Span implements SpanContext {
 	 * associated with this span.
 	 */
 	public void logEvent(long timestampMilliseconds, String event) {
-		this.logs.add(new Log(timestampMilliseconds, event));
+		writableLogs().add(new Log(timestampMilliseconds, event));
 	}
 
 	/**
@@ -358,7 +378,7 @@ public class Span implements SpanContext {
 	 * @return this Span instance, for chaining
 	 */
 	public Span setBaggageItem(String key, String value) {
-		this.baggage.put(key.toLowerCase(), value);
+		writableBaggage().put(key.toLowerCase(), value);
 		return this;
 	}
 
@@ -366,16 +386,21 @@ public class Span implements SpanContext {
 	 * @return the value of the baggage item identified by the given key, or null if no such item could be found
 	 */
 	public String getBaggageItem(String key) {
-		return this.baggage.get(key.toLowerCase());
+		Map<String, String> baggage = this.baggage;
+		return baggage != null ? baggage.get(key.toLowerCase()) : null;
 	}
 
 	@Override
 	public final Iterable<Map.Entry<String,String>> baggageItems() {
-		return this.baggage.entrySet();
+		Map<String, String> baggage = this.baggage;
+		return baggage != null ? baggage.entrySet() :
+				Collections.<String, String>emptyMap().entrySet();
 	}
 
 	public final Map<String,String> getBaggage() {
-		return Collections.unmodifiableMap(this.baggage);
+		Map<String, String> baggage = this.baggage;
+		return baggage != null ? Collections.unmodifiableMap(baggage) :
+				Collections.<String, String>emptyMap();
 	}
 
 	/**
@@ -385,7 +410,11 @@ public class Span implements SpanContext {
 	 * Will never be null.
 	 */
 	public Map<String, String> tags() {
-		return Collections.unmodifiableMap(new LinkedHashMap<>(this.tags));
+		Map<String, String> tags = this.tags;
+		if (tags == null || tags.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		return Collections.unmodifiableMap(new LinkedHashMap<>(tags));
 	}
 
 	/**
@@ -395,7 +424,74 @@ public class Span implements SpanContext {
 	 * Will never be null.
 	 */
 	public List<Log> logs() {
-		return Collections.unmodifiableList(new ArrayList<>(this.logs));
+		Collection<Log> logs = this.logs;
+		if (logs == null || logs.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(new ArrayList<>(logs));
+	}
+
+	/**
+	 * Read only view of the tags that, contrary to {@link #tags()}, doesn't copy them.
+	 * Meant for reading the tags of a finished span, e.g. when reporting it.
+	 *
+	 * @since 1.3.0
+	 */
+	public final Iterable<Map.Entry<String, String>> tagEntries() {
+		Map<String, String> tags = this.tags;
+		return tags != null ? Collections.unmodifiableMap(tags).entrySet() :
+				Collections.<String, String>emptyMap().entrySet();
+	}
+
+	/**
+	 * Read only view of the logs that, contrary to {@link #logs()}, doesn't copy them.
+	 * Meant for reading the logs of a finished span, e.g. when reporting it.
+	 *
+	 * @since 1.3.0
+	 */
+	public final Iterable<Log> logEntries() {
+		Collection<Log> logs = this.logs;
+		return logs != null ? Collections.unmodifiableCollection(logs) :
+				Collections.<Log>emptyList();
+	}
+
+	private ConcurrentHashMap<String, String> writableTags() {
+		ConcurrentHashMap<String, String> tags = this.tags;
+		if (tags == null) {
+			synchronized (this) {
+				tags = this.tags;
+				if (tags == null) {
+					this.tags = tags = new ConcurrentHashMap<>();
+				}
+			}
+		}
+		return tags;
+	}
+
+	private ConcurrentLinkedQueue<Log> writableLogs() {
+		ConcurrentLinkedQueue<Log> logs = this.logs;
+		if (logs == null) {
+			synchronized (this) {
+				logs = this.logs;
+				if (logs == null) {
+					this.logs = logs = new ConcurrentLinkedQueue<>();
+				}
+			}
+		}
+		return logs;
+	}
+
+	private ConcurrentHashMap<String, String> writableBaggage() {
+		ConcurrentHashMap<String, String> baggage = this.baggage;
+		if (baggage == null) {
+			synchronized (this) {
+				baggage = this.baggage;
+				if (baggage == null) {
+					this.baggage = baggage = new ConcurrentHashMap<>();
+				}
+			}
+		}
+		return baggage;
 	}
 
 	/**
@@ -475,9 +571,47 @@ public class Span implements SpanContext {
 	 * <p>
 	 * <p>
 	 * The collection will be empty if there are no parents.
+	 *
+	 * @see #getParentId()
 	 */
 	public List<Long> getParents() {
-		return this.parents;
+		if (this.multipleParents != null) {
+			return this.multipleParents;
+		}
+		if (this.hasParent) {
+			return Collections.singletonList(this.parentId);
+		}
+		return Collections.emptyList();
+	}
+
+	@JsonProperty("parents")
+	private void setParents(List<Long> parents) {
+		this.hasParent = parents != null && !parents.isEmpty();
+		this.parentId = this.hasParent ? parents.get(0) : 0L;
+		this.multipleParents = parents != null && parents.size() > 1 ?
+				Collections.unmodifiableList(new ArrayList<>(parents)) : null;
+	}
+
+	/**
+	 * Does the span have a parent?
+	 *
+	 * @since 1.3.0
+	 */
+	public boolean hasParent() {
+		return this.hasParent;
+	}
+
+	/**
+	 * Returns the ID of the (first) parent of this span. Prefer it over
+	 * {@link #getParents()} since it doesn't allocate.
+	 * <p>
+	 * Only meaningful if {@link #hasParent()} returns {@code true}
+	 *
+	 * @since 1.3.0
+	 */
+	@JsonIgnore
+	public long getParentId() {
+		return this.parentId;
 	}
 
 	/**
@@ -620,7 +754,7 @@ public class Span implements SpanContext {
 	}
 
 	private String getParentIdIfPresent() {
-		return this.getParents().isEmpty() ? "null" : idToHex(this.getParents().get(0));
+		return this.hasParent ? idToHex(this.parentId) : "null";
 	}
 
 	@Override
@@ -656,16 +790,19 @@ public class Span implements SpanContext {
 		private String name;
 		private long traceIdHigh;
 		private long traceId;
-		private final ArrayList<Long> parents = new ArrayList<>();
+		private long parentId;
+		private boolean hasParent;
+		private List<Long> parents;
 		private long spanId;
 		private boolean remote;
 		private boolean exportable = true;
 		private String processId;
 		private Span savedSpan;
-		private final List<Log> logs = new ArrayList<>();
-		private final Map<String, String> tags = new LinkedHashMap<>();
-		private final Map<String, String> baggage = new LinkedHashMap<>();
+		private List<Log> logs;
+		private Map<String, String> tags;
+		private Map<String, String> baggage;
 		private boolean shared;
+		private Long durationMicros;
 
 		SpanBuilder() {
 		}
@@ -687,6 +824,18 @@ public class Span implements SpanContext {
 			return this;
 		}
 
+		/**
+		 * Precise duration of a Span you didn't start, in microseconds. Only taken into
+		 * account if the {@link #end(long) end} is set too - by default the duration is
+		 * the millisecond difference between the end and the begin.
+		 *
+		 * @since 1.3.0
+		 */
+		public Span.SpanBuilder durationMicros(long durationMicros) {
+			this.durationMicros = durationMicros;
+			return this;
+		}
+
 		public Span.SpanBuilder name(String name) {
 			this.name = name;
 			return this;
@@ -702,45 +851,81 @@ public class Span implements SpanContext {
 			return this;
 		}
 
+		/**
+		 * Adds a parent to the span. A {@code null} parent is ignored, so that a
+		 * possibly absent parent id can be passed as it is.
+		 */
 		public Span.SpanBuilder parent(Long parent) {
+			if (parent == null) {
+				return this;
+			}
+			if (!this.hasParent) {
+				this.parentId = parent;
+				this.hasParent = true;
+				return this;
+			}
+			if (this.parents == null) {
+				this.parents = new ArrayList<>();
+				this.parents.add(this.parentId);
+			}
 			this.parents.add(parent);
 			return this;
 		}
 
 		public Span.SpanBuilder parents(Collection<Long> parents) {
-			this.parents.clear();
-			this.parents.addAll(parents);
+			this.hasParent = false;
+			this.parentId = 0L;
+			this.parents = null;
+			if (parents == null) {
+				return this;
+			}
+			for (Long parent : parents) {
+				parent(parent);
+			}
 			return this;
 		}
 
 		public Span.SpanBuilder log(Log log) {
+			if (this.logs == null) {
+				this.logs = new ArrayList<>();
+			}
 			this.logs.add(log);
 			return this;
 		}
 
 		public Span.SpanBuilder logs(Collection<Log> logs) {
-			this.logs.clear();
-			this.logs.addAll(logs);
+			this.logs = logs == null || logs.isEmpty() ? null : new ArrayList<>(logs);
 			return this;
 		}
 
 		public Span.SpanBuilder tag(String tagKey, String tagValue) {
+			if (this.tags == null) {
+				this.tags = new LinkedHashMap<>();
+			}
 			this.tags.put(tagKey, tagValue);
 			return this;
 		}
 
 		public Span.SpanBuilder tags(Map<String, String> tags) {
-			this.tags.clear();
-			this.tags.putAll(tags);
+			this.tags = tags == null || tags.isEmpty() ? null : new LinkedHashMap<>(tags);
 			return this;
 		}
 
 		public Span.SpanBuilder baggage(String baggageKey, String baggageValue) {
+			if (this.baggage == null) {
+				this.baggage = new LinkedHashMap<>();
+			}
 			this.baggage.put(baggageKey.toLowerCase(), baggageValue);
 			return this;
 		}
 
 		public Span.SpanBuilder baggage(Map<String, String> baggage) {
+			if (baggage == null || baggage.isEmpty()) {
+				return this;
+			}
+			if (this.baggage == null) {
+				this.baggage = new LinkedHashMap<>();
+			}
 			this.baggage.putAll(baggage);
 			return this;
 		}
@@ -779,9 +964,12 @@ public class Span implements SpanContext {
 		 * Creates a {@link Span.SpanBuilder} from the {@link Span}.
 		 */
 		public Span.SpanBuilder from(Span span) {
+			this.parentId = span.parentId;
+			this.hasParent = span.hasParent;
+			this.parents = span.multipleParents != null ? new ArrayList<>(span.multipleParents) : null;
 			return begin(span.begin).end(span.end).name(span.name)
 					.traceIdHigh(span.traceIdHigh).traceId(span.traceId)
-					.parents(span.getParents()).logs(span.logs).tags(span.tags).baggage(span.baggage)
+					.logs(span.logs).tags(span.tags).baggage(span.baggage)
 					.spanId(span.spanId).remote(span.remote).exportable(span.exportable)
 					.processId(span.processId).savedSpan(span.savedSpan);
 		}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth;
+
+import java.io.Closeable;
+
+/**
+ * Handle to a span that has been put in the current thread's context by the
+ * {@link Tracer}. Closing the scope restores the span that was current before the
+ * scope was opened. Scopes are meant to be used in a try-with-resources block and
+ * have to be closed in the thread that opened them, in reverse order of opening.
+ *
+ * <pre>{@code
+ *     try (SpanScope scope = tracer.startScopedSpan("foo")) {
+ *         // scope.getSpan() is the current span here
+ *     }
+ *     // the span got stopped and reported, the previous span is current again
+ * }</pre>
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public interface SpanScope extends Closeable {
+
+	/**
+	 * The span managed by this scope
+	 */
+	Span getSpan();
+
+	/**
+	 * Removes the span from the thread context and restores the span that was current
+	 * before this scope was opened. Scopes created via
+	 * {@link ScopedTracer#startScopedSpan(String)} additionally stop and report the span.
+	 */
+	@Override
+	void close();
+}
@@ -40,8 +40,8 @@ import java.util.concurrent.Callable;
  * starts a new span.</li>
  * <li>The {@linkplain Tracer#createSpan(String, Span) createSpan} method creates a new span
  * which has this thread's currentSpan as one of its parents</li>
- * <li>The {@linkplain Tracer#continueSpan(Span) continueSpan} method creates a
- * new instance of span that logically is a continuation of the provided span.</li>
+ * <li>The {@linkplain Tracer#continueSpan(Span) continueSpan} method makes the
+ * provided span the current one, logically continuing it in this thread.</li>
  * </ul>
  *
  * Closing a TraceScope does a few things:
@@ -87,8 +87,9 @@ public interface Tracer extends SpanAccessor {
 	Span createSpan(String name, Sampler sampler);
 
 	/**
-	 * Contributes to a span started in another thread. The returned span shares
-	 * mutable state with the input.
+	 * Contributes to a span started in another thread. The input span becomes the
+	 * current span of this thread and is returned as is; the span that was current before
+	 * is remembered so that {@link #detach(Span)} and {@link #close(Span)} can return it.
 	 */
 	Span continueSpan(Span span);
 
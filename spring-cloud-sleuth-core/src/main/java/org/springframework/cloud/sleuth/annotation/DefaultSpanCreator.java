@@ -16,6 +16,9 @@
 package org.springframework.cloud.sleuth.annotation;
 
 import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -37,15 +40,14 @@ class DefaultSpanCreator implements SpanCreator {
 	private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
 
 	private final Tracer tracer;
+	private final ConcurrentMap<Method, SpanName> spanNames = new ConcurrentHashMap<>();
 
 	DefaultSpanCreator(Tracer tracer) {
 		this.tracer = tracer;
 	}
 
 	@Override public Span createSpan(MethodInvocation pjp, NewSpan newSpanAnnotation) {
-		String name = StringUtils.isEmpty(newSpanAnnotation.name()) ?
-				pjp.getMethod().getName() : newSpanAnnotation.name();
-		String changedName = SpanNameUtil.toLowerHyphen(name);
+		String changedName = spanName(pjp.getMethod(), newSpanAnnotation);
 		if (log.isDebugEnabled()) {
 			log.debug("For the class [" + pjp.getThis().getClass() + "] method "
 					+ "[" + pjp.getMethod().getName() + "] will name the span [" + changedName + "]");
@@ -53,6 +55,24 @@ class DefaultSpanCreator implements SpanCreator {
 		return createSpan(changedName);
 	}
 
+	/**
+	 * The name is computed once per method. The annotation is compared too since
+	 * different implementations of an interface method can have different names.
+	 */
+	private String spanName(Method method, NewSpan newSpanAnnotation) {
+		SpanName spanName = this.spanNames.get(method);
+		if (spanName != null && spanName.annotation == newSpanAnnotation) {
+			return spanName.name;
+		}
+		String name = StringUtils.isEmpty(newSpanAnnotation.name()) ?
+				method.getName() : newSpanAnnotation.name();
+		String changedName = SpanNameUtil.toLowerHyphen(name);
+		if (spanName == null) {
+			this.spanNames.putIfAbsent(method, new SpanName(newSpanAnnotation, changedName));
+		}
+		return changedName;
+	}
+
 	private Span createSpan(String name) {
 		if (this.tracer.isTracing()) {
 			return this.tracer.createSpan(name, this.tracer.getCurrentSpan());
@@ -60,4 +80,13 @@ class DefaultSpanCreator implements SpanCreator {
 		return this.tracer.createSpan(name);
 	}
 
+	private static class SpanName {
+		final NewSpan annotation;
+		final String name;
+
+		SpanName(NewSpan annotation, String name) {
+			this.annotation = annotation;
+			this.name = name;
+		}
+	}
 }
@@ -19,6 +19,10 @@ package org.springframework.cloud.sleuth.annotation;
 import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PostConstruct;
 
@@ -39,6 +43,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.cloud.sleuth.ErrorParser;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -179,6 +184,8 @@ class SleuthInterceptor  implements IntroductionInterceptor, BeanFactoryAware  {
 	private Tracer tracer;
 	private SpanTagAnnotationHandler spanTagAnnotationHandler;
 	private ErrorParser errorParser;
+	private final ConcurrentMap<MethodClassKey, AnnotatedMethod> annotatedMethods =
+			new ConcurrentHashMap<>();
 
 	@Override
 	public Object invoke(MethodInvocation invocation) throws Throwable {
@@ -186,15 +193,14 @@ class SleuthInterceptor  implements IntroductionInterceptor, BeanFactoryAware  {
 		if (method == null) {
 			return invocation.proceed();
 		}
-		Method mostSpecificMethod = AopUtils
-				.getMostSpecificMethod(method, invocation.getThis().getClass());
-		NewSpan newSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, NewSpan.class);
-		ContinueSpan continueSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, ContinueSpan.class);
-		if (newSpan == null && continueSpan == null) {
+		AnnotatedMethod annotatedMethod = annotatedMethod(method,
+				invocation.getThis().getClass());
+		NewSpan newSpan = annotatedMethod.newSpan;
+		if (newSpan == null && annotatedMethod.continueSpan == null) {
 			return invocation.proceed();
 		}
 		Span span = tracer().getCurrentSpan();
-		String log = log(continueSpan);
+		String log = annotatedMethod.log;
 		boolean hasLog = StringUtils.hasText(log);
 		try {
 			if (newSpan != null) {
@@ -203,8 +209,11 @@ class SleuthInterceptor  implements IntroductionInterceptor, BeanFactoryAware  {
 			if (hasLog) {
 				logEvent(span, log + ".before");
 			}
-			spanTagAnnotationHandler().addAnnotatedParameters(invocation);
-			addTags(invocation, span);
+			if (!annotatedMethod.parameters.isEmpty()) {
+				spanTagAnnotationHandler().addAnnotatedArguments(
+						annotatedMethod.parameters, invocation.getArguments());
+			}
+			addTags(annotatedMethod);
 			return invocation.proceed();
 		} catch (Exception e) {
 			if (logger.isDebugEnabled()) {
@@ -227,9 +236,26 @@ class SleuthInterceptor  implements IntroductionInterceptor, BeanFactoryAware  {
 		}
 	}
 
-	private void addTags(MethodInvocation invocation, Span span) {
-		tracer().addTag(CLASS_KEY, invocation.getThis().getClass().getSimpleName());
-		tracer().addTag(METHOD_KEY, invocation.getMethod().getName());
+	/**
+	 * Annotations of the method are resolved only once per method and target class
+	 */
+	private AnnotatedMethod annotatedMethod(Method method, Class<?> targetClass) {
+		MethodClassKey key = new MethodClassKey(method, targetClass);
+		AnnotatedMethod annotatedMethod = this.annotatedMethods.get(key);
+		if (annotatedMethod == null) {
+			annotatedMethod = new AnnotatedMethod(method, targetClass,
+					spanTagAnnotationHandler());
+			AnnotatedMethod previous = this.annotatedMethods.putIfAbsent(key, annotatedMethod);
+			if (previous != null) {
+				annotatedMethod = previous;
+			}
+		}
+		return annotatedMethod;
+	}
+
+	private void addTags(AnnotatedMethod annotatedMethod) {
+		tracer().addTag(CLASS_KEY, annotatedMethod.className);
+		tracer().addTag(METHOD_KEY, annotatedMethod.methodName);
 	}
 
 	private void logEvent(Span span, String name) {
@@ -242,13 +268,6 @@ class SleuthInterceptor  implements IntroductionInterceptor, BeanFactoryAware  {
 		span.logEvent(name);
 	}
 
-	private String log(ContinueSpan continueSpan) {
-		if (continueSpan != null) {
-			return continueSpan.log();
-		}
-		return "";
-	}
-
 	private Tracer tracer() {
 		if (this.tracer == null) {
 			this.tracer = this.beanFactory.getBean(Tracer.class);
@@ -284,4 +303,31 @@ class SleuthInterceptor  implements IntroductionInterceptor, BeanFactoryAware  {
 	@Override public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.beanFactory = beanFactory;
 	}
+
+	/**
+	 * Sleuth related metadata of a method invoked on a given target class
+	 */
+	private static class AnnotatedMethod {
+
+		final NewSpan newSpan;
+		final ContinueSpan continueSpan;
+		final String log;
+		final String className;
+		final String methodName;
+		final List<SleuthAnnotatedParameter> parameters;
+
+		AnnotatedMethod(Method method, Class<?> targetClass,
+				SpanTagAnnotationHandler spanTagAnnotationHandler) {
+			Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+			this.newSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, NewSpan.class);
+			this.continueSpan = SleuthAnnotationUtils.findAnnotation(mostSpecificMethod, ContinueSpan.class);
+			this.log = this.continueSpan != null ? this.continueSpan.log() : "";
+			this.className = targetClass.getSimpleName();
+			this.methodName = method.getName();
+			this.parameters = this.newSpan != null || this.continueSpan != null ?
+					spanTagAnnotationHandler.findAnnotatedParameters(method,
+							mostSpecificMethod, targetClass) :
+					Collections.<SleuthAnnotatedParameter>emptyList();
+		}
+	}
 }
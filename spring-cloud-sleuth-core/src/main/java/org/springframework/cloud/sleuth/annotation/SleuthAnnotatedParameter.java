@@ -17,7 +17,8 @@ package org.springframework.cloud.sleuth.annotation;
 
 /**
  * A container class that holds information about the parameter
- * of the annotated method argument.
+ * of the annotated method argument. The argument itself is taken from the
+ * invocation, so instances can be cached per method.
  *
  * @author Christian Schwerdtfeger
  * @since 1.2.0
@@ -26,13 +27,14 @@ class SleuthAnnotatedParameter {
 
 	final int parameterIndex;
 	final SpanTag annotation;
-	final Object argument;
+	/**
+	 * Custom resolver of the tag value, {@code null} if there's none
+	 */
+	TagValueResolver resolver;
 
-	SleuthAnnotatedParameter(int parameterIndex, SpanTag annotation,
-			Object argument) {
+	SleuthAnnotatedParameter(int parameterIndex, SpanTag annotation) {
 		this.parameterIndex = parameterIndex;
 		this.annotation = annotation;
-		this.argument = argument;
 	}
 
 }
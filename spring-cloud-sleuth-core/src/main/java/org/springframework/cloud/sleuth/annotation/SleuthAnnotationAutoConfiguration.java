@@ -50,8 +50,10 @@ public class SleuthAnnotationAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	TagValueExpressionResolver spelTagValueExpressionResolver() {
-		return new SpelTagValueExpressionResolver();
+	TagValueExpressionResolver spelTagValueExpressionResolver(
+			SleuthAnnotationProperties sleuthAnnotationProperties) {
+		return new SpelTagValueExpressionResolver(
+				sleuthAnnotationProperties.getSpelCompilerMode());
 	}
 
 	@Bean
@@ -17,6 +17,7 @@
 package org.springframework.cloud.sleuth.annotation;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 /**
  * Sleuth annotation settings
@@ -29,6 +30,13 @@ public class SleuthAnnotationProperties {
 
 	private boolean enabled = true;
 
+	/**
+	 * Compiler mode of the SPEL expressions used to resolve {@link SpanTag} values.
+	 * With {@code immediate} or {@code mixed} the expressions get compiled to
+	 * bytecode after their first evaluation.
+	 */
+	private SpelCompilerMode spelCompilerMode = SpelCompilerMode.OFF;
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -36,4 +44,12 @@ public class SleuthAnnotationProperties {
 	public void setEnabled(boolean enabled) {
 		this.enabled = enabled;
 	}
+
+	public SpelCompilerMode getSpelCompilerMode() {
+		return this.spelCompilerMode;
+	}
+
+	public void setSpelCompilerMode(SpelCompilerMode spelCompilerMode) {
+		this.spelCompilerMode = spelCompilerMode;
+	}
 }
@@ -42,18 +42,18 @@ class SleuthAnnotationUtils {
 				findAnnotation(method, ContinueSpan.class) != null;
 	}
 
-	static boolean hasAnnotatedParams(Method method, Object[] args) {
-		return !findAnnotatedParameters(method, args).isEmpty();
+	static boolean hasAnnotatedParams(Method method) {
+		return !findAnnotatedParameters(method).isEmpty();
 	}
 
-	static List<SleuthAnnotatedParameter> findAnnotatedParameters(Method method, Object[] args) {
+	static List<SleuthAnnotatedParameter> findAnnotatedParameters(Method method) {
 		Annotation[][] parameters = method.getParameterAnnotations();
 		List<SleuthAnnotatedParameter> result = new ArrayList<>();
 		int i = 0;
 		for (Annotation[] parameter : parameters) {
 			for (Annotation parameter2 : parameter) {
 				if (parameter2 instanceof SpanTag) {
-					result.add(new SleuthAnnotatedParameter(i, (SpanTag) parameter2, args[i]));
+					result.add(new SleuthAnnotatedParameter(i, (SpanTag) parameter2));
 				}
 			}
 			i++;
@@ -21,10 +21,8 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 
-import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.util.StringUtils;
@@ -36,7 +34,9 @@ import org.springframework.util.StringUtils;
  * of finding both of them and merging into one set of tracing information.
  *
  * This information is then used to add proper tags to the span from the
- * method arguments that are annotated with {@link SpanTag}.
+ * method arguments that are annotated with {@link SpanTag}. Finding the annotated
+ * parameters is expensive so the result is meant to be computed once per method
+ * and cached by the caller.
  *
  * @author Christian Schwerdtfeger
  * @since 1.2.0
@@ -47,37 +47,47 @@ class SpanTagAnnotationHandler {
 
 	private final BeanFactory beanFactory;
 	private Tracer tracer;
+	private TagValueExpressionResolver tagValueExpressionResolver;
 	
 	SpanTagAnnotationHandler(BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
 	}
 
-	void addAnnotatedParameters(MethodInvocation pjp) {
+	/**
+	 * Finds the {@link SpanTag} annotated parameters of the invoked method, its most
+	 * specific implementation for the target class and the methods of the interfaces
+	 * of the target class. Custom {@link TagValueResolver resolvers} are looked up
+	 * here too.
+	 */
+	List<SleuthAnnotatedParameter> findAnnotatedParameters(Method method,
+			Method mostSpecificMethod, Class<?> targetClass) {
+		List<SleuthAnnotatedParameter> annotatedParameters =
+				SleuthAnnotationUtils.findAnnotatedParameters(mostSpecificMethod);
 		try {
-			Method method = pjp.getMethod();
-			Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method,
-					pjp.getThis().getClass());
-			List<SleuthAnnotatedParameter> annotatedParameters =
-					SleuthAnnotationUtils.findAnnotatedParameters(mostSpecificMethod, pjp.getArguments());
-			getAnnotationsFromInterfaces(pjp, mostSpecificMethod, annotatedParameters);
-			mergeAnnotatedMethodsIfNecessary(pjp, method, mostSpecificMethod,
+			getAnnotationsFromInterfaces(targetClass, mostSpecificMethod, annotatedParameters);
+			mergeAnnotatedMethodsIfNecessary(method, mostSpecificMethod,
 					annotatedParameters);
-			addAnnotatedArguments(annotatedParameters);
 		} catch (SecurityException e) {
 			log.error("Exception occurred while trying to add annotated parameters", e);
 		}
+		for (SleuthAnnotatedParameter parameter : annotatedParameters) {
+			if (parameter.annotation.resolver() != NoOpTagValueResolver.class) {
+				parameter.resolver = this.beanFactory.getBean(parameter.annotation.resolver());
+			}
+		}
+		return annotatedParameters;
 	}
 
-	private void getAnnotationsFromInterfaces(MethodInvocation pjp,
+	private void getAnnotationsFromInterfaces(Class<?> targetClass,
 			Method mostSpecificMethod,
 			List<SleuthAnnotatedParameter> annotatedParameters) {
-		Class<?>[] implementedInterfaces = pjp.getThis().getClass().getInterfaces();
+		Class<?>[] implementedInterfaces = targetClass.getInterfaces();
 		if (implementedInterfaces.length > 0) {
 			for (Class<?> implementedInterface : implementedInterfaces) {
 				for (Method methodFromInterface : implementedInterface.getMethods()) {
 					if (methodsAreTheSame(mostSpecificMethod, methodFromInterface)) {
 						List<SleuthAnnotatedParameter> annotatedParametersForActualMethod =
-								SleuthAnnotationUtils.findAnnotatedParameters(methodFromInterface, pjp.getArguments());
+								SleuthAnnotationUtils.findAnnotatedParameters(methodFromInterface);
 						mergeAnnotatedParameters(annotatedParameters, annotatedParametersForActualMethod);
 					}
 				}
@@ -90,13 +100,13 @@ class SpanTagAnnotationHandler {
 				Arrays.equals(method1.getParameterTypes(), mostSpecificMethod.getParameterTypes());
 	}
 
-	private void mergeAnnotatedMethodsIfNecessary(MethodInvocation pjp, Method method,
+	private void mergeAnnotatedMethodsIfNecessary(Method method,
 			Method mostSpecificMethod, List<SleuthAnnotatedParameter> annotatedParameters) {
 		// that can happen if we have an abstraction and a concrete class that is
 		// annotated with @NewSpan annotation
 		if (!method.equals(mostSpecificMethod)) {
-			List<SleuthAnnotatedParameter> annotatedParametersForActualMethod = SleuthAnnotationUtils.findAnnotatedParameters(
-					method, pjp.getArguments());
+			List<SleuthAnnotatedParameter> annotatedParametersForActualMethod =
+					SleuthAnnotationUtils.findAnnotatedParameters(method);
 			mergeAnnotatedParameters(annotatedParameters, annotatedParametersForActualMethod);
 		}
 	}
@@ -118,23 +128,35 @@ class SpanTagAnnotationHandler {
 		}
 	}
 
-	private void addAnnotatedArguments(List<SleuthAnnotatedParameter> toBeAdded) {
-		for (SleuthAnnotatedParameter container : toBeAdded) {
-			String tagValue = resolveTagValue(container.annotation, container.argument);
+	/**
+	 * Adds a tag for each of the annotated parameters, taking the values from the
+	 * invocation arguments
+	 */
+	void addAnnotatedArguments(List<SleuthAnnotatedParameter> annotatedParameters,
+			Object[] arguments) {
+		for (int i = 0; i < annotatedParameters.size(); i++) {
+			SleuthAnnotatedParameter container = annotatedParameters.get(i);
+			String tagValue = resolveTagValue(container.annotation, container.resolver,
+					arguments[container.parameterIndex]);
 			tracer().addTag(container.annotation.value(), tagValue);
 		}
 	}
 
 	String resolveTagValue(SpanTag annotation, Object argument) {
+		TagValueResolver resolver = annotation.resolver() != NoOpTagValueResolver.class ?
+				this.beanFactory.getBean(annotation.resolver()) : null;
+		return resolveTagValue(annotation, resolver, argument);
+	}
+
+	private String resolveTagValue(SpanTag annotation, TagValueResolver resolver,
+			Object argument) {
 		if (argument == null) {
 			return "";
 		}
-		if (annotation.resolver() != NoOpTagValueResolver.class) {
-			TagValueResolver tagValueResolver = this.beanFactory.getBean(annotation.resolver());
-			return tagValueResolver.resolve(argument);
+		if (resolver != null) {
+			return resolver.resolve(argument);
 		} else if (StringUtils.hasText(annotation.expression())) {
-			return this.beanFactory.getBean(TagValueExpressionResolver.class)
-					.resolve(annotation.expression(), argument);
+			return tagValueExpressionResolver().resolve(annotation.expression(), argument);
 		}
 		return argument.toString();
 	}
@@ -146,4 +168,12 @@ class SpanTagAnnotationHandler {
 		return this.tracer;
 	}
 
+	private TagValueExpressionResolver tagValueExpressionResolver() {
+		if (this.tagValueExpressionResolver == null) {
+			this.tagValueExpressionResolver = this.beanFactory
+					.getBean(TagValueExpressionResolver.class);
+		}
+		return this.tagValueExpressionResolver;
+	}
+
 }
@@ -17,16 +17,29 @@
 package org.springframework.cloud.sleuth.annotation;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 /**
  * Uses SPEL to evaluate the expression. If an exception is thrown will return
  * the {@code toString()} of the parameter.
+ * <p>
+ * Parsed expressions are cached per expression string and type of the parameter (up to
+ * {@link #MAX_CACHED_EXPRESSIONS} entries, the remaining ones get parsed on each call) so
+ * that the expression of a {@link SpanTag} isn't parsed on each method invocation. With
+ * {@link SpelCompilerMode#IMMEDIATE} or {@link SpelCompilerMode#MIXED} the cached
+ * expressions get compiled to bytecode after their first evaluation. The compiled code
+ * is specific to the type it was evaluated against, hence the type being part of the
+ * key.
  *
  * @author Marcin Grzejszczak
  * @since 1.2.0
@@ -34,15 +47,74 @@ import org.springframework.expression.spel.standard.SpelExpressionParser;
 class SpelTagValueExpressionResolver implements TagValueExpressionResolver {
 	private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
 
+	static final int MAX_CACHED_EXPRESSIONS = 256;
+
+	private final ExpressionParser expressionParser;
+	private final ConcurrentMap<ExpressionKey, Expression> expressions = new ConcurrentHashMap<>();
+
+	SpelTagValueExpressionResolver() {
+		this(SpelCompilerMode.OFF);
+	}
+
+	SpelTagValueExpressionResolver(SpelCompilerMode compilerMode) {
+		this.expressionParser = new SpelExpressionParser(new SpelParserConfiguration(
+				compilerMode, SpelTagValueExpressionResolver.class.getClassLoader()));
+	}
+
 	@Override
 	public String resolve(String expression, Object parameter) {
 		try {
-			ExpressionParser expressionParser = new SpelExpressionParser();
-			Expression expressionToEvaluate = expressionParser.parseExpression(expression);
+			Expression expressionToEvaluate = expression(expression,
+					parameter != null ? parameter.getClass() : null);
 			return expressionToEvaluate.getValue(parameter, String.class);
 		} catch (Exception e) {
 			log.error("Exception occurred while tying to evaluate the SPEL expression [" + expression + "]", e);
 		}
 		return parameter.toString();
 	}
+
+	private Expression expression(String expression, Class<?> type) {
+		ExpressionKey key = new ExpressionKey(expression, type);
+		Expression parsed = this.expressions.get(key);
+		if (parsed != null) {
+			return parsed;
+		}
+		parsed = this.expressionParser.parseExpression(expression);
+		if (this.expressions.size() < MAX_CACHED_EXPRESSIONS) {
+			Expression previous = this.expressions.putIfAbsent(key, parsed);
+			if (previous != null) {
+				return previous;
+			}
+		}
+		return parsed;
+	}
+
+	int cachedExpressions() {
+		return this.expressions.size();
+	}
+
+	private static final class ExpressionKey {
+		private final String expression;
+		private final Class<?> type;
+
+		ExpressionKey(String expression, Class<?> type) {
+			this.expression = expression;
+			this.type = type;
+		}
+
+		@Override public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof ExpressionKey)) {
+				return false;
+			}
+			ExpressionKey that = (ExpressionKey) o;
+			return this.expression.equals(that.expression) && this.type == that.type;
+		}
+
+		@Override public int hashCode() {
+			return 31 * this.expression.hashCode() + Objects.hashCode(this.type);
+		}
+	}
 }
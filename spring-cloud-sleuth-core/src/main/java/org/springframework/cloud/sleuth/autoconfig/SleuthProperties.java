@@ -30,6 +30,8 @@ public class SleuthProperties {
 	/** When true, generate 128-bit trace IDs instead of 64-bit ones. */
 	private boolean traceId128 = false;
 
+	private Propagation propagation = new Propagation();
+
 	public boolean isEnabled() {
 		return this.enabled;
 	}
@@ -45,4 +47,31 @@ public class SleuthProperties {
 	public void setTraceId128(boolean traceId128) {
 		this.traceId128 = traceId128;
 	}
+
+	public Propagation getPropagation() {
+		return this.propagation;
+	}
+
+	public void setPropagation(Propagation propagation) {
+		this.propagation = propagation;
+	}
+
+	public static class Propagation {
+
+		/**
+		 * When true, the trace context gets injected into HTTP requests and messages
+		 * in a single "b3" header (traceId-spanId-sampled-parentSpanId) instead of one
+		 * header per field. The span name and process id are not propagated then.
+		 * Both formats are always accepted on extraction.
+		 */
+		private boolean singleHeader = false;
+
+		public boolean isSingleHeader() {
+			return this.singleHeader;
+		}
+
+		public void setSingleHeader(boolean singleHeader) {
+			this.singleHeader = singleHeader;
+		}
+	}
 }
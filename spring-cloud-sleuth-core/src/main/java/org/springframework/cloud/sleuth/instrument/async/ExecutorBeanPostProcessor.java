@@ -18,6 +18,9 @@ package org.springframework.cloud.sleuth.instrument.async;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 
 import org.aopalliance.intercept.MethodInterceptor;
@@ -28,6 +31,7 @@ import org.springframework.aop.framework.AopConfigException;
 import org.springframework.aop.framework.ProxyFactoryBean;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.ReflectionUtils;
@@ -35,7 +39,9 @@ import org.springframework.util.ReflectionUtils;
 /**
  * Bean post processor that wraps a call to an {@link Executor} either in a
  * JDK or CGLIB proxy. Depending on whether the implementation has a final
- * method or is final.
+ * method or is final. Executors whose bean names are listed in
+ * {@link SleuthAsyncProperties#getPropagationOnlyExecutors()} only pass the
+ * current span to the tasks.
  *
  * @author Marcin Grzejszczak
  * @since 1.1.4
@@ -66,13 +72,13 @@ class ExecutorBeanPostProcessor implements BeanPostProcessor {
 			boolean cglibProxy = !methodFinal && !classFinal;
 			Executor executor = (Executor) bean;
 			try {
-				return createProxy(bean, cglibProxy, executor);
+				return createProxy(bean, cglibProxy, executor, beanName);
 			} catch (AopConfigException e) {
 				if (cglibProxy) {
 					if (log.isDebugEnabled()) {
 						log.debug("Exception occurred while trying to create a proxy, falling back to JDK proxy", e);
 					}
-					return createProxy(bean, false, executor);
+					return createProxy(bean, false, executor, beanName);
 				}
 				throw e;
 			}
@@ -80,61 +86,183 @@ class ExecutorBeanPostProcessor implements BeanPostProcessor {
 			boolean classFinal = Modifier.isFinal(bean.getClass().getModifiers());
 			boolean cglibProxy = !classFinal;
 			ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) bean;
-			return createThreadPoolTaskExecutorProxy(bean, cglibProxy, executor);
+			return createThreadPoolTaskExecutorProxy(bean, cglibProxy, executor, beanName);
 		}
 		return bean;
 	}
 
 	Object createThreadPoolTaskExecutorProxy(Object bean, boolean cglibProxy,
-			ThreadPoolTaskExecutor executor) {
+			ThreadPoolTaskExecutor executor, String beanName) {
 		ProxyFactoryBean factory = new ProxyFactoryBean();
 		factory.setProxyTargetClass(cglibProxy);
-		factory.addAdvice(new ExecutorMethodInterceptor<ThreadPoolTaskExecutor>(executor, this.beanFactory) {
-			@Override Executor executor(BeanFactory beanFactory, ThreadPoolTaskExecutor executor) {
-				return new LazyTraceThreadPoolTaskExecutor(beanFactory, executor);
-			}
-		});
+		factory.addAdvice(new ThreadPoolTaskExecutorMethodInterceptor(executor,
+				this.beanFactory, beanName));
 		factory.setTarget(bean);
 		return factory.getObject();
 	}
 
-	@SuppressWarnings("unchecked")
-	Object createProxy(Object bean, boolean cglibProxy, Executor executor) {
+	Object createProxy(Object bean, boolean cglibProxy, Executor executor,
+			String beanName) {
 		ProxyFactoryBean factory = new ProxyFactoryBean();
 		factory.setProxyTargetClass(cglibProxy);
-		factory.addAdvice(new ExecutorMethodInterceptor(executor, this.beanFactory));
+		factory.addAdvice(new ExecutorMethodInterceptor<>(executor, this.beanFactory,
+				beanName));
 		factory.setTarget(bean);
 		return factory.getObject();
 	}
 }
 
+/**
+ * Passes the task submitting methods of the proxied {@link Executor} to a trace
+ * representation of it. The trace executor is created once per bean and the
+ * invoked methods are resolved once, so that tasks are dispatched without any
+ * reflection. All the other methods are invoked on the target.
+ */
 class ExecutorMethodInterceptor<T extends Executor> implements MethodInterceptor {
 
+	enum TracedMethod {
+		EXECUTE, EXECUTE_WITH_TIMEOUT, SUBMIT_RUNNABLE, SUBMIT_CALLABLE,
+		SUBMIT_LISTENABLE_RUNNABLE, SUBMIT_LISTENABLE_CALLABLE, NONE
+	}
+
 	private final T delegate;
 	private final BeanFactory beanFactory;
+	private final String beanName;
+	private final ConcurrentMap<Method, TracedMethod> tracedMethods = new ConcurrentHashMap<>();
+	private volatile T traceExecutor;
 
 	ExecutorMethodInterceptor(T delegate, BeanFactory beanFactory) {
+		this(delegate, beanFactory, null);
+	}
+
+	ExecutorMethodInterceptor(T delegate, BeanFactory beanFactory, String beanName) {
 		this.delegate = delegate;
 		this.beanFactory = beanFactory;
+		this.beanName = beanName;
 	}
 
 	@Override public Object invoke(MethodInvocation invocation)
 			throws Throwable {
-		Executor executor = executor(this.beanFactory, this.delegate);
-		Method methodOnTracedBean = getMethod(invocation, executor);
-		if (methodOnTracedBean != null) {
-			return methodOnTracedBean.invoke(executor, invocation.getArguments());
+		TracedMethod tracedMethod = tracedMethod(invocation.getMethod());
+		if (tracedMethod == TracedMethod.NONE) {
+			return invocation.proceed();
+		}
+		return invoke(traceExecutor(), tracedMethod, invocation.getArguments());
+	}
+
+	private TracedMethod tracedMethod(Method method) {
+		TracedMethod tracedMethod = this.tracedMethods.get(method);
+		if (tracedMethod == null) {
+			tracedMethod = resolve(method.getName(), method.getParameterTypes());
+			this.tracedMethods.put(method, tracedMethod);
+		}
+		return tracedMethod;
+	}
+
+	private T traceExecutor() {
+		T traceExecutor = this.traceExecutor;
+		if (traceExecutor == null) {
+			traceExecutor = executor(this.beanFactory, this.delegate, propagationOnly());
+			this.traceExecutor = traceExecutor;
+		}
+		return traceExecutor;
+	}
+
+	/**
+	 * Whether the executor bean should only pass the current span to the tasks
+	 */
+	private boolean propagationOnly() {
+		if (this.beanName == null) {
+			return false;
+		}
+		try {
+			SleuthAsyncProperties properties = this.beanFactory
+					.getBean(SleuthAsyncProperties.class);
+			return properties != null
+					&& properties.getPropagationOnlyExecutors().contains(this.beanName);
+		}
+		catch (NoSuchBeanDefinitionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Which of the methods of the trace executor should be called instead of the
+	 * given one
+	 */
+	TracedMethod resolve(String name, Class<?>[] parameterTypes) {
+		if ("execute".equals(name) && parameterTypes.length == 1
+				&& parameterTypes[0] == Runnable.class) {
+			return TracedMethod.EXECUTE;
+		}
+		return TracedMethod.NONE;
+	}
+
+	Object invoke(T traceExecutor, TracedMethod tracedMethod, Object[] arguments) {
+		traceExecutor.execute((Runnable) arguments[0]);
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	T executor(BeanFactory beanFactory, T executor, boolean propagationOnly) {
+		return (T) new LazyTraceExecutor(beanFactory, executor, propagationOnly);
+	}
+}
+
+class ThreadPoolTaskExecutorMethodInterceptor
+		extends ExecutorMethodInterceptor<ThreadPoolTaskExecutor> {
+
+	ThreadPoolTaskExecutorMethodInterceptor(ThreadPoolTaskExecutor delegate,
+			BeanFactory beanFactory) {
+		super(delegate, beanFactory);
+	}
+
+	ThreadPoolTaskExecutorMethodInterceptor(ThreadPoolTaskExecutor delegate,
+			BeanFactory beanFactory, String beanName) {
+		super(delegate, beanFactory, beanName);
+	}
+
+	@Override TracedMethod resolve(String name, Class<?>[] parameterTypes) {
+		if (parameterTypes.length == 2 && "execute".equals(name)
+				&& parameterTypes[0] == Runnable.class && parameterTypes[1] == long.class) {
+			return TracedMethod.EXECUTE_WITH_TIMEOUT;
+		}
+		if (parameterTypes.length != 1) {
+			return super.resolve(name, parameterTypes);
+		}
+		boolean runnable = parameterTypes[0] == Runnable.class;
+		boolean callable = parameterTypes[0] == Callable.class;
+		if ("submit".equals(name) && (runnable || callable)) {
+			return runnable ? TracedMethod.SUBMIT_RUNNABLE : TracedMethod.SUBMIT_CALLABLE;
 		}
-		return invocation.proceed();
+		if ("submitListenable".equals(name) && (runnable || callable)) {
+			return runnable ? TracedMethod.SUBMIT_LISTENABLE_RUNNABLE :
+					TracedMethod.SUBMIT_LISTENABLE_CALLABLE;
+		}
+		return super.resolve(name, parameterTypes);
 	}
 
-	private Method getMethod(MethodInvocation invocation, Object object) {
-		Method method = invocation.getMethod();
-		return ReflectionUtils
-				.findMethod(object.getClass(), method.getName(), method.getParameterTypes());
+	@Override Object invoke(ThreadPoolTaskExecutor traceExecutor,
+			TracedMethod tracedMethod, Object[] arguments) {
+		switch (tracedMethod) {
+		case EXECUTE_WITH_TIMEOUT:
+			traceExecutor.execute((Runnable) arguments[0], (Long) arguments[1]);
+			return null;
+		case SUBMIT_RUNNABLE:
+			return traceExecutor.submit((Runnable) arguments[0]);
+		case SUBMIT_CALLABLE:
+			return traceExecutor.submit((Callable<?>) arguments[0]);
+		case SUBMIT_LISTENABLE_RUNNABLE:
+			return traceExecutor.submitListenable((Runnable) arguments[0]);
+		case SUBMIT_LISTENABLE_CALLABLE:
+			return traceExecutor.submitListenable((Callable<?>) arguments[0]);
+		default:
+			return super.invoke(traceExecutor, tracedMethod, arguments);
+		}
 	}
 
-	Executor executor(BeanFactory beanFactory, T executor) {
-		return new LazyTraceExecutor(beanFactory, executor);
+	@Override ThreadPoolTaskExecutor executor(BeanFactory beanFactory,
+			ThreadPoolTaskExecutor executor, boolean propagationOnly) {
+		return new LazyTraceThreadPoolTaskExecutor(beanFactory, executor, propagationOnly);
 	}
 }
@@ -31,7 +31,8 @@ import org.springframework.cloud.sleuth.Tracer;
 /**
  * {@link Executor} that wraps {@link Runnable} in a
  * {@link org.springframework.cloud.sleuth.TraceRunnable TraceRunnable} that sets a
- * local component tag on the span.
+ * local component tag on the span. In the propagation only mode the current span is
+ * just passed to the task in a {@link SpanPropagatingRunnable}.
  *
  * @author Dave Syer
  * @since 1.0.0
@@ -45,10 +46,22 @@ public class LazyTraceExecutor implements Executor {
 	private final Executor delegate;
 	private TraceKeys traceKeys;
 	private SpanNamer spanNamer;
+	private final boolean propagationOnly;
 
 	public LazyTraceExecutor(BeanFactory beanFactory, Executor delegate) {
+		this(beanFactory, delegate, false);
+	}
+
+	/**
+	 * @param propagationOnly whether the current span should only be passed to the
+	 * tasks, without creating a span per task
+	 * @since 1.3.0
+	 */
+	public LazyTraceExecutor(BeanFactory beanFactory, Executor delegate,
+			boolean propagationOnly) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
+		this.propagationOnly = propagationOnly;
 	}
 
 	@Override
@@ -62,6 +75,10 @@ public class LazyTraceExecutor implements Executor {
 				return;
 			}
 		}
+		if (this.propagationOnly) {
+			this.delegate.execute(new SpanPropagatingRunnable(this.tracer, command));
+			return;
+		}
 		this.delegate.execute(new SpanContinuingTraceRunnable(this.tracer, traceKeys(), spanNamer(), command));
 	}
 
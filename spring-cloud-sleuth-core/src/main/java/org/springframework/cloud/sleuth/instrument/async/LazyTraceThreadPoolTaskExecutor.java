@@ -48,41 +48,67 @@ public class LazyTraceThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 	private final ThreadPoolTaskExecutor delegate;
 	private TraceKeys traceKeys;
 	private SpanNamer spanNamer;
+	private final boolean propagationOnly;
 
 	public LazyTraceThreadPoolTaskExecutor(BeanFactory beanFactory,
 			ThreadPoolTaskExecutor delegate) {
+		this(beanFactory, delegate, false);
+	}
+
+	/**
+	 * @param propagationOnly whether the current span should only be passed to the
+	 * tasks, without creating a span per task
+	 * @since 1.3.0
+	 */
+	public LazyTraceThreadPoolTaskExecutor(BeanFactory beanFactory,
+			ThreadPoolTaskExecutor delegate, boolean propagationOnly) {
 		this.beanFactory = beanFactory;
 		this.delegate = delegate;
+		this.propagationOnly = propagationOnly;
 	}
 
 	@Override
 	public void execute(Runnable task) {
-		this.delegate.execute(new SpanContinuingTraceRunnable(tracer(), traceKeys(), spanNamer(), task));
+		this.delegate.execute(traceRunnable(task));
 	}
 
 	@Override
 	public void execute(Runnable task, long startTimeout) {
-		this.delegate.execute(new SpanContinuingTraceRunnable(tracer(), traceKeys(), spanNamer(), task), startTimeout);
+		this.delegate.execute(traceRunnable(task), startTimeout);
 	}
 
 	@Override
 	public Future<?> submit(Runnable task) {
-		return this.delegate.submit(new SpanContinuingTraceRunnable(tracer(), traceKeys(), spanNamer(), task));
+		return this.delegate.submit(traceRunnable(task));
 	}
 
 	@Override
 	public <T> Future<T> submit(Callable<T> task) {
-		return this.delegate.submit(new SpanContinuingTraceCallable<>(tracer(), traceKeys(), spanNamer(), task));
+		return this.delegate.submit(traceCallable(task));
 	}
 
 	@Override
 	public ListenableFuture<?> submitListenable(Runnable task) {
-		return this.delegate.submitListenable(new SpanContinuingTraceRunnable(tracer(), traceKeys(), spanNamer(), task));
+		return this.delegate.submitListenable(traceRunnable(task));
 	}
 
 	@Override
 	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
-		return this.delegate.submitListenable(new SpanContinuingTraceCallable<>(tracer(), traceKeys(), spanNamer(), task));
+		return this.delegate.submitListenable(traceCallable(task));
+	}
+
+	private Runnable traceRunnable(Runnable task) {
+		if (this.propagationOnly) {
+			return new SpanPropagatingRunnable(tracer(), task);
+		}
+		return new SpanContinuingTraceRunnable(tracer(), traceKeys(), spanNamer(), task);
+	}
+
+	private <T> Callable<T> traceCallable(Callable<T> task) {
+		if (this.propagationOnly) {
+			return new SpanPropagatingCallable<>(tracer(), task);
+		}
+		return new SpanContinuingTraceCallable<>(tracer(), traceKeys(), spanNamer(), task);
 	}
 
 	@Override
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for tracing of async related components
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+@ConfigurationProperties("spring.sleuth.async")
+public class SleuthAsyncProperties {
+
+	/**
+	 * Names of the executor beans that should only pass the current span to the tasks.
+	 * No span gets created and reported for the tasks submitted to such executors.
+	 */
+	private List<String> propagationOnlyExecutors = new ArrayList<>();
+
+	public List<String> getPropagationOnlyExecutors() {
+		return this.propagationOnlyExecutors;
+	}
+
+	public void setPropagationOnlyExecutors(List<String> propagationOnlyExecutors) {
+		this.propagationOnlyExecutors = propagationOnlyExecutors;
+	}
+}
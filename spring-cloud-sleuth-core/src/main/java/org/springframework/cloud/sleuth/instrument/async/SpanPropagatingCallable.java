@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cloud.sleuth.ScopedTracer;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanScope;
+import org.springframework.cloud.sleuth.Tracer;
+
+/**
+ * Callable that only passes the current span to the thread running the task, without
+ * creating a new span.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ * @see SpanPropagatingRunnable
+ */
+public class SpanPropagatingCallable<V> implements Callable<V> {
+
+	private final Tracer tracer;
+	private final Callable<V> delegate;
+	private final Span parent;
+
+	public SpanPropagatingCallable(Tracer tracer, Callable<V> delegate) {
+		this.tracer = tracer;
+		this.delegate = delegate;
+		this.parent = tracer.getCurrentSpan();
+	}
+
+	@Override
+	public V call() throws Exception {
+		if (this.parent == null || this.parent.equals(this.tracer.getCurrentSpan())) {
+			return this.delegate.call();
+		}
+		if (this.tracer instanceof ScopedTracer) {
+			try (SpanScope scope = ((ScopedTracer) this.tracer).withSpanInScope(this.parent)) {
+				return this.delegate.call();
+			}
+		}
+		Span span = this.tracer.continueSpan(this.parent);
+		try {
+			return this.delegate.call();
+		}
+		finally {
+			this.tracer.detach(span);
+		}
+	}
+
+	public Callable<V> getDelegate() {
+		return this.delegate;
+	}
+
+	public Span getParent() {
+		return this.parent;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.async;
+
+import org.springframework.cloud.sleuth.ScopedTracer;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanScope;
+import org.springframework.cloud.sleuth.Tracer;
+
+/**
+ * Runnable that only passes the current span to the thread running the task. Contrary
+ * to {@link LocalComponentTraceRunnable} no span gets created nor reported - the span
+ * is continued before the task and detached after it. When the task runs in the thread
+ * that submitted it (e.g. a caller-runs or a direct executor) the span is already current
+ * and the thread context is left untouched.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public class SpanPropagatingRunnable implements Runnable {
+
+	private final Tracer tracer;
+	private final Runnable delegate;
+	private final Span parent;
+
+	public SpanPropagatingRunnable(Tracer tracer, Runnable delegate) {
+		this.tracer = tracer;
+		this.delegate = delegate;
+		this.parent = tracer.getCurrentSpan();
+	}
+
+	@Override
+	public void run() {
+		if (this.parent == null || this.parent.equals(this.tracer.getCurrentSpan())) {
+			this.delegate.run();
+			return;
+		}
+		if (this.tracer instanceof ScopedTracer) {
+			try (SpanScope scope = ((ScopedTracer) this.tracer).withSpanInScope(this.parent)) {
+				this.delegate.run();
+			}
+			return;
+		}
+		Span span = this.tracer.continueSpan(this.parent);
+		try {
+			this.delegate.run();
+		}
+		finally {
+			this.tracer.detach(span);
+		}
+	}
+
+	public Runnable getDelegate() {
+		return this.delegate;
+	}
+
+	public Span getParent() {
+		return this.parent;
+	}
+}
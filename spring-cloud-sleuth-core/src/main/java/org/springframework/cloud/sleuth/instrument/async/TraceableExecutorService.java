@@ -31,7 +31,9 @@ import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
 
 /**
- * A decorator class for {@link ExecutorService} to support tracing in Executors
+ * A decorator class for {@link ExecutorService} to support tracing in Executors. In the
+ * propagation only mode the current span is just passed to the tasks - no span gets
+ * created and reported per task.
  *
  * @author Gaurav Rai Mazra
  * @since 1.0.0
@@ -43,6 +45,7 @@ public class TraceableExecutorService implements ExecutorService {
 	TraceKeys traceKeys;
 	SpanNamer spanNamer;
 	BeanFactory beanFactory;
+	final boolean propagationOnly;
 
 	public TraceableExecutorService(final ExecutorService delegate, final Tracer tracer,
 			TraceKeys traceKeys, SpanNamer spanNamer) {
@@ -50,24 +53,46 @@ public class TraceableExecutorService implements ExecutorService {
 	}
 
 	public TraceableExecutorService(BeanFactory beanFactory, final ExecutorService delegate) {
+		this(beanFactory, delegate, false);
+	}
+
+	/**
+	 * @param propagationOnly whether the current span should only be passed to the
+	 * tasks, without creating a span per task
+	 * @since 1.3.0
+	 */
+	public TraceableExecutorService(BeanFactory beanFactory, final ExecutorService delegate,
+			boolean propagationOnly) {
 		this.delegate = delegate;
 		this.beanFactory = beanFactory;
 		this.spanName = null;
+		this.propagationOnly = propagationOnly;
 	}
 
 	public TraceableExecutorService(final ExecutorService delegate, final Tracer tracer,
 			TraceKeys traceKeys, SpanNamer spanNamer, String spanName) {
+		this(delegate, tracer, traceKeys, spanNamer, spanName, false);
+	}
+
+	/**
+	 * @param propagationOnly whether the current span should only be passed to the
+	 * tasks, without creating a span per task
+	 * @since 1.3.0
+	 */
+	public TraceableExecutorService(final ExecutorService delegate, final Tracer tracer,
+			TraceKeys traceKeys, SpanNamer spanNamer, String spanName,
+			boolean propagationOnly) {
 		this.delegate = delegate;
 		this.tracer = tracer;
 		this.spanName = spanName;
 		this.traceKeys = traceKeys;
 		this.spanNamer = spanNamer;
+		this.propagationOnly = propagationOnly;
 	}
 
 	@Override
 	public void execute(Runnable command) {
-		final Runnable r = new LocalComponentTraceRunnable(tracer(), traceKeys(),
-				spanNamer(), command, this.spanName);
+		final Runnable r = localComponentRunnable(command);
 		this.delegate.execute(r);
 	}
 
@@ -98,22 +123,19 @@ public class TraceableExecutorService implements ExecutorService {
 
 	@Override
 	public <T> Future<T> submit(Callable<T> task) {
-		Callable<T> c = new SpanContinuingTraceCallable<>(tracer(), traceKeys(),
-				spanNamer(), this.spanName, task);
+		Callable<T> c = spanContinuingCallable(task);
 		return this.delegate.submit(c);
 	}
 
 	@Override
 	public <T> Future<T> submit(Runnable task, T result) {
-		Runnable r = new SpanContinuingTraceRunnable(tracer(), traceKeys(),
-				spanNamer(), task, this.spanName);
+		Runnable r = spanContinuingRunnable(task);
 		return this.delegate.submit(r, result);
 	}
 
 	@Override
 	public Future<?> submit(Runnable task) {
-		Runnable r = new LocalComponentTraceRunnable(tracer(), traceKeys(),
-				spanNamer(), task, this.spanName);
+		Runnable r = localComponentRunnable(task);
 		return this.delegate.submit(r);
 	}
 
@@ -143,13 +165,36 @@ public class TraceableExecutorService implements ExecutorService {
 		List<Callable<T>> ts = new ArrayList<>();
 		for (Callable<T> task : tasks) {
 			if (!(task instanceof SpanContinuingTraceCallable)) {
-				ts.add(new SpanContinuingTraceCallable<>(tracer(), traceKeys(),
-						spanNamer(), this.spanName, task));
+				ts.add(spanContinuingCallable(task));
 			}
 		}
 		return ts;
 	}
 
+	Runnable localComponentRunnable(Runnable task) {
+		if (this.propagationOnly) {
+			return new SpanPropagatingRunnable(tracer(), task);
+		}
+		return new LocalComponentTraceRunnable(tracer(), traceKeys(), spanNamer(), task,
+				this.spanName);
+	}
+
+	Runnable spanContinuingRunnable(Runnable task) {
+		if (this.propagationOnly) {
+			return new SpanPropagatingRunnable(tracer(), task);
+		}
+		return new SpanContinuingTraceRunnable(tracer(), traceKeys(), spanNamer(), task,
+				this.spanName);
+	}
+
+	<T> Callable<T> spanContinuingCallable(Callable<T> task) {
+		if (this.propagationOnly) {
+			return new SpanPropagatingCallable<>(tracer(), task);
+		}
+		return new SpanContinuingTraceCallable<>(tracer(), traceKeys(), spanNamer(),
+				this.spanName, task);
+	}
+
 	Tracer tracer() {
 		if (this.tracer == null && this.beanFactory != null) {
 			this.tracer = this.beanFactory.getBean(Tracer.class);
@@ -38,31 +38,42 @@ public class TraceableScheduledExecutorService extends TraceableExecutorService
 		super(delegate, tracer, traceKeys, spanNamer);
 	}
 
+	/**
+	 * @param propagationOnly whether the current span should only be passed to the
+	 * tasks, without creating a span per task
+	 * @since 1.3.0
+	 */
+	public TraceableScheduledExecutorService(ScheduledExecutorService delegate,
+			Tracer tracer, TraceKeys traceKeys, SpanNamer spanNamer,
+			boolean propagationOnly) {
+		super(delegate, tracer, traceKeys, spanNamer, null, propagationOnly);
+	}
+
 	private ScheduledExecutorService getScheduledExecutorService() {
 		return (ScheduledExecutorService) this.delegate;
 	}
 
 	@Override
 	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
-		Runnable r = new SpanContinuingTraceRunnable(this.tracer, this.traceKeys, this.spanNamer, command);
+		Runnable r = spanContinuingRunnable(command);
 		return getScheduledExecutorService().schedule(r, delay, unit);
 	}
 
 	@Override
 	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
-		Callable<V> c = new SpanContinuingTraceCallable<>(this.tracer, this.traceKeys, this.spanNamer,  callable);
+		Callable<V> c = spanContinuingCallable(callable);
 		return getScheduledExecutorService().schedule(c, delay, unit);
 	}
 
 	@Override
 	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
-		Runnable r = new SpanContinuingTraceRunnable(this.tracer, this.traceKeys, this.spanNamer,  command);
+		Runnable r = spanContinuingRunnable(command);
 		return getScheduledExecutorService().scheduleAtFixedRate(r, initialDelay, period, unit);
 	}
 
 	@Override
 	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
-		Runnable r = new SpanContinuingTraceRunnable(this.tracer, this.traceKeys, this.spanNamer,  command);
+		Runnable r = spanContinuingRunnable(command);
 		return getScheduledExecutorService().scheduleWithFixedDelay(r, initialDelay, delay, unit);
 	}
 
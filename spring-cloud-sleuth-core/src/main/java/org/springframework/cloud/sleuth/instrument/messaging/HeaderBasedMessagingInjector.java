@@ -1,12 +1,12 @@
 package org.springframework.cloud.sleuth.instrument.messaging;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Map;
 
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanTextMap;
 import org.springframework.cloud.sleuth.TraceKeys;
-import org.springframework.cloud.sleuth.util.TextMapUtil;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 import org.springframework.util.StringUtils;
 
 /**
@@ -18,71 +18,101 @@ import org.springframework.util.StringUtils;
 public class HeaderBasedMessagingInjector implements MessagingSpanTextMapInjector {
 
 	private final TraceKeys traceKeys;
+	private final boolean singleHeader;
 
 	public HeaderBasedMessagingInjector(TraceKeys traceKeys) {
+		this(traceKeys, false);
+	}
+
+	/**
+	 * @param singleHeader whether the trace context should be injected in a single
+	 * {@code b3} header. The span name and the process id are not propagated then.
+	 * @since 1.3.0
+	 */
+	public HeaderBasedMessagingInjector(TraceKeys traceKeys, boolean singleHeader) {
 		this.traceKeys = traceKeys;
+		this.singleHeader = singleHeader;
 	}
 
 	@Override
 	public void inject(Span span, SpanTextMap carrier) {
-		Map<String, String> map = TextMapUtil.asMap(carrier);
+		B3HeaderCodec.B3Headers map = TraceMessageHeaders.CODEC.read(carrier);
 		if (span == null) {
-			if (!isSampled(map, TraceMessageHeaders.SAMPLED_NAME)) {
-				carrier.put(TraceMessageHeaders.SAMPLED_NAME, Span.SPAN_NOT_SAMPLED);
+			if (!map.isSampled()) {
+				carrier.put(this.singleHeader ? TraceMessageHeaders.B3_NAME :
+						TraceMessageHeaders.SAMPLED_NAME, Span.SPAN_NOT_SAMPLED);
 				return;
 			}
 			return;
 		}
-		addHeaders(map, span, carrier);
+		if (this.singleHeader) {
+			addSingleHeader(map, span, carrier);
+		}
+		else {
+			addHeaders(map, span, carrier);
+		}
+		for (Map.Entry<String, String> entry : span.baggageItems()) {
+			carrier.put(prefixedKey(entry.getKey()), entry.getValue());
+		}
 	}
 
-	private boolean isSampled(Map<String, String> initialMessage, String sampledHeaderName) {
-		return Span.SPAN_SAMPLED.equals(initialMessage.get(sampledHeaderName));
+	private void addSingleHeader(B3HeaderCodec.B3Headers map, Span span, SpanTextMap textMap) {
+		if (span.isExportable()) {
+			addAnnotations(this.traceKeys, textMap, span);
+		}
+		addHeader(map.getTraceId(), textMap, TraceMessageHeaders.B3_NAME,
+				B3HeaderCodec.singleHeaderValue(span));
 	}
 
-	private void addHeaders(Map<String, String> map, Span span, SpanTextMap textMap) {
-		addHeader(map, textMap, TraceMessageHeaders.TRACE_ID_NAME, span.traceIdString());
-		addHeader(map, textMap, TraceMessageHeaders.SPAN_ID_NAME, Span.idToHex(span.getSpanId()));
+	private void addHeaders(B3HeaderCodec.B3Headers map, Span span, SpanTextMap textMap) {
+		addHeader(map.getTraceId(), textMap, TraceMessageHeaders.TRACE_ID_NAME, span.traceIdString());
+		addHeader(map.getSpanId(), textMap, TraceMessageHeaders.SPAN_ID_NAME, Span.idToHex(span.getSpanId()));
 		if (span.isExportable()) {
 			addAnnotations(this.traceKeys, textMap, span);
-			Long parentId = getFirst(span.getParents());
-			if (parentId != null) {
-				addHeader(map, textMap, TraceMessageHeaders.PARENT_ID_NAME, Span.idToHex(parentId));
+			if (span.hasParent()) {
+				addHeader(map.getParentId(), textMap, TraceMessageHeaders.PARENT_ID_NAME, Span.idToHex(span.getParentId()));
 			}
-			addHeader(map, textMap, TraceMessageHeaders.SPAN_NAME_NAME, span.getName());
-			addHeader(map, textMap, TraceMessageHeaders.PROCESS_ID_NAME, span.getProcessId());
-			addHeader(map, textMap, TraceMessageHeaders.SAMPLED_NAME, Span.SPAN_SAMPLED);
+			addHeader(map.getSpanName(), textMap, TraceMessageHeaders.SPAN_NAME_NAME, span.getName());
+			addHeader(map.getProcessId(), textMap, TraceMessageHeaders.PROCESS_ID_NAME, span.getProcessId());
+			addHeader(map.getSampled(), textMap, TraceMessageHeaders.SAMPLED_NAME, Span.SPAN_SAMPLED);
 		}
 		else {
-			addHeader(map, textMap, TraceMessageHeaders.SAMPLED_NAME, Span.SPAN_NOT_SAMPLED);
-		}
-		for (Map.Entry<String, String> entry : span.baggageItems()) {
-			textMap.put(prefixedKey(entry.getKey()), entry.getValue());
+			addHeader(map.getSampled(), textMap, TraceMessageHeaders.SAMPLED_NAME, Span.SPAN_NOT_SAMPLED);
 		}
 	}
 
 	private void addAnnotations(TraceKeys traceKeys, SpanTextMap spanTextMap, Span span) {
-		Map<String, String> map = TextMapUtil.asMap(spanTextMap);
-		for (String name : traceKeys.getMessage().getHeaders()) {
-			if (map.containsKey(name)) {
-				String key = traceKeys.getMessage().getPrefix() + name.toLowerCase();
-				Object value = map.get(name);
-				if (value == null) {
-					value = "null";
+		Collection<String> headers = traceKeys.getMessage().getHeaders();
+		String payloadType = traceKeys.getMessage().getPayload().getType();
+		String payloadSize = traceKeys.getMessage().getPayload().getSize();
+		boolean payloadTypePresent = false;
+		String payloadTypeValue = null;
+		String payloadSizeValue = null;
+		// single pass over the entries, matching only the configured header names
+		for (Map.Entry<String, String> entry : spanTextMap) {
+			String name = entry.getKey();
+			for (String header : headers) {
+				if (header.equalsIgnoreCase(name)) {
+					String key = traceKeys.getMessage().getPrefix() + header.toLowerCase();
+					String value = entry.getValue();
+					if (value == null) {
+						value = "null";
+					}
+					// TODO: better way to serialize?
+					tagIfEntryMissing(span, key, value);
 				}
-				// TODO: better way to serialize?
-				tagIfEntryMissing(span, key, value.toString());
+			}
+			if (payloadType.equalsIgnoreCase(name)) {
+				payloadTypePresent = true;
+				payloadTypeValue = entry.getValue();
+			}
+			else if (payloadSize.equalsIgnoreCase(name)) {
+				payloadSizeValue = entry.getValue();
 			}
 		}
-		addPayloadAnnotations(traceKeys, map, span);
-	}
-
-	private void addPayloadAnnotations(TraceKeys traceKeys, Map<String, String> map, Span span) {
-		if (map.containsKey(traceKeys.getMessage().getPayload().getType())) {
-			tagIfEntryMissing(span, traceKeys.getMessage().getPayload().getType(),
-					map.get(traceKeys.getMessage().getPayload().getType()));
-			tagIfEntryMissing(span, traceKeys.getMessage().getPayload().getSize(),
-					map.get(traceKeys.getMessage().getPayload().getSize()));
+		if (payloadTypePresent) {
+			tagIfEntryMissing(span, payloadType, payloadTypeValue);
+			tagIfEntryMissing(span, payloadSize, payloadSizeValue);
 		}
 	}
 
@@ -92,16 +122,12 @@ public class HeaderBasedMessagingInjector implements MessagingSpanTextMapInjecto
 		}
 	}
 
-	private void addHeader(Map<String, String> map, SpanTextMap textMap, String name, String value) {
-		if (StringUtils.hasText(value) && !map.containsKey(name)) {
+	private void addHeader(String presentValue, SpanTextMap textMap, String name, String value) {
+		if (StringUtils.hasText(value) && presentValue == null) {
 			textMap.put(name, value);
 		}
 	}
 
-	private Long getFirst(List<Long> parents) {
-		return parents.isEmpty() ? null : parents.get(0);
-	}
-
 	private String prefixedKey(String key) {
 		if (key.startsWith(Span.SPAN_BAGGAGE_HEADER_PREFIX + TraceMessageHeaders.HEADER_DELIMITER )) {
 			return key;
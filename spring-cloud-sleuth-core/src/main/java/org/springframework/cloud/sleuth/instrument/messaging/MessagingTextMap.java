@@ -16,55 +16,129 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.springframework.cloud.sleuth.SpanTextMap;
 import org.springframework.messaging.Message;
-import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.messaging.support.NativeMessageHeaderAccessor;
 import org.springframework.util.StringUtils;
 
 /**
- * A {@link SpanTextMap} abstraction over {@link MessageBuilder}
+ * A {@link SpanTextMap} abstraction over a {@link Message}. The put headers are
+ * collected and written to the message in one step via {@link #applyTo(Message)}, so
+ * that the message headers get copied once instead of once per header.
  *
  * @author Marcin Grzejszczak
  * @since 1.2.0
  */
 class MessagingTextMap implements SpanTextMap {
 
-	private final MessageBuilder delegate;
+	private final Message<?> delegate;
+	private Map<String, Object> headers;
 
-	public MessagingTextMap(MessageBuilder delegate) {
+	MessagingTextMap(Message<?> delegate) {
 		this.delegate = delegate;
 	}
 
 	@Override
 	public Iterator<Map.Entry<String, String>> iterator() {
-		Map<String, String> map = new HashMap<>();
-		for (Map.Entry<String, Object> entry : this.delegate.build().getHeaders()
-				.entrySet()) {
-			map.put(entry.getKey(), String.valueOf(entry.getValue()));
-		}
-		return map.entrySet().iterator();
+		final Iterator<Map.Entry<String, Object>> original = this.delegate.getHeaders()
+				.entrySet().iterator();
+		final Iterator<Map.Entry<String, Object>> added = this.headers == null ?
+				null : this.headers.entrySet().iterator();
+		return new Iterator<Map.Entry<String, String>>() {
+			private Map.Entry<String, String> next;
+
+			@Override public boolean hasNext() {
+				if (this.next == null) {
+					this.next = advance();
+				}
+				return this.next != null;
+			}
+
+			@Override public Map.Entry<String, String> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Map.Entry<String, String> entry = this.next;
+				this.next = null;
+				return entry;
+			}
+
+			@Override public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+
+			private Map.Entry<String, String> advance() {
+				if (original.hasNext()) {
+					Map.Entry<String, Object> entry = original.next();
+					String key = entry.getKey();
+					boolean overridden = added != null && headers.containsKey(key);
+					return entry(key, overridden ? headers.get(key) : entry.getValue());
+				}
+				while (added != null && added.hasNext()) {
+					Map.Entry<String, Object> entry = added.next();
+					if (!delegate.getHeaders().containsKey(entry.getKey())) {
+						return entry(entry.getKey(), entry.getValue());
+					}
+				}
+				return null;
+			}
+		};
+	}
+
+	private static Map.Entry<String, String> entry(String key, Object value) {
+		return new AbstractMap.SimpleEntry<>(key, String.valueOf(value));
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public void put(String key, String value) {
 		if (!StringUtils.hasText(value)) {
 			return;
 		}
-		Message<?> initialMessage = this.delegate.build();
-		MessageHeaderAccessor accessor = MessageHeaderAccessor
-				.getMutableAccessor(initialMessage);
-		accessor.setHeader(key, value);
-		if (accessor instanceof NativeMessageHeaderAccessor) {
-			NativeMessageHeaderAccessor nativeAccessor = (NativeMessageHeaderAccessor) accessor;
-			nativeAccessor.setNativeHeader(key, value);
+		setHeader(key, value);
+	}
+
+	/**
+	 * Collects a non {@link String} header, which is never set as a native one
+	 */
+	void setHeader(String key, Object value) {
+		if (this.headers == null) {
+			this.headers = new LinkedHashMap<>();
+		}
+		this.headers.put(key, value);
+	}
+
+	/**
+	 * Returns a message with the payload of the {@code target} and the headers of the
+	 * wrapped message together with the collected ones. The headers are copied once,
+	 * the {@code target} is returned if there is nothing to add to it.
+	 */
+	Message<?> applyTo(Message<?> target) {
+		if (this.headers == null && target == this.delegate) {
+			return target;
+		}
+		MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(target);
+		if (target != this.delegate) {
+			accessor.copyHeaders(this.delegate.getHeaders());
+		}
+		if (this.headers != null) {
+			NativeMessageHeaderAccessor nativeAccessor =
+					accessor instanceof NativeMessageHeaderAccessor ?
+							(NativeMessageHeaderAccessor) accessor : null;
+			for (Map.Entry<String, Object> entry : this.headers.entrySet()) {
+				accessor.setHeader(entry.getKey(), entry.getValue());
+				if (nativeAccessor != null && entry.getValue() instanceof String) {
+					nativeAccessor.setNativeHeader(entry.getKey(), (String) entry.getValue());
+				}
+			}
 		}
-		this.delegate.copyHeaders(accessor.toMessageHeaders());
+		return new GenericMessage<>(target.getPayload(), accessor.getMessageHeaders());
 	}
 }
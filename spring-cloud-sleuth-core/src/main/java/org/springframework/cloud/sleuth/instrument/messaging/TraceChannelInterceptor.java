@@ -21,13 +21,11 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.cloud.sleuth.Log;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.sampler.NeverSampler;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.MessageHandler;
-import org.springframework.messaging.support.GenericMessage;
-import org.springframework.messaging.support.MessageBuilder;
-import org.springframework.messaging.support.MessageHeaderAccessor;
 
 /**
  * A channel interceptor that automatically starts / continues / closes and detaches
@@ -90,9 +88,9 @@ public class TraceChannelInterceptor extends AbstractTraceChannelInterceptor {
 			log.debug("Processing message before sending it to the channel");
 		}
 		Message<?> retrievedMessage = getMessage(message);
-		MessageBuilder<?> messageBuilder = MessageBuilder.fromMessage(retrievedMessage);
+		MessagingTextMap carrier = new MessagingTextMap(retrievedMessage);
 		Span parentSpan = getTracer().isTracing() ? getTracer().getCurrentSpan()
-				: buildSpan(new MessagingTextMap(messageBuilder));
+				: buildSpan(carrier);
 		if (log.isDebugEnabled()) {
 			log.debug("Parent span is " + parentSpan);
 		}
@@ -111,12 +109,10 @@ public class TraceChannelInterceptor extends AbstractTraceChannelInterceptor {
 				log.debug("Marking span with client send");
 			}
 			span.logEvent(Span.CLIENT_SEND);
-			messageBuilder.setHeader(TraceMessageHeaders.MESSAGE_SENT_FROM_CLIENT, true);
+			carrier.setHeader(TraceMessageHeaders.MESSAGE_SENT_FROM_CLIENT, true);
 		}
-		getSpanInjector().inject(span, new MessagingTextMap(messageBuilder));
-		MessageHeaderAccessor headers = MessageHeaderAccessor.getMutableAccessor(message);
-		headers.copyHeaders(messageBuilder.build().getHeaders());
-		return new GenericMessage<>(message.getPayload(), headers.getMessageHeaders());
+		getSpanInjector().inject(span, carrier);
+		return carrier.applyTo(message);
 	}
 
 	private Message getMessage(Message<?> message) {
@@ -132,12 +128,21 @@ public class TraceChannelInterceptor extends AbstractTraceChannelInterceptor {
 		if (span != null) {
 			return getTracer().createSpan(name, span);
 		}
-		if (Span.SPAN_NOT_SAMPLED.equals(message.getHeaders().get(TraceMessageHeaders.SAMPLED_NAME))) {
+		if (isNotSampled(message)) {
 			return getTracer().createSpan(name, NeverSampler.INSTANCE);
 		}
 		return getTracer().createSpan(name);
 	}
 
+	private boolean isNotSampled(Message<?> message) {
+		if (Span.SPAN_NOT_SAMPLED.equals(message.getHeaders().get(TraceMessageHeaders.SAMPLED_NAME))) {
+			return true;
+		}
+		Object b3 = message.getHeaders().get(TraceMessageHeaders.B3_NAME);
+		return b3 instanceof String && Span.SPAN_NOT_SAMPLED
+				.equals(B3HeaderCodec.samplingOf((String) b3));
+	}
+
 	@Override
 	public Message<?> beforeHandle(Message<?> message, MessageChannel channel,
 			MessageHandler handler) {
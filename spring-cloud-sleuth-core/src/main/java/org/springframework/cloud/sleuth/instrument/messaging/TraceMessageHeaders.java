@@ -16,6 +16,9 @@
 
 package org.springframework.cloud.sleuth.instrument.messaging;
 
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
+
 /**
  * Contains trace related messaging headers. The deprecated headers contained `-` which
  * for example in the JMS specs is invalid. That's why the public constants in this class
@@ -33,9 +36,17 @@ public class TraceMessageHeaders {
 	public static final String TRACE_ID_NAME = "spanTraceId";
 	public static final String SPAN_NAME_NAME = "spanName";
 	public static final String SPAN_FLAGS_NAME = "spanFlags";
+	/**
+	 * Header carrying the whole trace context when the single header format is used
+	 */
+	public static final String B3_NAME = B3HeaderCodec.B3_NAME;
 
 	static final String MESSAGE_SENT_FROM_CLIENT = "messageSent";
 	static final String HEADER_DELIMITER = "_";
 
+	static final B3HeaderCodec CODEC = new B3HeaderCodec(TRACE_ID_NAME, SPAN_ID_NAME,
+			PARENT_ID_NAME, SAMPLED_NAME, SPAN_FLAGS_NAME, SPAN_NAME_NAME,
+			PROCESS_ID_NAME, Span.SPAN_BAGGAGE_HEADER_PREFIX + HEADER_DELIMITER);
+
 	private TraceMessageHeaders() {}
 }
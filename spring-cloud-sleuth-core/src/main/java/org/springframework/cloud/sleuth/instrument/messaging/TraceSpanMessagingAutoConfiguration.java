@@ -19,8 +19,10 @@ package org.springframework.cloud.sleuth.instrument.messaging;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.autoconfig.SleuthProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
@@ -35,6 +37,7 @@ import org.springframework.messaging.Message;
 @Configuration
 @ConditionalOnClass(Message.class)
 @ConditionalOnBean(Tracer.class)
+@EnableConfigurationProperties(SleuthProperties.class)
 public class TraceSpanMessagingAutoConfiguration {
 
 	@Bean
@@ -45,7 +48,9 @@ public class TraceSpanMessagingAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public MessagingSpanTextMapInjector messagingSpanInjector(TraceKeys traceKeys) {
-		return new HeaderBasedMessagingInjector(traceKeys);
+	public MessagingSpanTextMapInjector messagingSpanInjector(TraceKeys traceKeys,
+			SleuthProperties sleuthProperties) {
+		return new HeaderBasedMessagingInjector(traceKeys,
+				sleuthProperties.getPropagation().isSingleHeader());
 	}
 }
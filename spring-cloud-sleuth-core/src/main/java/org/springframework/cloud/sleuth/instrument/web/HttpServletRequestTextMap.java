@@ -17,42 +17,96 @@
 package org.springframework.cloud.sleuth.instrument.web;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.AbstractMap;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.springframework.cloud.sleuth.SpanTextMap;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 import org.springframework.web.util.UrlPathHelper;
 
 /**
- * A {@link SpanTextMap} abstraction over {@link HttpServletRequest}
+ * A {@link SpanTextMap} abstraction over {@link HttpServletRequest}. The headers are
+ * read straight from the request, without copying them, and the request URI is
+ * available under the {@link ZipkinHttpSpanExtractor#URI_HEADER} name.
  *
  * @author Marcin Grzejszczak
  * @since 1.2.0
  */
-class HttpServletRequestTextMap implements SpanTextMap {
+class HttpServletRequestTextMap implements B3HeaderCodec.HeaderLookup {
 
 	private final HttpServletRequest delegate;
-	private final Map<String, String> additionalHeaders = new HashMap<>();
+	private final Map<String, String> additionalHeaders = new LinkedHashMap<>();
 
 	HttpServletRequestTextMap(HttpServletRequest delegate) {
+		this(delegate, new UrlPathHelper().getPathWithinApplication(delegate));
+	}
+
+	/**
+	 * @param uri path of the request within the application, as already resolved by the
+	 * caller
+	 */
+	HttpServletRequestTextMap(HttpServletRequest delegate, String uri) {
 		this.delegate = delegate;
-		UrlPathHelper urlPathHelper = new UrlPathHelper();
-		this.additionalHeaders.put(ZipkinHttpSpanExtractor.URI_HEADER,
-				urlPathHelper.getPathWithinApplication(delegate));
+		this.additionalHeaders.put(ZipkinHttpSpanExtractor.URI_HEADER, uri);
 	}
 
 	@Override
-	public Iterator<Map.Entry<String, String>> iterator() {
-		Map<String, String> map = new HashMap<>();
-		Enumeration<String> headerNames = this.delegate.getHeaderNames();
-		while (headerNames != null && headerNames.hasMoreElements()) {
-			String name = headerNames.nextElement();
-			map.put(name, this.delegate.getHeader(name));
+	public String getHeader(String name) {
+		for (Map.Entry<String, String> entry : this.additionalHeaders.entrySet()) {
+			if (entry.getKey().equalsIgnoreCase(name)) {
+				return entry.getValue();
+			}
 		}
-		map.putAll(this.additionalHeaders);
-		return map.entrySet().iterator();
+		return this.delegate.getHeader(name);
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return this.delegate.getHeaderNames();
+	}
+
+	@Override
+	public Iterator<Map.Entry<String, String>> iterator() {
+		final Enumeration<String> headerNames = this.delegate.getHeaderNames();
+		final Iterator<Map.Entry<String, String>> additional = this.additionalHeaders
+				.entrySet().iterator();
+		return new Iterator<Map.Entry<String, String>>() {
+			private Map.Entry<String, String> next;
+
+			@Override public boolean hasNext() {
+				if (this.next == null) {
+					this.next = advance();
+				}
+				return this.next != null;
+			}
+
+			@Override public Map.Entry<String, String> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Map.Entry<String, String> entry = this.next;
+				this.next = null;
+				return entry;
+			}
+
+			@Override public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
+
+			private Map.Entry<String, String> advance() {
+				while (headerNames != null && headerNames.hasMoreElements()) {
+					String name = headerNames.nextElement();
+					if (!additionalHeaders.containsKey(name)) {
+						return new AbstractMap.SimpleEntry<>(name, delegate.getHeader(name));
+					}
+				}
+				return additional.hasNext() ? additional.next() : null;
+			}
+		};
 	}
 
 	@Override
@@ -39,6 +39,7 @@ import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.sampler.AlwaysSampler;
 import org.springframework.cloud.sleuth.sampler.NeverSampler;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
@@ -140,7 +141,9 @@ public class TraceFilter extends GenericFilterBean {
 		HttpServletResponse response = (HttpServletResponse) servletResponse;
 		String uri = this.urlPathHelper.getPathWithinApplication(request);
 		boolean skip = this.skipPattern.matcher(uri).matches()
-				|| Span.SPAN_NOT_SAMPLED.equals(ServletUtils.getHeader(request, response, Span.SAMPLED_NAME));
+				|| Span.SPAN_NOT_SAMPLED.equals(ServletUtils.getHeader(request, response, Span.SAMPLED_NAME))
+				|| Span.SPAN_NOT_SAMPLED.equals(B3HeaderCodec.samplingOf(
+						ServletUtils.getHeader(request, response, B3HeaderCodec.B3_NAME)));
 		Span spanFromRequest = getSpanFromAttribute(request);
 		if (spanFromRequest != null) {
 			continueSpan(request, spanFromRequest);
@@ -157,7 +160,7 @@ public class TraceFilter extends GenericFilterBean {
 		String name = HTTP_COMPONENT + ":" + uri;
 		Throwable exception = null;
 		try {
-			spanFromRequest = createSpan(request, skip, spanFromRequest, name);
+			spanFromRequest = createSpan(request, uri, skip, spanFromRequest, name);
 			filterChain.doFilter(request, new TraceHttpServletResponse(response, spanFromRequest));
 		} catch (Throwable e) {
 			exception = e;
@@ -331,7 +334,7 @@ public class TraceFilter extends GenericFilterBean {
 	/**
 	 * Creates a span and appends it as the current request's attribute
 	 */
-	private Span createSpan(HttpServletRequest request,
+	private Span createSpan(HttpServletRequest request, String uri,
 			boolean skip, Span spanFromRequest, String name) {
 		if (spanFromRequest != null) {
 			if (log.isDebugEnabled()) {
@@ -339,7 +342,7 @@ public class TraceFilter extends GenericFilterBean {
 			}
 			return spanFromRequest;
 		}
-		Span parent = spanExtractor().joinTrace(new HttpServletRequestTextMap(request));
+		Span parent = spanExtractor().joinTrace(new HttpServletRequestTextMap(request, uri));
 		if (parent != null) {
 			if (log.isDebugEnabled()) {
 				log.debug("Found a parent span " + parent + " in the request");
@@ -360,7 +363,8 @@ public class TraceFilter extends GenericFilterBean {
 			}
 			else {
 				String header = request.getHeader(Span.SPAN_FLAGS);
-				if (Span.SPAN_SAMPLED.equals(header)) {
+				if (Span.SPAN_SAMPLED.equals(header) || B3HeaderCodec
+						.isDebug(request.getHeader(B3HeaderCodec.B3_NAME))) {
 					spanFromRequest = tracer().createSpan(name, new AlwaysSampler());
 				} else {
 					spanFromRequest = tracer().createSpan(name);
@@ -23,6 +23,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.autoconfig.SleuthProperties;
 import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,7 +38,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ConditionalOnBean(Tracer.class)
 @AutoConfigureAfter(TraceAutoConfiguration.class)
-@EnableConfigurationProperties({ TraceKeys.class, SleuthWebProperties.class })
+@EnableConfigurationProperties({ TraceKeys.class, SleuthWebProperties.class,
+		SleuthProperties.class })
 public class TraceHttpAutoConfiguration {
 
 	@Bean
@@ -54,7 +56,8 @@ public class TraceHttpAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public HttpSpanInjector httpSpanInjector() {
-		return new ZipkinHttpSpanInjector();
+	public HttpSpanInjector httpSpanInjector(SleuthProperties sleuthProperties) {
+		return new ZipkinHttpSpanInjector(
+				sleuthProperties.getPropagation().isSingleHeader());
 	}
 }
@@ -8,7 +8,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanTextMap;
-import org.springframework.cloud.sleuth.util.TextMapUtil;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 import org.springframework.util.StringUtils;
 
 /**
@@ -21,9 +21,10 @@ public class ZipkinHttpSpanExtractor implements HttpSpanExtractor {
 
 	private static final org.apache.commons.logging.Log log = LogFactory.getLog(
 			MethodHandles.lookup().lookupClass());
-	private static final String HEADER_DELIMITER = "-";
 	static final String URI_HEADER = "X-Span-Uri";
 	private static final String HTTP_COMPONENT = "http";
+	private static final B3HeaderCodec CODEC = B3HeaderCodec.HTTP
+			.withAdditionalNames(URI_HEADER);
 
 	private final Pattern skipPattern;
 
@@ -33,69 +34,55 @@ public class ZipkinHttpSpanExtractor implements HttpSpanExtractor {
 
 	@Override
 	public Span joinTrace(SpanTextMap textMap) {
-		Map<String, String> carrier = TextMapUtil.asMap(textMap);
-		boolean debug = Span.SPAN_SAMPLED.equals(carrier.get(Span.SPAN_FLAGS));
+		B3HeaderCodec.B3Headers carrier = CODEC.read(textMap);
+		boolean debug = carrier.isDebug();
 		boolean idToBeGenerated = debug && onlySpanIdIsPresent(carrier);
+		String traceId = carrier.getTraceId();
 		if (idToBeGenerated) {
 			// we're only generating Trace ID since if there's no Span ID will assume
 			// that it's equal to Trace ID - we're trying to fix a malformed request
-			generateIdIfMissing(carrier, Span.TRACE_ID_NAME);
-		} else if (traceIdIsMissing(carrier)) {
+			traceId = Span.idToHex(new Random().nextLong());
+		} else if (traceId == null) {
 			// can't build a Span without trace id
 			return null;
 		}
 		try {
 			String uri = carrier.get(URI_HEADER);
 			boolean skip = this.skipPattern.matcher(uri).matches()
-					|| Span.SPAN_NOT_SAMPLED.equals(carrier.get(Span.SAMPLED_NAME));
-			long spanId = spanId(carrier);
-			return buildParentSpan(carrier, uri, skip, spanId, idToBeGenerated);
+					|| Span.SPAN_NOT_SAMPLED.equals(carrier.getSampled());
+			long spanId = spanId(carrier, traceId);
+			return buildParentSpan(carrier, traceId, uri, skip, spanId, idToBeGenerated);
 		} catch (Exception e) {
 			log.error("Exception occurred while trying to extract span from carrier", e);
 			return null;
 		}
 	}
 
-	private boolean onlySpanIdIsPresent(Map<String, String> carrier) {
-		return traceIdIsMissing(carrier) && spanIdIsPresent(carrier);
+	private boolean onlySpanIdIsPresent(B3HeaderCodec.B3Headers carrier) {
+		return carrier.getTraceId() == null && carrier.getSpanId() != null;
 	}
 
-	private boolean traceIdIsMissing(Map<String, String> carrier) {
-		return carrier.get(Span.TRACE_ID_NAME) == null;
-	}
-
-	private boolean spanIdIsPresent(Map<String, String> carrier) {
-		return carrier.get(Span.SPAN_ID_NAME) != null;
-	}
-
-	private void generateIdIfMissing(Map<String, String> carrier, String key) {
-		if (!carrier.containsKey(key)) {
-			carrier.put(key, Span.idToHex(new Random().nextLong()));
-		}
-	}
-
-	private long spanId(Map<String, String> carrier) {
-		String spanId = carrier.get(Span.SPAN_ID_NAME);
+	private long spanId(B3HeaderCodec.B3Headers carrier, String traceId) {
+		String spanId = carrier.getSpanId();
 		if (spanId == null) {
 			if (log.isDebugEnabled()) {
 				log.debug("Request is missing a span id but it has a trace id. We'll assume that this is "
 						+ "a root span with span id equal to the lower 64-bits of the trace id");
 			}
-			return Span.hexToId(carrier.get(Span.TRACE_ID_NAME));
+			return Span.hexToId(traceId);
 		} else {
 			return Span.hexToId(spanId);
 		}
 	}
 
-	private Span buildParentSpan(Map<String, String> carrier, String uri, boolean skip,
-			long spanId, boolean idToBeGenerated) {
-		String traceId = carrier.get(Span.TRACE_ID_NAME);
+	private Span buildParentSpan(B3HeaderCodec.B3Headers carrier, String traceId,
+			String uri, boolean skip, long spanId, boolean idToBeGenerated) {
 		Span.SpanBuilder span = Span.builder()
 				.traceIdHigh(traceId.length() == 32 ? Span.hexToId(traceId, 0) : 0)
 				.traceId(Span.hexToId(traceId))
 				.spanId(spanId);
-		String processId = carrier.get(Span.PROCESS_ID_NAME);
-		String parentName = carrier.get(Span.SPAN_NAME_NAME);
+		String processId = carrier.getProcessId();
+		String parentName = carrier.getSpanName();
 		if (StringUtils.hasText(parentName)) {
 			span.name(parentName);
 		}  else {
@@ -104,28 +91,21 @@ public class ZipkinHttpSpanExtractor implements HttpSpanExtractor {
 		if (StringUtils.hasText(processId)) {
 			span.processId(processId);
 		}
-		if (carrier.containsKey(Span.PARENT_ID_NAME)) {
-			span.parent(Span.hexToId(carrier.get(Span.PARENT_ID_NAME)));
+		if (carrier.getParentId() != null) {
+			span.parent(Span.hexToId(carrier.getParentId()));
 		}
 		span.remote(true);
 		// trace, span id were retrieved from the headers and span is sampled
 		span.shared(!(skip || idToBeGenerated));
-		boolean debug = Span.SPAN_SAMPLED.equals(carrier.get(Span.SPAN_FLAGS));
-		if (debug) {
+		if (carrier.isDebug()) {
 			span.exportable(true);
 		} else if (skip) {
 			span.exportable(false);
 		}
-		for (Map.Entry<String, String> entry : carrier.entrySet()) {
-			if (entry.getKey().toLowerCase().startsWith(Span.SPAN_BAGGAGE_HEADER_PREFIX + HEADER_DELIMITER)) {
-				span.baggage(unprefixedKey(entry.getKey()), entry.getValue());
-			}
+		for (Map.Entry<String, String> entry : carrier.getBaggage().entrySet()) {
+			span.baggage(entry.getKey(), entry.getValue());
 		}
 		return span.build();
 	}
 
-	private String unprefixedKey(String key) {
-		return key.substring(key.indexOf(HEADER_DELIMITER) + 1).toLowerCase();
-	}
-
 }
@@ -4,11 +4,13 @@ import java.util.Map;
 
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanTextMap;
-import org.springframework.cloud.sleuth.util.TextMapUtil;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 import org.springframework.util.StringUtils;
 
 /**
  * Default implementation of {@link HttpSpanInjector}, compatible with Zipkin propagation.
+ * Can either set one header per field or a single {@code b3} header. In the latter case
+ * the span name and the process id are not propagated.
  *
  * @author Marcin Grzejszczak
  * @since 1.2.0
@@ -17,20 +19,45 @@ public class ZipkinHttpSpanInjector implements HttpSpanInjector {
 
 	private static final String HEADER_DELIMITER = "-";
 
+	private final boolean singleHeader;
+
+	public ZipkinHttpSpanInjector() {
+		this(false);
+	}
+
+	/**
+	 * @param singleHeader whether the trace context should be injected in a single
+	 * {@code b3} header
+	 * @since 1.3.0
+	 */
+	public ZipkinHttpSpanInjector(boolean singleHeader) {
+		this.singleHeader = singleHeader;
+	}
+
 	@Override
 	public void inject(Span span, SpanTextMap map) {
-		Map<String, String> carrier = TextMapUtil.asMap(map);
-		setHeader(map, carrier, Span.TRACE_ID_NAME, span.traceIdString());
-		setIdHeader(map, carrier, Span.SPAN_ID_NAME, span.getSpanId());
-		setHeader(map, carrier, Span.SAMPLED_NAME, span.isExportable() ? Span.SPAN_SAMPLED : Span.SPAN_NOT_SAMPLED);
-		setHeader(map, carrier, Span.SPAN_NAME_NAME, span.getName());
-		setIdHeader(map, carrier, Span.PARENT_ID_NAME, getParentId(span));
-		setHeader(map, carrier, Span.PROCESS_ID_NAME, span.getProcessId());
+		B3HeaderCodec.B3Headers carrier = B3HeaderCodec.HTTP.read(map);
+		if (this.singleHeader) {
+			setHeader(map, carrier.getTraceId(), B3HeaderCodec.B3_NAME,
+					B3HeaderCodec.singleHeaderValue(span));
+		}
+		else {
+			injectHeaders(span, map, carrier);
+		}
 		for (Map.Entry<String, String> entry : span.baggageItems()) {
 			map.put(prefixedKey(entry.getKey()), entry.getValue());
 		}
 	}
 
+	private void injectHeaders(Span span, SpanTextMap map, B3HeaderCodec.B3Headers carrier) {
+		setHeader(map, carrier.getTraceId(), Span.TRACE_ID_NAME, span.traceIdString());
+		setIdHeader(map, carrier.getSpanId(), Span.SPAN_ID_NAME, span.getSpanId());
+		setHeader(map, carrier.getSampled(), Span.SAMPLED_NAME, span.isExportable() ? Span.SPAN_SAMPLED : Span.SPAN_NOT_SAMPLED);
+		setHeader(map, carrier.getSpanName(), Span.SPAN_NAME_NAME, span.getName());
+		setIdHeader(map, carrier.getParentId(), Span.PARENT_ID_NAME, getParentId(span));
+		setHeader(map, carrier.getProcessId(), Span.PROCESS_ID_NAME, span.getProcessId());
+	}
+
 	private String prefixedKey(String key) {
 		if (key.startsWith(Span.SPAN_BAGGAGE_HEADER_PREFIX + HEADER_DELIMITER)) {
 			return key;
@@ -39,17 +66,17 @@ public class ZipkinHttpSpanInjector implements HttpSpanInjector {
 	}
 
 	private Long getParentId(Span span) {
-		return !span.getParents().isEmpty() ? span.getParents().get(0) : null;
+		return span.hasParent() ? span.getParentId() : null;
 	}
 
-	private void setIdHeader(SpanTextMap map, Map<String, String> carrier, String name, Long value) {
-		if (value != null) {
-			setHeader(map, carrier, name, Span.idToHex(value));
+	private void setIdHeader(SpanTextMap map, String presentValue, String name, Long value) {
+		if (value != null && presentValue == null) {
+			setHeader(map, presentValue, name, Span.idToHex(value));
 		}
 	}
 
-	private void setHeader(SpanTextMap map, Map<String, String> carrier, String name, String value) {
-		if (StringUtils.hasText(value) && !carrier.containsKey(name)) {
+	private void setHeader(SpanTextMap map, String presentValue, String name, String value) {
+		if (StringUtils.hasText(value) && presentValue == null) {
 			map.put(name, value);
 		}
 	}
@@ -66,7 +66,7 @@ class FeignRequestInjector implements SpanInjector<AtomicReference<Request>> {
 	}
 
 	private Long getParentId(Span span) {
-		return !span.getParents().isEmpty() ? span.getParents().get(0) : null;
+		return span.hasParent() ? span.getParentId() : null;
 	}
 
 	protected void setHeader(Map<String, Collection<String>> headers, String name, String value) {
@@ -16,15 +16,12 @@
 
 package org.springframework.cloud.sleuth.instrument.web.client.feign;
 
-import java.nio.charset.Charset;
 import java.util.AbstractMap;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.cloud.sleuth.SpanTextMap;
 import org.springframework.util.StringUtils;
@@ -32,22 +29,25 @@ import org.springframework.util.StringUtils;
 import feign.Request;
 
 /**
- * A {@link SpanTextMap} abstraction over {@link AtomicReference<Request>}
+ * A {@link SpanTextMap} abstraction over a {@link Request}. Since the request is
+ * immutable, the headers are collected and the modified request gets created only once,
+ * via {@link #request()}, after all of them got injected.
  *
  * @author Marcin Grzejszczak
  * @since 1.2.0
  */
 class FeignRequestTextMap implements SpanTextMap {
 
-	private final AtomicReference<Request> delegate;
+	private final Request delegate;
+	private Map<String, Collection<String>> headers;
 
-	FeignRequestTextMap(AtomicReference<Request> delegate) {
+	FeignRequestTextMap(Request delegate) {
 		this.delegate = delegate;
 	}
 
 	@Override
 	public Iterator<Map.Entry<String, String>> iterator() {
-		final Iterator<Map.Entry<String, Collection<String>>> iterator = this.delegate.get().headers().entrySet().iterator();
+		final Iterator<Map.Entry<String, Collection<String>>> iterator = headers().entrySet().iterator();
 		return new Iterator<Map.Entry<String, String>>() {
 			@Override public boolean hasNext() {
 				return iterator.hasNext();
@@ -58,29 +58,36 @@ class FeignRequestTextMap implements SpanTextMap {
 				Collection<String> value = next.getValue();
 				return new AbstractMap.SimpleEntry<>(next.getKey(), value.isEmpty() ? "" : value.iterator().next());
 			}
+
+			@Override public void remove() {
+				throw new UnsupportedOperationException("remove");
+			}
 		};
 	}
 
 	@Override
 	public void put(String key, String value) {
-		if (!StringUtils.hasText(value)) {
+		if (!StringUtils.hasText(value) || headers().containsKey(key)) {
 			return;
 		}
-		String method = this.delegate.get().method();
-		String url = this.delegate.get().url();
-		Map<String, Collection<String>> headers = new HashMap<>(this.delegate.get().headers());
-		byte[] body = this.delegate.get().body();
-		Charset charset = this.delegate.get().charset();
-		addHeader(key, value, headers);
-		this.delegate.set(Request.create(method, url, headers, body, charset));
+		if (this.headers == null) {
+			this.headers = new LinkedHashMap<>(this.delegate.headers());
+		}
+		this.headers.put(key, Collections.singletonList(value));
 	}
 
-	private void addHeader(String key, String value,
-			Map<String, Collection<String>> headers) {
-		if (!headers.containsKey(key)) {
-			List<String> list = new ArrayList<>();
-			list.add(value);
-			headers.put(key, list);
+	/**
+	 * The request with all the put headers, the original one if none was put
+	 */
+	Request request() {
+		if (this.headers == null) {
+			return this.delegate;
 		}
+		return Request.create(this.delegate.method(), this.delegate.url(), this.headers,
+				this.delegate.body(), this.delegate.charset());
+	}
+
+	private Map<String, Collection<String>> headers() {
+		return this.headers != null ? this.headers : this.delegate.headers();
 	}
 }
@@ -23,7 +23,6 @@ import feign.Response;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
-import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -75,17 +74,18 @@ class TraceFeignClient implements Client {
 
 	@Override
 	public Response execute(Request request, Request.Options options) throws IOException {
-		String spanName = getSpanName(request);
+		URI uri = URI.create(request.url());
+		String spanName = getSpanName(uri);
 		Span span = getTracer().createSpan(spanName);
 		if (log.isDebugEnabled()) {
 			log.debug("Created new Feign span " + span);
 		}
 		try {
-			AtomicReference<Request> feignRequest = new AtomicReference<>(request);
-			spanInjector().inject(span, new FeignRequestTextMap(feignRequest));
+			FeignRequestTextMap feignRequest = new FeignRequestTextMap(request);
+			spanInjector().inject(span, feignRequest);
 			span.logEvent(Span.CLIENT_SEND);
-			addRequestTags(request);
-			Request modifiedRequest = feignRequest.get();
+			addRequestTags(uri, request);
+			Request modifiedRequest = feignRequest.request();
 			if (log.isDebugEnabled()) {
 				log.debug("The modified request equals " + modifiedRequest);
 			}
@@ -101,8 +101,7 @@ class TraceFeignClient implements Client {
 		}
 	}
 
-	private String getSpanName(Request request) {
-		URI uri = URI.create(request.url());
+	private String getSpanName(URI uri) {
 		return SpanNameUtil.shorten(uriScheme(uri) + ":" + uri.getPath());
 	}
 
@@ -113,8 +112,7 @@ class TraceFeignClient implements Client {
 	/**
 	 * Adds HTTP tags to the client side span
 	 */
-	private void addRequestTags(Request request) {
-		URI uri = URI.create(request.url());
+	private void addRequestTags(URI uri, Request request) {
 		keysInjector().addRequestTags(uri.toString(), uri.getHost(), uri.getPath(),
 				request.method(), request.headers());
 	}
@@ -37,6 +37,10 @@ class ApacheHttpClientRibbonRequestCustomizer extends SpanInjectingRibbonRequest
 		super(tracer);
 	}
 
+	ApacheHttpClientRibbonRequestCustomizer(Tracer tracer, boolean singleHeader) {
+		super(tracer, singleHeader);
+	}
+
 	@Override
 	public boolean accepts(Class aClass) {
 		return aClass == RequestBuilder.class;
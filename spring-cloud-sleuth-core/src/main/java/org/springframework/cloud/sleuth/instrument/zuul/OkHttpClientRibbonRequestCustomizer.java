@@ -38,6 +38,10 @@ class OkHttpClientRibbonRequestCustomizer extends SpanInjectingRibbonRequestCust
 		super(tracer);
 	}
 
+	OkHttpClientRibbonRequestCustomizer(Tracer tracer, boolean singleHeader) {
+		super(tracer, singleHeader);
+	}
+
 	@Override
 	public boolean accepts(Class aClass) {
 		return aClass == Request.Builder.class;
@@ -36,6 +36,10 @@ class RestClientRibbonRequestCustomizer extends SpanInjectingRibbonRequestCustom
 		super(tracer);
 	}
 
+	RestClientRibbonRequestCustomizer(Tracer tracer, boolean singleHeader) {
+		super(tracer, singleHeader);
+	}
+
 	@Override
 	public boolean accepts(Class aClass) {
 		return aClass == HttpRequest.Builder.class;
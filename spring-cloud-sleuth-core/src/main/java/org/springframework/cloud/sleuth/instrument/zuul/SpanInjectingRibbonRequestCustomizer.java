@@ -25,6 +25,7 @@ import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanInjector;
 import org.springframework.cloud.sleuth.SpanTextMap;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 
 /**
  * Abstraction over customization of Ribbon Requests. All clients will inject the span
@@ -33,6 +34,10 @@ import org.springframework.cloud.sleuth.Tracer;
  * necessary only to provide the {@link RibbonRequestCustomizer#accepts(Class)} method
  * with the context class name and {@link SpanInjectingRibbonRequestCustomizer#toSpanTextMap(Object)}
  * to tell Sleuth how to set a header using the particular library.
+ * <p>
+ * Like the default {@link org.springframework.cloud.sleuth.instrument.web.HttpSpanInjector}
+ * the span can be injected in a single {@code b3} header, in which case the span name
+ * and the process id are not propagated.
  *
  * @author Marcin Grzejszczak
  * @since 1.1.0
@@ -43,9 +48,15 @@ abstract class SpanInjectingRibbonRequestCustomizer<T> implements RibbonRequestC
 	private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
 
 	private final Tracer tracer;
+	private final boolean singleHeader;
 
 	SpanInjectingRibbonRequestCustomizer(Tracer tracer) {
+		this(tracer, false);
+	}
+
+	SpanInjectingRibbonRequestCustomizer(Tracer tracer, boolean singleHeader) {
 		this.tracer = tracer;
+		this.singleHeader = singleHeader;
 	}
 
 	@Override
@@ -63,7 +74,12 @@ abstract class SpanInjectingRibbonRequestCustomizer<T> implements RibbonRequestC
 	@Override
 	public void inject(Span span, SpanTextMap carrier) {
 		if (span == null) {
-			carrier.put(Span.SAMPLED_NAME, Span.SPAN_NOT_SAMPLED);
+			carrier.put(this.singleHeader ? B3HeaderCodec.B3_NAME : Span.SAMPLED_NAME,
+					Span.SPAN_NOT_SAMPLED);
+			return;
+		}
+		if (this.singleHeader) {
+			carrier.put(B3HeaderCodec.B3_NAME, B3HeaderCodec.singleHeaderValue(span));
 			return;
 		}
 		carrier.put(Span.SAMPLED_NAME, span.isExportable() ?
@@ -78,8 +94,7 @@ abstract class SpanInjectingRibbonRequestCustomizer<T> implements RibbonRequestC
 	}
 
 	private Long getParentId(Span span) {
-		return !span.getParents().isEmpty()
-				? span.getParents().get(0) : null;
+		return span.hasParent() ? span.getParentId() : null;
 	}
 
 	private Span getCurrentSpan() {
@@ -31,6 +31,7 @@ import org.springframework.cloud.sleuth.ErrorParser;
 import org.springframework.cloud.sleuth.instrument.web.HttpSpanInjector;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.autoconfig.SleuthProperties;
 import org.springframework.cloud.sleuth.instrument.web.HttpTraceKeysInjector;
 import org.springframework.cloud.sleuth.instrument.web.TraceWebAutoConfiguration;
 import org.springframework.context.annotation.Bean;
@@ -74,20 +75,26 @@ public class TraceZuulAutoConfiguration {
 
 	@Bean
 	@ConditionalOnClass(name = "com.netflix.client.http.HttpRequest.Builder")
-	public RibbonRequestCustomizer<HttpRequest.Builder> restClientRibbonRequestCustomizer(Tracer tracer) {
-		return new RestClientRibbonRequestCustomizer(tracer);
+	public RibbonRequestCustomizer<HttpRequest.Builder> restClientRibbonRequestCustomizer(Tracer tracer,
+			SleuthProperties sleuthProperties) {
+		return new RestClientRibbonRequestCustomizer(tracer,
+				sleuthProperties.getPropagation().isSingleHeader());
 	}
 
 	@Bean
 	@ConditionalOnClass(name = "org.apache.http.client.methods.RequestBuilder")
-	public RibbonRequestCustomizer<RequestBuilder> apacheHttpRibbonRequestCustomizer(Tracer tracer) {
-		return new ApacheHttpClientRibbonRequestCustomizer(tracer);
+	public RibbonRequestCustomizer<RequestBuilder> apacheHttpRibbonRequestCustomizer(Tracer tracer,
+			SleuthProperties sleuthProperties) {
+		return new ApacheHttpClientRibbonRequestCustomizer(tracer,
+				sleuthProperties.getPropagation().isSingleHeader());
 	}
 
 	@Bean
 	@ConditionalOnClass(name = "okhttp3.Request.Builder")
-	public RibbonRequestCustomizer<Request.Builder> okHttpRibbonRequestCustomizer(Tracer tracer) {
-		return new OkHttpClientRibbonRequestCustomizer(tracer);
+	public RibbonRequestCustomizer<Request.Builder> okHttpRibbonRequestCustomizer(Tracer tracer,
+			SleuthProperties sleuthProperties) {
+		return new OkHttpClientRibbonRequestCustomizer(tracer,
+				sleuthProperties.getPropagation().isSingleHeader());
 	}
 
 	@Bean
@@ -65,8 +65,8 @@ public class Slf4jSpanLogger implements SpanLogger {
 	}
 
 	private void setParentIdIfPresent(Span span) {
-		if (!span.getParents().isEmpty()) {
-			MDC.put(Span.PARENT_ID_NAME, Span.idToHex(span.getParents().get(0)));
+		if (span.hasParent()) {
+			MDC.put(Span.PARENT_ID_NAME, Span.idToHex(span.getParentId()));
 		}
 	}
 
@@ -0,0 +1,52 @@
+package org.springframework.cloud.sleuth.metric;
+
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.buffer.BufferCounterService;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+
+/**
+ * Service to operate on accepted and dropped spans statistics that increments the
+ * counters by the whole quantity in a single operation. Writes directly to the
+ * {@link CounterBuffers} backing a {@link BufferCounterService}, so the counters are
+ * the same as if they were incremented via that {@link CounterService}.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public class CounterBuffersBasedSpanMetricReporter extends CounterServiceBasedSpanMetricReporter {
+
+	private static final String COUNTER_PREFIX = "counter.";
+	private static final String METER_PREFIX = "meter.";
+
+	private final CounterBuffers counterBuffers;
+
+	public CounterBuffersBasedSpanMetricReporter(String acceptedSpansMetricName,
+			String droppedSpansMetricName, String queuedSpansMetricName,
+			String queuedBytesMetricName, String queuedHighWaterMarkMetricName,
+			String flushDurationMetricName, BufferCounterService counterService, CounterBuffers counterBuffers,
+			GaugeService gaugeService) {
+		super(counterName(acceptedSpansMetricName), counterName(droppedSpansMetricName),
+				queuedSpansMetricName, queuedBytesMetricName,
+				queuedHighWaterMarkMetricName, flushDurationMetricName, counterService,
+				gaugeService);
+		this.counterBuffers = counterBuffers;
+	}
+
+	/**
+	 * Same naming as in {@link BufferCounterService}
+	 */
+	private static String counterName(String metricName) {
+		if (metricName.startsWith(COUNTER_PREFIX) || metricName.startsWith(METER_PREFIX)) {
+			return metricName;
+		}
+		return COUNTER_PREFIX + metricName;
+	}
+
+	@Override
+	protected void increment(String metricName, long quantity) {
+		if (quantity > 0) {
+			this.counterBuffers.increment(metricName, quantity);
+		}
+	}
+}
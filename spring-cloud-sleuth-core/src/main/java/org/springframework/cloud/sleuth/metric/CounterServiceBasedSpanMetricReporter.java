@@ -1,37 +1,110 @@
 package org.springframework.cloud.sleuth.metric;
 
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
 
 /**
  * Service to operate on accepted and dropped spans statistics.
- * Operates on a {@link CounterService} underneath
+ * Operates on a {@link CounterService} underneath. If a {@link GaugeService} is
+ * provided the number of queued spans and the flush duration (in milliseconds)
+ * are submitted as gauges.
  *
  * @author Marcin Grzejszczak
  * @since 1.0.0
  */
-public class CounterServiceBasedSpanMetricReporter implements SpanMetricReporter {
+public class CounterServiceBasedSpanMetricReporter implements SpanQueueMetricReporter {
 	private final String acceptedSpansMetricName;
 	private final String droppedSpansMetricName;
+	private final String queuedSpansMetricName;
+	private final String queuedBytesMetricName;
+	private final String queuedHighWaterMarkMetricName;
+	private final String flushDurationMetricName;
 	private final CounterService counterService;
+	private final GaugeService gaugeService;
 
 	public CounterServiceBasedSpanMetricReporter(String acceptedSpansMetricName,
 			String droppedSpansMetricName, CounterService counterService) {
+		this(acceptedSpansMetricName, droppedSpansMetricName, null, null, null, null,
+				counterService, null);
+	}
+
+	/**
+	 * @param droppedSpansMetricName also the prefix of the dropped spans per reason
+	 * counters, e.g. {@code counter.span.dropped.queue-full}
+	 * @param gaugeService service used for the queued spans, queued bytes, queued
+	 * spans high-water mark and flush duration gauges, no gauges are submitted when
+	 * {@code null}
+	 * @since 1.3.0
+	 */
+	public CounterServiceBasedSpanMetricReporter(String acceptedSpansMetricName,
+			String droppedSpansMetricName, String queuedSpansMetricName,
+			String queuedBytesMetricName, String queuedHighWaterMarkMetricName,
+			String flushDurationMetricName, CounterService counterService,
+			GaugeService gaugeService) {
 		this.acceptedSpansMetricName = acceptedSpansMetricName;
 		this.droppedSpansMetricName = droppedSpansMetricName;
+		this.queuedSpansMetricName = queuedSpansMetricName;
+		this.queuedBytesMetricName = queuedBytesMetricName;
+		this.queuedHighWaterMarkMetricName = queuedHighWaterMarkMetricName;
+		this.flushDurationMetricName = flushDurationMetricName;
 		this.counterService = counterService;
+		this.gaugeService = gaugeService;
 	}
 
 	@Override
 	public void incrementAcceptedSpans(long quantity) {
-		for (int i = 0; i < quantity; i++) {
-			this.counterService.increment(this.acceptedSpansMetricName);
-		}
+		increment(this.acceptedSpansMetricName, quantity);
 	}
 
 	@Override
 	public void incrementDroppedSpans(long quantity) {
+		increment(this.droppedSpansMetricName, quantity);
+	}
+
+	@Override
+	public void incrementDroppedSpans(long quantity, String reason) {
+		increment(this.droppedSpansMetricName, quantity);
+		increment(this.droppedSpansMetricName + "." + reason, quantity);
+	}
+
+	@Override
+	public void updateQueuedSpans(long quantity) {
+		if (this.gaugeService != null) {
+			this.gaugeService.submit(this.queuedSpansMetricName, quantity);
+		}
+	}
+
+	@Override
+	public void updateQueuedBytes(long bytes) {
+		if (this.gaugeService != null) {
+			this.gaugeService.submit(this.queuedBytesMetricName, bytes);
+		}
+	}
+
+	@Override
+	public void updateQueuedHighWaterMark(long quantity) {
+		if (this.gaugeService != null) {
+			this.gaugeService.submit(this.queuedHighWaterMarkMetricName, quantity);
+		}
+	}
+
+	@Override
+	public void recordFlushDuration(long durationNanos) {
+		if (this.gaugeService != null) {
+			this.gaugeService.submit(this.flushDurationMetricName,
+					durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+		}
+	}
+
+	/**
+	 * {@link CounterService} can only increment by one, so it gets called
+	 * {@code quantity} times
+	 */
+	protected void increment(String metricName, long quantity) {
 		for (int i = 0; i < quantity; i++) {
-			this.counterService.increment(this.droppedSpansMetricName);
+			this.counterService.increment(metricName);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -6,7 +6,7 @@ package org.springframework.cloud.sleuth.metric;
  * @author Marcin Grzejszczak
  * @since 1.0.0
  */
-public class NoOpSpanMetricReporter implements SpanMetricReporter {
+public class NoOpSpanMetricReporter implements SpanQueueMetricReporter {
 
 	public void incrementAcceptedSpans(long quantity) {
 
@@ -15,4 +15,24 @@ public class NoOpSpanMetricReporter implements SpanMetricReporter {
 	public void incrementDroppedSpans(long quantity) {
 
 	}
+
+	public void incrementDroppedSpans(long quantity, String reason) {
+
+	}
+
+	public void updateQueuedSpans(long quantity) {
+
+	}
+
+	public void updateQueuedBytes(long bytes) {
+
+	}
+
+	public void updateQueuedHighWaterMark(long quantity) {
+
+	}
+
+	public void recordFlushDuration(long durationNanos) {
+
+	}
 }
\ No newline at end of file
@@ -40,6 +40,14 @@ public class SleuthMetricProperties {
 
 		private String droppedName = "counter.span.dropped";
 
+		private String queuedName = "gauge.span.queued";
+
+		private String queuedBytesName = "gauge.span.queued.bytes";
+
+		private String queuedHighWaterMarkName = "gauge.span.queued.high-water-mark";
+
+		private String flushDurationName = "gauge.span.flush.duration";
+
 		public String getAcceptedName() {
 			return this.acceptedName;
 		}
@@ -55,5 +63,37 @@ public class SleuthMetricProperties {
 		public void setDroppedName(String droppedName) {
 			this.droppedName = droppedName;
 		}
+
+		public String getQueuedName() {
+			return this.queuedName;
+		}
+
+		public void setQueuedName(String queuedName) {
+			this.queuedName = queuedName;
+		}
+
+		public String getQueuedBytesName() {
+			return this.queuedBytesName;
+		}
+
+		public void setQueuedBytesName(String queuedBytesName) {
+			this.queuedBytesName = queuedBytesName;
+		}
+
+		public String getQueuedHighWaterMarkName() {
+			return this.queuedHighWaterMarkName;
+		}
+
+		public void setQueuedHighWaterMarkName(String queuedHighWaterMarkName) {
+			this.queuedHighWaterMarkName = queuedHighWaterMarkName;
+		}
+
+		public String getFlushDurationName() {
+			return this.flushDurationName;
+		}
+
+		public void setFlushDurationName(String flushDurationName) {
+			this.flushDurationName = flushDurationName;
+		}
 	}
 }
@@ -0,0 +1,66 @@
+package org.springframework.cloud.sleuth.metric;
+
+/**
+ * {@link SpanMetricReporter} that additionally measures the back pressure of span
+ * reporting - how many spans wait to be sent, how long it takes to send them and why
+ * spans got dropped.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public interface SpanQueueMetricReporter extends SpanMetricReporter {
+
+	/**
+	 * Drop reason of spans that didn't fit in the queue of spans waiting to be sent
+	 */
+	String QUEUE_FULL = "queue-full";
+
+	/**
+	 * Drop reason of spans that were larger than the max size of a message
+	 */
+	String TOO_LARGE = "too-large";
+
+	/**
+	 * Drop reason of spans which failed to be sent
+	 */
+	String SEND_FAILED = "send-failed";
+
+	/**
+	 * Called instead of {@link #incrementDroppedSpans(long)} when the reason of
+	 * dropping the spans is known. Counts the spans as dropped and additionally as
+	 * dropped for that reason.
+	 *
+	 * @param quantity the number of dropped spans.
+	 * @param reason e.g. {@link #QUEUE_FULL}
+	 */
+	void incrementDroppedSpans(long quantity, String reason);
+
+	/**
+	 * Called with the current number of spans waiting to be sent.
+	 *
+	 * @param quantity the number of queued spans.
+	 */
+	void updateQueuedSpans(long quantity);
+
+	/**
+	 * Called with the current size of the spans waiting to be sent.
+	 *
+	 * @param bytes the size of the queued spans, in bytes.
+	 */
+	void updateQueuedBytes(long bytes);
+
+	/**
+	 * Called with the max number of spans that were waiting to be sent since the
+	 * previous call.
+	 *
+	 * @param quantity the high-water mark of queued spans.
+	 */
+	void updateQueuedHighWaterMark(long quantity);
+
+	/**
+	 * Called after a batch of spans got encoded and flushed to the transport.
+	 *
+	 * @param durationNanos how long it took, in nanoseconds.
+	 */
+	void recordFlushDuration(long durationNanos);
+}
@@ -20,7 +20,11 @@ import java.lang.invoke.MethodHandles;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.actuate.metrics.buffer.BufferCounterService;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
 import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -59,9 +63,24 @@ public class TraceMetricsAutoConfiguration {
 		@Bean
 		@ConditionalOnBean(CounterService.class)
 		public SpanMetricReporter spanReporterCounterService(CounterService counterService,
-				SleuthMetricProperties sleuthMetricProperties) {
-			return new CounterServiceBasedSpanMetricReporter(sleuthMetricProperties.getSpan().getAcceptedName(),
-					sleuthMetricProperties.getSpan().getDroppedName(), counterService);
+				SleuthMetricProperties sleuthMetricProperties,
+				ObjectProvider<GaugeService> gaugeService,
+				ObjectProvider<CounterBuffers> counterBuffers) {
+			SleuthMetricProperties.Span span = sleuthMetricProperties.getSpan();
+			CounterBuffers buffers = counterService instanceof BufferCounterService ?
+					counterBuffers.getIfUnique() : null;
+			if (buffers != null) {
+				return new CounterBuffersBasedSpanMetricReporter(span.getAcceptedName(),
+						span.getDroppedName(), span.getQueuedName(),
+						span.getQueuedBytesName(), span.getQueuedHighWaterMarkName(),
+						span.getFlushDurationName(),
+						(BufferCounterService) counterService, buffers,
+						gaugeService.getIfUnique());
+			}
+			return new CounterServiceBasedSpanMetricReporter(span.getAcceptedName(),
+					span.getDroppedName(), span.getQueuedName(), span.getQueuedBytesName(),
+					span.getQueuedHighWaterMarkName(), span.getFlushDurationName(),
+					counterService, gaugeService.getIfUnique());
 		}
 
 		@Bean
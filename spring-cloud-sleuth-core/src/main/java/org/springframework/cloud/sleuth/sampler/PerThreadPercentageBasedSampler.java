@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.sampler;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.cloud.sleuth.Sampler;
+import org.springframework.cloud.sleuth.Span;
+
+/**
+ * Lock-free variant of the {@link PercentageBasedSampler}. The sampling decisions for
+ * a window of 100 traces are computed once and shared read-only between threads. Each
+ * thread walks that window with its own counter, starting at a random offset, so the
+ * sampling decision requires no shared writes and no monitor.
+ *
+ * <p>The "N out of every 100" guarantee holds per thread, which means that it is
+ * accurate in units of 100 traces for each thread that starts traces.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ *
+ * @see SamplerProperties#isPerThread()
+ */
+public class PerThreadPercentageBasedSampler implements Sampler {
+
+	private static final int WINDOW = 100;
+
+	private final boolean[] sampleDecisions;
+	private final SamplerProperties configuration;
+	private final ThreadLocal<Counter> counter = new ThreadLocal<Counter>() {
+		@Override protected Counter initialValue() {
+			return new Counter(ThreadLocalRandom.current().nextInt(WINDOW));
+		}
+	};
+
+	public PerThreadPercentageBasedSampler(SamplerProperties configuration) {
+		int outOf100 = (int) (configuration.getPercentage() * 100.0f);
+		this.sampleDecisions = toArray(PercentageBasedSampler
+				.randomBitSet(WINDOW, outOf100, new Random()));
+		this.configuration = configuration;
+	}
+
+	@Override
+	public boolean isSampled(Span currentSpan) {
+		if (this.configuration.getPercentage() == 0 || currentSpan == null) {
+			return false;
+		} else if (this.configuration.getPercentage() == 1.0f) {
+			return true;
+		}
+		return this.sampleDecisions[this.counter.get().next()];
+	}
+
+	private static boolean[] toArray(BitSet bitSet) {
+		boolean[] result = new boolean[WINDOW];
+		for (int i = 0; i < WINDOW; i++) {
+			result[i] = bitSet.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Position of the current thread in the window of sampling decisions. Only ever
+	 * accessed by its owning thread.
+	 */
+	private static final class Counter {
+		private int index;
+
+		Counter(int index) {
+			this.index = index;
+		}
+
+		int next() {
+			int i = this.index;
+			this.index = i == WINDOW - 1 ? 0 : i + 1;
+			return i;
+		}
+	}
+}
@@ -19,6 +19,13 @@ public class SamplerProperties {
 	 */
 	private float percentage = 0.1f;
 
+	/**
+	 * If set to {@code true}, each thread keeps its own sampling counter instead of
+	 * sharing a synchronized one. Use it when many threads start new traces concurrently.
+	 * The percentage is then guaranteed per thread.
+	 */
+	private boolean perThread = false;
+
 	public float getPercentage() {
 		return this.percentage;
 	}
@@ -26,4 +33,12 @@ public class SamplerProperties {
 	public void setPercentage(float percentage) {
 		this.percentage = percentage;
 	}
+
+	public boolean isPerThread() {
+		return this.perThread;
+	}
+
+	public void setPerThread(boolean perThread) {
+		this.perThread = perThread;
+	}
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.trace;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanScope;
+import org.springframework.cloud.sleuth.util.ExceptionUtils;
+
+/**
+ * {@link SpanScope} that keeps a reference to the context it has pushed to the thread.
+ * Closing it doesn't have to look up or walk the thread context - the previous
+ * context is restored directly. A scope of a span that was already current pushes
+ * nothing, so closing it leaves the thread context as it is.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+class DefaultSpanScope implements SpanScope {
+
+	private final DefaultTracer tracer;
+	private final SpanContextHolder.SpanContext context;
+	private final boolean closeSpan;
+	private final boolean pushed;
+	private boolean closed;
+
+	DefaultSpanScope(DefaultTracer tracer, SpanContextHolder.SpanContext context,
+			boolean closeSpan, boolean pushed) {
+		this.tracer = tracer;
+		this.context = context;
+		this.closeSpan = closeSpan;
+		this.pushed = pushed;
+	}
+
+	@Override
+	public Span getSpan() {
+		return this.context != null ? this.context.span : null;
+	}
+
+	@Override
+	public void close() {
+		if (this.context == null || !this.pushed || this.closed) {
+			return;
+		}
+		if (!SpanContextHolder.isCurrent(this.context)) {
+			ExceptionUtils.warn("Tried to close scope of span " + this.context.span
+					+ " but it is not the current one. You may have forgotten to close "
+					+ "a nested scope or closed this one in a different thread");
+			return;
+		}
+		this.closed = true;
+		if (this.closeSpan) {
+			this.tracer.close(this.context);
+		}
+		else {
+			SpanContextHolder.pop(this.context);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SpanScope{span=" + getSpan() + ", closeSpan=" + this.closeSpan + '}';
+	}
+}
@@ -23,9 +23,11 @@ import java.util.concurrent.Callable;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.cloud.sleuth.Sampler;
+import org.springframework.cloud.sleuth.ScopedTracer;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.cloud.sleuth.SpanReporter;
+import org.springframework.cloud.sleuth.SpanScope;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.instrument.async.SpanContinuingTraceCallable;
@@ -40,7 +42,7 @@ import org.springframework.cloud.sleuth.util.SpanNameUtil;
  * @author Spencer Gibb
  * @since 1.0.0
  */
-public class DefaultTracer implements Tracer {
+public class DefaultTracer implements ScopedTracer {
 
 	private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
 
@@ -58,6 +60,12 @@ public class DefaultTracer implements Tracer {
 
 	private final boolean traceId128;
 
+	private final SpanContextHolder.SpanFunction stoppedSpanLogger = new SpanContextHolder.SpanFunction() {
+		@Override public void apply(Span savedSpan, Span span) {
+			DefaultTracer.this.spanLogger.logStoppedSpan(savedSpan, span);
+		}
+	};
+
 	public DefaultTracer(Sampler defaultSampler, Random random, SpanNamer spanNamer,
 				SpanLogger spanLogger, SpanReporter spanReporter, TraceKeys traceKeys) {
 		this(defaultSampler, random, spanNamer, spanLogger, spanReporter, false, traceKeys);
@@ -83,6 +91,23 @@ public class DefaultTracer implements Tracer {
 		return continueSpan(createChild(parent, name));
 	}
 
+	@Override
+	public SpanScope startScopedSpan(String name) {
+		return newScope(createSpanToContinue(name, this.defaultSampler), true);
+	}
+
+	@Override
+	public SpanScope withSpanInScope(Span span) {
+		return newScope(span, false);
+	}
+
+	private SpanScope newScope(Span span, boolean closeSpan) {
+		SpanContextHolder.SpanContext previous = SpanContextHolder.getCurrentContext();
+		SpanContextHolder.SpanContext context = continueSpanInContext(span);
+		// continuing the current span again hands back its context instead of a new one
+		return new DefaultSpanScope(this, context, closeSpan, context != previous);
+	}
+
 	@Override
 	public Span createSpan(String name) {
 		return this.createSpan(name, this.defaultSampler);
@@ -90,10 +115,15 @@ public class DefaultTracer implements Tracer {
 
 	@Override
 	public Span createSpan(String name, Sampler sampler) {
+		return continueSpan(createSpanToContinue(name, sampler));
+	}
+
+	private Span createSpanToContinue(String name, Sampler sampler) {
 		String shortenedName = SpanNameUtil.shorten(name);
 		Span span;
-		if (isTracing()) {
-			span = createChild(getCurrentSpan(), shortenedName);
+		Span current = getCurrentSpan();
+		if (current != null) {
+			span = createChild(current, shortenedName);
 		}
 		else {
 			long id = createId();
@@ -107,7 +137,7 @@ public class DefaultTracer implements Tracer {
 			span = sampledSpan(span, sampler);
 			this.spanLogger.logStartedSpan(null, span);
 		}
-		return continueSpan(span);
+		return span;
 	}
 
 	@Override
@@ -115,7 +145,8 @@ public class DefaultTracer implements Tracer {
 		if (span == null) {
 			return null;
 		}
-		Span cur = SpanContextHolder.getCurrentSpan();
+		SpanContextHolder.SpanContext current = SpanContextHolder.getCurrentContext();
+		Span cur = current != null ? current.span : null;
 		if (cur == null) {
 			if (log.isTraceEnabled()) {
 				log.trace("Span in the context is null so something has already detached the span. Won't do anything about it");
@@ -126,11 +157,11 @@ public class DefaultTracer implements Tracer {
 			ExceptionUtils.warn("Tried to detach trace span but "
 					+ "it is not the current span: " + span
 					+ ". You may have forgotten to close or detach " + cur);
+			return span.getSavedSpan();
 		}
-		else {
-			SpanContextHolder.removeCurrentSpan();
-		}
-		return span.getSavedSpan();
+		Span savedSpan = current.savedSpan;
+		SpanContextHolder.removeCurrentSpan();
+		return savedSpan;
 	}
 
 	@Override
@@ -138,31 +169,36 @@ public class DefaultTracer implements Tracer {
 		if (span == null) {
 			return null;
 		}
-		Span cur = SpanContextHolder.getCurrentSpan();
-		final Span savedSpan = span.getSavedSpan();
+		SpanContextHolder.SpanContext current = SpanContextHolder.getCurrentContext();
+		Span cur = current != null ? current.span : null;
 		if (!span.equals(cur)) {
 			ExceptionUtils.warn(
 					"Tried to close span but it is not the current span: " + span
 							+ ".  You may have forgotten to close or detach " + cur);
+			return span.getSavedSpan();
+		}
+		return close(current);
+	}
+
+	/**
+	 * Stops and reports the span of the given context, that has to be the current one,
+	 * and restores the previous context.
+	 */
+	Span close(SpanContextHolder.SpanContext current) {
+		Span span = current.span;
+		Span savedSpan = current.savedSpan;
+		span.stop();
+		if (savedSpan != null && span.getParents().contains(savedSpan.getSpanId())) {
+			this.spanReporter.report(span);
+			this.spanLogger.logStoppedSpan(savedSpan, span);
 		}
 		else {
-			span.stop();
-			if (savedSpan != null && span.getParents().contains(savedSpan.getSpanId())) {
+			if (!span.isRemote()) {
 				this.spanReporter.report(span);
-				this.spanLogger.logStoppedSpan(savedSpan, span);
-			}
-			else {
-				if (!span.isRemote()) {
-					this.spanReporter.report(span);
-					this.spanLogger.logStoppedSpan(null, span);
-				}
+				this.spanLogger.logStoppedSpan(null, span);
 			}
-			SpanContextHolder.close(new SpanContextHolder.SpanFunction() {
-				@Override public void apply(Span span) {
-					DefaultTracer.this.spanLogger.logStoppedSpan(savedSpan, span);
-				}
-			});
 		}
+		SpanContextHolder.close(current, this.stoppedSpanLogger);
 		return savedSpan;
 	}
 
@@ -214,21 +250,20 @@ public class DefaultTracer implements Tracer {
 
 	@Override
 	public Span continueSpan(Span span) {
-		if (span != null) {
-			this.spanLogger.logContinuedSpan(span);
-		} else {
+		if (span == null) {
 			return null;
 		}
-		Span newSpan = createContinuedSpan(span, SpanContextHolder.getCurrentSpan());
-		SpanContextHolder.setCurrentSpan(newSpan);
-		return newSpan;
+		continueSpanInContext(span);
+		return span;
 	}
 
-	private Span createContinuedSpan(Span span, Span saved) {
-		if (saved == null && span.getSavedSpan() != null) {
-			saved = span.getSavedSpan();
+	private SpanContextHolder.SpanContext continueSpanInContext(Span span) {
+		if (span == null) {
+			return null;
 		}
-		return new Span(span, saved);
+		this.spanLogger.logContinuedSpan(span);
+		// no copy of the span, the thread context remembers what to restore
+		return SpanContextHolder.continueSpan(span);
 	}
 
 	@Override
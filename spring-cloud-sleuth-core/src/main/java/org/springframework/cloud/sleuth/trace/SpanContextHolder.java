@@ -30,24 +30,60 @@ class SpanContextHolder {
 
 	private static final Log log = org.apache.commons.logging.LogFactory
 			.getLog(SpanContextHolder.class);
-	private static final ThreadLocal<SpanContext> CURRENT_SPAN = new NamedThreadLocal<>(
+	private static final ThreadLocal<ContextSlot> CURRENT_SPAN = new NamedThreadLocal<>(
 			"Trace Context");
+	private static final SpanFunction NO_OP_FUNCTION = new NoOpFunction();
 
 	/**
 	 * Get the current span out of the thread context
 	 */
 	static Span getCurrentSpan() {
-		return isTracing() ? CURRENT_SPAN.get().span : null;
+		SpanContext current = getCurrentContext();
+		return current != null ? current.span : null;
+	}
+
+	/**
+	 * Get the current context out of the thread context. The returned context can be
+	 * used to close or pop it later on without any further thread local lookups.
+	 */
+	static SpanContext getCurrentContext() {
+		ContextSlot slot = CURRENT_SPAN.get();
+		return slot != null ? slot.current : null;
 	}
 
 	/**
 	 * Set the current span in the thread context
 	 */
 	static void setCurrentSpan(Span span) {
+		setCurrentSpan(span, span != null ? span.getSavedSpan() : null);
+	}
+
+	/**
+	 * Set the current span in the thread context, remembering the span that should
+	 * become current again once this one is closed or detached
+	 */
+	static SpanContext setCurrentSpan(Span span, Span savedSpan) {
 		if (log.isTraceEnabled()) {
 			log.trace("Setting current span " + span);
 		}
-		push(span, false);
+		return push(span, savedSpan, false);
+	}
+
+	/**
+	 * Continue the span in the thread context. The span that was current so far (or if
+	 * there was none, the saved span of the given span) is the one that becomes current
+	 * again once this one is closed or detached.
+	 */
+	static SpanContext continueSpan(Span span) {
+		if (log.isTraceEnabled()) {
+			log.trace("Continuing span " + span);
+		}
+		ContextSlot slot = slot();
+		Span savedSpan = slot.current != null ? slot.current.span : null;
+		if (savedSpan == null) {
+			savedSpan = span.getSavedSpan();
+		}
+		return push(slot, span, savedSpan, false);
 	}
 
 	/**
@@ -56,6 +92,10 @@ class SpanContextHolder {
 	 * @see #close() for a better alternative in instrumetation
 	 */
 	static void removeCurrentSpan() {
+		ContextSlot slot = CURRENT_SPAN.get();
+		if (slot != null) {
+			slot.current = null;
+		}
 		CURRENT_SPAN.remove();
 	}
 
@@ -63,7 +103,7 @@ class SpanContextHolder {
 	 * Check if there is already a span in the current thread
 	 */
 	static boolean isTracing() {
-		return CURRENT_SPAN.get() != null;
+		return getCurrentContext() != null;
 	}
 
 	/**
@@ -71,25 +111,56 @@ class SpanContextHolder {
 	 * On every iteration a function will be applied on the closed Span.
 	 */
 	static void close(SpanFunction spanFunction) {
-		SpanContext current = CURRENT_SPAN.get();
-		CURRENT_SPAN.remove();
-		while (current != null) {
-			current = current.parent;
-			spanFunction.apply(current != null ? current.span : null);
-			if (current != null) {
-				if (!current.autoClose) {
-					CURRENT_SPAN.set(current);
-					current = null;
-				}
+		SpanContext current = getCurrentContext();
+		if (current != null) {
+			close(current, spanFunction);
+		}
+	}
+
+	/**
+	 * Close the given context and all parents that can be auto closed. On every
+	 * iteration a function will be applied on the closed Span, together with the span
+	 * saved by the given context. The given context has to be the current one.
+	 */
+	static void close(SpanContext context, SpanFunction spanFunction) {
+		SpanContext current = context.parent;
+		while (true) {
+			spanFunction.apply(context.savedSpan, current != null ? current.span : null);
+			if (current == null || !current.autoClose) {
+				break;
 			}
+			current = current.parent;
 		}
+		restore(context.slot, current);
 	}
 
 	/**
 	 * Close the current span and all parents that can be auto closed.
 	 */
 	static void close() {
-		close(new NoOpFunction());
+		close(NO_OP_FUNCTION);
+	}
+
+	/**
+	 * Remove the given context from the thread context and restore the one that was
+	 * current before it got pushed. Returns {@code false} if the given context is not
+	 * the current one, in which case nothing happens.
+	 */
+	static boolean pop(SpanContext context) {
+		if (!isCurrent(context)) {
+			return false;
+		}
+		restore(context.slot, context.parent);
+		return true;
+	}
+
+	/**
+	 * Checks if the given context is the current one of the calling thread. A context
+	 * that is current in some other thread is not, since popping it from here would
+	 * rewrite that thread's state.
+	 */
+	static boolean isCurrent(SpanContext context) {
+		return CURRENT_SPAN.get() == context.slot && context.slot.current == context;
 	}
 
 	/**
@@ -98,36 +169,76 @@ class SpanContextHolder {
 	 * a parent that wasn't already in thread context.
 	 */
 	static void push(Span span, boolean autoClose) {
-		if (isCurrent(span)) {
-			return;
+		push(span, span != null ? span.getSavedSpan() : null, autoClose);
+	}
+
+	private static SpanContext push(Span span, Span savedSpan, boolean autoClose) {
+		return push(slot(), span, savedSpan, autoClose);
+	}
+
+	private static SpanContext push(ContextSlot slot, Span span, Span savedSpan,
+			boolean autoClose) {
+		SpanContext current = slot.current;
+		if (span != null && current != null && span.equals(current.span)) {
+			return current;
 		}
-		CURRENT_SPAN.set(new SpanContext(span, autoClose));
+		SpanContext context = new SpanContext(slot, span, savedSpan, autoClose, current);
+		slot.current = context;
+		return context;
 	}
 
-	private static boolean isCurrent(Span span) {
-		if (span == null || CURRENT_SPAN.get() == null) {
-			return false;
+	private static ContextSlot slot() {
+		ContextSlot slot = CURRENT_SPAN.get();
+		if (slot == null) {
+			slot = new ContextSlot();
+			CURRENT_SPAN.set(slot);
+		}
+		return slot;
+	}
+
+	private static void restore(ContextSlot slot, SpanContext context) {
+		slot.current = context;
+		// don't leave anything behind in the thread once there's nothing to trace
+		if (context == null && CURRENT_SPAN.get() == slot) {
+			CURRENT_SPAN.remove();
 		}
-		return span.equals(CURRENT_SPAN.get().span);
 	}
 
-	private static class SpanContext {
+	/**
+	 * The mutable thread local value. Contexts keep a reference to the slot of the
+	 * thread they got pushed in, so that they can be popped without a thread local
+	 * lookup.
+	 */
+	private static class ContextSlot {
+		SpanContext current;
+	}
+
+	/**
+	 * Holds a reference to the span itself and to the span that was current when it got
+	 * continued. That way a span can be continued without creating a copy of it.
+	 */
+	static class SpanContext {
+		final ContextSlot slot;
 		final Span span;
+		final Span savedSpan;
 		final boolean autoClose;
 		final SpanContext parent;
 
-		public SpanContext(Span span, boolean autoClose) {
+		private SpanContext(ContextSlot slot, Span span, Span savedSpan,
+				boolean autoClose, SpanContext parent) {
+			this.slot = slot;
 			this.span = span;
+			this.savedSpan = savedSpan;
 			this.autoClose = autoClose;
-			this.parent = CURRENT_SPAN.get();
+			this.parent = parent;
 		}
 	}
 
 	interface SpanFunction {
-		void apply(Span span);
+		void apply(Span savedSpan, Span span);
 	}
 
 	private static class NoOpFunction implements SpanFunction {
-		@Override public void apply(Span span) { }
+		@Override public void apply(Span savedSpan, Span span) { }
 	}
 }
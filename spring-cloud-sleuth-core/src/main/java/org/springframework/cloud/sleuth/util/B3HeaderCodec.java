@@ -0,0 +1,448 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.util;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanTextMap;
+
+/**
+ * Reads the tracing headers of a {@link SpanTextMap} in a single pass over its entries.
+ * Only the known header names are compared (ignoring case) - contrary to
+ * {@link TextMapUtil#asMap(Iterable)} no intermediate map gets created and no header
+ * names get lower cased.
+ * <p>
+ * Apart from the one header per field format, the single {@code b3} header format
+ * ({@code {traceId}-{spanId}-{sampled}-{parentSpanId}}, where the last two fields are
+ * optional, or just {@code {sampled}}) is understood too. If present, the {@code b3}
+ * header takes precedence over the separate id and sampling headers.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public class B3HeaderCodec {
+
+	/**
+	 * Name of the header carrying the whole trace context in the single header format
+	 */
+	public static final String B3_NAME = "b3";
+
+	private static final char SINGLE_HEADER_DELIMITER = '-';
+	private static final String DEBUG = "d";
+
+	/**
+	 * Codec for the headers used in HTTP communication
+	 */
+	public static final B3HeaderCodec HTTP = new B3HeaderCodec(Span.TRACE_ID_NAME,
+			Span.SPAN_ID_NAME, Span.PARENT_ID_NAME, Span.SAMPLED_NAME, Span.SPAN_FLAGS,
+			Span.SPAN_NAME_NAME, Span.PROCESS_ID_NAME,
+			Span.SPAN_BAGGAGE_HEADER_PREFIX + "-");
+
+	private final String traceIdName;
+	private final String spanIdName;
+	private final String parentIdName;
+	private final String sampledName;
+	private final String flagsName;
+	private final String spanNameName;
+	private final String processIdName;
+	private final String baggagePrefix;
+	private final String[] additionalNames;
+
+	/**
+	 * @param additionalNames names of non tracing headers that should be read in the
+	 * same pass, retrievable via {@link B3Headers#get(String)}
+	 */
+	public B3HeaderCodec(String traceIdName, String spanIdName, String parentIdName,
+			String sampledName, String flagsName, String spanNameName,
+			String processIdName, String baggagePrefix, String... additionalNames) {
+		this.traceIdName = traceIdName;
+		this.spanIdName = spanIdName;
+		this.parentIdName = parentIdName;
+		this.sampledName = sampledName;
+		this.flagsName = flagsName;
+		this.spanNameName = spanNameName;
+		this.processIdName = processIdName;
+		this.baggagePrefix = baggagePrefix;
+		this.additionalNames = additionalNames;
+	}
+
+	/**
+	 * Returns a codec for the same tracing headers that additionally reads the given
+	 * headers
+	 */
+	public B3HeaderCodec withAdditionalNames(String... additionalNames) {
+		return new B3HeaderCodec(this.traceIdName, this.spanIdName, this.parentIdName,
+				this.sampledName, this.flagsName, this.spanNameName, this.processIdName,
+				this.baggagePrefix, additionalNames);
+	}
+
+	/**
+	 * Reads the tracing headers. A header with a {@code null} value is treated as if it
+	 * wasn't there, so it doesn't override a value read before under the same name in
+	 * another case and isn't returned as baggage.
+	 */
+	public B3Headers read(SpanTextMap textMap) {
+		if (textMap instanceof HeaderLookup) {
+			return read((HeaderLookup) textMap);
+		}
+		B3Headers headers = new B3Headers(this);
+		for (Map.Entry<String, String> entry : textMap) {
+			headers.read(entry.getKey(), entry.getValue());
+		}
+		headers.applySingleHeader();
+		return headers;
+	}
+
+	private B3Headers read(HeaderLookup lookup) {
+		B3Headers headers = new B3Headers(this);
+		headers.traceId = lookup.getHeader(this.traceIdName);
+		headers.spanId = lookup.getHeader(this.spanIdName);
+		headers.parentId = lookup.getHeader(this.parentIdName);
+		headers.sampled = lookup.getHeader(this.sampledName);
+		headers.flags = lookup.getHeader(this.flagsName);
+		headers.spanName = lookup.getHeader(this.spanNameName);
+		headers.processId = lookup.getHeader(this.processIdName);
+		headers.single = lookup.getHeader(B3_NAME);
+		for (int i = 0; i < this.additionalNames.length; i++) {
+			String value = lookup.getHeader(this.additionalNames[i]);
+			if (value != null) {
+				if (headers.additional == null) {
+					headers.additional = new String[this.additionalNames.length];
+				}
+				headers.additional[i] = value;
+			}
+		}
+		Enumeration<String> names = lookup.getHeaderNames();
+		while (names != null && names.hasMoreElements()) {
+			String name = names.nextElement();
+			String baggageKey = name != null ? baggageKey(name) : null;
+			if (baggageKey != null) {
+				if (headers.baggage == null) {
+					headers.baggage = new LinkedHashMap<>();
+				}
+				String value = lookup.getHeader(name);
+				if (value != null) {
+					headers.baggage.put(baggageKey, value);
+				}
+			}
+		}
+		headers.applySingleHeader();
+		return headers;
+	}
+
+	/**
+	 * Value of the {@code b3} header for the given span
+	 */
+	public static String singleHeaderValue(Span span) {
+		String traceId = span.traceIdString();
+		StringBuilder sb = new StringBuilder(traceId.length() + 37);
+		sb.append(traceId).append(SINGLE_HEADER_DELIMITER)
+				.append(Span.idToHex(span.getSpanId())).append(SINGLE_HEADER_DELIMITER)
+				.append(span.isExportable() ? Span.SPAN_SAMPLED : Span.SPAN_NOT_SAMPLED);
+		if (span.hasParent()) {
+			sb.append(SINGLE_HEADER_DELIMITER).append(Span.idToHex(span.getParentId()));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Sampling decision contained in a {@code b3} header value. Returns
+	 * {@link Span#SPAN_SAMPLED}, {@link Span#SPAN_NOT_SAMPLED}, {@code "d"} for debug
+	 * or {@code null} if there is no (valid) sampling decision.
+	 */
+	public static String samplingOf(String b3) {
+		if (b3 == null) {
+			return null;
+		}
+		if (b3.length() == 1) {
+			return sampling(b3);
+		}
+		int spanIdEnd = b3.indexOf(SINGLE_HEADER_DELIMITER, b3.indexOf(SINGLE_HEADER_DELIMITER) + 1);
+		if (spanIdEnd == -1 || spanIdEnd + 2 > b3.length()) {
+			return null;
+		}
+		return sampling(b3.substring(spanIdEnd + 1, spanIdEnd + 2));
+	}
+
+	/**
+	 * Checks if a {@code b3} header value carries the debug flag
+	 */
+	public static boolean isDebug(String b3) {
+		return DEBUG.equals(samplingOf(b3));
+	}
+
+	private static String sampling(String value) {
+		if (Span.SPAN_SAMPLED.equals(value) || Span.SPAN_NOT_SAMPLED.equals(value)
+				|| DEBUG.equals(value)) {
+			return value;
+		}
+		return null;
+	}
+
+	public String getTraceIdName() {
+		return this.traceIdName;
+	}
+
+	public String getSpanIdName() {
+		return this.spanIdName;
+	}
+
+	public String getParentIdName() {
+		return this.parentIdName;
+	}
+
+	public String getSampledName() {
+		return this.sampledName;
+	}
+
+	public String getFlagsName() {
+		return this.flagsName;
+	}
+
+	public String getSpanNameName() {
+		return this.spanNameName;
+	}
+
+	public String getProcessIdName() {
+		return this.processIdName;
+	}
+
+	public String getBaggagePrefix() {
+		return this.baggagePrefix;
+	}
+
+	/**
+	 * Baggage key for the given header name or {@code null} if it's not a baggage header
+	 */
+	String baggageKey(String name) {
+		if (name.length() > this.baggagePrefix.length() && name
+				.regionMatches(true, 0, this.baggagePrefix, 0, this.baggagePrefix.length())) {
+			return name.substring(this.baggagePrefix.length()).toLowerCase();
+		}
+		return null;
+	}
+
+	/**
+	 * A {@link SpanTextMap} that can return a header by its name, ignoring case. The
+	 * codec then looks up just the tracing headers instead of iterating over all the
+	 * entries, and scans only the header names in search of baggage.
+	 */
+	public interface HeaderLookup extends SpanTextMap {
+
+		/**
+		 * Value of the header with the given name (ignoring case) or {@code null} if
+		 * there is no such header
+		 */
+		String getHeader(String name);
+
+		/**
+		 * Names of the headers, scanned once for the baggage ones
+		 */
+		Enumeration<String> getHeaderNames();
+	}
+
+	/**
+	 * Values of the tracing headers read from a {@link SpanTextMap}. A value is
+	 * {@code null} when the header was not present.
+	 */
+	public static class B3Headers {
+
+		private final B3HeaderCodec codec;
+		private String traceId;
+		private String spanId;
+		private String parentId;
+		private String sampled;
+		private String flags;
+		private String spanName;
+		private String processId;
+		private Map<String, String> baggage;
+		private String[] additional;
+		private String single;
+
+		B3Headers(B3HeaderCodec codec) {
+			this.codec = codec;
+		}
+
+		void read(String name, String value) {
+			if (name == null || value == null) {
+				return;
+			}
+			B3HeaderCodec codec = this.codec;
+			if (name.equalsIgnoreCase(codec.traceIdName)) {
+				this.traceId = value;
+			}
+			else if (name.equalsIgnoreCase(codec.spanIdName)) {
+				this.spanId = value;
+			}
+			else if (name.equalsIgnoreCase(codec.parentIdName)) {
+				this.parentId = value;
+			}
+			else if (name.equalsIgnoreCase(codec.sampledName)) {
+				this.sampled = value;
+			}
+			else if (name.equalsIgnoreCase(codec.flagsName)) {
+				this.flags = value;
+			}
+			else if (name.equalsIgnoreCase(codec.spanNameName)) {
+				this.spanName = value;
+			}
+			else if (name.equalsIgnoreCase(codec.processIdName)) {
+				this.processId = value;
+			}
+			else if (name.equalsIgnoreCase(B3_NAME)) {
+				this.single = value;
+			}
+			else {
+				String baggageKey = codec.baggageKey(name);
+				if (baggageKey != null) {
+					if (this.baggage == null) {
+						this.baggage = new LinkedHashMap<>();
+					}
+					this.baggage.put(baggageKey, value);
+					return;
+				}
+				String[] names = codec.additionalNames;
+				for (int i = 0; i < names.length; i++) {
+					if (name.equalsIgnoreCase(names[i])) {
+						if (this.additional == null) {
+							this.additional = new String[names.length];
+						}
+						this.additional[i] = value;
+						return;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Overrides the ids and sampling headers with the ones from the {@code b3}
+		 * header, if there was a valid one
+		 */
+		void applySingleHeader() {
+			String b3 = this.single;
+			if (b3 == null) {
+				return;
+			}
+			int length = b3.length();
+			if (length == 1) {
+				applySampling(sampling(b3));
+				return;
+			}
+			int traceIdEnd = b3.indexOf(SINGLE_HEADER_DELIMITER);
+			if (traceIdEnd != 16 && traceIdEnd != 32) {
+				return;
+			}
+			int spanIdEnd = traceIdEnd + 17;
+			if (length < spanIdEnd
+					|| (length > spanIdEnd && b3.charAt(spanIdEnd) != SINGLE_HEADER_DELIMITER)) {
+				return;
+			}
+			String sampling = null;
+			String parentId = null;
+			if (length > spanIdEnd) {
+				// {traceId}-{spanId}-{sampled}[-{parentSpanId}]
+				sampling = sampling(b3.substring(spanIdEnd + 1, Math.min(spanIdEnd + 2, length)));
+				int parentIdStart = spanIdEnd + 3;
+				if (sampling == null || (length > spanIdEnd + 2 && (length != parentIdStart + 16
+						|| b3.charAt(spanIdEnd + 2) != SINGLE_HEADER_DELIMITER))) {
+					return;
+				}
+				if (length > spanIdEnd + 2) {
+					parentId = b3.substring(parentIdStart);
+				}
+			}
+			this.traceId = b3.substring(0, traceIdEnd);
+			this.spanId = b3.substring(traceIdEnd + 1, spanIdEnd);
+			this.parentId = parentId;
+			applySampling(sampling);
+		}
+
+		private void applySampling(String sampling) {
+			if (DEBUG.equals(sampling)) {
+				this.flags = Span.SPAN_SAMPLED;
+				this.sampled = Span.SPAN_SAMPLED;
+			}
+			else if (sampling != null) {
+				this.sampled = sampling;
+			}
+		}
+
+		public String getTraceId() {
+			return this.traceId;
+		}
+
+		public String getSpanId() {
+			return this.spanId;
+		}
+
+		public String getParentId() {
+			return this.parentId;
+		}
+
+		public String getSampled() {
+			return this.sampled;
+		}
+
+		public String getFlags() {
+			return this.flags;
+		}
+
+		public String getSpanName() {
+			return this.spanName;
+		}
+
+		public String getProcessId() {
+			return this.processId;
+		}
+
+		/**
+		 * Baggage entries with the prefix removed and the key lower cased
+		 */
+		public Map<String, String> getBaggage() {
+			return this.baggage != null ? this.baggage
+					: Collections.<String, String>emptyMap();
+		}
+
+		/**
+		 * Value of one of the additional headers the codec was created with
+		 */
+		public String get(String name) {
+			if (this.additional == null) {
+				return null;
+			}
+			String[] names = this.codec.additionalNames;
+			for (int i = 0; i < names.length; i++) {
+				if (name.equalsIgnoreCase(names[i])) {
+					return this.additional[i];
+				}
+			}
+			return null;
+		}
+
+		public boolean isSampled() {
+			return Span.SPAN_SAMPLED.equals(this.sampled);
+		}
+
+		public boolean isDebug() {
+			return Span.SPAN_SAMPLED.equals(this.flags);
+		}
+	}
+}
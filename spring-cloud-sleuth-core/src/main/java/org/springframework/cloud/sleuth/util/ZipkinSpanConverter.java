@@ -0,0 +1,299 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.sleuth.util;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.sleuth.Log;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.util.StringUtils;
+
+import zipkin.Annotation;
+import zipkin.BinaryAnnotation;
+import zipkin.Constants;
+import zipkin.Endpoint;
+
+/**
+ * Converts a Sleuth span to a Zipkin span. The logs and the tags of the span are
+ * walked without copying them and the RPC events are classified on the way. The
+ * classification is available on its own via {@link #write(Span, Output)}, so that a
+ * span can be written straight to an encoding without building the Zipkin span first.
+ * <ul>
+ * <li>Set ids, etc
+ * <li>Create timeline annotations based on data from Span object.
+ * <li>Create binary annotations based on data from Span object.
+ * </ul>
+ *
+ * When logging {@link Constants#CLIENT_SEND}, instrumentation should also log the
+ * {@link Constants#SERVER_ADDR}. Check <a href=
+ * "https://github.com/openzipkin/zipkin-java/blob/master/zipkin/src/main/java/zipkin/Constants.java#L28">
+ * Zipkin code</a> for more information.
+ * <p>
+ * Requires {@code io.zipkin.java:zipkin} on the classpath.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public class ZipkinSpanConverter {
+
+	private static final org.apache.commons.logging.Log log = org.apache.commons.logging.LogFactory
+			.getLog(ZipkinSpanConverter.class);
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final String UNKNOWN = "unknown";
+	/** The order of {@link Annotation#compareTo(Annotation)} */
+	private static final Comparator<Log> BY_TIMESTAMP_AND_EVENT = new Comparator<Log>() {
+		@Override public int compare(Log first, Log second) {
+			return ZipkinSpanConverter.compare(first, second);
+		}
+	};
+
+	public zipkin.Span convert(Span span, Endpoint localEndpoint) {
+		//TODO: Consider adding support for the debug flag (related to #496)
+		zipkin.Span.Builder zipkinSpan = zipkin.Span.builder();
+		write(span, new BuilderOutput(zipkinSpan, localEndpoint));
+		zipkinSpan.traceIdHigh(span.getTraceIdHigh());
+		zipkinSpan.traceId(span.getTraceId());
+		if (span.hasParent()) {
+			zipkinSpan.parentId(span.getParentId());
+		}
+		zipkinSpan.id(span.getSpanId());
+		if (StringUtils.hasText(span.getName())) {
+			zipkinSpan.name(span.getName());
+		}
+		return zipkinSpan.build();
+	}
+
+	/**
+	 * Classifies the logs and the tags of the span and passes what the Zipkin span
+	 * consists of to the output: first the annotations, then the binary annotations and
+	 * finally the timestamp and the duration. The annotations come in the order Zipkin
+	 * keeps them in (by timestamp and value) without duplicates, the binary annotations
+	 * in the order of the tags. Ids and the name of the span are left to the caller.
+	 */
+	public void write(Span span, Output output) {
+		if (span.hasParent() && span.getParents().size() > 1) {
+			multipleParents(span);
+		}
+		boolean rpc = false;
+		boolean clientOrServer = false;
+		boolean sorted = true;
+		Log clientSend = null;
+		Log clientRecv = null;
+		Log previous = null;
+		for (Log log : span.logEntries()) {
+			String event = log.getEvent();
+			if (Constants.CLIENT_SEND.equals(event)) {
+				rpc = true;
+				if (clientSend == null) {
+					clientSend = log;
+				}
+			}
+			else if (Constants.CLIENT_RECV.equals(event)) {
+				rpc = true;
+				clientOrServer = true;
+				if (clientRecv == null) {
+					clientRecv = log;
+				}
+			}
+			else if (Constants.SERVER_RECV.equals(event)) {
+				rpc = true;
+				clientOrServer = true;
+			}
+			else if (Constants.SERVER_SEND.equals(event)) {
+				rpc = true;
+			}
+			if (previous != null && compare(previous, log) >= 0) {
+				sorted = false;
+			}
+			previous = log;
+		}
+		// logs are almost always recorded in order, only the others get copied
+		for (Log log : sorted ? span.logEntries() : sortedDistinct(span.logEntries())) {
+			output.annotation(log.getTimestamp() * 1000, // Zipkin is in microseconds
+					log.getEvent());
+		}
+		boolean hasLocalComponent = false;
+		boolean hasServerAddr = false;
+		String peerService = null;
+		for (Map.Entry<String, String> tag : span.tagEntries()) {
+			String key = tag.getKey();
+			if (Constants.LOCAL_COMPONENT.equals(key)) {
+				hasLocalComponent = true;
+			}
+			else if (Constants.SERVER_ADDR.equals(key)) {
+				hasServerAddr = true;
+			}
+			else if (Span.SPAN_PEER_SERVICE_TAG_NAME.equals(key)) {
+				peerService = tag.getValue();
+			}
+			output.binaryAnnotation(key, tag.getValue());
+		}
+		// A zipkin span without any annotations cannot be queried, add special "lc" to avoid that.
+		if (!clientOrServer && !hasLocalComponent) {
+			output.binaryAnnotation(Constants.LOCAL_COMPONENT, span.getProcessId() != null
+					? span.getProcessId().toLowerCase() : UNKNOWN);
+		}
+		if (clientSend != null && !hasServerAddr && peerService != null) {
+			output.serverAddress(peerService.toLowerCase());
+		}
+		if (rpc) {
+			String instanceId = instanceId();
+			if (StringUtils.hasText(instanceId)) {
+				output.binaryAnnotation(Span.INSTANCEID, instanceId);
+			}
+		}
+		// In the RPC span model, the client owns the timestamp and duration of the span. If we
+		// were propagated an id, we can assume that we shouldn't report timestamp or duration,
+		// rather let the client do that. Worst case we were propagated an unreported ID and
+		// Zipkin backfills timestamp and duration.
+		long timestamp = 0L;
+		long duration = 0L;
+		// don't report server-side timestamp on shared spans
+		if (!span.isRemote() && !span.isShared()) {
+			timestamp = span.getBegin() * 1000L;
+			if (!span.isRunning()) { // duration is authoritative, only write when the span stopped
+				duration = durationInMicros(span, clientSend, clientRecv);
+			}
+		}
+		output.end(timestamp, duration);
+	}
+
+	/**
+	 * Instance id added as a {@link Span#INSTANCEID} tag to spans having RPC events.
+	 * Called only for such spans, {@code null} by default.
+	 */
+	protected String instanceId() {
+		return null;
+	}
+
+	/**
+	 * Called for spans having more than one parent, of which only the first one is
+	 * kept. Logs an error by default.
+	 */
+	protected void multipleParents(Span span) {
+		log.error("Zipkin doesn't support spans with multiple parents. Omitting "
+				+ "other parents for " + span);
+	}
+
+	private static int compare(Log first, Log second) {
+		if (first.getTimestamp() != second.getTimestamp()) {
+			return first.getTimestamp() < second.getTimestamp() ? -1 : 1;
+		}
+		return first.getEvent().compareTo(second.getEvent());
+	}
+
+	private static List<Log> sortedDistinct(Iterable<Log> logs) {
+		List<Log> sorted = new ArrayList<>();
+		for (Log log : logs) {
+			sorted.add(log);
+		}
+		Collections.sort(sorted, BY_TIMESTAMP_AND_EVENT);
+		List<Log> distinct = new ArrayList<>(sorted.size());
+		for (Log log : sorted) {
+			if (distinct.isEmpty() || compare(distinct.get(distinct.size() - 1), log) != 0) {
+				distinct.add(log);
+			}
+		}
+		return distinct;
+	}
+
+	/**
+	 * There could be instrumentation delay between span creation and the
+	 * semantic start of the span (client send). When there's a difference,
+	 * spans look confusing. Ex users expect duration to be client
+	 * receive - send, but it is a little more than that. Rather than have
+	 * to teach each user about the possibility of instrumentation overhead,
+	 * we truncate absolute duration (span finish - create) to semantic
+	 * duration (client receive - send)
+	 */
+	private long durationInMicros(Span span, Log clientSend, Log clientRecv) {
+		if (clientSend != null && clientRecv != null) {
+			return (clientRecv.getTimestamp() - clientSend.getTimestamp()) * 1000;
+		}
+		return span.getAccumulatedMicros();
+	}
+
+	/**
+	 * Receives the parts of a Zipkin span from {@link #write(Span, Output)}, all of them
+	 * belonging to the local endpoint unless stated otherwise
+	 */
+	public interface Output {
+
+		/**
+		 * @param timestamp in microseconds
+		 */
+		void annotation(long timestamp, String value);
+
+		void binaryAnnotation(String key, String value);
+
+		/**
+		 * The {@link Constants#SERVER_ADDR} binary annotation, pointing to the remote
+		 * service with the given name
+		 */
+		void serverAddress(String serviceName);
+
+		/**
+		 * @param timestamp in microseconds, {@code 0} if it should not be reported
+		 * @param duration in microseconds, {@code 0} if it should not be reported
+		 */
+		void end(long timestamp, long duration);
+	}
+
+	private static final class BuilderOutput implements Output {
+		private final zipkin.Span.Builder zipkinSpan;
+		private final Endpoint localEndpoint;
+
+		BuilderOutput(zipkin.Span.Builder zipkinSpan, Endpoint localEndpoint) {
+			this.zipkinSpan = zipkinSpan;
+			this.localEndpoint = localEndpoint;
+		}
+
+		@Override public void annotation(long timestamp, String value) {
+			this.zipkinSpan.addAnnotation(
+					Annotation.create(timestamp, value, this.localEndpoint));
+		}
+
+		@Override public void binaryAnnotation(String key, String value) {
+			this.zipkinSpan.addBinaryAnnotation(BinaryAnnotation.builder()
+					.type(BinaryAnnotation.Type.STRING)
+					.key(key)
+					.value(value.getBytes(UTF_8))
+					.endpoint(this.localEndpoint).build());
+		}
+
+		@Override public void serverAddress(String serviceName) {
+			this.zipkinSpan.addBinaryAnnotation(BinaryAnnotation.address(
+					Constants.SERVER_ADDR,
+					Endpoint.builder().serviceName(serviceName).build()));
+		}
+
+		@Override public void end(long timestamp, long duration) {
+			if (timestamp != 0L) {
+				this.zipkinSpan.timestamp(timestamp);
+			}
+			if (duration != 0L) {
+				this.zipkinSpan.duration(duration);
+			}
+		}
+	}
+}
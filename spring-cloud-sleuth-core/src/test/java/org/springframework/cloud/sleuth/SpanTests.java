@@ -284,6 +284,82 @@ public class SpanTests {
 		assertThat(span).isEqualTo(span2);
 	}
 
+	@Test
+	public void should_keep_single_parent_id() throws IOException {
+		Span span = Span.builder().traceId(1L).spanId(2L).parent(3L).build();
+
+		then(span.hasParent()).isTrue();
+		then(span.getParentId()).isEqualTo(3L);
+		then(span.getParents()).containsExactly(3L);
+	}
+
+	@Test
+	public void should_keep_all_parents_when_there_are_more_than_one() throws IOException {
+		Span span = Span.builder().traceId(1L).spanId(2L).parent(3L).parent(4L).build();
+
+		then(span.hasParent()).isTrue();
+		then(span.getParentId()).isEqualTo(3L);
+		then(span.getParents()).containsExactly(3L, 4L);
+	}
+
+	@Test
+	public void should_have_no_parents_for_root_span() throws IOException {
+		Span span = Span.builder().traceId(1L).spanId(1L).build();
+
+		then(span.hasParent()).isFalse();
+		then(span.getParents()).isEmpty();
+	}
+
+	@Test
+	public void should_treat_null_parent_as_no_parent() throws IOException {
+		Span root = Span.builder().traceId(1L).spanId(1L).parent(null).build();
+		Span child = Span.builder().traceId(1L).spanId(2L).parent(3L).parent(null).build();
+		Span noParents = Span.builder().traceId(1L).spanId(1L).parents(null).build();
+
+		then(root.hasParent()).isFalse();
+		then(root.getParents()).isEmpty();
+		then(child.getParents()).containsExactly(3L);
+		then(noParents.hasParent()).isFalse();
+	}
+
+	@Test
+	public void should_properly_serialize_parents() throws IOException {
+		Span span = Span.builder().traceId(1L).spanId(2L).parent(3L).build();
+		ObjectMapper objectMapper = new ObjectMapper();
+
+		String serialized = objectMapper.writeValueAsString(span);
+		Span deserialized = objectMapper.readValue(serialized, Span.class);
+
+		assertThat(serialized).contains("\"parents\":[3]");
+		then(deserialized.hasParent()).isTrue();
+		then(deserialized.getParentId()).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_share_empty_collections_when_nothing_was_recorded() throws IOException {
+		Span span = Span.builder().traceId(1L).spanId(2L).exportable(false).build();
+		Span other = Span.builder().traceId(1L).spanId(3L).exportable(false).build();
+
+		then(span.tags()).isEmpty();
+		then(span.logs()).isEmpty();
+		then(span.getBaggage()).isEmpty();
+		then(span.tags()).isSameAs(other.tags());
+		then(span.logs()).isSameAs(other.logs());
+		then(span.getBaggage()).isSameAs(other.getBaggage());
+	}
+
+	@Test
+	public void should_reflect_tags_added_to_continued_span_that_had_none() throws IOException {
+		Span span = Span.builder().traceId(1L).spanId(2L).build();
+		Span continued = new Span(span, null);
+
+		continued.tag("foo", "bar");
+		continued.logEvent("baz");
+
+		then(span.tags()).containsEntry("foo", "bar");
+		then(span.logs()).hasSize(1);
+	}
+
 	private Span.SpanBuilder builder() {
 		return Span.builder().name("http:name").traceId(1L).spanId(2L).parent(3L)
 				.begin(1L).end(2L).traceId(3L).exportable(true).parent(4L)
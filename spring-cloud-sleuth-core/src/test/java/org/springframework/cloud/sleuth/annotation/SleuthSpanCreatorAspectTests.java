@@ -113,6 +113,20 @@ public class SleuthSpanCreatorAspectTests {
 		then(ExceptionUtils.getLastException()).isNull();
 	}
 
+	@Test
+	public void shouldTagSpansWithArgumentsOfEachInvocationOfTheSameMethod() {
+		this.testBean.testMethod5("first");
+		this.testBean.testMethod5("second");
+
+		List<Span> spans = new ArrayList<>(this.accumulator.getSpans());
+		then(new ListOfSpans(spans)).hasSize(2)
+				.hasASpanWithTagEqualTo("testTag", "first")
+				.hasASpanWithTagEqualTo("testTag", "second");
+		then(spans.get(0).getName()).isEqualTo(spans.get(1).getName())
+				.isEqualTo("custom-name-on-test-method5");
+		then(ExceptionUtils.getLastException()).isNull();
+	}
+
 	@Test
 	public void shouldCreateSpanWithLogWhenAnnotationOnInterfaceMethod() {
 		this.testBean.testMethod8("test");
@@ -17,6 +17,7 @@
 package org.springframework.cloud.sleuth.annotation;
 
 import org.junit.Test;
+import org.springframework.expression.spel.SpelCompilerMode;
 
 import static org.assertj.core.api.BDDAssertions.then;
 
@@ -41,6 +42,53 @@ public class SpelTagValueExpressionResolverTests {
 
 		then(resolved).isEqualTo("BAR");
 	}
+
+	@Test
+	public void should_parse_an_expression_only_once() throws Exception {
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver();
+
+		then(resolver.resolve("length() + 1", "foo")).isEqualTo("4");
+		then(resolver.resolve("length() + 1", "foobar")).isEqualTo("7");
+		then(resolver.resolve("length() + 2", "foo")).isEqualTo("5");
+
+		then(resolver.cachedExpressions()).isEqualTo(2);
+	}
+
+	@Test
+	public void should_not_cache_more_expressions_than_the_limit() throws Exception {
+		SpelTagValueExpressionResolver resolver = new SpelTagValueExpressionResolver();
+
+		for (int i = 0; i < SpelTagValueExpressionResolver.MAX_CACHED_EXPRESSIONS + 10; i++) {
+			then(resolver.resolve("length() + " + i, "foo")).isEqualTo(String.valueOf(3 + i));
+		}
+
+		then(resolver.cachedExpressions())
+				.isEqualTo(SpelTagValueExpressionResolver.MAX_CACHED_EXPRESSIONS);
+	}
+
+	@Test
+	public void should_resolve_values_with_compiled_expressions() throws Exception {
+		SpelTagValueExpressionResolver resolver =
+				new SpelTagValueExpressionResolver(SpelCompilerMode.IMMEDIATE);
+
+		for (int i = 0; i < 3; i++) {
+			then(resolver.resolve("length() + 1", "foo")).isEqualTo("4");
+		}
+		then(resolver.resolve("invalid() structure + 1", new Foo())).isEqualTo("BAR");
+	}
+
+	@Test
+	public void should_not_reuse_an_expression_compiled_for_another_type() throws Exception {
+		SpelTagValueExpressionResolver resolver =
+				new SpelTagValueExpressionResolver(SpelCompilerMode.IMMEDIATE);
+
+		for (int i = 0; i < 3; i++) {
+			then(resolver.resolve("length() + 1", "foo")).isEqualTo("4");
+		}
+		then(resolver.resolve("length() + 1", new StringBuilder("foobar"))).isEqualTo("7");
+		then(resolver.resolve("length() + 1", "foo")).isEqualTo("4");
+		then(resolver.cachedExpressions()).isEqualTo(2);
+	}
 }
 
 class Foo {
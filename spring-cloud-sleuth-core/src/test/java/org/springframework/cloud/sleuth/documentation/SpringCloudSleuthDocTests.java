@@ -29,9 +29,11 @@ import org.mockito.Mockito;
 import org.springframework.cloud.sleuth.DefaultSpanNamer;
 import org.springframework.cloud.sleuth.NoOpSpanReporter;
 import org.springframework.cloud.sleuth.Sampler;
+import org.springframework.cloud.sleuth.ScopedTracer;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanName;
 import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.SpanScope;
 import org.springframework.cloud.sleuth.TraceCallable;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.TraceRunnable;
@@ -119,7 +121,7 @@ public class SpringCloudSleuthDocTests {
 		executorService.shutdown();
 	}
 
-	Tracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(), new DefaultSpanNamer(),
+	ScopedTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(), new DefaultSpanNamer(),
 			new NoOpSpanLogger(), new NoOpSpanReporter(), new TraceKeys());
 
 	@Test
@@ -148,6 +150,27 @@ public class SpringCloudSleuthDocTests {
 		then(newSpan).isNotNull();
 	}
 
+	@Test
+	public void should_create_a_scoped_span_with_tracer() {
+		String taxValue = "10";
+
+		// tag::manual_scoped_span_creation[]
+		// Start a span and put it in scope. If there was a span present in this
+		// thread it will become the new span's parent.
+		try (SpanScope scope = this.tracer.startScopedSpan("calculateTax")) {
+			// ...
+			// You can tag a span
+			this.tracer.addTag("taxValue", taxValue);
+			// ...
+			// You can log an event on a span
+			scope.getSpan().logEvent("taxCalculated");
+		}
+		// Closing the scope closed the span and made the previous span current
+		// end::manual_scoped_span_creation[]
+
+		then(this.tracer.getCurrentSpan()).isNull();
+	}
+
 	@Test
 	public void should_continue_a_span_with_tracer() throws Exception {
 		ExecutorService executorService = Executors.newSingleThreadExecutor();
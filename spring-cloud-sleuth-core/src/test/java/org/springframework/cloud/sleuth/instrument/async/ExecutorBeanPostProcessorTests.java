@@ -1,15 +1,25 @@
 package org.springframework.cloud.sleuth.instrument.async;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.aop.framework.AopConfigException;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.sleuth.DefaultSpanNamer;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanNamer;
+import org.springframework.cloud.sleuth.TraceKeys;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.ClassUtils;
 
@@ -23,6 +33,7 @@ import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 public class ExecutorBeanPostProcessorTests {
 
 	@Mock BeanFactory beanFactory;
+	@Mock Tracer tracer;
 
 	@Test
 	public void should_create_a_cglib_proxy_by_default() throws Exception {
@@ -39,6 +50,66 @@ public class ExecutorBeanPostProcessorTests {
 		}
 	}
 
+	@Test
+	public void should_pass_wrapped_tasks_to_the_executor_creating_the_trace_executor_once() throws Exception {
+		givenTracingBeans();
+		RecordingExecutor executor = new RecordingExecutor();
+		Executor proxy = (Executor) new ExecutorBeanPostProcessor(this.beanFactory)
+				.postProcessAfterInitialization(executor, "foo");
+
+		proxy.execute(runnable());
+		proxy.execute(runnable());
+
+		then(executor.commands).hasSize(2);
+		then(executor.commands.get(0)).isInstanceOf(SpanContinuingTraceRunnable.class);
+		then(executor.commands.get(1)).isInstanceOf(SpanContinuingTraceRunnable.class);
+		BDDMockito.then(this.beanFactory).should().getBean(Tracer.class);
+	}
+
+	@Test
+	public void should_only_propagate_the_span_for_executors_configured_as_propagation_only() throws Exception {
+		givenTracingBeans();
+		SleuthAsyncProperties properties = new SleuthAsyncProperties();
+		properties.getPropagationOnlyExecutors().add("foo");
+		BDDMockito.given(this.beanFactory.getBean(SleuthAsyncProperties.class)).willReturn(properties);
+		RecordingExecutor executor = new RecordingExecutor();
+		RecordingExecutor otherExecutor = new RecordingExecutor();
+		Executor proxy = (Executor) new ExecutorBeanPostProcessor(this.beanFactory)
+				.postProcessAfterInitialization(executor, "foo");
+		Executor otherProxy = (Executor) new ExecutorBeanPostProcessor(this.beanFactory)
+				.postProcessAfterInitialization(otherExecutor, "bar");
+
+		proxy.execute(runnable());
+		otherProxy.execute(runnable());
+
+		then(executor.commands).hasSize(1);
+		then(executor.commands.get(0)).isInstanceOf(SpanPropagatingRunnable.class);
+		then(otherExecutor.commands).hasSize(1);
+		then(otherExecutor.commands.get(0)).isInstanceOf(SpanContinuingTraceRunnable.class);
+	}
+
+	@Test
+	public void should_invoke_non_task_submitting_methods_on_the_executor() throws Exception {
+		RecordingExecutor executor = new RecordingExecutor();
+		RecordingExecutor proxy = (RecordingExecutor) new ExecutorBeanPostProcessor(this.beanFactory)
+				.postProcessAfterInitialization(executor, "foo");
+
+		then(proxy.getName()).isEqualTo("recording");
+		BDDMockito.verifyZeroInteractions(this.beanFactory);
+	}
+
+	static class RecordingExecutor implements Executor {
+		final List<Runnable> commands = new ArrayList<>();
+
+		@Override public void execute(Runnable command) {
+			this.commands.add(command);
+		}
+
+		public String getName() {
+			return "recording";
+		}
+	}
+
 	@Test
 	public void should_create_jdk_proxy_when_cglib_fails_to_be_done() throws Exception {
 		ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
@@ -55,7 +126,7 @@ public class ExecutorBeanPostProcessorTests {
 		ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
 		ExecutorBeanPostProcessor bpp = new ExecutorBeanPostProcessor(this.beanFactory) {
 			@Override Object createProxy(Object bean, boolean cglibProxy,
-					Executor executor) {
+					Executor executor, String beanName) {
 				throw new AopConfigException("foo");
 			}
 		};
@@ -77,12 +148,49 @@ public class ExecutorBeanPostProcessorTests {
 	class FooThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
 	}
 
+	@Test
+	public void should_trace_submitted_tasks_and_use_the_configuration_of_the_ThreadPoolTaskExecutor() throws Exception {
+		givenTracingBeans();
+		FooThreadPoolTaskExecutor executor = new FooThreadPoolTaskExecutor();
+		executor.setCorePoolSize(3);
+		ThreadPoolTaskExecutor proxy = (ThreadPoolTaskExecutor) new ExecutorBeanPostProcessor(this.beanFactory)
+				.postProcessAfterInitialization(executor, "foo");
+		proxy.afterPropertiesSet();
+
+		try {
+			then(proxy.getCorePoolSize()).isEqualTo(3);
+			then(proxy.submit(new Callable<String>() {
+				@Override public String call() throws Exception {
+					return "callable";
+				}
+			}).get(5, TimeUnit.SECONDS)).isEqualTo("callable");
+			then(proxy.submitListenable(runnable()).get(5, TimeUnit.SECONDS)).isNull();
+			BDDMockito.then(this.tracer).should(BDDMockito.times(2))
+					.createSpan(BDDMockito.anyString(), BDDMockito.any(Span.class));
+		} finally {
+			proxy.shutdown();
+		}
+	}
+
+	private void givenTracingBeans() {
+		BDDMockito.given(this.beanFactory.getBean(Tracer.class)).willReturn(this.tracer);
+		BDDMockito.given(this.beanFactory.getBean(TraceKeys.class)).willReturn(new TraceKeys());
+		BDDMockito.given(this.beanFactory.getBean(SpanNamer.class)).willReturn(new DefaultSpanNamer());
+	}
+
+	private Runnable runnable() {
+		return new Runnable() {
+			@Override public void run() {
+			}
+		};
+	}
+
 	@Test
 	public void should_throw_exception_when_it_is_not_possible_to_create_any_proxyfor_ThreadPoolTaskExecutor() throws Exception {
 		ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
 		ExecutorBeanPostProcessor bpp = new ExecutorBeanPostProcessor(this.beanFactory) {
 			@Override Object createThreadPoolTaskExecutorProxy(Object bean, boolean cglibProxy,
-					ThreadPoolTaskExecutor executor) {
+					ThreadPoolTaskExecutor executor, String beanName) {
 				throw new AopConfigException("foo");
 			}
 		};
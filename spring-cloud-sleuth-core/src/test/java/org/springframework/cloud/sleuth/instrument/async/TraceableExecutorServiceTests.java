@@ -9,8 +9,11 @@ import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.hamcrest.Description;
@@ -77,6 +80,56 @@ public class TraceableExecutorServiceTests {
 		then(this.spanVerifyingRunnable.spanIds.stream().distinct().collect(toList())).hasSize(TOTAL_THREADS);
 	}
 
+	@Test
+	public void should_only_propagate_the_current_span_in_propagation_only_mode()
+			throws Exception {
+		this.traceManagerableExecutorService = new TraceableExecutorService(
+				this.executorService, this.tracer, new TraceKeys(), this.spanNamer, null,
+				true);
+		Span span = this.tracer.createSpan("http:PARENT");
+		CompletableFuture.allOf(runnablesExecutedViaTraceManagerableExecutorService()).get();
+		this.tracer.close(span);
+
+		then(this.spanVerifyingRunnable.traceIds.stream().distinct().collect(toList()))
+				.containsOnly(span.getTraceId());
+		then(this.spanVerifyingRunnable.spanIds.stream().distinct().collect(toList()))
+				.containsOnly(span.getSpanId());
+		then(this.tracer.getCurrentSpan()).isNull();
+	}
+
+	@Test
+	public void should_keep_the_callers_span_when_a_saturated_executor_runs_the_task_in_the_caller_thread()
+			throws Exception {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS,
+				new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy());
+		ExecutorService traceExecutor = new TraceableExecutorService(executor,
+				this.tracer, new TraceKeys(), this.spanNamer, null, true);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Span> spansInCallerThread = new ArrayList<>();
+		Span span = this.tracer.createSpan("http:PARENT");
+		try {
+			traceExecutor.execute(() -> {
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			traceExecutor.execute(() -> spansInCallerThread.add(this.tracer.getCurrentSpan()));
+			traceExecutor.submit(() -> spansInCallerThread.add(this.tracer.getCurrentSpan())).get();
+
+			then(spansInCallerThread).containsExactly(span, span);
+			then(this.tracer.getCurrentSpan()).isSameAs(span);
+		}
+		finally {
+			release.countDown();
+			this.tracer.close(span);
+			traceExecutor.shutdown();
+		}
+		then(this.tracer.isTracing()).isFalse();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void should_wrap_methods_in_trace_representation_only_for_non_tracing_callables() throws Exception {
@@ -126,6 +126,43 @@ public class HeaderBasedMessagingExtractorTests {
 		then(span.getSpanId()).isEqualTo(10L);
 	}
 
+	@Test
+	public void joinsTraceFromSingleB3Header() {
+		HeaderBasedMessagingExtractor extractor = new HeaderBasedMessagingExtractor();
+		SpanTextMap spanTextMap = spanTextMap();
+		spanTextMap.put(TraceMessageHeaders.B3_NAME, "0000000000000014-000000000000000a-1-000000000000001e");
+
+		Span span = extractor.joinTrace(spanTextMap);
+
+		then(span).isExportable().isShared();
+		then(span.getTraceId()).isEqualTo(20L);
+		then(span.getSpanId()).isEqualTo(10L);
+		then(span.getParents()).containsExactly(30L);
+	}
+
+	@Test
+	public void samplesWhenSingleB3HeaderHasDebugFlag() {
+		HeaderBasedMessagingExtractor extractor = new HeaderBasedMessagingExtractor();
+		SpanTextMap spanTextMap = spanTextMap();
+		spanTextMap.put(TraceMessageHeaders.B3_NAME, "0000000000000014-000000000000000a-d");
+
+		Span span = extractor.joinTrace(spanTextMap);
+
+		then(span).isExportable();
+		then(span.getParents()).isEmpty();
+	}
+
+	@Test
+	public void doesNotSampleWhenSingleB3HeaderIsNotSampled() {
+		HeaderBasedMessagingExtractor extractor = new HeaderBasedMessagingExtractor();
+		SpanTextMap spanTextMap = spanTextMap();
+		spanTextMap.put(TraceMessageHeaders.B3_NAME, "0000000000000014-000000000000000a-0");
+
+		Span span = extractor.joinTrace(spanTextMap);
+
+		then(span).isNotExportable();
+	}
+
 	private SpanTextMap spanTextMap() {
 		return new SpanTextMap() {
 			private final Map<String, String> map = new HashMap<>();
@@ -47,6 +47,32 @@ public class HeaderBasedMessagingInjectorTests {
 				.contains(new AbstractMap.SimpleEntry<String, String>("baggage_foo", "bar"));
 	}
 
+	@Test
+	public void should_inject_a_single_b3_header_when_single_header_format_is_used() throws Exception {
+		Span span = Span.builder()
+				.spanId(1L)
+				.traceId(2L)
+				.name("span")
+				.exportable(false)
+				.build();
+		Map<String, String> holder = new HashMap<>();
+
+		new HeaderBasedMessagingInjector(new TraceKeys(), true).inject(span, textMap(holder));
+
+		then(holder)
+				.hasSize(1)
+				.containsEntry(TraceMessageHeaders.B3_NAME, "0000000000000002-0000000000000001-0");
+	}
+
+	@Test
+	public void should_inject_not_sampled_b3_header_when_there_is_no_span() throws Exception {
+		Map<String, String> holder = new HashMap<>();
+
+		new HeaderBasedMessagingInjector(new TraceKeys(), true).inject(null, textMap(holder));
+
+		then(holder).hasSize(1).containsEntry(TraceMessageHeaders.B3_NAME, "0");
+	}
+
 	private SpanTextMap textMap(Map<String, String> textMap) {
 		return new SpanTextMap() {
 			@Override public Iterator<Map.Entry<String, String>> iterator() {
@@ -35,10 +35,10 @@ public class MessagingSpanExtractorTests {
 	@Test
 	public void should_return_null_if_trace_or_span_is_missing() {
 		then(this.extractor.joinTrace(
-				new MessagingTextMap(MessageBuilder.withPayload("")))).isNull();
+				new MessagingTextMap(MessageBuilder.withPayload("").build()))).isNull();
 
 		then(this.extractor.joinTrace(
-				new MessagingTextMap(MessageBuilder.withPayload("").copyHeaders(headers("trace"))))).isNull();
+				new MessagingTextMap(MessageBuilder.withPayload("").copyHeaders(headers("trace")).build()))).isNull();
 	}
 
 	@Test
@@ -46,7 +46,7 @@ public class MessagingSpanExtractorTests {
 		try {
 			this.extractor.joinTrace(
 					new MessagingTextMap(MessageBuilder.withPayload("")
-							.copyHeaders(headers("invalid", randomId()))));
+							.copyHeaders(headers("invalid", randomId())).build()));
 			fail("should throw an exception");
 		} catch (IllegalArgumentException e) {
 			then(e).hasMessageContaining("Malformed id");
@@ -59,7 +59,7 @@ public class MessagingSpanExtractorTests {
 
 		Span span = this.extractor.joinTrace(
 				new MessagingTextMap(MessageBuilder.withPayload("")
-						.copyHeaders(headers(traceId128, randomId()))));
+						.copyHeaders(headers(traceId128, randomId())).build()));
 
 		then(span.traceIdString()).isEqualTo(traceId128);
 	}
@@ -70,7 +70,7 @@ public class MessagingSpanExtractorTests {
 
 		Span span = this.extractor.joinTrace(
 				new MessagingTextMap(MessageBuilder.withPayload("")
-						.copyHeaders(headers(traceId128, randomId()))));
+						.copyHeaders(headers(traceId128, randomId())).build()));
 
 		then(span)
 				.hasBaggageItem("foo", "foofoo")
@@ -84,7 +84,7 @@ public class MessagingSpanExtractorTests {
 		try {
 			this.extractor.joinTrace(
 					new MessagingTextMap(MessageBuilder.withPayload("")
-							.copyHeaders(headers(randomId(), "invalid"))));
+							.copyHeaders(headers(randomId(), "invalid")).build()));
 			fail("should throw an exception");
 		} catch (IllegalArgumentException e) {
 			then(e).hasMessageContaining("Malformed id");
@@ -96,7 +96,7 @@ public class MessagingSpanExtractorTests {
 		try {
 			this.extractor.joinTrace(
 					new MessagingTextMap(MessageBuilder.withPayload("")
-							.copyHeaders(headers(randomId(), randomId(), "invalid"))));
+							.copyHeaders(headers(randomId(), randomId(), "invalid")).build()));
 			fail("should throw an exception");
 		} catch (IllegalArgumentException e) {
 			then(e).hasMessageContaining("Malformed id");
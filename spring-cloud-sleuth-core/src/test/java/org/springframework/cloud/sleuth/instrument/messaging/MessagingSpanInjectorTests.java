@@ -40,21 +40,45 @@ public class MessagingSpanInjectorTests {
 	public void spanHeadersAdded() {
 		Span span = Span.builder().name("http:foo").spanId(1L).traceId(2L).build();
 		Message<?> message = new GenericMessage<>("Hello World");
-		MessageBuilder<?> messageBuilder = MessageBuilder.fromMessage(message);
+		MessagingTextMap carrier = new MessagingTextMap(message);
 
-		this.spanInjector.inject(span, new MessagingTextMap(messageBuilder));
+		this.spanInjector.inject(span, carrier);
 
-		assertThat(messageBuilder.build().getHeaders()).containsKey(TraceMessageHeaders.SPAN_ID_NAME);
+		assertThat(carrier.applyTo(message).getHeaders()).containsKey(TraceMessageHeaders.SPAN_ID_NAME);
+	}
+
+	@Test
+	public void spanHeadersAddedInOneStepWithoutModifyingTheOriginalMessage() {
+		Span span = Span.builder().name("http:foo").spanId(1L).traceId(2L)
+				.exportable(true).build();
+		Message<?> message = MessageBuilder.withPayload("Hello World")
+				.setHeader("foo", "bar").build();
+		MessagingTextMap carrier = new MessagingTextMap(message);
+
+		this.spanInjector.inject(span, carrier);
+		carrier.setHeader(TraceMessageHeaders.MESSAGE_SENT_FROM_CLIENT, true);
+		Message<?> tracedMessage = carrier.applyTo(message);
+
+		assertThat(tracedMessage.getPayload()).isEqualTo("Hello World");
+		assertThat(tracedMessage.getHeaders())
+				.containsEntry("foo", "bar")
+				.containsEntry(TraceMessageHeaders.TRACE_ID_NAME, Span.idToHex(2L))
+				.containsEntry(TraceMessageHeaders.SPAN_ID_NAME, Span.idToHex(1L))
+				.containsEntry(TraceMessageHeaders.SPAN_NAME_NAME, "http:foo")
+				.containsEntry(TraceMessageHeaders.MESSAGE_SENT_FROM_CLIENT, true);
+		assertThat(message.getHeaders())
+				.doesNotContainKey(TraceMessageHeaders.SPAN_ID_NAME);
 	}
 
 	@Test
 	public void shouldNotOverrideSpanTags() {
 		Span span = spanWithStringPayloadType();
-		MessageBuilder<?> messageBuilder = messageWithIntegerPayloadType();
+		Message<?> message = messageWithIntegerPayloadType();
+		MessagingTextMap carrier = new MessagingTextMap(message);
 
-		this.spanInjector.inject(span, new MessagingTextMap(messageBuilder));
+		this.spanInjector.inject(span, carrier);
 
-		assertThat(messageBuilder.build().getHeaders()).containsKeys(TraceMessageHeaders.SPAN_ID_NAME,
+		assertThat(carrier.applyTo(message).getHeaders()).containsKeys(TraceMessageHeaders.SPAN_ID_NAME,
 				"message/payload-type");
 		assertThat(span).hasATag("message/payload-type", "java.lang.String");
 	}
@@ -65,10 +89,10 @@ public class MessagingSpanInjectorTests {
 		return span;
 	}
 
-	private MessageBuilder<?> messageWithIntegerPayloadType() {
+	private Message<?> messageWithIntegerPayloadType() {
 		MessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		accessor.setHeader("message/payload-type", "java.lang.Integer");
-		return MessageBuilder.withPayload("Hello World").setHeaders(accessor);
+		return MessageBuilder.withPayload("Hello World").setHeaders(accessor).build();
 	}
 
 	@Test
@@ -77,12 +101,11 @@ public class MessagingSpanInjectorTests {
 		MessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		Message<String> messageToBuild = MessageBuilder.createMessage("Hello World",
 				accessor.getMessageHeaders());
-		MessageBuilder<String> messageBuilder = MessageBuilder
-				.fromMessage(messageToBuild);
+		MessagingTextMap carrier = new MessagingTextMap(messageToBuild);
 
-		this.spanInjector.inject(span, new MessagingTextMap(messageBuilder));
+		this.spanInjector.inject(span, carrier);
 
-		Message<String> message = messageBuilder.build();
+		Message<?> message = carrier.applyTo(messageToBuild);
 		assertThat(message.getHeaders())
 				.containsKey(NativeMessageHeaderAccessor.NATIVE_HEADERS);
 		MessageHeaderAccessor natives = NativeMessageHeaderAccessor
@@ -124,6 +124,63 @@ public class HttpServletRequestExtractorTests {
 		then(span.isShared()).isFalse();
 	}
 
+	@Test
+	public void should_join_trace_from_single_b3_header() {
+		BDDMockito.given(this.request.getHeaderNames())
+				.willReturn(new Vector<>(Arrays.asList("b3")).elements());
+		BDDMockito.given(this.request.getHeader("b3"))
+				.willReturn("463ac35c9f6413ad48485a3953bb6124-0000000000000001-1-0000000000000002");
+
+		Span span = this.extractor.joinTrace(new HttpServletRequestTextMap(this.request));
+
+		then(span.traceIdString()).isEqualTo("463ac35c9f6413ad48485a3953bb6124");
+		then(span.getSpanId()).isEqualTo(1L);
+		then(span.getParents()).containsExactly(2L);
+		then(span.isShared()).isTrue();
+	}
+
+	@Test
+	public void should_not_set_shared_flag_for_non_sampled_single_b3_header() {
+		BDDMockito.given(this.request.getHeaderNames())
+				.willReturn(new Vector<>(Arrays.asList("b3")).elements());
+		BDDMockito.given(this.request.getHeader("b3"))
+				.willReturn("48485a3953bb6124-0000000000000001-0");
+
+		Span span = this.extractor.joinTrace(new HttpServletRequestTextMap(this.request));
+
+		then(span.isShared()).isFalse();
+		then(span.isExportable()).isFalse();
+	}
+
+	@Test
+	public void should_ignore_malformed_single_b3_header() {
+		BDDMockito.given(this.request.getHeaderNames())
+				.willReturn(new Vector<>(Arrays.asList("b3")).elements());
+		BDDMockito.given(this.request.getHeader("b3"))
+				.willReturn("48485a3953bb6124-01");
+
+		then(this.extractor.joinTrace(new HttpServletRequestTextMap(this.request))).isNull();
+	}
+
+	@Test
+	public void should_look_up_tracing_headers_and_scan_names_for_baggage_only() {
+		spanInHeaders();
+		BDDMockito.given(this.request.getHeaderNames())
+				.willReturn(new Vector<>(Arrays.asList(Span.TRACE_ID_NAME,
+						Span.SPAN_ID_NAME, Span.SAMPLED_NAME, "Accept",
+						Span.SPAN_BAGGAGE_HEADER_PREFIX + "-Foo")).elements());
+		BDDMockito.given(this.request.getHeader(Span.SPAN_BAGGAGE_HEADER_PREFIX + "-Foo"))
+				.willReturn("bar");
+
+		Span span = this.extractor.joinTrace(
+				new HttpServletRequestTextMap(this.request, "/foo"));
+
+		then(span).hasBaggageItem("foo", "bar");
+		then(span.getName()).isEqualTo("http:/parent/foo");
+		BDDMockito.then(this.request).should(BDDMockito.never()).getHeader("Accept");
+		BDDMockito.then(this.request).should(BDDMockito.never()).getRequestURI();
+	}
+
 	private String spanInHeaders() {
 		String hex128Bits = "463ac35c9f6413ad48485a3953bb6124";
 		String lower64Bits = "48485a3953bb6124";
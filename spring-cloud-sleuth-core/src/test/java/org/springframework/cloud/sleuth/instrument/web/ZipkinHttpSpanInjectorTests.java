@@ -45,6 +45,37 @@ public class ZipkinHttpSpanInjectorTests {
 				.contains(new AbstractMap.SimpleEntry<String, String>("baggage-foo", "bar"));
 	}
 
+	@Test
+	public void should_inject_a_single_b3_header_when_single_header_format_is_used() throws Exception {
+		Span span = Span.builder()
+				.spanId(1L)
+				.traceId(2L)
+				.parent(3L)
+				.baggage("foo", "bar")
+				.name("span")
+				.exportable(true)
+				.build();
+		Map<String, String> holder = new HashMap<>();
+
+		new ZipkinHttpSpanInjector(true).inject(span, textMap(holder));
+
+		then(holder)
+				.hasSize(2)
+				.containsEntry("b3", "0000000000000002-0000000000000001-1-0000000000000003")
+				.containsEntry("baggage-foo", "bar");
+	}
+
+	@Test
+	public void should_not_override_existing_trace_context_when_single_header_format_is_used() throws Exception {
+		Span span = Span.builder().spanId(1L).traceId(2L).build();
+		Map<String, String> holder = new HashMap<>();
+		holder.put(Span.TRACE_ID_NAME, Span.idToHex(20L));
+
+		new ZipkinHttpSpanInjector(true).inject(span, textMap(holder));
+
+		then(holder).doesNotContainKey("b3");
+	}
+
 	private SpanTextMap textMap(Map<String, String> textMap) {
 		return new SpanTextMap() {
 			@Override public Iterator<Map.Entry<String, String>> iterator() {
@@ -22,13 +22,17 @@ import feign.Response;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Random;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -108,6 +112,33 @@ public class TraceFeignClientTests {
 				.hasATag(Span.SPAN_ERROR_TAG_NAME, "exception has occurred");
 	}
 
+	@Test
+	public void should_pass_request_with_all_tracing_headers_to_delegate() throws IOException {
+		Map<String, Collection<String>> headers = new HashMap<>();
+		headers.put("foo", Collections.singletonList("bar"));
+		headers.put(Span.PROCESS_ID_NAME, Collections.singletonList("custom"));
+		Request request = Request.create("POST", "http://foo/bar", headers,
+				"body".getBytes(), Charset.defaultCharset());
+
+		this.traceFeignClient.execute(request, new Request.Options());
+
+		ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+		BDDMockito.then(this.client).should().execute(captor.capture(), BDDMockito.any());
+		Request modified = captor.getValue();
+		Span span = this.spanAccumulator.getSpans().get(0);
+		then(modified.headers().get(Span.TRACE_ID_NAME))
+				.containsExactly(span.traceIdString());
+		then(modified.headers().get(Span.SPAN_ID_NAME))
+				.containsExactly(Span.idToHex(span.getSpanId()));
+		then(modified.headers().get(Span.SAMPLED_NAME)).containsExactly(Span.SPAN_SAMPLED);
+		then(modified.headers().get(Span.PROCESS_ID_NAME)).containsExactly("custom");
+		then(modified.headers().get("foo")).containsExactly("bar");
+		then(modified.method()).isEqualTo("POST");
+		then(modified.url()).isEqualTo("http://foo/bar");
+		then(modified.body()).isSameAs(request.body());
+		then(request.headers()).doesNotContainKey(Span.TRACE_ID_NAME);
+	}
+
 	@Test
 	public void should_shorten_the_span_name() throws IOException {
 		this.traceFeignClient.execute(
@@ -16,13 +16,14 @@
 
 package org.springframework.cloud.sleuth.instrument.zuul;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.util.B3HeaderCodec;
 
 import okhttp3.Request;
 
@@ -35,10 +36,15 @@ import static org.assertj.core.api.BDDAssertions.then;
 public class OkHttpClientRibbonRequestCustomizerTests {
 
 	@Mock Tracer tracer;
-	@InjectMocks OkHttpClientRibbonRequestCustomizer customizer;
+	OkHttpClientRibbonRequestCustomizer customizer;
 	Span span = Span.builder().name("name").spanId(1L).traceId(2L).parent(3L)
 			.processId("processId").build();
 
+	@Before
+	public void setup() {
+		this.customizer = new OkHttpClientRibbonRequestCustomizer(this.tracer);
+	}
+
 	@Test
 	public void should_accept_customizer_when_apache_http_client_is_passed() throws Exception {
 		then(this.customizer.accepts(String.class)).isFalse();
@@ -68,6 +74,21 @@ public class OkHttpClientRibbonRequestCustomizerTests {
 		thenThereIsAHeaderWithNameAndValue(request, Span.PROCESS_ID_NAME, "processId");
 	}
 
+	@Test
+	public void should_set_a_single_b3_header_when_single_header_propagation_is_on() throws Exception {
+		Request.Builder requestBuilder = requestBuilder();
+		OkHttpClientRibbonRequestCustomizer customizer =
+				new OkHttpClientRibbonRequestCustomizer(this.tracer, true);
+
+		customizer.inject(this.span, customizer.toSpanTextMap(requestBuilder));
+
+		Request request = requestBuilder.build();
+		thenThereIsAHeaderWithNameAndValue(request, B3HeaderCodec.B3_NAME,
+				B3HeaderCodec.singleHeaderValue(this.span));
+		then(request.header(Span.TRACE_ID_NAME)).isNull();
+		then(request.header(Span.SPAN_NAME_NAME)).isNull();
+	}
+
 	private void thenThereIsAHeaderWithNameAndValue(Request request, String name, String value) {
 		then(request.header(name)).isEqualTo(value);
 	}
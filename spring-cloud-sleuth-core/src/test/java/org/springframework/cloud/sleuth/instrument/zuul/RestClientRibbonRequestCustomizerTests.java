@@ -18,9 +18,9 @@ package org.springframework.cloud.sleuth.instrument.zuul;
 
 import com.netflix.client.http.HttpRequest;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.cloud.sleuth.Span;
@@ -35,10 +35,15 @@ import static org.assertj.core.api.BDDAssertions.then;
 public class RestClientRibbonRequestCustomizerTests {
 
 	@Mock Tracer tracer;
-	@InjectMocks RestClientRibbonRequestCustomizer customizer;
+	RestClientRibbonRequestCustomizer customizer;
 	Span span = Span.builder().name("name").spanId(1L).traceId(2L).parent(3L)
 			.processId("processId").build();
 
+	@Before
+	public void setup() {
+		this.customizer = new RestClientRibbonRequestCustomizer(this.tracer);
+	}
+
 	@Test
 	public void should_accept_customizer_when_apache_http_client_is_passed() throws Exception {
 		then(this.customizer.accepts(String.class)).isFalse();
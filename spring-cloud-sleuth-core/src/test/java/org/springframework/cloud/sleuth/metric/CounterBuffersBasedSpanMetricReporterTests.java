@@ -0,0 +1,66 @@
+package org.springframework.cloud.sleuth.metric;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.actuate.metrics.buffer.BufferCounterService;
+import org.springframework.boot.actuate.metrics.buffer.BufferGaugeService;
+import org.springframework.boot.actuate.metrics.buffer.BufferMetricReader;
+import org.springframework.boot.actuate.metrics.buffer.CounterBuffers;
+import org.springframework.boot.actuate.metrics.buffer.GaugeBuffers;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class CounterBuffersBasedSpanMetricReporterTests {
+
+	CounterBuffers counterBuffers = new CounterBuffers();
+	GaugeBuffers gaugeBuffers = new GaugeBuffers();
+	BufferMetricReader reader = new BufferMetricReader(this.counterBuffers, this.gaugeBuffers);
+	CounterBuffersBasedSpanMetricReporter reporter = new CounterBuffersBasedSpanMetricReporter(
+			"counter.span.accepted", "span.dropped", "gauge.span.queued",
+			"gauge.span.queued.bytes", "gauge.span.queued.high-water-mark",
+			"gauge.span.flush.duration",
+			new BufferCounterService(this.counterBuffers),
+			this.counterBuffers, new BufferGaugeService(this.gaugeBuffers));
+
+	@Test
+	public void should_increment_counters_by_the_whole_quantity() throws Exception {
+		this.reporter.incrementAcceptedSpans(1000);
+		this.reporter.incrementAcceptedSpans(0);
+		this.reporter.incrementDroppedSpans(3);
+
+		then(value("counter.span.accepted")).isEqualTo(1000L);
+		then(value("counter.span.dropped")).isEqualTo(3L);
+	}
+
+	@Test
+	public void should_count_dropped_spans_per_reason() throws Exception {
+		this.reporter.incrementDroppedSpans(3, SpanQueueMetricReporter.QUEUE_FULL);
+		this.reporter.incrementDroppedSpans(2, SpanQueueMetricReporter.SEND_FAILED);
+
+		then(value("counter.span.dropped")).isEqualTo(5L);
+		then(value("counter.span.dropped.queue-full")).isEqualTo(3L);
+		then(value("counter.span.dropped.send-failed")).isEqualTo(2L);
+	}
+
+	@Test
+	public void should_submit_queue_gauges() throws Exception {
+		this.reporter.updateQueuedSpans(15);
+		this.reporter.updateQueuedBytes(2048);
+		this.reporter.updateQueuedHighWaterMark(40);
+		this.reporter.recordFlushDuration(2500000L);
+
+		then(value("gauge.span.queued").doubleValue()).isEqualTo(15d);
+		then(value("gauge.span.queued.bytes").doubleValue()).isEqualTo(2048d);
+		then(value("gauge.span.queued.high-water-mark").doubleValue()).isEqualTo(40d);
+		then(value("gauge.span.flush.duration").doubleValue()).isEqualTo(2.5d);
+	}
+
+	private Number value(String name) {
+		Metric<?> metric = this.reader.findOne(name);
+		then(metric).as(name).isNotNull();
+		return metric.getValue();
+	}
+}
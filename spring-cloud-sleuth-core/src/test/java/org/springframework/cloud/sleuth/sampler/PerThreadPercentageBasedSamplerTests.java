@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.sampler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.springframework.cloud.sleuth.Sampler;
+import org.springframework.cloud.sleuth.Span;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+public class PerThreadPercentageBasedSamplerTests {
+
+	SamplerProperties samplerConfiguration = new SamplerProperties();
+	private static Random RANDOM = new Random();
+
+	@Test
+	public void should_pass_all_samples_when_config_has_1_percentage() throws Exception {
+		this.samplerConfiguration.setPercentage(1f);
+
+		for (int i = 0; i < 10; i++) {
+			then(new PerThreadPercentageBasedSampler(this.samplerConfiguration).isSampled(newSpan()))
+					.isTrue();
+		}
+	}
+
+	@Test
+	public void should_reject_all_samples_when_config_has_0_percentage()
+			throws Exception {
+		this.samplerConfiguration.setPercentage(0f);
+
+		for (int i = 0; i < 10; i++) {
+			then(new PerThreadPercentageBasedSampler(this.samplerConfiguration).isSampled(newSpan()))
+					.isFalse();
+		}
+	}
+
+	@Test
+	public void should_reject_null_span() throws Exception {
+		this.samplerConfiguration.setPercentage(0.5f);
+
+		then(new PerThreadPercentageBasedSampler(this.samplerConfiguration).isSampled(null))
+				.isFalse();
+	}
+
+	@Test
+	public void should_pass_given_percent_of_samples_with_fractional_element() throws Exception {
+		int numberOfIterations = 1000;
+		float percentage = 0.35f;
+		this.samplerConfiguration.setPercentage(percentage);
+		Sampler sampler = new PerThreadPercentageBasedSampler(this.samplerConfiguration);
+
+		int numberOfSampledElements = countNumberOfSampledElements(sampler, numberOfIterations);
+
+		then(numberOfSampledElements).isEqualTo((int) (numberOfIterations * percentage));
+	}
+
+	@Test
+	public void should_pass_given_percent_of_samples_for_each_thread() throws Exception {
+		final int numberOfIterations = 1000;
+		float percentage = 0.35f;
+		this.samplerConfiguration.setPercentage(percentage);
+		final Sampler sampler = new PerThreadPercentageBasedSampler(this.samplerConfiguration);
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				futures.add(executorService.submit(new Callable<Integer>() {
+					@Override public Integer call() throws Exception {
+						return countNumberOfSampledElements(sampler, numberOfIterations);
+					}
+				}));
+			}
+
+			for (Future<Integer> future : futures) {
+				then(future.get()).isEqualTo((int) (numberOfIterations * percentage));
+			}
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private int countNumberOfSampledElements(Sampler sampler, int numberOfIterations) {
+		int passedCounter = 0;
+		for (int i = 0; i < numberOfIterations; i++) {
+			boolean passed = sampler.isSampled(newSpan());
+			passedCounter = passedCounter + (passed ? 1 : 0);
+		}
+		return passedCounter;
+	}
+
+	Span newSpan() {
+		return Span.builder().traceId(RANDOM.nextLong()).build();
+	}
+
+}
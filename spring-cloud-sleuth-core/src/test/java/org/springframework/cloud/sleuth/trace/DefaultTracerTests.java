@@ -27,17 +27,20 @@ import org.springframework.cloud.sleuth.DefaultSpanNamer;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.cloud.sleuth.SpanReporter;
+import org.springframework.cloud.sleuth.SpanScope;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.cloud.sleuth.log.SpanLogger;
 import org.springframework.cloud.sleuth.sampler.AlwaysSampler;
 import org.springframework.cloud.sleuth.sampler.NeverSampler;
+import org.springframework.cloud.sleuth.util.ExceptionUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -189,6 +192,50 @@ public class DefaultTracerTests {
 		tracer.close(span);
 	}
 
+	@Test
+	public void shouldNotCopyTheSpanWhenItGetsContinued() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		Span span = Span.builder().name(IMPORTANT_WORK_1).traceId(1L).spanId(1L)
+				.build();
+
+		Span continuedSpan = tracer.continueSpan(span);
+
+		assertThat(continuedSpan).isSameAs(span);
+		assertThat(tracer.getCurrentSpan()).isSameAs(span);
+		tracer.detach(span);
+	}
+
+	@Test
+	public void shouldReturnThePreviouslyCurrentSpanWhenContinuedSpanGetsDetached() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		Span current = tracer.createSpan(CREATE_SIMPLE_TRACE);
+		Span span = Span.builder().name(IMPORTANT_WORK_1).traceId(1L).spanId(1L)
+				.build();
+		tracer.continueSpan(span);
+
+		Span saved = tracer.detach(span);
+
+		assertThat(saved).isSameAs(current);
+		assertThat(span.getSavedSpan()).isNull();
+	}
+
+	@Test
+	public void shouldReturnThePreviouslyCurrentSpanWhenContinuedSpanGetsClosed() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		Span current = tracer.createSpan(CREATE_SIMPLE_TRACE);
+		Span span = Span.builder().name(IMPORTANT_WORK_1).traceId(1L).spanId(1L)
+				.build();
+		tracer.continueSpan(span);
+
+		Span saved = tracer.close(span);
+
+		assertThat(saved).isSameAs(current);
+		assertThat(tracer.getCurrentSpan()).isSameAs(current);
+	}
+
 	@Test
 	public void shouldPropagateBaggageFromParentToChild() {
 		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
@@ -254,6 +301,126 @@ public class DefaultTracerTests {
 		then(this.capture.toString()).doesNotContain("Tried to detach trace span");
 	}
 
+	@Test
+	public void shouldRestorePreviousSpanWhenScopedSpanGetsClosed() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		Span parent = tracer.createSpan("parent");
+
+		try (SpanScope scope = tracer.startScopedSpan("child")) {
+			then(tracer.getCurrentSpan()).isSameAs(scope.getSpan());
+			then(scope.getSpan().getParents()).containsOnly(parent.getSpanId());
+		}
+
+		then(tracer.getCurrentSpan()).isSameAs(parent);
+		verify(this.spanReporter).report(Mockito.any(Span.class));
+		tracer.close(parent);
+		then(tracer.isTracing()).isFalse();
+	}
+
+	@Test
+	public void shouldRestoreEachSpanWhenNestedScopesGetClosed() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		List<SpanScope> scopes = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			scopes.add(tracer.startScopedSpan("span" + i));
+		}
+
+		for (int i = scopes.size() - 1; i >= 0; i--) {
+			then(tracer.getCurrentSpan()).isSameAs(scopes.get(i).getSpan());
+			scopes.get(i).close();
+		}
+
+		then(tracer.isTracing()).isFalse();
+		verify(this.spanReporter, times(30)).report(Mockito.any(Span.class));
+	}
+
+	@Test
+	public void shouldNotStopSpanWhenScopeOfContinuedSpanGetsClosed() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		Span parent = tracer.createSpan("parent");
+		Span other = Span.builder().traceId(1L).spanId(2L).name("other").build();
+
+		SpanScope scope = tracer.withSpanInScope(other);
+		then(tracer.getCurrentSpan()).isSameAs(other);
+		scope.close();
+
+		then(tracer.getCurrentSpan()).isSameAs(parent);
+		then(other.isRunning()).isTrue();
+		verify(this.spanReporter, Mockito.never()).report(Mockito.any(Span.class));
+		tracer.close(parent);
+	}
+
+	@Test
+	public void shouldNotRestoreAnythingWhenScopeIsClosedOutOfOrder() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		SpanScope outer = tracer.startScopedSpan("outer");
+		SpanScope inner = tracer.startScopedSpan("inner");
+		ExceptionUtils.setFail(true);
+
+		try {
+			outer.close();
+			fail("should throw an exception");
+		}
+		catch (IllegalStateException e) {
+			then(e).hasMessageContaining("Tried to close scope of span");
+		}
+		finally {
+			ExceptionUtils.setFail(false);
+		}
+
+		then(tracer.getCurrentSpan()).isSameAs(inner.getSpan());
+		inner.close();
+		then(tracer.getCurrentSpan()).isSameAs(outer.getSpan());
+	}
+
+	@Test
+	public void shouldNotTouchTheOwningThreadWhenScopeIsClosedInAnotherThread()
+			throws Exception {
+		final DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		final SpanScope scope = tracer.startScopedSpan("scoped");
+		final List<Span> otherThreadSpans = new ArrayList<>();
+
+		Thread thread = new Thread(() -> {
+			scope.close();
+			otherThreadSpans.add(tracer.getCurrentSpan());
+		});
+		thread.start();
+		thread.join();
+
+		then(this.capture.toString()).contains("Tried to close scope of span");
+		then(otherThreadSpans).containsNull();
+		then(tracer.getCurrentSpan()).isSameAs(scope.getSpan());
+		verify(this.spanReporter, Mockito.never()).report(Mockito.any(Span.class));
+		scope.close();
+		then(tracer.isTracing()).isFalse();
+		verify(this.spanReporter).report(scope.getSpan());
+	}
+
+	@Test
+	public void shouldKeepTheCurrentSpanWhenScopeOfTheCurrentSpanGetsClosed() {
+		DefaultTracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+				this.spanNamer, this.spanLogger, this.spanReporter, new TraceKeys());
+		Span outer = tracer.createSpan("outer");
+
+		try (SpanScope scope = tracer.withSpanInScope(outer)) {
+			try (SpanScope nested = tracer.withSpanInScope(tracer.getCurrentSpan())) {
+				then(nested.getSpan()).isSameAs(outer);
+			}
+			then(tracer.getCurrentSpan()).isSameAs(outer);
+		}
+
+		then(tracer.getCurrentSpan()).isSameAs(outer);
+		tracer.close(outer);
+		then(tracer.isTracing()).isFalse();
+		verify(this.spanReporter).report(outer);
+		then(this.capture.toString()).doesNotContain("Tried to close");
+	}
+
 	private String bigName() {
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < 60; i++) {
@@ -0,0 +1,171 @@
+package org.springframework.cloud.sleuth.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanTextMap;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class B3HeaderCodecTests {
+
+	@Test
+	public void should_read_tracing_headers_ignoring_case() throws Exception {
+		Map<String, String> carrier = new LinkedHashMap<>();
+		carrier.put("x-b3-traceid", "a");
+		carrier.put("X-B3-SPANID", "b");
+		carrier.put("X-B3-ParentSpanId", "c");
+		carrier.put("x-b3-sampled", "1");
+		carrier.put("X-B3-Flags", "1");
+		carrier.put("x-span-name", "name");
+		carrier.put("x-process-id", "process");
+		carrier.put("Accept", "text/plain");
+
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP.read(textMap(carrier));
+
+		then(headers.getTraceId()).isEqualTo("a");
+		then(headers.getSpanId()).isEqualTo("b");
+		then(headers.getParentId()).isEqualTo("c");
+		then(headers.isSampled()).isTrue();
+		then(headers.isDebug()).isTrue();
+		then(headers.getSpanName()).isEqualTo("name");
+		then(headers.getProcessId()).isEqualTo("process");
+		then(headers.getBaggage()).isEmpty();
+	}
+
+	@Test
+	public void should_return_nulls_for_missing_headers() throws Exception {
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP
+				.read(textMap(new LinkedHashMap<String, String>()));
+
+		then(headers.getTraceId()).isNull();
+		then(headers.getSpanId()).isNull();
+		then(headers.getSampled()).isNull();
+		then(headers.isSampled()).isFalse();
+		then(headers.isDebug()).isFalse();
+	}
+
+	@Test
+	public void should_treat_headers_with_null_values_as_missing() throws Exception {
+		Map<String, String> carrier = new LinkedHashMap<>();
+		carrier.put("X-B3-TraceId", "a");
+		carrier.put("x-b3-traceid", null);
+		carrier.put("X-B3-SpanId", null);
+		carrier.put("baggage-foo", null);
+
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP.read(textMap(carrier));
+
+		then(headers.getTraceId()).isEqualTo("a");
+		then(headers.getSpanId()).isNull();
+		then(headers.getBaggage()).isEmpty();
+	}
+
+	@Test
+	public void should_read_baggage_with_lower_cased_unprefixed_keys() throws Exception {
+		Map<String, String> carrier = new LinkedHashMap<>();
+		carrier.put("Baggage-Foo", "bar");
+		carrier.put("baggage-BAZ", "qux");
+		carrier.put("baggage", "not baggage");
+
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP.read(textMap(carrier));
+
+		then(headers.getBaggage()).hasSize(2).containsEntry("foo", "bar")
+				.containsEntry("baz", "qux");
+	}
+
+	@Test
+	public void should_read_additional_headers_in_the_same_pass() throws Exception {
+		Map<String, String> carrier = new LinkedHashMap<>();
+		carrier.put("x-span-uri", "/foo");
+		carrier.put("X-B3-TraceId", "a");
+
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP
+				.withAdditionalNames("X-Span-Uri", "X-Missing").read(textMap(carrier));
+
+		then(headers.get("X-Span-Uri")).isEqualTo("/foo");
+		then(headers.get("X-Missing")).isNull();
+		then(headers.get("X-Not-Registered")).isNull();
+		then(headers.getTraceId()).isEqualTo("a");
+	}
+
+	@Test
+	public void should_prefer_single_b3_header_over_separate_headers() throws Exception {
+		Map<String, String> carrier = new LinkedHashMap<>();
+		carrier.put("X-B3-TraceId", "0000000000000005");
+		carrier.put("X-B3-SpanId", "0000000000000006");
+		carrier.put("B3", "0000000000000001-0000000000000002-d-0000000000000003");
+
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP.read(textMap(carrier));
+
+		then(headers.getTraceId()).isEqualTo("0000000000000001");
+		then(headers.getSpanId()).isEqualTo("0000000000000002");
+		then(headers.getParentId()).isEqualTo("0000000000000003");
+		then(headers.isSampled()).isTrue();
+		then(headers.isDebug()).isTrue();
+	}
+
+	@Test
+	public void should_read_sampling_only_b3_header() throws Exception {
+		Map<String, String> carrier = new LinkedHashMap<>();
+		carrier.put("b3", "0");
+
+		B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP.read(textMap(carrier));
+
+		then(headers.getTraceId()).isNull();
+		then(headers.getSampled()).isEqualTo("0");
+	}
+
+	@Test
+	public void should_ignore_malformed_b3_header() throws Exception {
+		for (String b3 : new String[] { "foo", "0000000000000001", "0000000000000001-2",
+				"0000000000000001-0000000000000002-x",
+				"0000000000000001-0000000000000002-1-3",
+				"0000000000000001-0000000000000002-10" }) {
+			Map<String, String> carrier = new LinkedHashMap<>();
+			carrier.put("b3", b3);
+
+			B3HeaderCodec.B3Headers headers = B3HeaderCodec.HTTP.read(textMap(carrier));
+
+			then(headers.getTraceId()).as(b3).isNull();
+			then(headers.getSampled()).as(b3).isNull();
+		}
+	}
+
+	@Test
+	public void should_encode_span_as_single_b3_header() throws Exception {
+		Span span = Span.builder().traceIdHigh(1L).traceId(2L).spanId(3L).parent(4L)
+				.exportable(false).build();
+
+		then(B3HeaderCodec.singleHeaderValue(span)).isEqualTo(
+				"00000000000000010000000000000002-0000000000000003-0-0000000000000004");
+		then(B3HeaderCodec.samplingOf(B3HeaderCodec.singleHeaderValue(span))).isEqualTo("0");
+		then(B3HeaderCodec.samplingOf("d")).isEqualTo("d");
+		then(B3HeaderCodec.samplingOf("0000000000000001-0000000000000002")).isNull();
+	}
+
+	@Test
+	public void should_tell_if_b3_header_carries_the_debug_flag() throws Exception {
+		then(B3HeaderCodec.isDebug("d")).isTrue();
+		then(B3HeaderCodec.isDebug("0000000000000001-0000000000000002-d")).isTrue();
+		then(B3HeaderCodec.isDebug("0000000000000001-0000000000000002-1")).isFalse();
+		then(B3HeaderCodec.isDebug(null)).isFalse();
+	}
+
+	private SpanTextMap textMap(final Map<String, String> map) {
+		return new SpanTextMap() {
+			@Override public Iterator<Map.Entry<String, String>> iterator() {
+				return map.entrySet().iterator();
+			}
+
+			@Override public void put(String key, String value) {
+				map.put(key, value);
+			}
+		};
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.sleuth.util;
+
+import org.junit.Test;
+import org.springframework.cloud.sleuth.Span;
+
+import zipkin.Constants;
+import zipkin.Endpoint;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class ZipkinSpanConverterTests {
+
+	Endpoint endpoint = Endpoint.create("service", 127 << 24 | 1, 8080);
+
+	@Test
+	public void should_truncate_duration_to_client_send_and_receive_and_add_server_address() {
+		Span span = Span.builder().traceId(1L).spanId(2L).parent(3L).name("name")
+				.processId("process").begin(1L).end(10L).build();
+		span.tag(Span.SPAN_PEER_SERVICE_TAG_NAME, "peer");
+		span.tag("foo", "bar");
+		span.logEvent(2L, Constants.CLIENT_SEND);
+		span.logEvent(5L, Constants.CLIENT_RECV);
+		span.stop();
+
+		zipkin.Span result = new ZipkinSpanConverter() {
+			@Override protected String instanceId() {
+				return "instance";
+			}
+		}.convert(span, this.endpoint);
+
+		then(result.duration).isEqualTo(3000L);
+		then(result.parentId).isEqualTo(3L);
+		then(result.annotations).extracting("value")
+				.containsExactly(Constants.CLIENT_SEND, Constants.CLIENT_RECV);
+		then(result.binaryAnnotations).extracting("key")
+				.containsOnly(Span.SPAN_PEER_SERVICE_TAG_NAME, "foo", Constants.SERVER_ADDR,
+						Span.INSTANCEID);
+	}
+
+	@Test
+	public void should_add_local_component_to_spans_without_rpc_events() {
+		Span span = Span.builder().traceId(1L).spanId(2L).name("name")
+				.processId("PROCESS").build();
+
+		zipkin.Span result = new ZipkinSpanConverter().convert(span, this.endpoint);
+
+		then(result.annotations).isEmpty();
+		then(result.binaryAnnotations).hasSize(1);
+		then(result.binaryAnnotations.get(0).key).isEqualTo(Constants.LOCAL_COMPONENT);
+		then(new String(result.binaryAnnotations.get(0).value)).isEqualTo("process");
+	}
+}
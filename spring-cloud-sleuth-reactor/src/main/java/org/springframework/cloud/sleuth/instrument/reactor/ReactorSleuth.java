@@ -4,6 +4,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 import org.reactivestreams.Publisher;
+import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.Tracer;
 
 import reactor.core.Fuseable;
@@ -44,6 +45,37 @@ public abstract class ReactorSleuth {
 		}));
 	}
 
+	/**
+	 * Return a span operator pointcut given a {@link Tracer} that doesn't create any
+	 * spans. The current span (taken from the subscriber's
+	 * {@link reactor.util.context.Context} or, if there is none, from the thread) is
+	 * stored in the context and put in scope only around the signals. Spans at chosen
+	 * boundaries can still be created via {@link #spanOperator(Tracer)}.
+	 *
+	 * @param tracer the {@link Tracer} instance to use in this span operator
+	 * @param <T> an arbitrary type that is left unchanged by the span operator
+	 *
+	 * @return a new scope passing operator pointcut
+	 */
+	public static <T> Function<? super Publisher<T>, ? extends Publisher<T>> scopePassingSpanOperator(Tracer tracer) {
+		return Operators.lift(POINTCUT_FILTER, ((scannable, sub) -> {
+			//do not trace fused flows
+			if(scannable instanceof Fuseable && sub instanceof Fuseable.QueueSubscription){
+				return sub;
+			}
+			Span span = sub.currentContext().getOrDefault(Span.class, null);
+			if (span == null) {
+				span = tracer.getCurrentSpan();
+			}
+			if (span == null) {
+				// nothing to pass
+				return sub;
+			}
+			return new ScopePassingSpanSubscriber<>(sub, sub.currentContext(), tracer,
+					span);
+		}));
+	}
+
 	private static final Predicate<Scannable> POINTCUT_FILTER =
 			s ->  !(s instanceof Fuseable.ScalarCallable);
 
@@ -0,0 +1,107 @@
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.cloud.sleuth.ScopedTracer;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanScope;
+import org.springframework.cloud.sleuth.Tracer;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+
+/**
+ * A {@link Subscriber} that only passes the span from the {@link Context} to the
+ * callbacks of the wrapped subscriber. Contrary to {@link SpanSubscriber} no span gets
+ * created - the span is put in scope around each signal and the previous one is
+ * restored right after it.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+final class ScopePassingSpanSubscriber<T> implements Subscription, CoreSubscriber<T> {
+
+	private final Subscriber<? super T> subscriber;
+	private final Context context;
+	private final Tracer tracer;
+	private final Span span;
+	private Subscription s;
+
+	ScopePassingSpanSubscriber(Subscriber<? super T> subscriber, Context ctx,
+			Tracer tracer, Span span) {
+		this.subscriber = subscriber;
+		this.tracer = tracer;
+		this.span = span;
+		this.context = ctx.getOrDefault(Span.class, null) == span ? ctx
+				: ctx.put(Span.class, span);
+	}
+
+	@Override public void onSubscribe(Subscription subscription) {
+		this.s = subscription;
+		try (SpanScope scope = scope()) {
+			this.subscriber.onSubscribe(this);
+		}
+	}
+
+	@Override public void request(long n) {
+		try (SpanScope scope = scope()) {
+			this.s.request(n);
+		}
+	}
+
+	@Override public void cancel() {
+		try (SpanScope scope = scope()) {
+			this.s.cancel();
+		}
+	}
+
+	@Override public void onNext(T o) {
+		try (SpanScope scope = scope()) {
+			this.subscriber.onNext(o);
+		}
+	}
+
+	@Override public void onError(Throwable throwable) {
+		try (SpanScope scope = scope()) {
+			this.subscriber.onError(throwable);
+		}
+	}
+
+	@Override public void onComplete() {
+		try (SpanScope scope = scope()) {
+			this.subscriber.onComplete();
+		}
+	}
+
+	/**
+	 * Puts the span in scope, returns {@code null} if it is the current one already.
+	 * Tracers that can't create scopes get the span continued and detached instead,
+	 * after which the span that was current before gets continued again.
+	 */
+	private SpanScope scope() {
+		final Span previous = this.tracer.getCurrentSpan();
+		if (previous == this.span) {
+			return null;
+		}
+		if (this.tracer instanceof ScopedTracer) {
+			return ((ScopedTracer) this.tracer).withSpanInScope(this.span);
+		}
+		final Span continued = this.tracer.continueSpan(this.span);
+		return new SpanScope() {
+			@Override public Span getSpan() {
+				return continued;
+			}
+
+			@Override public void close() {
+				Tracer tracer = ScopePassingSpanSubscriber.this.tracer;
+				tracer.detach(continued);
+				if (previous != null) {
+					tracer.continueSpan(previous);
+				}
+			}
+		};
+	}
+
+	@Override public Context currentContext() {
+		return this.context;
+	}
+}
@@ -0,0 +1,41 @@
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for Reactor tracing
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+@ConfigurationProperties("spring.sleuth.reactor")
+public class SleuthReactorProperties {
+
+	/**
+	 * Enable tracing of Reactor components.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Only pass the current span to the operators, via the Reactor context, instead of
+	 * creating a span per subscriber. Tasks run on the Reactor schedulers only get the
+	 * current span then too.
+	 */
+	private boolean contextOnly = false;
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isContextOnly() {
+		return this.contextOnly;
+	}
+
+	public void setContextOnly(boolean contextOnly) {
+		this.contextOnly = contextOnly;
+	}
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.sleuth.SpanNamer;
 import org.springframework.cloud.sleuth.TraceKeys;
 import org.springframework.cloud.sleuth.Tracer;
@@ -23,7 +24,9 @@ import reactor.core.scheduler.Schedulers;
 
 /**
  * {@link org.springframework.boot.autoconfigure.EnableAutoConfiguration Auto-configuration}
- * to enable tracing of Reactor components via Spring Cloud Sleuth.
+ * to enable tracing of Reactor components via Spring Cloud Sleuth. With
+ * {@code spring.sleuth.reactor.context-only} set the current span is just passed
+ * through the operators, without creating a span per subscriber.
  *
  * @author Stephane Maldini
  * @author Marcin Grzejszczak
@@ -33,6 +36,7 @@ import reactor.core.scheduler.Schedulers;
 @ConditionalOnProperty(value="spring.sleuth.reactor.enabled", matchIfMissing=true)
 @ConditionalOnClass(Mono.class)
 @AutoConfigureAfter(TraceAutoConfiguration.class)
+@EnableConfigurationProperties(SleuthReactorProperties.class)
 public class TraceReactorAutoConfiguration {
 
 	@Configuration
@@ -41,10 +45,14 @@ public class TraceReactorAutoConfiguration {
 		@Autowired Tracer tracer;
 		@Autowired TraceKeys traceKeys;
 		@Autowired SpanNamer spanNamer;
+		@Autowired SleuthReactorProperties properties;
 
 		@PostConstruct
 		public void setupHooks() {
-			Hooks.onLastOperator(ReactorSleuth.spanOperator(this.tracer));
+			final boolean contextOnly = this.properties.isContextOnly();
+			Hooks.onLastOperator(contextOnly ?
+					ReactorSleuth.scopePassingSpanOperator(this.tracer) :
+					ReactorSleuth.spanOperator(this.tracer));
 			Schedulers.setFactory(new Schedulers.Factory() {
 				@Override public ScheduledExecutorService decorateExecutorService(
 						String schedulerType,
@@ -52,7 +60,7 @@ public class TraceReactorAutoConfiguration {
 					return new TraceableScheduledExecutorService(actual.get(),
 							TraceReactorConfiguration.this.tracer,
 							TraceReactorConfiguration.this.traceKeys,
-							TraceReactorConfiguration.this.spanNamer);
+							TraceReactorConfiguration.this.spanNamer, contextOnly);
 				}
 			});
 		}
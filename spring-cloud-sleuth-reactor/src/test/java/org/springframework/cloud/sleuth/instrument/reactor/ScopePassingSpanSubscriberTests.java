@@ -0,0 +1,131 @@
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.cloud.sleuth.DefaultSpanNamer;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.TraceKeys;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.log.NoOpSpanLogger;
+import org.springframework.cloud.sleuth.sampler.AlwaysSampler;
+import org.springframework.cloud.sleuth.trace.DefaultTracer;
+import org.springframework.cloud.sleuth.util.ExceptionUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+public class ScopePassingSpanSubscriberTests {
+
+	List<Span> reportedSpans = new CopyOnWriteArrayList<>();
+	Tracer tracer = new DefaultTracer(new AlwaysSampler(), new Random(),
+			new DefaultSpanNamer(), new NoOpSpanLogger(), this.reportedSpans::add,
+			new TraceKeys());
+	Scheduler scheduler = Schedulers.newSingle("scopePassing");
+
+	@Before
+	public void setup() {
+		ExceptionUtils.setFail(true);
+	}
+
+	@After
+	public void cleanup() {
+		this.scheduler.dispose();
+	}
+
+	@Test public void should_pass_the_current_span_without_creating_new_ones() {
+		Span span = this.tracer.createSpan("foo");
+		AtomicReference<Span> spanInOperation = new AtomicReference<>();
+
+		Flux.just(1, 2, 3)
+				.publishOn(this.scheduler)
+				.transform(ReactorSleuth.scopePassingSpanOperator(this.tracer))
+				.map(d -> {
+					spanInOperation.set(this.tracer.getCurrentSpan());
+					return d + 1;
+				})
+				.blockLast();
+		this.tracer.close(span);
+
+		then(spanInOperation.get()).isSameAs(span);
+		then(this.reportedSpans).extracting(Span::getName).containsExactly("foo");
+		then(spanOfSchedulerThread()).isNull();
+		then(ExceptionUtils.getLastException()).isNull();
+	}
+
+	@Test public void should_prefer_the_span_from_the_context() {
+		Span span = this.tracer.createSpan("foo");
+		Span spanFromContext = Span.builder().traceId(1L).spanId(2L).name("bar").build();
+		AtomicReference<Span> spanInOperation = new AtomicReference<>();
+
+		Flux.just(1, 2, 3)
+				.publishOn(this.scheduler)
+				.transform(ReactorSleuth.scopePassingSpanOperator(this.tracer))
+				.map(d -> {
+					spanInOperation.set(this.tracer.getCurrentSpan());
+					return d + 1;
+				})
+				.subscriberContext(Context.of(Span.class, spanFromContext))
+				.blockLast();
+
+		then(spanInOperation.get()).isSameAs(spanFromContext);
+		then(this.tracer.getCurrentSpan()).isSameAs(span);
+		this.tracer.close(span);
+		then(ExceptionUtils.getLastException()).isNull();
+	}
+
+	@Test public void should_restore_the_current_span_with_a_tracer_that_cant_create_scopes() {
+		Tracer tracer = Mockito.mock(Tracer.class, AdditionalAnswers.delegatesTo(this.tracer));
+		Span span = tracer.createSpan("foo");
+		Span spanFromContext = Span.builder().traceId(1L).spanId(2L).name("bar").build();
+		List<Span> spansInOperation = new CopyOnWriteArrayList<>();
+
+		Flux.just(1, 2, 3)
+				.transform(ReactorSleuth.scopePassingSpanOperator(tracer))
+				.map(d -> {
+					spansInOperation.add(tracer.getCurrentSpan());
+					return d + 1;
+				})
+				.subscriberContext(Context.of(Span.class, spanFromContext))
+				.blockLast();
+
+		then(spansInOperation).containsOnly(spanFromContext);
+		then(tracer.getCurrentSpan()).isSameAs(span);
+		tracer.close(span);
+		then(tracer.isTracing()).isFalse();
+		then(ExceptionUtils.getLastException()).isNull();
+	}
+
+	@Test public void should_not_wrap_the_subscriber_when_there_is_no_span() {
+		AtomicReference<Span> spanInOperation = new AtomicReference<>();
+
+		Flux.just(1, 2, 3)
+				.transform(ReactorSleuth.scopePassingSpanOperator(this.tracer))
+				.map(d -> {
+					spanInOperation.set(this.tracer.getCurrentSpan());
+					return d + 1;
+				})
+				.blockLast();
+
+		then(spanInOperation.get()).isNull();
+		then(this.reportedSpans).isEmpty();
+	}
+
+	private Span spanOfSchedulerThread() {
+		return Mono.fromCallable(this.tracer::getCurrentSpan)
+				.subscribeOn(this.scheduler)
+				.block();
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.instrument.reactor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.cloud.sleuth.Sampler;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.sampler.AlwaysSampler;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * The hooks are global, so each test starts its own context and closes it, which
+ * resets them.
+ *
+ * @author Marcin Grzejszczak
+ */
+public class TraceReactorAutoConfigurationTests {
+
+	ConfigurableApplicationContext context;
+
+	@After
+	public void close() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+	@Test
+	public void should_create_a_span_per_subscriber_by_default() {
+		Tracer tracer = startContext().getBean(Tracer.class);
+		Span span = tracer.createSpan("foo");
+
+		Span spanInOperation = spanInOperation(tracer);
+
+		then(spanInOperation.getTraceId()).isEqualTo(span.getTraceId());
+		then(spanInOperation.getSpanId()).isNotEqualTo(span.getSpanId());
+	}
+
+	@Test
+	public void should_only_pass_the_current_span_in_context_only_mode() {
+		Tracer tracer = startContext("--spring.sleuth.reactor.context-only=true")
+				.getBean(Tracer.class);
+		Span span = tracer.createSpan("foo");
+
+		Span spanInOperation = spanInOperation(tracer);
+
+		then(spanInOperation).isSameAs(span);
+		then(tracer.getCurrentSpan()).isSameAs(span);
+		tracer.close(span);
+	}
+
+	@Test
+	public void should_continue_the_current_span_on_schedulers_in_context_only_mode()
+			throws Exception {
+		Tracer tracer = startContext("--spring.sleuth.reactor.context-only=true")
+				.getBean(Tracer.class);
+		Span span = tracer.createSpan("foo");
+
+		Span spanInTask = spanInScheduledTask(tracer);
+
+		then(spanInTask.getSpanId()).isEqualTo(span.getSpanId());
+		tracer.close(span);
+	}
+
+	@Test
+	public void should_create_a_span_per_task_on_schedulers_by_default() throws Exception {
+		Tracer tracer = startContext().getBean(Tracer.class);
+		Span span = tracer.createSpan("foo");
+
+		Span spanInTask = spanInScheduledTask(tracer);
+
+		then(spanInTask.getTraceId()).isEqualTo(span.getTraceId());
+		then(spanInTask.getSpanId()).isNotEqualTo(span.getSpanId());
+		tracer.close(span);
+	}
+
+	private ConfigurableApplicationContext startContext(String... args) {
+		SpringApplication application = new SpringApplication(Config.class);
+		application.setWebEnvironment(false);
+		this.context = application.run(args);
+		return this.context;
+	}
+
+	private Span spanInOperation(Tracer tracer) {
+		AtomicReference<Span> spanInOperation = new AtomicReference<>();
+		Flux.just(1, 2, 3)
+				.map(d -> d + 1)
+				.map(d -> {
+					spanInOperation.set(tracer.getCurrentSpan());
+					return d;
+				})
+				.subscribe();
+		return spanInOperation.get();
+	}
+
+	private Span spanInScheduledTask(Tracer tracer) throws InterruptedException {
+		// created after the context, so that the executor is decorated by its factory
+		Scheduler scheduler = Schedulers.newSingle("test");
+		try {
+			AtomicReference<Span> spanInTask = new AtomicReference<>();
+			CountDownLatch latch = new CountDownLatch(1);
+			scheduler.schedule(() -> {
+				spanInTask.set(tracer.getCurrentSpan());
+				latch.countDown();
+			});
+			then(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			return spanInTask.get();
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@EnableAutoConfiguration
+	@Configuration
+	static class Config {
+		@Bean Sampler sampler() {
+			return new AlwaysSampler();
+		}
+	}
+}
@@ -37,6 +37,7 @@ import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
 import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
 import org.springframework.cloud.sleuth.metric.TraceMetricsAutoConfiguration;
 import org.springframework.cloud.sleuth.sampler.PercentageBasedSampler;
+import org.springframework.cloud.sleuth.sampler.PerThreadPercentageBasedSampler;
 import org.springframework.cloud.sleuth.sampler.SamplerProperties;
 import org.springframework.cloud.stream.annotation.EnableBinding;
 import org.springframework.cloud.stream.config.ChannelBindingAutoConfiguration;
@@ -74,6 +75,9 @@ public class SleuthStreamAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public Sampler defaultTraceSampler(SamplerProperties config) {
+		if (config.isPerThread()) {
+			return new PerThreadPercentageBasedSampler(config);
+		}
 		return new PercentageBasedSampler(config);
 	}
 
@@ -86,16 +90,35 @@ public class SleuthStreamAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public StreamSpanReporter sleuthStreamSpanReporter(HostLocator endpointLocator,
-			SpanMetricReporter spanMetricReporter, Environment environment) {
-		return new StreamSpanReporter(endpointLocator, spanMetricReporter, environment,
-				this.spanAdjusters);
+			SpanMetricReporter spanMetricReporter, Environment environment,
+			SleuthStreamProperties sleuth) {
+		StreamSpanReporter reporter = new StreamSpanReporter(endpointLocator,
+				spanMetricReporter, environment, this.spanAdjusters);
+		reporter.setQueueCapacity(sleuth.getQueueCapacity());
+		reporter.setMaxSpansPerPoll(sleuth.getPoller().getMaxSpansPerPoll());
+		SleuthStreamProperties.Flush flush = sleuth.getFlush();
+		if (flush.isEnabled()) {
+			reporter.setFlushSpans(flush.getSpans());
+			reporter.setFlushBytes(flush.getBytes());
+			reporter.setFlushMaxLatency(flush.getMaxLatency());
+		}
+		return reporter;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "spring.sleuth.stream.content-type", havingValue = SpansMessageConverter.CONTENT_TYPE)
+	public SpansMessageConverter spansMessageConverter() {
+		return new SpansMessageConverter();
 	}
 
 	@Bean(name = StreamSpanReporter.POLLER)
 	@ConditionalOnMissingBean(name = StreamSpanReporter.POLLER)
 	public PollerMetadata defaultStreamSpanReporterPoller(SleuthStreamProperties sleuth) {
 		PollerMetadata poller = new PollerMetadata();
-		poller.setTrigger(new PeriodicTrigger(sleuth.getPoller().getFixedDelay()));
+		long delay = sleuth.getFlush().isEnabled() ? sleuth.getFlush().getCheckInterval()
+				: sleuth.getPoller().getFixedDelay();
+		poller.setTrigger(new PeriodicTrigger(delay));
 		poller.setMaxMessagesPerPoll(sleuth.getPoller().getMaxMessagesPerPoll());
 		return poller;
 	}
@@ -29,6 +29,19 @@ public class SleuthStreamProperties {
 	private boolean enabled = true;
 	private String group = SleuthSink.INPUT;
 	private Poller poller = new Poller();
+	private Flush flush = new Flush();
+
+	/**
+	 * Content type of the messages with spans. Set it to
+	 * application/x-sleuth-spans for a compact binary encoding. Default: application/json
+	 */
+	private String contentType = "application/json";
+
+	/**
+	 * Max number of spans waiting to be sent, rounded up to a power of two. Spans
+	 * reported when the queue is full get dropped.
+	 */
+	private int queueCapacity = StreamSpanReporter.DEFAULT_QUEUE_CAPACITY;
 
 	public boolean isEnabled() {
 		return this.enabled;
@@ -50,6 +63,26 @@ public class SleuthStreamProperties {
 		return this.poller;
 	}
 
+	public Flush getFlush() {
+		return this.flush;
+	}
+
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
 	public static class Poller {
 		/**
 		 * Fixed delay (ms). Default: 1000
@@ -61,6 +94,11 @@ public class SleuthStreamProperties {
 		 */
 		private int maxMessagesPerPoll = -1;
 
+		/**
+		 * Max spans sent in a single message. Default: -1 (unbounded)
+		 */
+		private int maxSpansPerPoll = -1;
+
 		public long getFixedDelay() {
 			return this.fixedDelay;
 		}
@@ -76,5 +114,88 @@ public class SleuthStreamProperties {
 		public void setMaxMessagesPerPoll(int maxMessagesPerPoll) {
 			this.maxMessagesPerPoll = maxMessagesPerPoll;
 		}
+
+		public int getMaxSpansPerPoll() {
+			return this.maxSpansPerPoll;
+		}
+
+		public void setMaxSpansPerPoll(int maxSpansPerPoll) {
+			this.maxSpansPerPoll = maxSpansPerPoll;
+		}
+	}
+
+	/**
+	 * Adaptive flushing - instead of sending the queued spans every
+	 * {@link Poller#getFixedDelay() fixed delay} they are checked every
+	 * {@link #getCheckInterval() check interval} and sent once there are enough of them
+	 * or the oldest ones waited for too long
+	 */
+	public static class Flush {
+		/**
+		 * Enables adaptive flushing. Default: false
+		 */
+		private boolean enabled;
+
+		/**
+		 * Number of queued spans that triggers sending them. Default: 100
+		 */
+		private int spans = 100;
+
+		/**
+		 * Estimated size of the queued spans that triggers sending them. Default: 0 (no
+		 * size threshold)
+		 */
+		private long bytes;
+
+		/**
+		 * Max time (ms) spans are kept before being sent, if no threshold was reached.
+		 * Default: 1000
+		 */
+		private long maxLatency = 1000L;
+
+		/**
+		 * How often (ms) the thresholds are checked. Default: 10
+		 */
+		private long checkInterval = 10L;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getSpans() {
+			return this.spans;
+		}
+
+		public void setSpans(int spans) {
+			this.spans = spans;
+		}
+
+		public long getBytes() {
+			return this.bytes;
+		}
+
+		public void setBytes(long bytes) {
+			this.bytes = bytes;
+		}
+
+		public long getMaxLatency() {
+			return this.maxLatency;
+		}
+
+		public void setMaxLatency(long maxLatency) {
+			this.maxLatency = maxLatency;
+		}
+
+		public long getCheckInterval() {
+			return this.checkInterval;
+		}
+
+		public void setCheckInterval(long checkInterval) {
+			this.checkInterval = checkInterval;
+		}
 	}
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.stream;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.cloud.sleuth.Span;
+
+/**
+ * Bounded, lock free queue of spans for many producers (the threads reporting spans)
+ * and a single consumer (the poller). Producers claim a slot by incrementing the
+ * producer index and then publish the span in it - no locks are taken and no nodes
+ * are allocated per span. The capacity gets rounded up to a power of two. The estimated
+ * size of each span is kept next to it, so that it doesn't have to be computed again
+ * when the span is drained.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+class SpanRingBuffer {
+
+	private final AtomicReferenceArray<Span> buffer;
+	// written before the span gets published in the same slot, read after taking it
+	private final int[] sizes;
+	private final int mask;
+	private final AtomicLong producerIndex = new AtomicLong();
+	private final AtomicLong consumerIndex = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+
+	SpanRingBuffer(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+		}
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.buffer = new AtomicReferenceArray<>(size);
+		this.sizes = new int[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * Returns {@code false} if the buffer is full
+	 */
+	boolean offer(Span span) {
+		return offer(span, 0);
+	}
+
+	/**
+	 * Returns {@code false} if the buffer is full
+	 *
+	 * @param size estimated size of the span, counted in {@link #bytes()} while the span
+	 * is in the buffer
+	 */
+	boolean offer(Span span, int size) {
+		long index;
+		do {
+			index = this.producerIndex.get();
+			if (index - this.consumerIndex.get() > this.mask) {
+				return false;
+			}
+		}
+		while (!this.producerIndex.compareAndSet(index, index + 1));
+		int offset = (int) index & this.mask;
+		this.sizes[offset] = size;
+		this.bytes.addAndGet(size);
+		this.buffer.lazySet(offset, span);
+		return true;
+	}
+
+	/**
+	 * Moves at most {@code maxSpans} spans to the given collection. A span whose slot
+	 * got claimed but that is not yet published ends the drain - it will be picked up
+	 * by the next one. Only one thread may drain at a time.
+	 *
+	 * @return the number of drained spans
+	 */
+	synchronized int drainTo(Collection<Span> spans, int maxSpans) {
+		long index = this.consumerIndex.get();
+		int drained = 0;
+		long drainedBytes = 0;
+		while (drained < maxSpans) {
+			int offset = (int) index & this.mask;
+			Span span = this.buffer.get(offset);
+			if (span == null) {
+				break;
+			}
+			drainedBytes += this.sizes[offset];
+			this.buffer.lazySet(offset, null);
+			spans.add(span);
+			index++;
+			drained++;
+		}
+		this.consumerIndex.lazySet(index);
+		if (drainedBytes != 0) {
+			this.bytes.addAndGet(-drainedBytes);
+		}
+		return drained;
+	}
+
+	/**
+	 * Sum of the estimated sizes of the spans in the buffer
+	 */
+	long bytes() {
+		return this.bytes.get();
+	}
+
+	int size() {
+		long size = this.producerIndex.get() - this.consumerIndex.get();
+		return (int) Math.max(0, Math.min(size, this.mask + 1));
+	}
+
+	int capacity() {
+		return this.mask + 1;
+	}
+}
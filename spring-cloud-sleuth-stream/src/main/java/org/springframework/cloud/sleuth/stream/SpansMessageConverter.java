@@ -0,0 +1,338 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.stream;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.cloud.sleuth.Log;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+/**
+ * Converts {@link Spans} to and from a compact binary format. Opt in by setting
+ * {@code spring.sleuth.stream.content-type} to {@link #CONTENT_TYPE} - compared to
+ * JSON there are no field names, ids are written as 8 bytes and numbers and lengths
+ * as variable length integers.
+ * <p>
+ * Only messages with the {@link #CONTENT_TYPE} content type get read, so a consumer
+ * can receive both JSON and binary messages.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public class SpansMessageConverter extends AbstractMessageConverter {
+
+	/**
+	 * Content type of the messages containing binary encoded {@link Spans}
+	 */
+	public static final String CONTENT_TYPE = "application/x-sleuth-spans";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final byte VERSION = 1;
+
+	private static final int REMOTE = 1;
+	private static final int EXPORTABLE = 1 << 1;
+	private static final int SHARED = 1 << 2;
+	private static final int STOPPED = 1 << 3;
+
+	public SpansMessageConverter() {
+		super(MimeType.valueOf(CONTENT_TYPE));
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return Spans.class.isAssignableFrom(clazz);
+	}
+
+	@Override
+	protected boolean canConvertFrom(Message<?> message, Class<?> targetClass) {
+		// without the content type JSON messages would be read as binary ones
+		MimeType mimeType = getMimeType(message.getHeaders());
+		return supports(targetClass) && message.getPayload() instanceof byte[]
+				&& mimeType != null && getSupportedMimeTypes().get(0).includes(mimeType);
+	}
+
+	@Override
+	protected Object convertFromInternal(Message<?> message, Class<?> targetClass,
+			Object conversionHint) {
+		return decode((byte[]) message.getPayload());
+	}
+
+	@Override
+	protected Object convertToInternal(Object payload, MessageHeaders headers,
+			Object conversionHint) {
+		return encode((Spans) payload);
+	}
+
+	static byte[] encode(Spans spans) {
+		Writer writer = new Writer(256 * spans.getSpans().size() + 64);
+		writer.writeByte(VERSION);
+		Host host = spans.getHost();
+		writer.writeString(host != null ? host.getServiceName() : null);
+		writer.writeString(host != null ? host.getAddress() : null);
+		Integer port = host != null ? host.getPort() : null;
+		writer.writeVarLong(port != null ? port + 1L : 0L);
+		List<Span> list = spans.getSpans();
+		writer.writeVarLong(list.size());
+		for (Span span : list) {
+			writeSpan(writer, span);
+		}
+		return writer.toByteArray();
+	}
+
+	private static void writeSpan(Writer writer, Span span) {
+		writer.writeVarLong(span.getBegin());
+		writer.writeVarLong(span.getEnd());
+		writer.writeString(span.getName());
+		writer.writeLong(span.getTraceIdHigh());
+		writer.writeLong(span.getTraceId());
+		writer.writeLong(span.getSpanId());
+		List<Long> parents = span.getParents();
+		writer.writeVarLong(parents.size());
+		for (int i = 0; i < parents.size(); i++) {
+			writer.writeLong(parents.get(i));
+		}
+		boolean stopped = !span.isRunning() && span.getEnd() > 0;
+		writer.writeByte((span.isRemote() ? REMOTE : 0)
+				| (span.isExportable() ? EXPORTABLE : 0) | (span.isShared() ? SHARED : 0)
+				| (stopped ? STOPPED : 0));
+		if (stopped) {
+			writer.writeVarLong(span.getAccumulatedMicros());
+		}
+		writer.writeString(span.getProcessId());
+		// the views aren't copies, so the number of entries is only known once written
+		int mark = writer.position();
+		int count = 0;
+		for (Map.Entry<String, String> tag : span.tagEntries()) {
+			writer.writeString(tag.getKey());
+			writer.writeString(tag.getValue());
+			count++;
+		}
+		writer.insertVarLong(mark, count);
+		mark = writer.position();
+		count = 0;
+		for (Log log : span.logEntries()) {
+			writer.writeVarLong(log.getTimestamp());
+			writer.writeString(log.getEvent());
+			count++;
+		}
+		writer.insertVarLong(mark, count);
+	}
+
+	static Spans decode(byte[] bytes) {
+		Reader reader = new Reader(bytes);
+		byte version = reader.readByte();
+		if (version != VERSION) {
+			throw new MessageConversionException(
+					"Unsupported version [" + version + "] of binary encoded spans");
+		}
+		String serviceName = reader.readString();
+		String address = reader.readString();
+		long port = reader.readVarLong();
+		Host host = new Host(serviceName, address, port == 0 ? null : (int) (port - 1));
+		int size = reader.readSize();
+		List<Span> spans = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			spans.add(readSpan(reader));
+		}
+		return new Spans(host, spans);
+	}
+
+	private static Span readSpan(Reader reader) {
+		Span.SpanBuilder builder = Span.builder()
+				.begin(reader.readVarLong())
+				.end(reader.readVarLong())
+				.name(reader.readString())
+				.traceIdHigh(reader.readLong())
+				.traceId(reader.readLong())
+				.spanId(reader.readLong());
+		int parents = reader.readSize();
+		if (parents == 1) {
+			builder.parent(reader.readLong());
+		}
+		else if (parents > 1) {
+			Long[] ids = new Long[parents];
+			for (int i = 0; i < parents; i++) {
+				ids[i] = reader.readLong();
+			}
+			builder.parents(Arrays.asList(ids));
+		}
+		int flags = reader.readByte();
+		builder.remote((flags & REMOTE) != 0).exportable((flags & EXPORTABLE) != 0)
+				.shared((flags & SHARED) != 0);
+		if ((flags & STOPPED) != 0) {
+			builder.durationMicros(reader.readVarLong());
+		}
+		builder.processId(reader.readString());
+		int tags = reader.readSize();
+		for (int i = 0; i < tags; i++) {
+			builder.tag(reader.readString(), reader.readString());
+		}
+		int logs = reader.readSize();
+		for (int i = 0; i < logs; i++) {
+			builder.log(new Log(reader.readVarLong(), reader.readString()));
+		}
+		return builder.build();
+	}
+
+	private static class Writer {
+
+		private byte[] bytes;
+		private int position;
+
+		Writer(int size) {
+			this.bytes = new byte[size];
+		}
+
+		void writeByte(int value) {
+			ensureCapacity(1);
+			this.bytes[this.position++] = (byte) value;
+		}
+
+		void writeLong(long value) {
+			ensureCapacity(8);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				this.bytes[this.position++] = (byte) (value >>> shift);
+			}
+		}
+
+		void writeVarLong(long value) {
+			ensureCapacity(10);
+			while ((value & ~0x7FL) != 0) {
+				this.bytes[this.position++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			this.bytes[this.position++] = (byte) value;
+		}
+
+		/**
+		 * Writes the value at the given position, moving what was written from there on
+		 */
+		void insertVarLong(int index, long value) {
+			int length = 1;
+			for (long rest = value >>> 7; rest != 0; rest >>>= 7) {
+				length++;
+			}
+			ensureCapacity(length);
+			System.arraycopy(this.bytes, index, this.bytes, index + length,
+					this.position - index);
+			int end = this.position + length;
+			this.position = index;
+			writeVarLong(value);
+			this.position = end;
+		}
+
+		int position() {
+			return this.position;
+		}
+
+		/**
+		 * Length + 1 followed by the UTF-8 bytes, 0 stands for {@code null}
+		 */
+		void writeString(String value) {
+			if (value == null) {
+				writeVarLong(0);
+				return;
+			}
+			byte[] utf8 = value.getBytes(UTF_8);
+			writeVarLong(utf8.length + 1L);
+			ensureCapacity(utf8.length);
+			System.arraycopy(utf8, 0, this.bytes, this.position, utf8.length);
+			this.position += utf8.length;
+		}
+
+		private void ensureCapacity(int length) {
+			if (this.position + length > this.bytes.length) {
+				this.bytes = Arrays.copyOf(this.bytes,
+						Math.max(this.bytes.length * 2, this.position + length));
+			}
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(this.bytes, this.position);
+		}
+	}
+
+	private static class Reader {
+
+		private final byte[] bytes;
+		private int position;
+
+		Reader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		byte readByte() {
+			ensureAvailable(1);
+			return this.bytes[this.position++];
+		}
+
+		long readLong() {
+			ensureAvailable(8);
+			long value = 0;
+			for (int i = 0; i < 8; i++) {
+				value = (value << 8) | (this.bytes[this.position++] & 0xFF);
+			}
+			return value;
+		}
+
+		long readVarLong() {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				byte b = readByte();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new MessageConversionException("Malformed variable length integer");
+		}
+
+		int readSize() {
+			long size = readVarLong();
+			if (size < 0 || size > this.bytes.length - this.position) {
+				throw new MessageConversionException("Malformed binary encoded spans");
+			}
+			return (int) size;
+		}
+
+		String readString() {
+			long length = readVarLong() - 1;
+			if (length < 0) {
+				return null;
+			}
+			ensureAvailable(length);
+			String value = new String(this.bytes, this.position, (int) length, UTF_8);
+			this.position += (int) length;
+			return value;
+		}
+
+		private void ensureAvailable(long length) {
+			if (length > this.bytes.length - this.position) {
+				throw new MessageConversionException("Truncated binary encoded spans");
+			}
+		}
+	}
+}
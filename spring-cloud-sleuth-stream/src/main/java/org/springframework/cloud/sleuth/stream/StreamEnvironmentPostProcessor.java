@@ -48,7 +48,8 @@ public class StreamEnvironmentPostProcessor implements EnvironmentPostProcessor
 	private static final String PROPERTY_SOURCE_NAME = "defaultProperties";
 	static final String[] HEADERS = new String[] { TraceMessageHeaders.SPAN_ID_NAME,
 			TraceMessageHeaders.TRACE_ID_NAME, TraceMessageHeaders.PARENT_ID_NAME, TraceMessageHeaders.PROCESS_ID_NAME,
-			TraceMessageHeaders.SAMPLED_NAME, TraceMessageHeaders.SPAN_NAME_NAME };
+			TraceMessageHeaders.SAMPLED_NAME, TraceMessageHeaders.SPAN_NAME_NAME,
+			TraceMessageHeaders.B3_NAME };
 
 	@Override
 	public void postProcessEnvironment(ConfigurableEnvironment environment,
@@ -23,18 +23,21 @@ import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanAdjuster;
 import org.springframework.cloud.sleuth.SpanReporter;
 import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanQueueMetricReporter;
 import org.springframework.core.env.Environment;
 import org.springframework.integration.annotation.InboundChannelAdapter;
 import org.springframework.integration.annotation.MessageEndpoint;
 import org.springframework.integration.annotation.Poller;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A message source for spans. Also handles RPC flavoured annotations.
@@ -58,9 +61,31 @@ public class StreamSpanReporter implements SpanReporter {
 	 */
 	public static final String POLLER = "streamSpanReporterPoller";
 
-	private BlockingQueue<Span> queue = new LinkedBlockingQueue<>(1000);
+	/**
+	 * Name of the spans created when sending spans to the {@link SleuthSource#OUTPUT}
+	 * channel. Such spans are not reported, otherwise sending them would create new ones.
+	 */
+	static final String SELF_SPAN_NAME = "message/" + SleuthSource.OUTPUT;
+
+	static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	private static final int SPAN_OVERHEAD_BYTES = 250;
+	private static final int TAG_OVERHEAD_BYTES = 6;
+	private static final int LOG_OVERHEAD_BYTES = 40;
+
+	private SpanRingBuffer ringBuffer = new SpanRingBuffer(DEFAULT_QUEUE_CAPACITY);
+	private BlockingQueue<Span> queue;
+	private int maxSpansPerPoll = Integer.MAX_VALUE;
+	private int flushSpans;
+	private long flushBytes;
+	private long flushMaxLatencyNanos;
+	private volatile long lastFlushNanos = System.nanoTime();
+	// estimated size of the spans in a custom queue, the ring buffer keeps track itself
+	private final AtomicLong queuedBytes = new AtomicLong();
+	private final AtomicInteger queuedHighWaterMark = new AtomicInteger();
 	private final HostLocator endpointLocator;
 	private final SpanMetricReporter spanMetricReporter;
+	private final SpanQueueMetricReporter queueMetricReporter;
 	private final Environment environment;
 	private final List<SpanAdjuster> spanAdjusters;
 
@@ -68,37 +93,107 @@ public class StreamSpanReporter implements SpanReporter {
 			SpanMetricReporter spanMetricReporter, Environment environment, List<SpanAdjuster> spanAdjusters) {
 		this.endpointLocator = endpointLocator;
 		this.spanMetricReporter = spanMetricReporter;
+		this.queueMetricReporter = spanMetricReporter instanceof SpanQueueMetricReporter ?
+				(SpanQueueMetricReporter) spanMetricReporter : null;
 		this.environment = environment;
 		this.spanAdjusters = spanAdjusters;
 	}
 
+	/**
+	 * Replaces the default lock free buffer of spans with the given queue
+	 */
 	public void setQueue(BlockingQueue<Span> queue) {
 		this.queue = queue;
 	}
 
+	/**
+	 * Max number of spans waiting to be polled. Spans reported when the buffer is full
+	 * get dropped. Rounded up to a power of two.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this.ringBuffer = new SpanRingBuffer(queueCapacity);
+	}
+
+	/**
+	 * Max number of spans sent in a single message. Remaining spans are sent in
+	 * subsequent polls.
+	 */
+	public void setMaxSpansPerPoll(int maxSpansPerPoll) {
+		this.maxSpansPerPoll = maxSpansPerPoll > 0 ? maxSpansPerPoll : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Number of queued spans that makes the next poll send them. Once any of the flush
+	 * settings is set, polls that reach neither a threshold nor
+	 * {@link #setFlushMaxLatency(long) the max latency} send nothing - the poller can
+	 * then poll frequently without sending lots of small messages.
+	 */
+	public void setFlushSpans(int flushSpans) {
+		this.flushSpans = flushSpans;
+	}
+
+	/**
+	 * Estimated size of the queued spans that makes the next poll send them
+	 *
+	 * @see #setFlushSpans(int)
+	 */
+	public void setFlushBytes(long flushBytes) {
+		this.flushBytes = flushBytes;
+	}
+
+	/**
+	 * Time after which queued spans are sent, even if no flush threshold was reached
+	 *
+	 * @see #setFlushSpans(int)
+	 */
+	public void setFlushMaxLatency(long flushMaxLatencyMillis) {
+		this.flushMaxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(flushMaxLatencyMillis);
+	}
+
 	@InboundChannelAdapter(value = SleuthSource.OUTPUT, poller = @Poller(POLLER))
 	public Spans poll() {
-		List<Span> result = new LinkedList<>();
-		this.queue.drainTo(result);
-		for (Iterator<Span> iterator = result.iterator(); iterator.hasNext();) {
-			Span span = iterator.next();
-			if (span.getName() != null && span.getName().equals("message/" + SleuthSource.OUTPUT)) {
-				iterator.remove();
-			}
+		long start = System.nanoTime();
+		int queued = queuedSpans();
+		boolean flush = shouldFlush(queued, start);
+		if (this.queueMetricReporter != null && (flush || !flushesAdaptively())) {
+			// number of spans that were waiting since the previous poll
+			this.queueMetricReporter.updateQueuedSpans(queued);
+		}
+		if (!flush) {
+			return null;
+		}
+		List<Span> result = new ArrayList<>(Math.min(queued, this.maxSpansPerPoll));
+		if (this.queue != null && this.maxSpansPerPoll == Integer.MAX_VALUE) {
+			this.queue.drainTo(result);
+		}
+		else if (this.queue != null) {
+			this.queue.drainTo(result, this.maxSpansPerPoll);
+		}
+		else {
+			this.ringBuffer.drainTo(result, this.maxSpansPerPoll);
 		}
 		if (result.isEmpty()) {
 			return null;
 		}
+		this.lastFlushNanos = start;
+		flushed(result);
 		if (log.isDebugEnabled()) {
 			log.debug("Processed [" + result.size() + "] spans");
 		}
 		this.spanMetricReporter.incrementAcceptedSpans(result.size());
-		return new Spans(this.endpointLocator.locate(result.get(0)), result);
+		Spans spans = new Spans(this.endpointLocator.locate(result.get(0)), result);
+		if (this.queueMetricReporter != null) {
+			this.queueMetricReporter.recordFlushDuration(System.nanoTime() - start);
+		}
+		return spans;
 	}
 
 	@Override
 	public void report(Span span) {
 		Span spanToReport = span;
+		if (SELF_SPAN_NAME.equals(spanToReport.getName())) {
+			return;
+		}
 		if (spanToReport.isExportable()) {
 			try {
 				if (this.environment != null) {
@@ -107,7 +202,19 @@ public class StreamSpanReporter implements SpanReporter {
 				for (SpanAdjuster adjuster : this.spanAdjusters) {
 					spanToReport = adjuster.adjust(spanToReport);
 				}
-				this.queue.add(spanToReport);
+				// computed once, the ring buffer keeps it until the span is flushed
+				int size = this.flushBytes > 0 ? estimatedSize(spanToReport) : 0;
+				boolean queued = this.queue != null ? this.queue.offer(spanToReport)
+						: this.ringBuffer.offer(spanToReport, size);
+				if (queued) {
+					queued(size);
+				}
+				else {
+					dropped(SpanQueueMetricReporter.QUEUE_FULL);
+					if (log.isDebugEnabled()) {
+						log.debug("The span " + spanToReport + " will not be sent to Zipkin since the queue is full");
+					}
+				}
 			} catch (Exception e) {
 				this.spanMetricReporter.incrementDroppedSpans(1);
 				if (log.isDebugEnabled()) {
@@ -121,6 +228,95 @@ public class StreamSpanReporter implements SpanReporter {
 		}
 	}
 
+	private int queuedSpans() {
+		return this.queue != null ? this.queue.size() : this.ringBuffer.size();
+	}
+
+	private long queuedBytes() {
+		return this.queue != null ? this.queuedBytes.get() : this.ringBuffer.bytes();
+	}
+
+	private boolean flushesAdaptively() {
+		return this.flushSpans > 0 || this.flushBytes > 0 || this.flushMaxLatencyNanos > 0;
+	}
+
+	private boolean shouldFlush(int queued, long now) {
+		if (queued == 0) {
+			return false;
+		}
+		if (!flushesAdaptively()) {
+			return true;
+		}
+		return (this.flushSpans > 0 && queued >= this.flushSpans)
+				|| (this.flushBytes > 0 && queuedBytes() >= this.flushBytes)
+				|| (this.flushMaxLatencyNanos > 0
+						&& now - this.lastFlushNanos >= this.flushMaxLatencyNanos);
+	}
+
+	private void queued(int size) {
+		if (this.flushBytes > 0 && this.queue != null) {
+			this.queuedBytes.addAndGet(size);
+		}
+		if (this.queueMetricReporter != null) {
+			int queued = queuedSpans();
+			int highWaterMark = this.queuedHighWaterMark.get();
+			while (queued > highWaterMark
+					&& !this.queuedHighWaterMark.compareAndSet(highWaterMark, queued)) {
+				highWaterMark = this.queuedHighWaterMark.get();
+			}
+		}
+	}
+
+	private void flushed(List<Span> spans) {
+		long remainingBytes = 0;
+		if (this.flushBytes > 0 && this.queue != null) {
+			// a custom queue only holds the spans, so their size is estimated again
+			long bytes = 0;
+			for (Span span : spans) {
+				bytes += estimatedSize(span);
+			}
+			remainingBytes = this.queuedBytes.addAndGet(-bytes);
+		}
+		else if (this.flushBytes > 0) {
+			remainingBytes = this.ringBuffer.bytes();
+		}
+		if (this.queueMetricReporter != null) {
+			if (this.flushBytes > 0) {
+				this.queueMetricReporter.updateQueuedBytes(remainingBytes);
+			}
+			this.queueMetricReporter.updateQueuedHighWaterMark(
+					this.queuedHighWaterMark.getAndSet(queuedSpans()));
+		}
+	}
+
+	/**
+	 * Rough size of the span once serialized, cheap enough to be computed for each
+	 * reported span
+	 */
+	static int estimatedSize(Span span) {
+		int size = SPAN_OVERHEAD_BYTES + length(span.getName());
+		for (Map.Entry<String, String> tag : span.tagEntries()) {
+			size += TAG_OVERHEAD_BYTES + length(tag.getKey()) + length(tag.getValue());
+		}
+		for (Log spanLog : span.logEntries()) {
+			size += LOG_OVERHEAD_BYTES + length(spanLog.getEvent());
+		}
+		return size;
+	}
+
+	private static int length(String value) {
+		return value != null ? value.length() : 0;
+	}
+
+	private void dropped(String reason) {
+		if (this.queueMetricReporter != null) {
+			this.queueMetricReporter.incrementDroppedSpans(1, reason);
+		}
+		else {
+			this.spanMetricReporter.incrementDroppedSpans(1);
+		}
+	}
+
 	private void processLogs(Span span) {
 		for (Log spanLog : span.logs()) {
 			if (RPC_EVENTS.contains(spanLog.getEvent())) {
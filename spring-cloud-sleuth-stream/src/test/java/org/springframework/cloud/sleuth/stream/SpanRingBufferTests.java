@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.stream;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.cloud.sleuth.Span;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class SpanRingBufferTests {
+
+	@Test
+	public void should_round_capacity_up_to_power_of_two() {
+		then(new SpanRingBuffer(1).capacity()).isEqualTo(1);
+		then(new SpanRingBuffer(1000).capacity()).isEqualTo(1024);
+		then(new SpanRingBuffer(1024).capacity()).isEqualTo(1024);
+	}
+
+	@Test
+	public void should_reject_spans_when_full_and_accept_them_again_after_drain() {
+		SpanRingBuffer buffer = new SpanRingBuffer(2);
+
+		then(buffer.offer(span(1))).isTrue();
+		then(buffer.offer(span(2))).isTrue();
+		then(buffer.offer(span(3))).isFalse();
+		then(buffer.size()).isEqualTo(2);
+
+		List<Span> drained = new ArrayList<>();
+		then(buffer.drainTo(drained, 1)).isEqualTo(1);
+		then(buffer.offer(span(4))).isTrue();
+		then(buffer.drainTo(drained, Integer.MAX_VALUE)).isEqualTo(2);
+		then(drained).extracting(Span::getSpanId).containsExactly(1L, 2L, 4L);
+		then(buffer.size()).isZero();
+	}
+
+	@Test
+	public void should_count_the_sizes_of_the_spans_until_they_are_drained() {
+		SpanRingBuffer buffer = new SpanRingBuffer(4);
+		buffer.offer(span(1), 100);
+		buffer.offer(span(2), 20);
+		buffer.offer(span(3), 3);
+
+		then(buffer.bytes()).isEqualTo(123L);
+		buffer.drainTo(new ArrayList<>(), 2);
+		then(buffer.bytes()).isEqualTo(3L);
+		buffer.drainTo(new ArrayList<>(), Integer.MAX_VALUE);
+		then(buffer.bytes()).isZero();
+	}
+
+	@Test
+	public void should_not_lose_spans_offered_concurrently() throws Exception {
+		int producers = 4;
+		int spansPerProducer = 10_000;
+		SpanRingBuffer buffer = new SpanRingBuffer(64);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch done = new CountDownLatch(producers);
+		for (int p = 0; p < producers; p++) {
+			long offset = p * spansPerProducer;
+			executor.submit(() -> {
+				for (int i = 0; i < spansPerProducer; i++) {
+					Span span = span(offset + i);
+					while (!buffer.offer(span)) {
+						Thread.yield();
+					}
+				}
+				done.countDown();
+			});
+		}
+		Set<Long> ids = new HashSet<>();
+		List<Span> drained = new ArrayList<>();
+		while (ids.size() < producers * spansPerProducer) {
+			drained.clear();
+			buffer.drainTo(drained, 16);
+			for (Span span : drained) {
+				ids.add(span.getSpanId());
+			}
+		}
+		then(done.await(5, TimeUnit.SECONDS)).isTrue();
+		executor.shutdown();
+		then(ids).hasSize(producers * spansPerProducer);
+	}
+
+	private static Span span(long id) {
+		return Span.builder().traceId(id).spanId(id).name("foo").build();
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.stream;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.cloud.sleuth.Log;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class SpansMessageConverterTests {
+
+	SpansMessageConverter converter = new SpansMessageConverter();
+	Host host = new Host("myservice", "1.2.3.4", 8080);
+
+	@Test
+	public void should_read_the_spans_it_wrote() throws Exception {
+		Span span = Span.builder().begin(1000).end(1003).durationMicros(2500)
+				.name("http:name").traceIdHigh(7L).traceId(1L).spanId(2L).parent(3L)
+				.remote(true).exportable(true).processId("process")
+				.tag("http.url", "http://foo/bar").log(new Log(1001, Span.SERVER_RECV))
+				.log(new Log(1002, Span.SERVER_SEND)).build();
+		Span multipleParents = Span.builder().begin(1000).end(1001).name("zażółć")
+				.traceId(-1L).spanId(Long.MIN_VALUE).parents(Arrays.asList(4L, 5L))
+				.exportable(false).shared(true).build();
+		Span running = Span.builder().begin(1000).name("running").traceId(1L)
+				.spanId(6L).build();
+		Spans spans = new Spans(this.host, Arrays.asList(span, multipleParents, running));
+
+		Message<?> message = this.converter.toMessage(spans, null);
+		Spans read = (Spans) this.converter.fromMessage(message, Spans.class);
+
+		then(read.getHost()).isEqualToComparingFieldByField(this.host);
+		then(read.getSpans()).hasSize(3);
+		thenIsEqual(read.getSpans().get(0), span);
+		then(read.getSpans().get(0).getAccumulatedMicros()).isEqualTo(2500L);
+		thenIsEqual(read.getSpans().get(1), multipleParents);
+		then(read.getSpans().get(1).isShared()).isTrue();
+		then(read.getSpans().get(2).getName()).isEqualTo("running");
+		then(read.getSpans().get(2).getEnd()).isZero();
+	}
+
+	@Test
+	public void should_read_spans_with_more_tags_and_logs_than_fit_in_a_byte() throws Exception {
+		Span span = Span.builder().begin(1000).end(2000).name("many").traceId(1L)
+				.spanId(2L).build();
+		for (int i = 0; i < 300; i++) {
+			span.tag("tag" + i, "value" + i);
+			span.logEvent(1000 + i, "event" + i);
+		}
+		Spans spans = new Spans(this.host, Arrays.asList(span, span));
+
+		Spans read = SpansMessageConverter.decode(SpansMessageConverter.encode(spans));
+
+		then(read.getSpans()).hasSize(2);
+		thenIsEqual(read.getSpans().get(0), span);
+		thenIsEqual(read.getSpans().get(1), span);
+	}
+
+	@Test
+	public void should_be_smaller_than_json() throws Exception {
+		Span span = Span.builder().begin(1000).end(1003).name("http:name").traceId(1L)
+				.spanId(2L).parent(3L).exportable(true).processId("process")
+				.tag("http.url", "http://foo/bar").log(new Log(1001, Span.CLIENT_SEND))
+				.build();
+		Spans spans = new Spans(this.host, Collections.singletonList(span));
+
+		byte[] binary = SpansMessageConverter.encode(spans);
+		byte[] json = new ObjectMapper().writeValueAsBytes(spans);
+
+		then(binary.length).isLessThan(json.length / 2);
+	}
+
+	@Test
+	public void should_not_read_messages_of_other_content_types() throws Exception {
+		Spans spans = new Spans(this.host, Collections.<Span>emptyList());
+		byte[] payload = SpansMessageConverter.encode(spans);
+
+		then(this.converter.fromMessage(MessageBuilder.withPayload(payload).build(),
+				Spans.class)).isNull();
+		then(this.converter.fromMessage(MessageBuilder.withPayload(payload)
+				.setHeader(MessageHeaders.CONTENT_TYPE, "application/json").build(),
+				Spans.class)).isNull();
+		then(this.converter.fromMessage(MessageBuilder.withPayload(payload)
+				.setHeader(MessageHeaders.CONTENT_TYPE, SpansMessageConverter.CONTENT_TYPE)
+				.build(), Spans.class)).isInstanceOf(Spans.class);
+	}
+
+	private void thenIsEqual(Span actual, Span expected) {
+		then(actual).isEqualTo(expected);
+		then(actual.getBegin()).isEqualTo(expected.getBegin());
+		then(actual.getEnd()).isEqualTo(expected.getEnd());
+		then(actual.getName()).isEqualTo(expected.getName());
+		then(actual.getTraceIdHigh()).isEqualTo(expected.getTraceIdHigh());
+		then(actual.getParents()).isEqualTo(expected.getParents());
+		then(actual.isRemote()).isEqualTo(expected.isRemote());
+		then(actual.isExportable()).isEqualTo(expected.isExportable());
+		then(actual.getProcessId()).isEqualTo(expected.getProcessId());
+		then(actual.tags()).isEqualTo(expected.tags());
+		then(actual.logs()).isEqualTo(expected.logs());
+	}
+}
@@ -22,6 +22,7 @@ import org.mockito.Mockito;
 import org.springframework.cloud.sleuth.Span;
 import org.springframework.cloud.sleuth.SpanAdjuster;
 import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanQueueMetricReporter;
 import org.springframework.mock.env.MockEnvironment;
 
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Matchers.anyLong;
 
 /**
  * @author Marcin Grzejszczak
@@ -60,6 +62,131 @@ public class StreamSpanReporterTests {
 		then(this.spanMetricReporter).should().incrementDroppedSpans(1);
 	}
 
+	@Test
+	public void should_report_accepted_and_queued_spans_and_flush_duration_on_poll() throws Exception {
+		SpanQueueMetricReporter queueMetricReporter = Mockito.mock(SpanQueueMetricReporter.class);
+		this.reporter = new StreamSpanReporter(this.endpointLocator, queueMetricReporter,
+				null, new ArrayList<>());
+		this.reporter.report(Span.builder().name("foo").exportable(true).build());
+		this.reporter.report(Span.builder().name("bar").exportable(true).build());
+
+		assertThat(this.reporter.poll().getSpans()).hasSize(2);
+
+		then(queueMetricReporter).should().incrementAcceptedSpans(2);
+		then(queueMetricReporter).should().updateQueuedSpans(2);
+		then(queueMetricReporter).should().recordFlushDuration(anyLong());
+	}
+
+	@Test
+	public void should_count_spans_dropped_due_to_full_queue_per_reason() throws Exception {
+		SpanQueueMetricReporter queueMetricReporter = Mockito.mock(SpanQueueMetricReporter.class);
+		this.reporter = new StreamSpanReporter(this.endpointLocator, queueMetricReporter,
+				null, new ArrayList<>());
+		this.reporter.setQueueCapacity(2);
+
+		for (int i = 0; i < 3; i++) {
+			this.reporter.report(Span.builder().name("foo" + i).exportable(true).build());
+		}
+
+		then(queueMetricReporter).should().incrementDroppedSpans(1,
+				SpanQueueMetricReporter.QUEUE_FULL);
+		assertThat(this.reporter.poll().getSpans()).extracting(Span::getName)
+				.containsExactly("foo0", "foo1");
+	}
+
+	@Test
+	public void should_send_at_most_max_spans_per_poll() throws Exception {
+		this.reporter.setMaxSpansPerPoll(2);
+		for (int i = 0; i < 3; i++) {
+			this.reporter.report(Span.builder().name("foo" + i).exportable(true).build());
+		}
+
+		assertThat(this.reporter.poll().getSpans()).extracting(Span::getName)
+				.containsExactly("foo0", "foo1");
+		assertThat(this.reporter.poll().getSpans()).extracting(Span::getName)
+				.containsExactly("foo2");
+		assertThat(this.reporter.poll()).isNull();
+	}
+
+	@Test
+	public void should_send_spans_only_once_flush_threshold_is_reached() throws Exception {
+		this.reporter.setFlushSpans(2);
+		this.reporter.setFlushMaxLatency(60_000);
+		this.reporter.report(Span.builder().name("foo").exportable(true).build());
+
+		assertThat(this.reporter.poll()).isNull();
+
+		this.reporter.report(Span.builder().name("bar").exportable(true).build());
+
+		assertThat(this.reporter.poll().getSpans()).hasSize(2);
+	}
+
+	@Test
+	public void should_send_spans_once_flush_bytes_threshold_is_reached() throws Exception {
+		Span span = Span.builder().name("foo").tag("key", "value").exportable(true).build();
+		this.reporter.setFlushBytes(StreamSpanReporter.estimatedSize(span) * 2);
+		this.reporter.setFlushMaxLatency(60_000);
+		this.reporter.report(span);
+
+		assertThat(this.reporter.poll()).isNull();
+
+		this.reporter.report(Span.builder().from(span).build());
+
+		assertThat(this.reporter.poll().getSpans()).hasSize(2);
+		assertThat(this.reporter.poll()).isNull();
+	}
+
+	@Test
+	public void should_wait_for_flush_threshold_when_max_latency_is_disabled() throws Exception {
+		this.reporter.setFlushSpans(2);
+		this.reporter.setFlushMaxLatency(0);
+		this.reporter.report(Span.builder().name("foo").exportable(true).build());
+		Thread.sleep(5);
+
+		assertThat(this.reporter.poll()).isNull();
+
+		this.reporter.report(Span.builder().name("bar").exportable(true).build());
+
+		assertThat(this.reporter.poll().getSpans()).hasSize(2);
+	}
+
+	@Test
+	public void should_send_spans_below_flush_threshold_after_max_latency() throws Exception {
+		this.reporter.setFlushSpans(100);
+		this.reporter.setFlushMaxLatency(1);
+		this.reporter.report(Span.builder().name("foo").exportable(true).build());
+		Thread.sleep(5);
+
+		assertThat(this.reporter.poll().getSpans()).hasSize(1);
+	}
+
+	@Test
+	public void should_report_queue_high_water_mark_on_flush() throws Exception {
+		SpanQueueMetricReporter queueMetricReporter = Mockito.mock(SpanQueueMetricReporter.class);
+		this.reporter = new StreamSpanReporter(this.endpointLocator, queueMetricReporter,
+				null, new ArrayList<>());
+		this.reporter.setMaxSpansPerPoll(2);
+		for (int i = 0; i < 3; i++) {
+			this.reporter.report(Span.builder().name("foo" + i).exportable(true).build());
+		}
+
+		this.reporter.poll();
+
+		then(queueMetricReporter).should().updateQueuedHighWaterMark(3);
+
+		this.reporter.poll();
+
+		then(queueMetricReporter).should().updateQueuedHighWaterMark(1);
+	}
+
+	@Test
+	public void should_not_queue_spans_of_sending_spans() throws Exception {
+		this.reporter.report(Span.builder().name(StreamSpanReporter.SELF_SPAN_NAME)
+				.exportable(true).build());
+
+		assertThat(this.reporter.poll()).isNull();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void should_append_client_serviceid_when_span_has_rpc_event() throws Exception {
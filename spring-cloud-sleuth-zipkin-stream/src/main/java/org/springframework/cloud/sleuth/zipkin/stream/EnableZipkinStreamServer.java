@@ -20,6 +20,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import org.springframework.cloud.sleuth.stream.SleuthSink;
+import org.springframework.cloud.sleuth.stream.SpansMessageConverter;
 import org.springframework.cloud.stream.annotation.EnableBinding;
 import org.springframework.context.annotation.Import;
 
@@ -39,7 +40,7 @@ import zipkin.server.EnableZipkinServer;
 @Documented
 @EnableBinding(SleuthSink.class)
 @EnableZipkinServer
-@Import(ZipkinMessageListener.class)
+@Import({ ZipkinMessageListener.class, SpansMessageConverter.class })
 public @interface EnableZipkinStreamServer {
 
 }
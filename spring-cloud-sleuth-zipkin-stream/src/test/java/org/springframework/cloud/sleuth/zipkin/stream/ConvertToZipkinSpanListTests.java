@@ -250,6 +250,19 @@ public class ConvertToZipkinSpanListTests {
 		assertThat(result.timestamp).isNotNull();
 	}
 
+	@Test
+	public void sharesTheHostEndpointBetweenSpansOfABatch() {
+		Spans spans = new Spans(new Host("myservice", "5.6.7.8", 8080),
+				Arrays.asList(span("foo"), span("bar")));
+
+		List<zipkin.Span> result = ConvertToZipkinSpanList.convert(spans);
+
+		assertThat(result.get(0).binaryAnnotations.get(0).endpoint)
+				.isSameAs(result.get(1).binaryAnnotations.get(0).endpoint)
+				.isEqualTo(Endpoint.create("myservice", 5 << 24 | 6 << 16 | 7 << 8 | 8, 8080));
+		assertThat(ConvertToZipkinSpanList.cachedAddresses()).isGreaterThan(0);
+	}
+
 	Span span(String name) {
 		return span(name, false);
 	}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin.stream;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.stream.Host;
+import org.springframework.cloud.sleuth.stream.SleuthSink;
+import org.springframework.cloud.sleuth.stream.Spans;
+import org.springframework.cloud.sleuth.stream.SpansMessageConverter;
+import org.springframework.cloud.sleuth.zipkin.stream.ZipkinServerApplicationTests.ZipkinStreamServerApplication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import zipkin.storage.StorageComponent;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = ZipkinStreamServerApplication.class, properties = {
+		"spring.datasource.initialize=true", "zipkin.storage.type=mem" })
+@ActiveProfiles("test")
+public class ZipkinMessageListenerBinaryEncodingTests {
+
+	@Autowired SleuthSink sink;
+	@Autowired StorageComponent storage;
+
+	@Test
+	public void should_store_binary_encoded_spans() {
+		Span span = Span.builder().begin(1).end(3).name("http:name").traceId(1L)
+				.spanId(2L).exportable(true).processId("process").build();
+		Spans spans = new Spans(new Host("myservice", "1.2.3.4", 8080),
+				Collections.singletonList(span));
+
+		this.sink.input().send(new SpansMessageConverter().toMessage(spans, null));
+
+		then(this.storage.spanStore().getTrace(1L)).hasSize(1);
+		then(this.storage.spanStore().getServiceNames()).containsExactly("myservice");
+	}
+}
@@ -53,6 +53,10 @@ public class DefaultZipkinRestTemplateCustomizer implements ZipkinRestTemplateCu
 
 		public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws
 				IOException {
+			if (request.getHeaders().containsKey(GzipMessageCompressor.CONTENT_ENCODING)) {
+				// already compressed by the sender
+				return execution.execute(request, body);
+			}
 			request.getHeaders().add("Content-Encoding", "gzip");
 			ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
 			try (GZIPOutputStream compressor = new GZIPOutputStream(gzipped)) {
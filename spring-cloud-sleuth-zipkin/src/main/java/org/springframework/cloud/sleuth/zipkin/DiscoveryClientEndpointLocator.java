@@ -22,7 +22,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
 import org.springframework.cloud.commons.util.InetUtils;
+import org.springframework.context.event.EventListener;
 import org.springframework.util.StringUtils;
 
 import zipkin.Endpoint;
@@ -31,7 +33,9 @@ import zipkin.Endpoint;
  * An {@link EndpointLocator} that tries to find local service information from a
  * {@link DiscoveryClient}.
  *
- * You can override the name using {@link ZipkinProperties.Service#setName(String)}
+ * You can override the name using {@link ZipkinProperties.Service#setName(String)}.
+ * The endpoint is cached until the instance gets registered again, see also
+ * {@link ZipkinProperties.Locator#setRefreshInterval(long)}.
  *
  * @author Dave Syer
  * @since 1.0.0
@@ -42,15 +46,31 @@ public class DiscoveryClientEndpointLocator implements EndpointLocator {
 
 	private final DiscoveryClient client;
 	private final ZipkinProperties zipkinProperties;
+	private final EndpointCache cache;
 
 	public DiscoveryClientEndpointLocator(DiscoveryClient client,
 			ZipkinProperties zipkinProperties) {
 		this.client = client;
 		this.zipkinProperties = zipkinProperties;
+		this.cache = new EndpointCache(zipkinProperties);
 	}
 
 	@Override
 	public Endpoint local() {
+		Endpoint endpoint = this.cache.get();
+		if (endpoint != null) {
+			return endpoint;
+		}
+		long generation = this.cache.generation();
+		return this.cache.put(generation, resolve());
+	}
+
+	@EventListener(InstanceRegisteredEvent.class)
+	public void instanceRegistered() {
+		this.cache.invalidate();
+	}
+
+	private Endpoint resolve() {
 		ServiceInstance instance = this.client.getLocalServiceInstance();
 		if (instance == null) {
 			throw new NoServiceInstanceAvailableException();
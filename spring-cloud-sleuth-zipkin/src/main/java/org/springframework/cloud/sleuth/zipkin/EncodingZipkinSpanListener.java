@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanAdjuster;
+import org.springframework.cloud.sleuth.SpanReporter;
+import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestTemplate;
+
+import zipkin.reporter.AsyncReporter;
+import zipkin.reporter.Encoding;
+import zipkin.reporter.Sender;
+
+/**
+ * Listener of Sleuth events that reports to Zipkin via HTTP like {@link ZipkinSpanListener}
+ * with {@link HttpZipkinSpanReporter} do, but encodes the Sleuth spans straight to the
+ * JSON or Thrift bytes that are sent, without converting them to {@link zipkin.Span}s
+ * first.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+public class EncodingZipkinSpanListener implements SpanReporter, Flushable, Closeable {
+
+	private static final org.apache.commons.logging.Log log = org.apache.commons.logging.LogFactory
+			.getLog(EncodingZipkinSpanListener.class);
+
+	private final Sender sender;
+	private final AsyncReporter<Span> delegate;
+	private final List<SpanAdjuster> spanAdjusters;
+
+	/**
+	 * @param restTemplate {@link RestTemplate} used for sending requests to Zipkin
+	 * @param baseUrl       URL of the zipkin query server instance. Like: http://localhost:9411/
+	 * @param flushInterval in seconds. 0 implies spans are {@link #flush() flushed} externally.
+	 * @param spanMetricReporter service to count number of accepted / dropped spans
+	 * @param encoding span encoding.
+	 * @param endpointLocator locator of the endpoint put on the spans
+	 * @param environment used to resolve the instance id, can be {@code null}
+	 * @param spanAdjusters adjusters applied to the spans before they get encoded
+	 */
+	public EncodingZipkinSpanListener(RestTemplate restTemplate, String baseUrl,
+			int flushInterval, SpanMetricReporter spanMetricReporter, Encoding encoding,
+			EndpointLocator endpointLocator, Environment environment,
+			List<SpanAdjuster> spanAdjusters) {
+		this(new RestTemplateSender(restTemplate, baseUrl, encoding, spanMetricReporter),
+				HttpZipkinSpanReporter.zipkinProperties(flushInterval), spanMetricReporter,
+				endpointLocator, environment, spanAdjusters);
+	}
+
+	/**
+	 * @param zipkinProperties source of the flush interval and queue bounds
+	 */
+	EncodingZipkinSpanListener(Sender sender, ZipkinProperties zipkinProperties,
+			SpanMetricReporter spanMetricReporter, EndpointLocator endpointLocator,
+			Environment environment, List<SpanAdjuster> spanAdjusters) {
+		this.sender = sender;
+		this.delegate = HttpZipkinSpanReporter.asyncReporter(this.sender, zipkinProperties,
+				spanMetricReporter).build(ZipkinSpanEncoder.forEncoding(sender.encoding(),
+						endpointLocator, environment));
+		this.spanAdjusters = spanAdjusters;
+	}
+
+	/**
+	 * Encodes the span and queues it for collection, or drops it if the queue is full.
+	 */
+	@Override
+	public void report(Span span) {
+		if (!span.isExportable()) {
+			if (log.isDebugEnabled()) {
+				log.debug("The span " + span + " will not be sent to Zipkin due to sampling");
+			}
+			return;
+		}
+		Span adjustedSpan = span;
+		for (SpanAdjuster adjuster : this.spanAdjusters) {
+			adjustedSpan = adjuster.adjust(adjustedSpan);
+		}
+		this.delegate.report(adjustedSpan);
+	}
+
+	/**
+	 * Calling this will flush any pending spans to the http transport on the current thread.
+	 */
+	@Override
+	public void flush() {
+		this.delegate.flush();
+	}
+
+	/**
+	 * Blocks until in-flight spans are sent and drops any that are left pending.
+	 */
+	@Override
+	public void close() {
+		this.delegate.close();
+		try {
+			this.sender.close();
+		} catch (IOException e) {
+			// the senders created here don't throw on close
+		}
+	}
+}
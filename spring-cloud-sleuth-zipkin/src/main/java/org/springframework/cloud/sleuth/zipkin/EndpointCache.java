@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.util.concurrent.TimeUnit;
+
+import zipkin.Endpoint;
+
+/**
+ * Holds the resolved local {@link Endpoint} so that it doesn't have to be resolved
+ * for each reported span. The endpoint is resolved again after it got
+ * {@link #invalidate() invalidated} or, if the refresh interval is positive, after
+ * the interval has passed. An endpoint resolved before the last invalidation is not
+ * cached, since it might have been resolved from outdated state (e.g. a port that
+ * wasn't known yet):
+ *
+ * <pre>
+ * long generation = cache.generation();
+ * return cache.put(generation, resolve());
+ * </pre>
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+class EndpointCache {
+
+	private final long refreshIntervalNanos;
+	private volatile Endpoint endpoint;
+	private volatile long resolvedAt;
+	private long generation;
+
+	EndpointCache(long refreshIntervalSeconds) {
+		this.refreshIntervalNanos = TimeUnit.SECONDS.toNanos(refreshIntervalSeconds);
+	}
+
+	EndpointCache(ZipkinProperties zipkinProperties) {
+		this(zipkinProperties.getLocator().getRefreshInterval());
+	}
+
+	/**
+	 * @return the cached endpoint or {@code null} if it has to be resolved
+	 */
+	Endpoint get() {
+		Endpoint endpoint = this.endpoint;
+		if (endpoint != null && this.refreshIntervalNanos > 0
+				&& System.nanoTime() - this.resolvedAt > this.refreshIntervalNanos) {
+			return null;
+		}
+		return endpoint;
+	}
+
+	/**
+	 * @return the number of invalidations so far, to be taken before resolving the
+	 * endpoint and passed to {@link #put(long, Endpoint)}
+	 */
+	synchronized long generation() {
+		return this.generation;
+	}
+
+	/**
+	 * Caches the endpoint unless the cache got invalidated after the given generation
+	 * was taken
+	 *
+	 * @return the given endpoint
+	 */
+	synchronized Endpoint put(long generation, Endpoint endpoint) {
+		if (generation == this.generation) {
+			this.resolvedAt = System.nanoTime();
+			this.endpoint = endpoint;
+		}
+		return endpoint;
+	}
+
+	synchronized void invalidate() {
+		this.generation++;
+		this.endpoint = null;
+	}
+}
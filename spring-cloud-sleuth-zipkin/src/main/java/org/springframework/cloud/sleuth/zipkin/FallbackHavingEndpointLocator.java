@@ -2,11 +2,15 @@ package org.springframework.cloud.sleuth.zipkin;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerInitializedEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
 import zipkin.Endpoint;
 
 /**
  * Endpoint locator that will try to call an endpoint via Discovery Client
- * and will fallback to Server Properties if an exception is thrown
+ * and will fallback to Server Properties if an exception is thrown. The located
+ * endpoint is cached.
  *
  * @since 1.0.0
  */
@@ -16,16 +20,52 @@ public class FallbackHavingEndpointLocator implements EndpointLocator {
 
 	private final DiscoveryClientEndpointLocator discoveryClientEndpointLocator;
 	private final ServerPropertiesEndpointLocator serverPropertiesEndpointLocator;
+	private final EndpointCache cache;
 
 	public FallbackHavingEndpointLocator(DiscoveryClientEndpointLocator discoveryClientEndpointLocator,
 										ServerPropertiesEndpointLocator serverPropertiesEndpointLocator) {
+		this(discoveryClientEndpointLocator, serverPropertiesEndpointLocator, 0);
+	}
+
+	/**
+	 * @param refreshInterval interval in seconds after which the endpoint gets resolved
+	 * again, {@code 0} to resolve it again only after the container has started
+	 * or the instance got registered
+	 * @since 1.3.0
+	 */
+	public FallbackHavingEndpointLocator(DiscoveryClientEndpointLocator discoveryClientEndpointLocator,
+										ServerPropertiesEndpointLocator serverPropertiesEndpointLocator,
+										long refreshInterval) {
 		this.discoveryClientEndpointLocator = discoveryClientEndpointLocator;
 		this.serverPropertiesEndpointLocator = serverPropertiesEndpointLocator;
+		this.cache = new EndpointCache(refreshInterval);
 	}
 
 	@Override
 	public Endpoint local() {
-		return endpoint();
+		Endpoint endpoint = this.cache.get();
+		if (endpoint != null) {
+			return endpoint;
+		}
+		long generation = this.cache.generation();
+		return this.cache.put(generation, endpoint());
+	}
+
+	/**
+	 * The delegates are not beans so the events are passed to them from here
+	 */
+	@EventListener(EmbeddedServletContainerInitializedEvent.class)
+	public void grabPort(EmbeddedServletContainerInitializedEvent event) {
+		this.serverPropertiesEndpointLocator.grabPort(event);
+		this.cache.invalidate();
+	}
+
+	@EventListener(InstanceRegisteredEvent.class)
+	public void instanceRegistered() {
+		if (this.discoveryClientEndpointLocator != null) {
+			this.discoveryClientEndpointLocator.instanceRegistered();
+		}
+		this.cache.invalidate();
 	}
 
 	private Endpoint endpoint() {
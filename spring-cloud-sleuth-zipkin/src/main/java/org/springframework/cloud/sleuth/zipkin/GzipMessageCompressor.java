@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzips span messages with a reused {@link Deflater} into a reused buffer, so that
+ * compressing a message allocates only the resulting byte array. Keeps track of the
+ * compression ratio of the recent messages to estimate the compressed size of the next
+ * one - that way the reporter can fill a message up to the limit of bytes actually sent
+ * over the wire.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+final class GzipMessageCompressor implements Closeable {
+
+	static final String CONTENT_ENCODING = "Content-Encoding";
+	static final String GZIP = "gzip";
+
+	private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+	private static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+	private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0,
+			0, 0, 0, 0 };
+	private static final int TRAILER_SIZE = 8;
+
+	private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+	private final CRC32 crc = new CRC32();
+	private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+	private volatile float ratio = 1f;
+
+	synchronized byte[] compress(byte[] message) {
+		this.deflater.reset();
+		this.deflater.setInput(message);
+		this.deflater.finish();
+		this.crc.reset();
+		this.crc.update(message, 0, message.length);
+		byte[] buffer = this.buffer;
+		System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+		int size = HEADER.length;
+		while (!this.deflater.finished()) {
+			// always leave room for the trailer
+			int available = buffer.length - TRAILER_SIZE - size;
+			if (available == 0) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				available = buffer.length - TRAILER_SIZE - size;
+			}
+			size += this.deflater.deflate(buffer, size, available);
+		}
+		size = writeIntLe(buffer, size, (int) this.crc.getValue());
+		size = writeIntLe(buffer, size, message.length);
+		this.buffer = buffer.length > MAX_RETAINED_BUFFER_SIZE
+				? new byte[INITIAL_BUFFER_SIZE] : buffer;
+		if (message.length > 0) {
+			// moving average, so that a single unusual message doesn't skew the estimate
+			this.ratio = (this.ratio + Math.min(1f, size / (float) message.length)) / 2;
+		}
+		return Arrays.copyOf(buffer, size);
+	}
+
+	/**
+	 * @return the expected size of a message of the given size once it's compressed
+	 */
+	int estimatedSize(int uncompressedSize) {
+		return (int) Math.ceil(uncompressedSize * this.ratio);
+	}
+
+	private static int writeIntLe(byte[] buffer, int index, int value) {
+		buffer[index] = (byte) value;
+		buffer[index + 1] = (byte) (value >>> 8);
+		buffer[index + 2] = (byte) (value >>> 16);
+		buffer[index + 3] = (byte) (value >>> 24);
+		return index + 4;
+	}
+
+	@Override
+	public synchronized void close() {
+		this.deflater.end();
+	}
+}
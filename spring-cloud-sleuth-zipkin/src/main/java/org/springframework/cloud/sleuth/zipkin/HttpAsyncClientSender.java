@@ -0,0 +1,270 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.util.EntityUtils;
+import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanQueueMetricReporter;
+
+import zipkin.reporter.BytesMessageEncoder;
+import zipkin.reporter.Callback;
+import zipkin.reporter.Encoding;
+import zipkin.reporter.Sender;
+
+/**
+ * {@link Sender} that posts span messages with a non-blocking Apache
+ * {@link CloseableHttpAsyncClient}. Connections to Zipkin are pooled and kept alive,
+ * and {@link #sendSpans(List, Callback)} returns as soon as the message is handed to
+ * the client, so that the reporter can go on collecting the next message while up to
+ * {@link ZipkinProperties.Sender#getMaxInFlight() max in flight} messages are being
+ * sent. Beyond that limit the reporter waits up to a second for a message to be sent
+ * before dropping the next one, so that a short stall of Zipkin slows the reporter down
+ * instead of losing spans.
+ * <p>
+ * The Zipkin URL is taken from a {@link ZipkinUrlCache} instead of being resolved for
+ * each message.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+final class HttpAsyncClientSender implements Sender, SpanMessageSizer {
+
+	private static final ContentType THRIFT = ContentType.create("application/x-thrift");
+	private static final long IN_FLIGHT_TIMEOUT_SECONDS = 1;
+
+	final CloseableHttpAsyncClient client;
+	final ZipkinUrlCache urlCache;
+	final Encoding encoding;
+	final ContentType contentType;
+	final GzipMessageCompressor compressor;
+	final int listOverhead;
+	final int maxInFlight;
+	final int messageMaxBytes;
+	final Semaphore inFlight;
+	final SpanQueueMetricReporter queueMetricReporter;
+
+	/** close is typically called from a different thread */
+	volatile boolean closeCalled;
+
+	static Sender create(ZipkinProperties zipkinProperties, ZipkinUrlExtractor extractor,
+			SpanMetricReporter spanMetricReporter) {
+		ZipkinProperties.Sender sender = zipkinProperties.getSender();
+		return new HttpAsyncClientSender(zipkinProperties, new ZipkinUrlCache(
+				zipkinProperties, extractor, sender.getUrlRefreshInterval()),
+				spanMetricReporter);
+	}
+
+	HttpAsyncClientSender(ZipkinProperties zipkinProperties, ZipkinUrlCache urlCache,
+			SpanMetricReporter spanMetricReporter) {
+		ZipkinProperties.Sender sender = zipkinProperties.getSender();
+		this.urlCache = urlCache;
+		this.encoding = zipkinProperties.getEncoding();
+		this.listOverhead = this.encoding.listSizeInBytes(
+				Collections.singletonList(new byte[0]));
+		this.contentType = this.encoding == Encoding.THRIFT ? THRIFT
+				: ContentType.APPLICATION_JSON;
+		this.compressor = zipkinProperties.getCompression().isEnabled()
+				? new GzipMessageCompressor() : null;
+		this.maxInFlight = sender.getMaxInFlight();
+		this.messageMaxBytes = zipkinProperties.getMessageMaxBytes();
+		this.inFlight = new Semaphore(this.maxInFlight);
+		this.queueMetricReporter = spanMetricReporter instanceof SpanQueueMetricReporter ?
+				(SpanQueueMetricReporter) spanMetricReporter : null;
+		this.client = HttpAsyncClients.custom()
+				.setMaxConnTotal(this.maxInFlight)
+				.setMaxConnPerRoute(this.maxInFlight)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(sender.getConnectTimeout())
+						.setConnectionRequestTimeout(sender.getConnectTimeout())
+						.setSocketTimeout(sender.getReadTimeout()).build())
+				.setDefaultIOReactorConfig(IOReactorConfig.custom()
+						.setIoThreadCount(1).build())
+				.setThreadFactory(new SenderThreadFactory())
+				.build();
+		this.client.start();
+	}
+
+	@Override public Encoding encoding() {
+		return this.encoding;
+	}
+
+	@Override public int messageMaxBytes() {
+		// Note: values like 512KiB benchmark better.
+		return this.messageMaxBytes;
+	}
+
+	@Override public int messageSizeInBytes(List<byte[]> spans) {
+		int size = encoding().listSizeInBytes(spans);
+		return this.compressor != null ? this.compressor.estimatedSize(size) : size;
+	}
+
+	@Override public int messageSizeInBytes(int spanBytes) {
+		int size = this.listOverhead + spanBytes;
+		return this.compressor != null ? this.compressor.estimatedSize(size) : size;
+	}
+
+	@Override public void sendSpans(List<byte[]> encodedSpans, Callback callback) {
+		if (this.closeCalled) throw new IllegalStateException("close");
+		if (!acquireInFlight()) {
+			callback.onError(new RejectedExecutionException("Already sending "
+					+ this.maxInFlight + " messages to Zipkin, dropping " + encodedSpans.size()
+					+ " spans"));
+			return;
+		}
+		try {
+			byte[] message = BytesMessageEncoder.forEncoding(this.encoding).encode(encodedSpans);
+			this.client.execute(post(message), new SendCallback(callback, System.nanoTime()));
+		} catch (Throwable e) {
+			this.inFlight.release();
+			callback.onError(e);
+			if (e instanceof Error) throw (Error) e;
+		}
+	}
+
+	private boolean acquireInFlight() {
+		if (this.inFlight.tryAcquire()) {
+			return true;
+		}
+		try {
+			return this.inFlight.tryAcquire(IN_FLIGHT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/** Sends an empty json message to the configured endpoint. */
+	@Override public CheckResult check() {
+		try {
+			HttpResponse response = this.client.execute(post(new byte[] {'[', ']'}), null)
+					.get();
+			EntityUtils.consumeQuietly(response.getEntity());
+			int status = response.getStatusLine().getStatusCode();
+			if (status >= 300) {
+				return CheckResult.failed(new IllegalStateException(
+						"Zipkin responded with status " + status));
+			}
+			return CheckResult.OK;
+		} catch (Exception e) {
+			return CheckResult.failed(e);
+		}
+	}
+
+	/**
+	 * Waits up to a second for messages in flight to be sent and closes the client.
+	 */
+	@Override public void close() {
+		if (this.closeCalled) return;
+		this.closeCalled = true;
+		try {
+			this.inFlight.tryAcquire(this.maxInFlight, 1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			this.client.close();
+		} catch (IOException e) {
+			// nothing to do about it
+		}
+		this.urlCache.close();
+		if (this.compressor != null) {
+			this.compressor.close();
+		}
+	}
+
+	HttpPost post(byte[] message) {
+		HttpPost post = new HttpPost(this.urlCache.get());
+		if (this.compressor != null) {
+			post.setHeader(GzipMessageCompressor.CONTENT_ENCODING, GzipMessageCompressor.GZIP);
+			message = this.compressor.compress(message);
+		}
+		post.setEntity(new ByteArrayEntity(message, this.contentType));
+		return post;
+	}
+
+	private final class SendCallback implements FutureCallback<HttpResponse> {
+
+		private final Callback callback;
+		private final long start;
+
+		SendCallback(Callback callback, long start) {
+			this.callback = callback;
+			this.start = start;
+		}
+
+		@Override public void completed(HttpResponse response) {
+			HttpAsyncClientSender.this.inFlight.release();
+			EntityUtils.consumeQuietly(response.getEntity());
+			int status = response.getStatusLine().getStatusCode();
+			if (status >= 500 || status == 404) {
+				// the resolved instance might be gone or not be a Zipkin server any more
+				HttpAsyncClientSender.this.urlCache.invalidate();
+			}
+			if (status >= 300) {
+				this.callback.onError(new IllegalStateException(
+						"Zipkin responded with status " + status));
+				return;
+			}
+			if (HttpAsyncClientSender.this.queueMetricReporter != null) {
+				HttpAsyncClientSender.this.queueMetricReporter
+						.recordFlushDuration(System.nanoTime() - this.start);
+			}
+			this.callback.onComplete();
+		}
+
+		@Override public void failed(Exception ex) {
+			HttpAsyncClientSender.this.inFlight.release();
+			HttpAsyncClientSender.this.urlCache.invalidate();
+			this.callback.onError(ex);
+		}
+
+		@Override public void cancelled() {
+			HttpAsyncClientSender.this.inFlight.release();
+			this.callback.onError(new CancellationException("Sending spans got cancelled"));
+		}
+	}
+
+	private static final class SenderThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threads = new AtomicInteger();
+
+		@Override public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "zipkin-sender-" + this.threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
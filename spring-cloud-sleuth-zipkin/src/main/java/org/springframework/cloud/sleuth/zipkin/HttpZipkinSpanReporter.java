@@ -2,6 +2,7 @@ package org.springframework.cloud.sleuth.zipkin;
 
 import java.io.Closeable;
 import java.io.Flushable;
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
@@ -10,6 +11,7 @@ import org.springframework.web.client.RestTemplate;
 import zipkin.Span;
 import zipkin.reporter.AsyncReporter;
 import zipkin.reporter.Encoding;
+import zipkin.reporter.Sender;
 
 /**
  * Submits spans using Zipkin's {@code POST /spans} endpoint.
@@ -18,7 +20,7 @@ import zipkin.reporter.Encoding;
  * @since 1.0.0
  */
 public final class HttpZipkinSpanReporter implements ZipkinSpanReporter, Flushable, Closeable {
-	private final RestTemplateSender sender;
+	private final Sender sender;
 	private final AsyncReporter<Span> delegate;
 
 	/**
@@ -41,14 +43,46 @@ public final class HttpZipkinSpanReporter implements ZipkinSpanReporter, Flushab
 	 */
 	public HttpZipkinSpanReporter(RestTemplate restTemplate, String baseUrl, int flushInterval,
 								SpanMetricReporter spanMetricReporter, Encoding encoding) {
-		this.sender = new RestTemplateSender(restTemplate, baseUrl, encoding);
-		this.delegate = AsyncReporter.builder(this.sender)
-				.queuedMaxSpans(1000) // historical constraint. Note: AsyncReporter supports memory bounds
-				.messageTimeout(flushInterval, TimeUnit.SECONDS)
-				.metrics(new ReporterMetricsAdapter(spanMetricReporter))
+		this(new RestTemplateSender(restTemplate, baseUrl, encoding, spanMetricReporter),
+				flushInterval, spanMetricReporter);
+	}
+
+	HttpZipkinSpanReporter(Sender sender, int flushInterval,
+			SpanMetricReporter spanMetricReporter) {
+		this(sender, zipkinProperties(flushInterval), spanMetricReporter);
+	}
+
+	/**
+	 * @param zipkinProperties source of the flush interval and queue bounds
+	 */
+	HttpZipkinSpanReporter(Sender sender, ZipkinProperties zipkinProperties,
+			SpanMetricReporter spanMetricReporter) {
+		this.sender = sender;
+		this.delegate = asyncReporter(this.sender, zipkinProperties, spanMetricReporter)
 				.build();
 	}
 
+	/**
+	 * Default settings apart from the given flush interval
+	 */
+	static ZipkinProperties zipkinProperties(int flushInterval) {
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.setFlushInterval(flushInterval);
+		return zipkinProperties;
+	}
+
+	static AsyncReporter.Builder asyncReporter(Sender sender,
+			ZipkinProperties zipkinProperties, SpanMetricReporter spanMetricReporter) {
+		AsyncReporter.Builder builder = AsyncReporter.builder(sender)
+				.queuedMaxSpans(zipkinProperties.getQueuedMaxSpans())
+				.messageTimeout(zipkinProperties.getFlushInterval(), TimeUnit.SECONDS)
+				.metrics(new ReporterMetricsAdapter(spanMetricReporter, sender));
+		if (zipkinProperties.getQueuedMaxBytes() > 0) {
+			builder.queuedMaxBytes(zipkinProperties.getQueuedMaxBytes());
+		}
+		return builder;
+	}
+
 	/**
 	 * Queues the span for collection, or drops it if the queue is full.
 	 *
@@ -73,6 +107,10 @@ public final class HttpZipkinSpanReporter implements ZipkinSpanReporter, Flushab
 	@Override
 	public void close() {
 		this.delegate.close();
-		this.sender.close();
+		try {
+			this.sender.close();
+		} catch (IOException e) {
+			// the senders created here don't throw on close
+		}
 	}
 }
@@ -1,14 +1,46 @@
 package org.springframework.cloud.sleuth.zipkin;
 
+import java.util.Collections;
+
 import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanQueueMetricReporter;
 
 import zipkin.reporter.ReporterMetrics;
+import zipkin.reporter.Sender;
 
+/**
+ * Passes the metrics of the {@link zipkin.reporter.AsyncReporter} to a
+ * {@link SpanMetricReporter}. For a {@link SpanQueueMetricReporter} the reason of
+ * dropping spans is inferred - the reporter records the cause right before counting
+ * the dropped spans in the same thread, so it's kept in a thread local until then. A
+ * span counts as too large when the sender's message holding only that span would
+ * exceed its limit, the same check the reporter does.
+ */
 final class ReporterMetricsAdapter implements ReporterMetrics {
 	private final SpanMetricReporter spanMetricReporter;
+	private final SpanQueueMetricReporter queueMetricReporter;
+	private final Sender sender;
+	private final int listOverhead;
+	// only set when spans are about to be dropped, so not touched for accepted spans
+	private final ThreadLocal<String> dropReason = new ThreadLocal<>();
 
 	public ReporterMetricsAdapter(SpanMetricReporter spanMetricReporter) {
+		this(spanMetricReporter, null);
+	}
+
+	/**
+	 * @param sender the sender of the reporter, spans that don't fit in one of its
+	 * messages on their own are dropped as too large
+	 */
+	ReporterMetricsAdapter(SpanMetricReporter spanMetricReporter, Sender sender) {
 		this.spanMetricReporter = spanMetricReporter;
+		this.queueMetricReporter = spanMetricReporter instanceof SpanQueueMetricReporter ?
+				(SpanQueueMetricReporter) spanMetricReporter : null;
+		this.sender = sender;
+		// other senders only get the framing added, computed once
+		this.listOverhead = sender != null && !(sender instanceof SpanMessageSizer) ?
+				sender.encoding().listSizeInBytes(Collections.singletonList(new byte[0]))
+				: 0;
 	}
 
 	@Override
@@ -17,15 +49,38 @@ final class ReporterMetricsAdapter implements ReporterMetrics {
 
 	@Override
 	public void incrementMessagesDropped(Throwable throwable) {
+		if (this.queueMetricReporter != null) {
+			this.dropReason.set(SpanQueueMetricReporter.SEND_FAILED);
+		}
 	}
 
 	@Override
 	public void incrementSpans(int i) {
 		this.spanMetricReporter.incrementAcceptedSpans(i);
+		if (this.queueMetricReporter != null) {
+			// a reason left behind by a span that wasn't dropped after all
+			this.dropReason.remove();
+		}
 	}
 
 	@Override
 	public void incrementSpanBytes(int i) {
+		if (this.queueMetricReporter != null && this.sender != null
+				&& messageSizeOfSpan(i) > this.sender.messageMaxBytes()) {
+			this.dropReason.set(SpanQueueMetricReporter.TOO_LARGE);
+		}
+	}
+
+	/**
+	 * Only the length of the encoded span is known here, which is all our senders need
+	 * to compute the size of the message - framing and compression included. For other
+	 * senders only the framing of the encoding is added.
+	 */
+	private int messageSizeOfSpan(int spanBytes) {
+		if (this.sender instanceof SpanMessageSizer) {
+			return ((SpanMessageSizer) this.sender).messageSizeInBytes(spanBytes);
+		}
+		return this.listOverhead + spanBytes;
 	}
 
 	@Override
@@ -34,14 +89,31 @@ final class ReporterMetricsAdapter implements ReporterMetrics {
 
 	@Override
 	public void incrementSpansDropped(int i) {
-		this.spanMetricReporter.incrementDroppedSpans(i);
+		if (this.queueMetricReporter == null) {
+			this.spanMetricReporter.incrementDroppedSpans(i);
+			return;
+		}
+		String reason = this.dropReason.get();
+		if (reason != null) {
+			this.dropReason.remove();
+		}
+		else {
+			reason = SpanQueueMetricReporter.QUEUE_FULL;
+		}
+		this.queueMetricReporter.incrementDroppedSpans(i, reason);
 	}
 
 	@Override
 	public void updateQueuedSpans(int i) {
+		if (this.queueMetricReporter != null) {
+			this.queueMetricReporter.updateQueuedSpans(i);
+		}
 	}
 
 	@Override
 	public void updateQueuedBytes(int i) {
+		if (this.queueMetricReporter != null) {
+			this.queueMetricReporter.updateQueuedBytes(i);
+		}
 	}
 }
@@ -1,8 +1,11 @@
 package org.springframework.cloud.sleuth.zipkin;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 
+import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanQueueMetricReporter;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
@@ -14,18 +17,44 @@ import zipkin.reporter.Callback;
 import zipkin.reporter.Encoding;
 import zipkin.reporter.Sender;
 
-final class RestTemplateSender implements Sender {
+final class RestTemplateSender implements Sender, SpanMessageSizer {
 	final RestTemplate restTemplate;
 	final String url;
 
 	final Encoding encoding;
 	final MediaType mediaType;
+	final SpanQueueMetricReporter queueMetricReporter;
+	final GzipMessageCompressor compressor;
+	final int listOverhead;
+	final int messageMaxBytes;
 
 	RestTemplateSender(RestTemplate restTemplate, String baseUrl, Encoding encoding) {
+		this(restTemplate, baseUrl, encoding, null);
+	}
+
+	RestTemplateSender(RestTemplate restTemplate, String baseUrl, Encoding encoding,
+			SpanMetricReporter spanMetricReporter) {
+		this(restTemplate, baseUrl, encoding, spanMetricReporter, false,
+				new ZipkinProperties().getMessageMaxBytes());
+	}
+
+	/**
+	 * @param compressionEnabled whether the messages should be gzipped
+	 * @param messageMaxBytes max size of a message, after compression
+	 */
+	RestTemplateSender(RestTemplate restTemplate, String baseUrl, Encoding encoding,
+			SpanMetricReporter spanMetricReporter, boolean compressionEnabled,
+			int messageMaxBytes) {
 		this.restTemplate = restTemplate;
-		this.url = baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "api/v1/spans";
+		this.url = ZipkinUrlCache.spansUrl(baseUrl);
 		this.encoding = encoding;
+		this.listOverhead = encoding.listSizeInBytes(
+				Collections.singletonList(new byte[0]));
 		this.mediaType = mediaType(encoding);
+		this.queueMetricReporter = spanMetricReporter instanceof SpanQueueMetricReporter ?
+				(SpanQueueMetricReporter) spanMetricReporter : null;
+		this.compressor = compressionEnabled ? new GzipMessageCompressor() : null;
+		this.messageMaxBytes = messageMaxBytes;
 	}
 
 	@Override public Encoding encoding() {
@@ -33,12 +62,18 @@ final class RestTemplateSender implements Sender {
 	}
 
 	@Override public int messageMaxBytes() {
-		// This will drop a span larger than 5MiB. Note: values like 512KiB benchmark better.
-		return 5 * 1024 * 1024;
+		// Note: values like 512KiB benchmark better.
+		return this.messageMaxBytes;
 	}
 
 	@Override public int messageSizeInBytes(List<byte[]> spans) {
-		return encoding().listSizeInBytes(spans);
+		int size = encoding().listSizeInBytes(spans);
+		return this.compressor != null ? this.compressor.estimatedSize(size) : size;
+	}
+
+	@Override public int messageSizeInBytes(int spanBytes) {
+		int size = this.listOverhead + spanBytes;
+		return this.compressor != null ? this.compressor.estimatedSize(size) : size;
 	}
 
 	/** close is typically called from a different thread */
@@ -47,8 +82,12 @@ final class RestTemplateSender implements Sender {
 	@Override public void sendSpans(List<byte[]> encodedSpans, Callback callback) {
 		if (this.closeCalled) throw new IllegalStateException("close");
 		try {
+			long start = System.nanoTime();
 			byte[] message = BytesMessageEncoder.forEncoding(this.encoding).encode(encodedSpans);
 			post(message);
+			if (this.queueMetricReporter != null) {
+				this.queueMetricReporter.recordFlushDuration(System.nanoTime() - start);
+			}
 			callback.onComplete();
 		} catch (Throwable e) {
 			callback.onError(e);
@@ -68,13 +107,21 @@ final class RestTemplateSender implements Sender {
 
 	@Override public void close() {
 		this.closeCalled = true;
+		if (this.compressor != null) {
+			this.compressor.close();
+		}
 	}
 
 	void post(byte[] json) {
 		HttpHeaders httpHeaders = new HttpHeaders();
 		httpHeaders.setContentType(this.mediaType);
+		byte[] body = json;
+		if (this.compressor != null) {
+			httpHeaders.set(GzipMessageCompressor.CONTENT_ENCODING, GzipMessageCompressor.GZIP);
+			body = this.compressor.compress(json);
+		}
 		RequestEntity<byte[]> requestEntity =
-				new RequestEntity<>(json, httpHeaders, HttpMethod.POST, URI.create(this.url));
+				new RequestEntity<>(body, httpHeaders, HttpMethod.POST, URI.create(this.url));
 		this.restTemplate.exchange(requestEntity, String.class);
 	}
 
@@ -39,7 +39,8 @@ import zipkin.Endpoint;
  *     <li><b>port</b> - from lazily assigned port or {@link ServerProperties}</li>
  * </ul>
  *
- * You can override the name using {@link ZipkinProperties.Service#setName(String)}
+ * You can override the name using {@link ZipkinProperties.Service#setName(String)}.
+ * The endpoint is cached, see {@link ZipkinProperties.Locator#setRefreshInterval(long)}.
  *
  * @author Dave Syer
  * @since 1.0.0
@@ -54,6 +55,7 @@ public class ServerPropertiesEndpointLocator implements EndpointLocator,
 	private final String appName;
 	private final InetUtils inetUtils;
 	private final ZipkinProperties zipkinProperties;
+	private final EndpointCache cache;
 	private Integer port;
 	private Environment environment;
 
@@ -62,6 +64,7 @@ public class ServerPropertiesEndpointLocator implements EndpointLocator,
 		this.serverProperties = serverProperties;
 		this.appName = appName;
 		this.zipkinProperties = zipkinProperties;
+		this.cache = new EndpointCache(zipkinProperties);
 		if (inetUtils == null) {
 			this.inetUtils = new InetUtils(new InetUtilsProperties());
 		} else {
@@ -71,6 +74,15 @@ public class ServerPropertiesEndpointLocator implements EndpointLocator,
 
 	@Override
 	public Endpoint local() {
+		Endpoint endpoint = this.cache.get();
+		if (endpoint != null) {
+			return endpoint;
+		}
+		long generation = this.cache.generation();
+		return this.cache.put(generation, resolve());
+	}
+
+	private Endpoint resolve() {
 		String serviceName = StringUtils.hasText(this.zipkinProperties.getService().getName()) ?
 				this.zipkinProperties.getService().getName() : this.appName;
 		if (log.isDebugEnabled()) {
@@ -86,6 +98,7 @@ public class ServerPropertiesEndpointLocator implements EndpointLocator,
 	@EventListener(EmbeddedServletContainerInitializedEvent.class)
 	public void grabPort(EmbeddedServletContainerInitializedEvent event) {
 		this.port = event.getEmbeddedServletContainer().getPort();
+		this.cache.invalidate();
 	}
 
 	private Integer getPort() {
@@ -120,5 +133,6 @@ public class ServerPropertiesEndpointLocator implements EndpointLocator,
 	@Override
 	public void setEnvironment(Environment environment) {
 		this.environment = environment;
+		this.cache.invalidate();
 	}
 }
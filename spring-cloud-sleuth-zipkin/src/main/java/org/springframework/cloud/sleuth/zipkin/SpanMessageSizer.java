@@ -0,0 +1,34 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+/**
+ * Implemented by the senders that can tell the size of a message holding a single span
+ * from the length of the encoded span alone, so that checking if a span fits in a
+ * message doesn't allocate anything.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+interface SpanMessageSizer {
+
+	/**
+	 * @return size of a message holding only a span of the given encoded length,
+	 * compression included
+	 */
+	int messageSizeInBytes(int spanBytes);
+}
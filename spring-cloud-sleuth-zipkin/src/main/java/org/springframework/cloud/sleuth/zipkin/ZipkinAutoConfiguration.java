@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
@@ -41,16 +42,20 @@ import org.springframework.cloud.sleuth.SpanReporter;
 import org.springframework.cloud.sleuth.autoconfig.TraceAutoConfiguration;
 import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
 import org.springframework.cloud.sleuth.sampler.PercentageBasedSampler;
+import org.springframework.cloud.sleuth.sampler.PerThreadPercentageBasedSampler;
 import org.springframework.cloud.sleuth.sampler.SamplerProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import zipkin.reporter.Sender;
+
 /**
  * {@link org.springframework.boot.autoconfigure.EnableAutoConfiguration Auto-configuration}
  * enables reporting to Zipkin via HTTP. Has a default {@link Sampler} set as
@@ -73,21 +78,72 @@ import org.springframework.web.client.RestTemplate;
 @AutoConfigureBefore(TraceAutoConfiguration.class)
 public class ZipkinAutoConfiguration {
 
+	private static final String HTTP_ASYNC_CLIENT_CLASS =
+			"org.apache.http.impl.nio.client.CloseableHttpAsyncClient";
+
 	@Autowired(required = false) List<SpanAdjuster> spanAdjusters = new ArrayList<>();
 	@Autowired ZipkinUrlExtractor extractor;
 
 	@Bean
 	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "spring.zipkin.direct-encoding", havingValue = "false", matchIfMissing = true)
 	public ZipkinSpanReporter reporter(SpanMetricReporter spanMetricReporter, ZipkinProperties zipkin,
 			ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer) {
-		RestTemplate restTemplate = zipkinRestTemplate(zipkin);
+		return new HttpZipkinSpanReporter(zipkinSender(zipkin, zipkinRestTemplateCustomizer,
+				spanMetricReporter), zipkin, spanMetricReporter);
+	}
+
+	private Sender zipkinSender(ZipkinProperties zipkin,
+			ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer,
+			SpanMetricReporter spanMetricReporter) {
+		if (zipkin.getSender().getType() == ZipkinProperties.Sender.Type.ASYNC) {
+			if (!ClassUtils.isPresent(HTTP_ASYNC_CLIENT_CLASS, null)) {
+				throw new IllegalStateException("The async Zipkin sender requires ["
+						+ HTTP_ASYNC_CLIENT_CLASS + "] to be on the classpath");
+			}
+			return HttpAsyncClientSender.create(zipkin, this.extractor, spanMetricReporter);
+		}
+		RestTemplate restTemplate = zipkinRestTemplate(zipkin, zipkinRestTemplateCustomizer);
+		return new RestTemplateSender(restTemplate, zipkin.getBaseUrl(), zipkin.getEncoding(),
+				spanMetricReporter, zipkin.getCompression().isEnabled(),
+				zipkin.getMessageMaxBytes());
+	}
+
+	private RestTemplate zipkinRestTemplate(ZipkinProperties zipkinProperties,
+			ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer) {
+		RestTemplate restTemplate = new ZipkinRestTemplateWrapper(zipkinProperties, this.extractor);
 		zipkinRestTemplateCustomizer.customize(restTemplate);
-		return new HttpZipkinSpanReporter(restTemplate, zipkin.getBaseUrl(), zipkin.getFlushInterval(),
-				spanMetricReporter, zipkin.getEncoding());
+		return restTemplate;
 	}
 
-	private RestTemplate zipkinRestTemplate(ZipkinProperties zipkinProperties) {
-		return new ZipkinRestTemplateWrapper(zipkinProperties, this.extractor);
+	/**
+	 * The default {@link ZipkinSpanReporter} is not registered with direct encoding, so
+	 * any reporter bean is a custom one that is used instead of the encoding listener
+	 */
+	@Configuration
+	@ConditionalOnProperty(value = "spring.zipkin.direct-encoding", havingValue = "true")
+	protected static class DirectEncodingConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(ZipkinSpanReporter.class)
+		public SpanReporter encodingZipkinSpanListener(ZipkinAutoConfiguration configuration,
+				SpanMetricReporter spanMetricReporter, ZipkinProperties zipkin,
+				ZipkinRestTemplateCustomizer zipkinRestTemplateCustomizer,
+				EndpointLocator endpointLocator, Environment environment) {
+			return new EncodingZipkinSpanListener(configuration.zipkinSender(zipkin,
+					zipkinRestTemplateCustomizer, spanMetricReporter), zipkin,
+					spanMetricReporter, endpointLocator, environment,
+					configuration.spanAdjusters);
+		}
+
+		@Bean
+		@ConditionalOnBean(ZipkinSpanReporter.class)
+		public SpanReporter customReporterZipkinSpanListener(ZipkinAutoConfiguration configuration,
+				ZipkinSpanReporter reporter, EndpointLocator endpointLocator,
+				Environment environment) {
+			return new ZipkinSpanListener(reporter, endpointLocator, environment,
+					configuration.spanAdjusters);
+		}
 	}
 
 	@Configuration
@@ -139,10 +195,14 @@ public class ZipkinAutoConfiguration {
 	@Bean
 	@ConditionalOnMissingBean
 	public Sampler defaultTraceSampler(SamplerProperties config) {
+		if (config.isPerThread()) {
+			return new PerThreadPercentageBasedSampler(config);
+		}
 		return new PercentageBasedSampler(config);
 	}
 
 	@Bean
+	@ConditionalOnProperty(value = "spring.zipkin.direct-encoding", havingValue = "false", matchIfMissing = true)
 	public SpanReporter zipkinSpanListener(ZipkinSpanReporter reporter, EndpointLocator endpointLocator,
 			Environment environment) {
 		return new ZipkinSpanListener(reporter, endpointLocator, environment, this.spanAdjusters);
@@ -198,7 +258,8 @@ public class ZipkinAutoConfiguration {
 		public EndpointLocator zipkinEndpointLocator() {
 			return new FallbackHavingEndpointLocator(discoveryClientEndpointLocator(),
 					new ServerPropertiesEndpointLocator(this.serverProperties, this.appName,
-							this.zipkinProperties, this.inetUtils));
+							this.zipkinProperties, this.inetUtils),
+					this.zipkinProperties.getLocator().getRefreshInterval());
 		}
 
 		private DiscoveryClientEndpointLocator discoveryClientEndpointLocator() {
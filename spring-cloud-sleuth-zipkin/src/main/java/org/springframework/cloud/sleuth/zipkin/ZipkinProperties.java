@@ -41,10 +41,29 @@ public class ZipkinProperties {
 	 * Interval in seconds in which spans will be sent in batches to Zipkin
 	 */
 	private int flushInterval = 1;
+	/**
+	 * Max number of spans waiting to be sent to Zipkin. Further spans are dropped
+	 */
+	private int queuedMaxSpans = 1000;
+	/**
+	 * Max size in bytes of the encoded spans waiting to be sent to Zipkin. Further
+	 * spans are dropped. 0 means 1% of the heap
+	 */
+	private int queuedMaxBytes = 0;
+	/**
+	 * Max size in bytes of a message of spans sent to Zipkin (after compression, if
+	 * enabled). Spans that don't fit in a single message are dropped
+	 */
+	private int messageMaxBytes = 5 * 1024 * 1024;
 	/**
 	 * Encoding type of spans sent to Zipkin
 	 */
 	private Encoding encoding = Encoding.JSON;
+	/**
+	 * Encodes the spans straight to the bytes sent to Zipkin, without converting them to
+	 * Zipkin's model first. Applies only if no custom ZipkinSpanReporter is registered
+	 */
+	private boolean directEncoding = false;
 	/**
 	 * Configuration related to compressions of spans sent to Zipkin
 	 */
@@ -54,6 +73,8 @@ public class ZipkinProperties {
 
 	private Locator locator = new Locator();
 
+	private Sender sender = new Sender();
+
 	public Locator getLocator() {
 		return this.locator;
 	}
@@ -70,6 +91,30 @@ public class ZipkinProperties {
 		return this.flushInterval;
 	}
 
+	public int getQueuedMaxSpans() {
+		return this.queuedMaxSpans;
+	}
+
+	public void setQueuedMaxSpans(int queuedMaxSpans) {
+		this.queuedMaxSpans = queuedMaxSpans;
+	}
+
+	public int getQueuedMaxBytes() {
+		return this.queuedMaxBytes;
+	}
+
+	public void setQueuedMaxBytes(int queuedMaxBytes) {
+		this.queuedMaxBytes = queuedMaxBytes;
+	}
+
+	public int getMessageMaxBytes() {
+		return this.messageMaxBytes;
+	}
+
+	public void setMessageMaxBytes(int messageMaxBytes) {
+		this.messageMaxBytes = messageMaxBytes;
+	}
+
 	public Compression getCompression() {
 		return this.compression;
 	}
@@ -102,6 +147,22 @@ public class ZipkinProperties {
 		this.locator = locator;
 	}
 
+	public Sender getSender() {
+		return this.sender;
+	}
+
+	public void setSender(Sender sender) {
+		this.sender = sender;
+	}
+
+	public boolean isDirectEncoding() {
+		return this.directEncoding;
+	}
+
+	public void setDirectEncoding(boolean directEncoding) {
+		this.directEncoding = directEncoding;
+	}
+
 	public Encoding getEncoding() {
 		return this.encoding;
 	}
@@ -124,6 +185,77 @@ public class ZipkinProperties {
 		}
 	}
 
+	/** Configuration of how spans are sent to Zipkin over HTTP */
+	public static class Sender {
+
+		/** Client used to send the spans. {@code WEB} posts them with a RestTemplate,
+		 *  {@code ASYNC} with a non-blocking, pooled Apache HttpAsyncClient (requires
+		 *  {@code org.apache.httpcomponents:httpasyncclient} on the classpath)
+		 */
+		private Type type = Type.WEB;
+
+		/** Max number of span messages the async sender sends at once. A further
+		 *  message waits up to a second for one of them to be sent and is dropped then
+		 */
+		private int maxInFlight = 4;
+
+		/** Connect timeout in millis of the async sender */
+		private int connectTimeout = 10000;
+
+		/** Read timeout in millis of the async sender */
+		private int readTimeout = 60000;
+
+		/** Interval in seconds after which the async sender resolves the Zipkin URL
+		 *  (e.g. via service discovery) again in the background. Apart from that it's
+		 *  resolved again when sending fails. 0 means that only failures trigger it
+		 */
+		private long urlRefreshInterval = 30;
+
+		public Type getType() {
+			return this.type;
+		}
+
+		public void setType(Type type) {
+			this.type = type;
+		}
+
+		public int getMaxInFlight() {
+			return this.maxInFlight;
+		}
+
+		public void setMaxInFlight(int maxInFlight) {
+			this.maxInFlight = maxInFlight;
+		}
+
+		public int getConnectTimeout() {
+			return this.connectTimeout;
+		}
+
+		public void setConnectTimeout(int connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public int getReadTimeout() {
+			return this.readTimeout;
+		}
+
+		public void setReadTimeout(int readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public long getUrlRefreshInterval() {
+			return this.urlRefreshInterval;
+		}
+
+		public void setUrlRefreshInterval(long urlRefreshInterval) {
+			this.urlRefreshInterval = urlRefreshInterval;
+		}
+
+		public enum Type {
+			WEB, ASYNC
+		}
+	}
+
 	/** When set will override the default {@code spring.application.name} value of the service id */
 	public static class Service {
 
@@ -148,6 +280,13 @@ public class ZipkinProperties {
 
 		private Discovery discovery;
 
+		/** Interval in seconds after which the local endpoint (service name, address
+		 *  and port) put on spans gets resolved again. Apart from that it's resolved
+		 *  again when the embedded container has started or the instance got
+		 *  registered in service discovery. 0 means that only these events trigger it.
+		 */
+		private long refreshInterval = 60;
+
 		public Discovery getDiscovery() {
 			return this.discovery;
 		}
@@ -156,6 +295,14 @@ public class ZipkinProperties {
 			this.discovery = discovery;
 		}
 
+		public long getRefreshInterval() {
+			return this.refreshInterval;
+		}
+
+		public void setRefreshInterval(long refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+
 		public static class Discovery {
 
 			/** Enabling of locating the host name via service discovery */
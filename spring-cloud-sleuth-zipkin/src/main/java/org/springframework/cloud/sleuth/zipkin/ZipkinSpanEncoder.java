@@ -0,0 +1,658 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.util.Arrays;
+
+import org.springframework.cloud.commons.util.IdUtils;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.util.ZipkinSpanConverter;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import zipkin.Constants;
+import zipkin.Endpoint;
+import zipkin.reporter.Encoder;
+import zipkin.reporter.Encoding;
+
+/**
+ * Encodes a Sleuth span straight to the Zipkin v1 JSON or Thrift bytes, without creating
+ * the {@link zipkin.Span}, {@link zipkin.Annotation} and {@link zipkin.BinaryAnnotation}
+ * objects in between. The span is classified by {@link ZipkinSpanConverter#write} and
+ * reads back as the one {@link ZipkinSpanConverter#convert} creates. Only the order of
+ * the binary annotations may differ from {@link Encoder#JSON} or {@link Encoder#THRIFT},
+ * they are written in the order of the tags while the Zipkin model sorts them by key.
+ * The bytes are written to a per thread buffer that is reused between spans, the
+ * encoded local endpoint is reused as long as the {@link EndpointLocator} returns the
+ * same one.
+ * <p>
+ * Endpoints with an IPv6 address are encoded via the zipkin model.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+abstract class ZipkinSpanEncoder implements Encoder<Span> {
+
+	/** Bigger buffers are not kept for the next span */
+	static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+	private static final ThreadLocal<Buffer> BUFFER = new ThreadLocal<Buffer>() {
+		@Override protected Buffer initialValue() {
+			return new Buffer();
+		}
+	};
+
+	private final EndpointLocator endpointLocator;
+	private final Environment environment;
+	private final ZipkinSpanConverter converter;
+	private volatile EncodedEndpoint lastEndpoint;
+
+	ZipkinSpanEncoder(EndpointLocator endpointLocator, final Environment environment) {
+		this.endpointLocator = endpointLocator;
+		this.environment = environment;
+		this.converter = new ZipkinSpanConverter() {
+			@Override protected String instanceId() {
+				return ZipkinSpanEncoder.this.instanceId();
+			}
+		};
+	}
+
+	static ZipkinSpanEncoder forEncoding(Encoding encoding, EndpointLocator endpointLocator,
+			Environment environment) {
+		switch (encoding) {
+		case THRIFT:
+			return new ThriftSpanEncoder(endpointLocator, environment);
+		default:
+			return new JsonSpanEncoder(endpointLocator, environment);
+		}
+	}
+
+	@Override
+	public byte[] encode(Span span) {
+		Endpoint endpoint = this.endpointLocator.local();
+		if (endpoint.ipv6 != null) {
+			zipkin.Span converted = this.converter.convert(span, endpoint);
+			return encoding() == Encoding.THRIFT ? Encoder.THRIFT.encode(converted)
+					: Encoder.JSON.encode(converted);
+		}
+		Buffer buffer = BUFFER.get();
+		try {
+			write(span, encodedEndpoint(endpoint), buffer);
+			return buffer.toByteArray();
+		}
+		finally {
+			if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+				BUFFER.remove();
+			}
+			else {
+				buffer.reset();
+			}
+		}
+	}
+
+	private void write(Span span, byte[] endpoint, Buffer buffer) {
+		writeIds(span, buffer);
+		this.converter.write(span, new BufferOutput(span, endpoint, buffer));
+	}
+
+	/**
+	 * Zipkin lower cases the span name, an empty name is used if there's none
+	 */
+	static String name(Span span) {
+		return StringUtils.hasText(span.getName()) ? span.getName().toLowerCase() : "";
+	}
+
+	private String instanceId() {
+		return this.environment != null ? IdUtils.getDefaultInstanceId(this.environment)
+				: null;
+	}
+
+	private byte[] encodedEndpoint(Endpoint endpoint) {
+		EncodedEndpoint last = this.lastEndpoint;
+		if (last != null && last.endpoint == endpoint) {
+			return last.bytes;
+		}
+		Buffer buffer = new Buffer();
+		writeEndpoint(endpoint.serviceName, endpoint.ipv4,
+				endpoint.port != null ? endpoint.port & 0xffff : 0, buffer);
+		byte[] bytes = buffer.toByteArray();
+		this.lastEndpoint = new EncodedEndpoint(endpoint, bytes);
+		return bytes;
+	}
+
+	abstract void writeIds(Span span, Buffer buffer);
+
+	/**
+	 * @return a mark passed to {@link #endList(int, int, Buffer)}
+	 */
+	abstract int beginList(boolean annotations, Buffer buffer);
+
+	abstract void endList(int mark, int count, Buffer buffer);
+
+	abstract void writeAnnotation(int index, long timestamp, String value, byte[] endpoint,
+			Buffer buffer);
+
+	abstract void writeBinaryAnnotation(int index, String key, String value,
+			byte[] endpoint, Buffer buffer);
+
+	abstract void writeAddress(int index, String key, String serviceName, Buffer buffer);
+
+	abstract void writeEnd(Span span, long timestamp, long duration, Buffer buffer);
+
+	abstract void writeEndpoint(String serviceName, int ipv4, int port, Buffer buffer);
+
+	/**
+	 * Writes what the {@link ZipkinSpanConverter} classified to the buffer, the list
+	 * of annotations is ended once the first binary annotation comes in
+	 */
+	private final class BufferOutput implements ZipkinSpanConverter.Output {
+		private final Span span;
+		private final byte[] endpoint;
+		private final Buffer buffer;
+		private boolean binaryAnnotations;
+		private int count;
+		private int mark;
+
+		BufferOutput(Span span, byte[] endpoint, Buffer buffer) {
+			this.span = span;
+			this.endpoint = endpoint;
+			this.buffer = buffer;
+			this.mark = beginList(true, buffer);
+		}
+
+		@Override public void annotation(long timestamp, String value) {
+			writeAnnotation(this.count++, timestamp, value, this.endpoint, this.buffer);
+		}
+
+		@Override public void binaryAnnotation(String key, String value) {
+			beginBinaryAnnotations();
+			writeBinaryAnnotation(this.count++, key, value, this.endpoint, this.buffer);
+		}
+
+		@Override public void serverAddress(String serviceName) {
+			beginBinaryAnnotations();
+			writeAddress(this.count++, Constants.SERVER_ADDR, serviceName, this.buffer);
+		}
+
+		@Override public void end(long timestamp, long duration) {
+			beginBinaryAnnotations();
+			endList(this.mark, this.count, this.buffer);
+			writeEnd(this.span, timestamp, duration, this.buffer);
+		}
+
+		private void beginBinaryAnnotations() {
+			if (!this.binaryAnnotations) {
+				this.binaryAnnotations = true;
+				endList(this.mark, this.count, this.buffer);
+				this.count = 0;
+				this.mark = beginList(false, this.buffer);
+			}
+		}
+	}
+
+	private static final class EncodedEndpoint {
+		final Endpoint endpoint;
+		final byte[] bytes;
+
+		EncodedEndpoint(Endpoint endpoint, byte[] bytes) {
+			this.endpoint = endpoint;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * Zipkin v1 JSON, as written by {@link Encoder#JSON}. Empty lists, a zero
+	 * timestamp and a zero duration are left out.
+	 */
+	static final class JsonSpanEncoder extends ZipkinSpanEncoder {
+
+		JsonSpanEncoder(EndpointLocator endpointLocator, Environment environment) {
+			super(endpointLocator, environment);
+		}
+
+		@Override public Encoding encoding() {
+			return Encoding.JSON;
+		}
+
+		@Override void writeIds(Span span, Buffer buffer) {
+			buffer.writeAscii("{\"traceId\":\"");
+			if (span.getTraceIdHigh() != 0L) {
+				buffer.writeLowerHex(span.getTraceIdHigh());
+			}
+			buffer.writeLowerHex(span.getTraceId());
+			buffer.writeAscii("\",\"id\":\"");
+			buffer.writeLowerHex(span.getSpanId());
+			buffer.writeAscii("\",\"name\":\"");
+			buffer.writeJsonEscaped(name(span));
+			buffer.writeByte('"');
+			if (span.hasParent()) {
+				buffer.writeAscii(",\"parentId\":\"");
+				buffer.writeLowerHex(span.getParentId());
+				buffer.writeByte('"');
+			}
+		}
+
+		@Override int beginList(boolean annotations, Buffer buffer) {
+			// the name is written with the first element
+			return 0;
+		}
+
+		@Override void endList(int mark, int count, Buffer buffer) {
+			if (count > 0) {
+				buffer.writeByte(']');
+			}
+		}
+
+		private void writeElementStart(int index, String list, Buffer buffer) {
+			if (index == 0) {
+				buffer.writeAscii(list);
+			}
+			else {
+				buffer.writeByte(',');
+			}
+		}
+
+		@Override void writeAnnotation(int index, long timestamp, String value,
+				byte[] endpoint, Buffer buffer) {
+			writeElementStart(index, ",\"annotations\":[", buffer);
+			buffer.writeAscii("{\"timestamp\":");
+			buffer.writeDecimal(timestamp);
+			buffer.writeAscii(",\"value\":\"");
+			buffer.writeJsonEscaped(value);
+			buffer.writeAscii("\",\"endpoint\":");
+			buffer.writeBytes(endpoint);
+			buffer.writeByte('}');
+		}
+
+		@Override void writeBinaryAnnotation(int index, String key, String value,
+				byte[] endpoint, Buffer buffer) {
+			writeElementStart(index, ",\"binaryAnnotations\":[", buffer);
+			buffer.writeAscii("{\"key\":\"");
+			buffer.writeJsonEscaped(key);
+			buffer.writeAscii("\",\"value\":\"");
+			buffer.writeJsonEscaped(value);
+			buffer.writeAscii("\",\"endpoint\":");
+			buffer.writeBytes(endpoint);
+			buffer.writeByte('}');
+		}
+
+		@Override void writeAddress(int index, String key, String serviceName,
+				Buffer buffer) {
+			writeElementStart(index, ",\"binaryAnnotations\":[", buffer);
+			buffer.writeAscii("{\"key\":\"");
+			buffer.writeJsonEscaped(key);
+			buffer.writeAscii("\",\"value\":true,\"endpoint\":");
+			writeEndpoint(serviceName, 0, 0, buffer);
+			buffer.writeByte('}');
+		}
+
+		@Override void writeEnd(Span span, long timestamp, long duration, Buffer buffer) {
+			if (timestamp != 0L) {
+				buffer.writeAscii(",\"timestamp\":");
+				buffer.writeDecimal(timestamp);
+			}
+			if (duration != 0L) {
+				buffer.writeAscii(",\"duration\":");
+				buffer.writeDecimal(duration);
+			}
+			buffer.writeByte('}');
+		}
+
+		@Override void writeEndpoint(String serviceName, int ipv4, int port,
+				Buffer buffer) {
+			buffer.writeAscii("{\"serviceName\":\"");
+			buffer.writeJsonEscaped(serviceName);
+			buffer.writeByte('"');
+			if (ipv4 != 0) {
+				buffer.writeAscii(",\"ipv4\":\"");
+				buffer.writeDecimal(ipv4 >> 24 & 0xff);
+				buffer.writeByte('.');
+				buffer.writeDecimal(ipv4 >> 16 & 0xff);
+				buffer.writeByte('.');
+				buffer.writeDecimal(ipv4 >> 8 & 0xff);
+				buffer.writeByte('.');
+				buffer.writeDecimal(ipv4 & 0xff);
+				buffer.writeByte('"');
+			}
+			if (port != 0) {
+				buffer.writeAscii(",\"port\":");
+				buffer.writeDecimal(port);
+			}
+			buffer.writeByte('}');
+		}
+	}
+
+	/**
+	 * Zipkin v1 Thrift (TBinaryProtocol), as written by {@link Encoder#THRIFT}
+	 */
+	static final class ThriftSpanEncoder extends ZipkinSpanEncoder {
+
+		private static final byte TYPE_STOP = 0;
+		private static final byte TYPE_I16 = 6;
+		private static final byte TYPE_I32 = 8;
+		private static final byte TYPE_I64 = 10;
+		private static final byte TYPE_STRING = 11;
+		private static final byte TYPE_STRUCT = 12;
+		private static final byte TYPE_LIST = 15;
+		private static final int ANNOTATION_TYPE_BOOL = 0;
+		private static final int ANNOTATION_TYPE_STRING = 6;
+		private static final byte[] TRUE = { 1 };
+
+		ThriftSpanEncoder(EndpointLocator endpointLocator, Environment environment) {
+			super(endpointLocator, environment);
+		}
+
+		@Override public Encoding encoding() {
+			return Encoding.THRIFT;
+		}
+
+		@Override void writeIds(Span span, Buffer buffer) {
+			writeField(TYPE_I64, 1, buffer);
+			buffer.writeLong(span.getTraceId());
+			writeField(TYPE_STRING, 3, buffer);
+			buffer.writeLengthPrefixedUtf8(name(span));
+			writeField(TYPE_I64, 4, buffer);
+			buffer.writeLong(span.getSpanId());
+			if (span.hasParent()) {
+				writeField(TYPE_I64, 5, buffer);
+				buffer.writeLong(span.getParentId());
+			}
+		}
+
+		@Override int beginList(boolean annotations, Buffer buffer) {
+			writeField(TYPE_LIST, annotations ? 6 : 8, buffer);
+			buffer.writeByte(TYPE_STRUCT);
+			int mark = buffer.position();
+			buffer.writeInt(0); // replaced by the element count
+			return mark;
+		}
+
+		@Override void endList(int mark, int count, Buffer buffer) {
+			buffer.setInt(mark, count);
+		}
+
+		@Override void writeAnnotation(int index, long timestamp, String value,
+				byte[] endpoint, Buffer buffer) {
+			writeField(TYPE_I64, 1, buffer);
+			buffer.writeLong(timestamp);
+			writeField(TYPE_STRING, 2, buffer);
+			buffer.writeLengthPrefixedUtf8(value);
+			writeField(TYPE_STRUCT, 3, buffer);
+			buffer.writeBytes(endpoint);
+			buffer.writeByte(TYPE_STOP);
+		}
+
+		@Override void writeBinaryAnnotation(int index, String key, String value,
+				byte[] endpoint, Buffer buffer) {
+			writeField(TYPE_STRING, 1, buffer);
+			buffer.writeLengthPrefixedUtf8(key);
+			writeField(TYPE_STRING, 2, buffer);
+			buffer.writeLengthPrefixedUtf8(value);
+			writeField(TYPE_I32, 3, buffer);
+			buffer.writeInt(ANNOTATION_TYPE_STRING);
+			writeField(TYPE_STRUCT, 4, buffer);
+			buffer.writeBytes(endpoint);
+			buffer.writeByte(TYPE_STOP);
+		}
+
+		@Override void writeAddress(int index, String key, String serviceName,
+				Buffer buffer) {
+			writeField(TYPE_STRING, 1, buffer);
+			buffer.writeLengthPrefixedUtf8(key);
+			writeField(TYPE_STRING, 2, buffer);
+			buffer.writeInt(TRUE.length);
+			buffer.writeBytes(TRUE);
+			writeField(TYPE_I32, 3, buffer);
+			buffer.writeInt(ANNOTATION_TYPE_BOOL);
+			writeField(TYPE_STRUCT, 4, buffer);
+			writeEndpoint(serviceName, 0, 0, buffer);
+			buffer.writeByte(TYPE_STOP);
+		}
+
+		@Override void writeEnd(Span span, long timestamp, long duration, Buffer buffer) {
+			if (timestamp != 0L) {
+				writeField(TYPE_I64, 10, buffer);
+				buffer.writeLong(timestamp);
+			}
+			if (duration != 0L) {
+				writeField(TYPE_I64, 11, buffer);
+				buffer.writeLong(duration);
+			}
+			if (span.getTraceIdHigh() != 0L) {
+				writeField(TYPE_I64, 12, buffer);
+				buffer.writeLong(span.getTraceIdHigh());
+			}
+			buffer.writeByte(TYPE_STOP);
+		}
+
+		@Override void writeEndpoint(String serviceName, int ipv4, int port,
+				Buffer buffer) {
+			writeField(TYPE_I32, 1, buffer);
+			buffer.writeInt(ipv4);
+			writeField(TYPE_I16, 2, buffer);
+			buffer.writeShort(port);
+			writeField(TYPE_STRING, 3, buffer);
+			buffer.writeLengthPrefixedUtf8(serviceName);
+			buffer.writeByte(TYPE_STOP);
+		}
+
+		private void writeField(byte type, int id, Buffer buffer) {
+			buffer.writeByte(type);
+			buffer.writeShort(id);
+		}
+	}
+
+	/**
+	 * Growable byte array
+	 */
+	static final class Buffer {
+
+		private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+		private byte[] bytes = new byte[1024];
+		private int position;
+
+		int position() {
+			return this.position;
+		}
+
+		int capacity() {
+			return this.bytes.length;
+		}
+
+		void reset() {
+			this.position = 0;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(this.bytes, this.position);
+		}
+
+		private void ensureCapacity(int extra) {
+			if (this.position + extra > this.bytes.length) {
+				this.bytes = Arrays.copyOf(this.bytes,
+						Math.max(this.bytes.length * 2, this.position + extra));
+			}
+		}
+
+		void writeByte(int b) {
+			ensureCapacity(1);
+			this.bytes[this.position++] = (byte) b;
+		}
+
+		void writeBytes(byte[] b) {
+			ensureCapacity(b.length);
+			System.arraycopy(b, 0, this.bytes, this.position, b.length);
+			this.position += b.length;
+		}
+
+		void writeShort(int v) {
+			ensureCapacity(2);
+			this.bytes[this.position++] = (byte) (v >>> 8);
+			this.bytes[this.position++] = (byte) v;
+		}
+
+		void writeInt(int v) {
+			ensureCapacity(4);
+			setInt(this.position, v);
+			this.position += 4;
+		}
+
+		void setInt(int index, int v) {
+			this.bytes[index] = (byte) (v >>> 24);
+			this.bytes[index + 1] = (byte) (v >>> 16);
+			this.bytes[index + 2] = (byte) (v >>> 8);
+			this.bytes[index + 3] = (byte) v;
+		}
+
+		void writeLong(long v) {
+			ensureCapacity(8);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				this.bytes[this.position++] = (byte) (v >>> shift);
+			}
+		}
+
+		void writeLowerHex(long v) {
+			ensureCapacity(16);
+			for (int shift = 60; shift >= 0; shift -= 4) {
+				this.bytes[this.position++] = HEX[(int) (v >>> shift) & 0xf];
+			}
+		}
+
+		void writeDecimal(long v) {
+			if (v == Long.MIN_VALUE) {
+				writeAscii(Long.toString(v));
+				return;
+			}
+			ensureCapacity(20);
+			if (v < 0) {
+				this.bytes[this.position++] = '-';
+				v = -v;
+			}
+			int digits = 1;
+			for (long rest = v / 10; rest != 0; rest /= 10) {
+				digits++;
+			}
+			int index = this.position + digits;
+			do {
+				this.bytes[--index] = (byte) ('0' + v % 10);
+				v /= 10;
+			}
+			while (v != 0);
+			this.position += digits;
+		}
+
+		void writeAscii(String s) {
+			int length = s.length();
+			ensureCapacity(length);
+			for (int i = 0; i < length; i++) {
+				this.bytes[this.position++] = (byte) s.charAt(i);
+			}
+		}
+
+		/**
+		 * Thrift string - the length of the UTF-8 bytes followed by them
+		 */
+		void writeLengthPrefixedUtf8(String s) {
+			int mark = this.position;
+			writeInt(0);
+			writeUtf8(s, false);
+			setInt(mark, this.position - mark - 4);
+		}
+
+		/**
+		 * UTF-8 bytes of a JSON string value, without the quotes
+		 */
+		void writeJsonEscaped(String s) {
+			writeUtf8(s, true);
+		}
+
+		private void writeUtf8(String s, boolean jsonEscape) {
+			int length = s.length();
+			for (int i = 0; i < length; i++) {
+				char c = s.charAt(i);
+				if (c < 0x80) {
+					if (jsonEscape && (c < 0x20 || c == '"' || c == '\\')) {
+						writeEscaped(c);
+					}
+					else {
+						writeByte(c);
+					}
+				}
+				else if (c < 0x800) {
+					ensureCapacity(2);
+					this.bytes[this.position++] = (byte) (0xc0 | c >> 6);
+					this.bytes[this.position++] = (byte) (0x80 | c & 0x3f);
+				}
+				else if (jsonEscape && (c == '\u2028' || c == '\u2029')) { // JavaScript line separators
+					writeEscaped(c);
+				}
+				else if (Character.isHighSurrogate(c) && i + 1 < length
+						&& Character.isLowSurrogate(s.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, s.charAt(++i));
+					ensureCapacity(4);
+					this.bytes[this.position++] = (byte) (0xf0 | codePoint >> 18);
+					this.bytes[this.position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+					this.bytes[this.position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+					this.bytes[this.position++] = (byte) (0x80 | codePoint & 0x3f);
+				}
+				else if (Character.isSurrogate(c)) {
+					writeByte('?'); // malformed, like String.getBytes(UTF_8)
+				}
+				else {
+					ensureCapacity(3);
+					this.bytes[this.position++] = (byte) (0xe0 | c >> 12);
+					this.bytes[this.position++] = (byte) (0x80 | c >> 6 & 0x3f);
+					this.bytes[this.position++] = (byte) (0x80 | c & 0x3f);
+				}
+			}
+		}
+
+		private void writeEscaped(char c) {
+			switch (c) {
+			case '"':
+				writeAscii("\\\"");
+				break;
+			case '\\':
+				writeAscii("\\\\");
+				break;
+			case '\n':
+				writeAscii("\\n");
+				break;
+			case '\r':
+				writeAscii("\\r");
+				break;
+			case '\t':
+				writeAscii("\\t");
+				break;
+			case '\b':
+				writeAscii("\\b");
+				break;
+			case '\f':
+				writeAscii("\\f");
+				break;
+			default:
+				writeAscii("\\u");
+				ensureCapacity(4);
+				for (int shift = 12; shift >= 0; shift -= 4) {
+					this.bytes[this.position++] = HEX[c >>> shift & 0xf];
+				}
+			}
+		}
+	}
+}
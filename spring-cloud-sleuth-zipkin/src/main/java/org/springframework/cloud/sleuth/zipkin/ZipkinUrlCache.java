@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Holds the resolved URI to which spans are posted so that the Zipkin URL doesn't have
+ * to be resolved (e.g. via service discovery) for each message. The URI is resolved
+ * again in the background every refresh interval (if positive) and after it got
+ * {@link #invalidate() invalidated}, e.g. because sending to it failed - invalidations
+ * before the pending resolution has started cause only that one. Until then the
+ * previously resolved URI is used - the configured one until the first resolution, which
+ * is done in the background as well so that creating the cache doesn't block on e.g. a
+ * discovery client.
+ *
+ * @author Marcin Grzejszczak
+ * @since 1.3.0
+ */
+class ZipkinUrlCache implements Closeable {
+
+	private static final Log log = LogFactory.getLog(ZipkinUrlCache.class);
+
+	private final ZipkinProperties zipkinProperties;
+	private final ZipkinUrlExtractor extractor;
+	private final ScheduledExecutorService executor;
+	private final AtomicBoolean refreshPending = new AtomicBoolean();
+	private volatile URI spansUri;
+
+	ZipkinUrlCache(ZipkinProperties zipkinProperties, ZipkinUrlExtractor extractor,
+			long refreshIntervalSeconds) {
+		this.zipkinProperties = zipkinProperties;
+		this.extractor = extractor;
+		this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "zipkin-url-resolver");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.spansUri = URI.create(spansUrl(zipkinProperties.getBaseUrl()));
+		invalidate();
+		if (refreshIntervalSeconds > 0) {
+			this.executor.scheduleWithFixedDelay(new Runnable() {
+				@Override public void run() {
+					refresh();
+				}
+			}, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * @return the last resolved URI of the spans endpoint of the Zipkin server
+	 */
+	URI get() {
+		return this.spansUri;
+	}
+
+	/**
+	 * Resolves the URI again in the background
+	 */
+	void invalidate() {
+		if (!this.refreshPending.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			this.executor.execute(new Runnable() {
+				@Override public void run() {
+					refresh();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			// closed
+			this.refreshPending.set(false);
+		}
+	}
+
+	void refresh() {
+		// invalidations from now on need a resolution of their own
+		this.refreshPending.set(false);
+		try {
+			this.spansUri = resolve();
+		}
+		catch (Exception e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to resolve the Zipkin URL, will use [" + this.spansUri + "]", e);
+			}
+		}
+	}
+
+	private URI resolve() {
+		URI configured = URI.create(spansUrl(this.zipkinProperties.getBaseUrl()));
+		URI resolved = this.extractor.zipkinUrl(this.zipkinProperties);
+		try {
+			return new URI(resolved.getScheme(), resolved.getUserInfo(),
+					resolved.getHost(), resolved.getPort(), configured.getPath(),
+					configured.getQuery(), configured.getFragment());
+		}
+		catch (URISyntaxException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to create the new URI from original [" + configured
+						+ "] and new one [" + resolved + "]");
+			}
+			return configured;
+		}
+	}
+
+	static String spansUrl(String baseUrl) {
+		return baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "api/v1/spans";
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+	}
+}
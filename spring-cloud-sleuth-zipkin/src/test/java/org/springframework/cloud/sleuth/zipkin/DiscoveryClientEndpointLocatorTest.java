@@ -24,6 +24,7 @@ import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.cloud.client.ServiceInstance;
@@ -33,6 +34,7 @@ import org.springframework.cloud.sleuth.zipkin.DiscoveryClientEndpointLocator.No
 
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 
 /**
  * @author Marcin Grzejszczak
@@ -89,6 +91,33 @@ public class DiscoveryClientEndpointLocatorTest {
 		then(local.ipv4).isEqualTo(InetUtils.getIpAddressAsInt("localhost"));
 	}
 
+	@Test
+	public void should_resolve_endpoint_again_only_when_instance_got_registered() throws Exception {
+		given(this.discoveryClient.getLocalServiceInstance()).willReturn(serviceInstanceWithValidHost());
+		Endpoint first = this.discoveryClientEndpointLocator.local();
+
+		then(this.discoveryClientEndpointLocator.local()).isSameAs(first);
+		BDDMockito.then(this.discoveryClient).should(times(1)).getLocalServiceInstance();
+
+		this.discoveryClientEndpointLocator.instanceRegistered();
+
+		then(this.discoveryClientEndpointLocator.local()).isNotSameAs(first).isEqualTo(first);
+		BDDMockito.then(this.discoveryClient).should(times(2)).getLocalServiceInstance();
+	}
+
+	@Test
+	public void should_not_expire_endpoint_when_refresh_interval_is_not_positive() throws Exception {
+		ZipkinProperties zipkinProperties = new ZipkinProperties();
+		zipkinProperties.getLocator().setRefreshInterval(0);
+		DiscoveryClientEndpointLocator locator = new DiscoveryClientEndpointLocator(this.discoveryClient, zipkinProperties);
+		given(this.discoveryClient.getLocalServiceInstance()).willReturn(serviceInstanceWithValidHost());
+
+		locator.local();
+		locator.local();
+
+		BDDMockito.then(this.discoveryClient).should(times(1)).getLocalServiceInstance();
+	}
+
 	private ServiceInstance serviceInstanceWithInvalidHost() {
 		return new ServiceInstance() {
 			@Override public String getServiceId() {
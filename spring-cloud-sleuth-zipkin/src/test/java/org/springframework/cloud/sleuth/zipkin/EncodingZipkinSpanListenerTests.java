@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.SpanAdjuster;
+import org.springframework.cloud.sleuth.metric.CounterServiceBasedSpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+import org.springframework.web.client.RestTemplate;
+
+import zipkin.Endpoint;
+import zipkin.junit.ZipkinRule;
+import zipkin.reporter.Encoding;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class EncodingZipkinSpanListenerTests {
+
+	@Rule public final ZipkinRule zipkin = new ZipkinRule();
+	InMemorySpanCounter inMemorySpanCounter = new InMemorySpanCounter();
+	SpanMetricReporter spanMetricReporter = new CounterServiceBasedSpanMetricReporter(
+			"accepted", "dropped", this.inMemorySpanCounter);
+	EndpointLocator endpointLocator = new EndpointLocator() {
+		@Override public Endpoint local() {
+			return Endpoint.create("service", 127 << 24 | 1, 8080);
+		}
+	};
+
+	@Test
+	public void should_post_directly_encoded_json_spans() throws Exception {
+		thenPostsSpans(Encoding.JSON);
+	}
+
+	@Test
+	public void should_post_directly_encoded_thrift_spans() throws Exception {
+		thenPostsSpans(Encoding.THRIFT);
+	}
+
+	@Test
+	public void should_not_report_non_exportable_spans() throws Exception {
+		EncodingZipkinSpanListener listener = listener(Encoding.JSON,
+				Collections.<SpanAdjuster>emptyList());
+
+		listener.report(Span.builder().traceId(1L).spanId(1L).name("foo")
+				.exportable(false).build());
+		listener.flush();
+
+		then(this.zipkin.getTraces()).isEmpty();
+		then(this.inMemorySpanCounter.getAcceptedSpans()).isZero();
+	}
+
+	private void thenPostsSpans(Encoding encoding) {
+		SpanAdjuster adjuster = new SpanAdjuster() {
+			@Override public Span adjust(Span span) {
+				return Span.builder().from(span).name("adjusted").build();
+			}
+		};
+		EncodingZipkinSpanListener listener = listener(encoding,
+				Collections.singletonList(adjuster));
+
+		listener.report(Span.builder().traceId(1L).spanId(1L).name("foo")
+				.begin(1L).end(2L).build());
+		listener.report(Span.builder().traceId(2L).spanId(2L).name("bar")
+				.begin(1L).end(2L).build());
+		listener.flush();
+
+		then(this.zipkin.httpRequestCount()).isEqualTo(1);
+		then(this.zipkin.getTraces()).hasSize(2);
+		zipkin.Span span = this.zipkin.getTraces().get(0).get(0);
+		then(span.name).isEqualTo("adjusted");
+		then(span.duration).isEqualTo(1000L);
+		then(span.binaryAnnotations.get(0).endpoint.serviceName).isEqualTo("service");
+		then(this.inMemorySpanCounter.getAcceptedSpans()).isEqualTo(2);
+	}
+
+	private EncodingZipkinSpanListener listener(Encoding encoding,
+			List<SpanAdjuster> adjusters) {
+		return new EncodingZipkinSpanListener(new RestTemplate(), this.zipkin.httpUrl(),
+				0, this.spanMetricReporter, encoding, this.endpointLocator, null,
+				adjusters);
+	}
+}
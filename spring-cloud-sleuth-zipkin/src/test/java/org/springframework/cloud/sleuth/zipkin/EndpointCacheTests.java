@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import org.junit.Test;
+
+import zipkin.Endpoint;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class EndpointCacheTests {
+
+	EndpointCache cache = new EndpointCache(0);
+	Endpoint stale = Endpoint.create("foo", 1, 8080);
+	Endpoint fresh = Endpoint.create("foo", 1, 9090);
+
+	@Test
+	public void should_cache_the_resolved_endpoint() {
+		long generation = this.cache.generation();
+
+		then(this.cache.put(generation, this.fresh)).isSameAs(this.fresh);
+
+		then(this.cache.get()).isSameAs(this.fresh);
+	}
+
+	@Test
+	public void should_not_cache_an_endpoint_resolved_before_the_cache_got_invalidated() {
+		long generation = this.cache.generation();
+		this.cache.invalidate();
+
+		then(this.cache.put(generation, this.stale)).isSameAs(this.stale);
+
+		then(this.cache.get()).isNull();
+		this.cache.put(this.cache.generation(), this.fresh);
+		then(this.cache.get()).isSameAs(this.fresh);
+	}
+}
@@ -2,6 +2,7 @@ package org.springframework.cloud.sleuth.zipkin;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -9,6 +10,7 @@ import zipkin.Endpoint;
 
 import static org.assertj.core.api.BDDAssertions.then;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 
 @RunWith(MockitoJUnitRunner.class)
 public class FallbackHavingEndpointLocatorTests {
@@ -52,4 +54,20 @@ public class FallbackHavingEndpointLocatorTests {
 
 		then(endpoint).isSameAs(this.expectedEndpoint);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void should_cache_fallback_endpoint_until_instance_got_registered() {
+		given(this.discoveryClientEndpointLocator.local()).willThrow(new RuntimeException());
+		given(this.serverPropertiesEndpointLocator.local()).willReturn(this.expectedEndpoint);
+		FallbackHavingEndpointLocator sut = new FallbackHavingEndpointLocator(this.discoveryClientEndpointLocator,
+				this.serverPropertiesEndpointLocator);
+
+		sut.local();
+		sut.local();
+		sut.instanceRegistered();
+		sut.local();
+
+		BDDMockito.then(this.discoveryClientEndpointLocator).should(times(2)).local();
+		BDDMockito.then(this.discoveryClientEndpointLocator).should().instanceRegistered();
+	}
+}
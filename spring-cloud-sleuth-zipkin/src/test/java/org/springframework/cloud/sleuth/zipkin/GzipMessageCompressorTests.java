@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class GzipMessageCompressorTests {
+
+	GzipMessageCompressor compressor = new GzipMessageCompressor();
+
+	@After
+	public void close() {
+		this.compressor.close();
+	}
+
+	@Test
+	public void should_gzip_messages_when_reused() throws Exception {
+		byte[] small = "[{\"traceId\":\"0000000000000001\",\"id\":\"0000000000000001\"}]".getBytes("UTF-8");
+		byte[] large = new byte[3 * 1024 * 1024];
+		new Random(1L).nextBytes(large);
+
+		then(gunzip(this.compressor.compress(small))).isEqualTo(small);
+		then(gunzip(this.compressor.compress(large))).isEqualTo(large);
+		then(gunzip(this.compressor.compress(new byte[0]))).isEmpty();
+		then(gunzip(this.compressor.compress(small))).isEqualTo(small);
+	}
+
+	@Test
+	public void should_estimate_the_compressed_size_from_previous_messages() throws Exception {
+		byte[] message = new byte[10000];
+		then(this.compressor.estimatedSize(message.length)).isEqualTo(message.length);
+
+		for (int i = 0; i < 10; i++) {
+			this.compressor.compress(message);
+		}
+
+		then(this.compressor.estimatedSize(message.length))
+				.isLessThan(message.length / 10)
+				.isGreaterThanOrEqualTo(this.compressor.compress(message).length);
+	}
+
+	private byte[] gunzip(byte[] gzipped) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				result.write(buffer, 0, read);
+			}
+		}
+		return result.toByteArray();
+	}
+}
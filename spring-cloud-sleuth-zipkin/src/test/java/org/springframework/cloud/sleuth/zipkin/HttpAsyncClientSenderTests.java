@@ -0,0 +1,193 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.cloud.sleuth.metric.CounterServiceBasedSpanMetricReporter;
+import org.springframework.cloud.sleuth.metric.SpanMetricReporter;
+
+import zipkin.Codec;
+import zipkin.Span;
+import zipkin.junit.HttpFailure;
+import zipkin.junit.ZipkinRule;
+import zipkin.reporter.Callback;
+import zipkin.reporter.Encoding;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class HttpAsyncClientSenderTests {
+
+	@Rule public final ZipkinRule zipkin = new ZipkinRule();
+	SpanMetricReporter spanMetricReporter = new CounterServiceBasedSpanMetricReporter(
+			"accepted", "dropped", new InMemorySpanCounter());
+	ZipkinProperties zipkinProperties = new ZipkinProperties();
+	AtomicInteger resolutions = new AtomicInteger();
+	HttpAsyncClientSender sender;
+
+	@After
+	public void close() {
+		if (this.sender != null) {
+			this.sender.close();
+		}
+	}
+
+	@Test
+	public void should_send_spans_asynchronously() throws Exception {
+		this.sender = sender(this.zipkin.httpUrl());
+
+		then(send(Encoding.JSON, span(1L, "foo"), span(2L, "bar"))).isNull();
+
+		then(this.zipkin.getTraces()).hasSize(2);
+		then(this.zipkin.httpRequestCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void should_send_thrift_encoded_and_compressed_spans() throws Exception {
+		this.zipkinProperties.setEncoding(Encoding.THRIFT);
+		this.zipkinProperties.getCompression().setEnabled(true);
+		this.sender = sender(this.zipkin.httpUrl());
+
+		then(send(Encoding.THRIFT, span(1L, "foo"))).isNull();
+
+		then(this.zipkin.getTraces()).hasSize(1);
+	}
+
+	@Test
+	public void should_report_error_responses_to_the_callback() throws Exception {
+		this.zipkin.enqueueFailure(HttpFailure.sendErrorResponse(500, "Server Error!"));
+		this.sender = sender(this.zipkin.httpUrl());
+
+		then(send(Encoding.JSON, span(1L, "foo"))).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("500");
+	}
+
+	@Test
+	public void should_drop_messages_over_the_in_flight_limit() throws Exception {
+		this.zipkinProperties.getSender().setMaxInFlight(1);
+		try (ServerSocket unresponsive = new ServerSocket(0)) {
+			this.sender = sender("http://localhost:" + unresponsive.getLocalPort());
+			this.sender.sendSpans(encoded(Encoding.JSON, span(1L, "foo")), new AwaitableCallback());
+
+			then(send(Encoding.JSON, span(2L, "bar")))
+					.isInstanceOf(RejectedExecutionException.class);
+		}
+	}
+
+	@Test
+	public void should_resolve_the_zipkin_url_once_and_again_after_a_failure() throws Exception {
+		this.sender = sender("http://localhost:1");
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(1));
+
+		then(send(Encoding.JSON, span(1L, "foo"))).isNotNull();
+
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(2));
+		then(this.sender.urlCache.get()).isEqualTo(URI.create(
+				this.zipkin.httpUrl() + "/api/v1/spans"));
+		then(send(Encoding.JSON, span(1L, "foo"))).isNull();
+		then(send(Encoding.JSON, span(2L, "bar"))).isNull();
+		then(this.resolutions.get()).isEqualTo(2);
+		then(this.zipkin.getTraces()).hasSize(2);
+	}
+
+	@Test
+	public void should_resolve_the_zipkin_url_again_after_a_server_error() throws Exception {
+		this.zipkin.enqueueFailure(HttpFailure.sendErrorResponse(503, "Unavailable"));
+		this.sender = sender(this.zipkin.httpUrl());
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(1));
+
+		then(send(Encoding.JSON, span(1L, "foo"))).isNotNull();
+
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(2));
+	}
+
+	@Test
+	public void should_compute_the_size_of_a_single_span_message_from_its_length() throws Exception {
+		this.zipkinProperties.setEncoding(Encoding.THRIFT);
+		this.zipkinProperties.getCompression().setEnabled(true);
+		this.sender = sender(this.zipkin.httpUrl());
+
+		then(this.sender.messageSizeInBytes(100)).isEqualTo(
+				this.sender.messageSizeInBytes(Collections.singletonList(new byte[100])));
+	}
+
+	private HttpAsyncClientSender sender(String baseUrl) {
+		this.zipkinProperties.setBaseUrl(baseUrl);
+		final String zipkinUrl = this.zipkin.httpUrl();
+		ZipkinUrlExtractor extractor = new ZipkinUrlExtractor() {
+			@Override public URI zipkinUrl(ZipkinProperties zipkinProperties) {
+				// the first resolution returns the configured url, later ones the Zipkin one
+				if (HttpAsyncClientSenderTests.this.resolutions.incrementAndGet() == 1) {
+					return URI.create(zipkinProperties.getBaseUrl());
+				}
+				return URI.create(zipkinUrl);
+			}
+		};
+		return new HttpAsyncClientSender(this.zipkinProperties, new ZipkinUrlCache(
+				this.zipkinProperties, extractor, 0), this.spanMetricReporter);
+	}
+
+	private Throwable send(Encoding encoding, Span... spans) throws Exception {
+		AwaitableCallback callback = new AwaitableCallback();
+		this.sender.sendSpans(encoded(encoding, spans), callback);
+		then(callback.latch.await(5, TimeUnit.SECONDS)).isTrue();
+		return callback.error.get();
+	}
+
+	private List<byte[]> encoded(Encoding encoding, Span... spans) {
+		Codec codec = encoding == Encoding.JSON ? Codec.JSON : Codec.THRIFT;
+		List<byte[]> encoded = new ArrayList<>();
+		for (Span span : spans) {
+			encoded.add(codec.writeSpan(span));
+		}
+		return encoded;
+	}
+
+	static Span span(long traceId, String spanName) {
+		return Span.builder().traceId(traceId).id(traceId).name(spanName).build();
+	}
+
+	static class AwaitableCallback implements Callback {
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+
+		@Override public void onComplete() {
+			this.latch.countDown();
+		}
+
+		@Override public void onError(Throwable t) {
+			this.error.set(t);
+			this.latch.countDown();
+		}
+	}
+}
@@ -65,6 +65,35 @@ public class HttpZipkinSpanReporterTest {
 
 		assertThat(this.inMemorySpanCounter.getAcceptedSpans()).isEqualTo(1001);
 		assertThat(this.inMemorySpanCounter.getDroppedSpans()).isEqualTo(1);
+		assertThat(this.inMemorySpanCounter.getCount("dropped.queue-full")).isEqualTo(1);
+	}
+
+	@Test
+	public void dropsWhenConfiguredQueueIsFull() throws Exception {
+		ZipkinProperties zipkinProperties = HttpZipkinSpanReporter.zipkinProperties(0);
+		zipkinProperties.setQueuedMaxSpans(5000);
+		zipkinProperties.setQueuedMaxBytes(100);
+		this.reporter = new HttpZipkinSpanReporter(new RestTemplateSender(this.restTemplate,
+				this.zipkin.httpUrl(), Encoding.JSON, this.spanMetricReporter),
+				zipkinProperties, this.spanMetricReporter);
+
+		for (int i = 0; i < 10; i++)
+			this.reporter.report(span(1L, "foo"));
+
+		assertThat(this.inMemorySpanCounter.getDroppedSpans()).isEqualTo(9);
+		assertThat(this.inMemorySpanCounter.getCount("dropped.queue-full")).isEqualTo(9);
+	}
+
+	@Test
+	public void dropsSpansLargerThanMessageMaxBytes() throws Exception {
+		this.reporter = new HttpZipkinSpanReporter(new RestTemplateSender(this.restTemplate,
+				this.zipkin.httpUrl(), Encoding.JSON, this.spanMetricReporter, false, 50),
+				0, this.spanMetricReporter);
+
+		this.reporter.report(span(1L, "foo"));
+
+		assertThat(this.inMemorySpanCounter.getDroppedSpans()).isEqualTo(1);
+		assertThat(this.inMemorySpanCounter.getCount("dropped.too-large")).isEqualTo(1);
 	}
 
 	@Test
@@ -104,6 +133,25 @@ public class HttpZipkinSpanReporterTest {
 		);
 	}
 
+	@Test
+	public void postsSpansCompressedBySenderOnlyOnce() throws Exception {
+		this.reporter = new HttpZipkinSpanReporter(new RestTemplateSender(
+				restTemplateWithCompression(), this.zipkin.httpUrl(), Encoding.JSON,
+				this.spanMetricReporter, true, 5 * 1024 * 1024), 0, this.spanMetricReporter);
+
+		this.reporter.report(span(1L, "foo"));
+		this.reporter.report(span(2L, "bar"));
+
+		this.reporter.flush(); // manually flush the spans
+
+		assertThat(this.zipkin.httpRequestCount()).isEqualTo(1);
+
+		assertThat(this.zipkin.getTraces()).containsExactly(
+				asList(span(1L, "foo")),
+				asList(span(2L, "bar"))
+		);
+	}
+
 	@Test
 	public void incrementsDroppedSpansWhenServerErrors() throws Exception {
 		this.zipkin.enqueueFailure(HttpFailure.sendErrorResponse(500, "Ouch"));
@@ -114,6 +162,7 @@ public class HttpZipkinSpanReporterTest {
 		this.reporter.flush(); // manually flush the spans
 
 		assertThat(this.inMemorySpanCounter.getDroppedSpans()).isEqualTo(2);
+		assertThat(this.inMemorySpanCounter.getCount("dropped.send-failed")).isEqualTo(2);
 	}
 
 	@Test
@@ -2,6 +2,8 @@ package org.springframework.cloud.sleuth.zipkin;
 
 import org.springframework.boot.actuate.metrics.CounterService;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -13,6 +15,7 @@ public class InMemorySpanCounter implements CounterService {
 
 	private final AtomicLong acceptedSpans = new AtomicLong(0);
 	private final AtomicLong droppedSpans = new AtomicLong(0);
+	private final ConcurrentMap<String, AtomicLong> otherCounters = new ConcurrentHashMap<>();
 
 	public long getAcceptedSpans() {
 		return this.acceptedSpans.get();
@@ -22,27 +25,43 @@ public class InMemorySpanCounter implements CounterService {
 		return this.droppedSpans.get();
 	}
 
+	/**
+	 * Value of a counter other than the accepted and dropped spans ones, e.g. the
+	 * dropped spans per reason
+	 */
+	public long getCount(String metricName) {
+		AtomicLong counter = this.otherCounters.get(metricName);
+		return counter != null ? counter.get() : 0;
+	}
+
 	@Override
 	public void increment(String metricName) {
-		if (metricName.contains("accepted")) {
-			this.acceptedSpans.incrementAndGet();
-		} else {
-			this.droppedSpans.incrementAndGet();
-		}
+		counter(metricName).incrementAndGet();
 	}
 
 	@Override
 	public void decrement(String metricName) {
-		if (metricName.contains("accepted")) {
-			this.acceptedSpans.decrementAndGet();
-		} else {
-			this.droppedSpans.decrementAndGet();
-		}
+		counter(metricName).decrementAndGet();
 	}
 
 	@Override
 	public void reset(String metricName) {
 		this.acceptedSpans.set(0);
 		this.droppedSpans.set(0);
+		this.otherCounters.clear();
+	}
+
+	private AtomicLong counter(String metricName) {
+		if (metricName.contains("accepted")) {
+			return this.acceptedSpans;
+		} else if (metricName.endsWith("dropped")) {
+			return this.droppedSpans;
+		}
+		AtomicLong counter = this.otherCounters.get(metricName);
+		if (counter == null) {
+			this.otherCounters.putIfAbsent(metricName, new AtomicLong());
+			counter = this.otherCounters.get(metricName);
+		}
+		return counter;
 	}
 }
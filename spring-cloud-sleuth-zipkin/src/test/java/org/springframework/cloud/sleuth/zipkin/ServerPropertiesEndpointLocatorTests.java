@@ -22,9 +22,14 @@ import java.net.UnknownHostException;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.embedded.EmbeddedServletContainer;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerInitializedEvent;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
 import org.springframework.cloud.commons.util.InetUtils;
 import org.springframework.cloud.commons.util.InetUtilsProperties;
 
+import zipkin.Endpoint;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ServerPropertiesEndpointLocatorTests {
@@ -94,6 +99,27 @@ public class ServerPropertiesEndpointLocatorTests {
 		assertThat(locator.local().port).isEqualTo((short) 8080);
 	}
 
+	@Test
+	public void endpointIsResolvedOnceUntilThePortGetsAssigned() throws UnknownHostException {
+		ServerPropertiesEndpointLocator locator = new ServerPropertiesEndpointLocator(
+				new ServerProperties(), "unknown", new ZipkinProperties(),
+				localAddress(ADDRESS1234));
+		Endpoint first = locator.local();
+
+		assertThat(locator.local()).isSameAs(first);
+
+		locator.grabPort(containerInitializedOnPort(9876));
+
+		assertThat(locator.local().port).isEqualTo((short) 9876);
+	}
+
+	private EmbeddedServletContainerInitializedEvent containerInitializedOnPort(int port) {
+		EmbeddedServletContainer container = Mockito.mock(EmbeddedServletContainer.class);
+		Mockito.when(container.getPort()).thenReturn(port);
+		return new EmbeddedServletContainerInitializedEvent(
+				Mockito.mock(EmbeddedWebApplicationContext.class), container);
+	}
+
 	private InetUtils localAddress(byte[] address) throws UnknownHostException {
 		InetUtils mocked = Mockito.spy(new InetUtils(new InetUtilsProperties()));
 		Mockito.when(mocked.findFirstNonLoopbackAddress())
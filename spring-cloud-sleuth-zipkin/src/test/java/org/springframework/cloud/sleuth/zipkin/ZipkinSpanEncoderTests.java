@@ -0,0 +1,159 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.util.ZipkinSpanConverter;
+import org.springframework.mock.env.MockEnvironment;
+
+import zipkin.Codec;
+import zipkin.Constants;
+import zipkin.Endpoint;
+import zipkin.reporter.Encoder;
+import zipkin.reporter.Encoding;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+@RunWith(Parameterized.class)
+public class ZipkinSpanEncoderTests {
+
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> parameters() {
+		return Arrays.asList(new Object[][] { { Encoding.JSON }, { Encoding.THRIFT } });
+	}
+
+	final Encoding encoding;
+	final Endpoint endpoint = Endpoint.create("Service", 10 << 24 | 1, 40000);
+	final EndpointLocator endpointLocator = new EndpointLocator() {
+		@Override public Endpoint local() {
+			return ZipkinSpanEncoderTests.this.endpoint;
+		}
+	};
+	final ZipkinSpanEncoder encoder;
+	final Codec codec;
+	final Encoder<zipkin.Span> zipkinEncoder;
+
+	public ZipkinSpanEncoderTests(Encoding encoding) {
+		this.encoding = encoding;
+		this.encoder = ZipkinSpanEncoder.forEncoding(encoding, this.endpointLocator, null);
+		this.codec = encoding == Encoding.JSON ? Codec.JSON : Codec.THRIFT;
+		this.zipkinEncoder = encoding == Encoding.JSON ? Encoder.JSON : Encoder.THRIFT;
+	}
+
+	@Test
+	public void should_encode_local_span_like_the_zipkin_encoder() {
+		Span span = Span.builder().traceIdHigh(7L).traceId(1L).spanId(2L).parent(1L)
+				.name("Local Span").processId("Process").begin(1L).end(3L).build();
+		span.tag("escaped", "\"quoted\" \\ new\nline\ttab \u0001  ");
+		span.tag("unicode", "zażółć 😀");
+		span.logEvent(2L, "custom event");
+
+		thenEncodedLikeZipkin(span);
+	}
+
+	@Test
+	public void should_encode_client_span_like_the_zipkin_encoder() {
+		Span span = Span.builder().traceId(1L).spanId(2L).name("http:/foo")
+				.begin(1L).end(10L).build();
+		span.tag(Span.SPAN_PEER_SERVICE_TAG_NAME, "Peer");
+		span.tag("http.url", "http://localhost:8080/foo");
+		span.logEvent(2L, Constants.CLIENT_SEND);
+		span.logEvent(5L, Constants.CLIENT_RECV);
+
+		zipkin.Span decoded = thenEncodedLikeZipkin(span);
+
+		then(decoded.duration).isEqualTo(3000L);
+		then(decoded.binaryAnnotations).extracting("key").contains(Constants.SERVER_ADDR);
+	}
+
+	@Test
+	public void should_encode_shared_server_span_without_timestamp() {
+		Span span = Span.builder().traceId(1L).spanId(2L).parent(3L).name("http:/foo")
+				.shared(true).begin(1L).end(10L).build();
+		span.logEvent(2L, Constants.SERVER_RECV);
+		span.logEvent(5L, Constants.SERVER_SEND);
+
+		zipkin.Span decoded = thenEncodedLikeZipkin(span);
+
+		then(decoded.timestamp).isNull();
+		then(decoded.duration).isNull();
+	}
+
+	@Test
+	public void should_sort_logs_and_drop_duplicates_like_the_zipkin_model() {
+		Span span = Span.builder().traceId(1L).spanId(2L).name("unordered")
+				.processId("process").begin(1L).end(10L).build();
+		span.logEvent(5L, "b");
+		span.logEvent(2L, "a");
+		span.logEvent(5L, "a");
+		span.logEvent(2L, "a");
+
+		zipkin.Span decoded = thenEncodedLikeZipkin(span);
+
+		then(decoded.annotations).extracting("value").containsExactly("a", "a", "b");
+		then(decoded.annotations).extracting("timestamp")
+				.containsExactly(2000L, 5000L, 5000L);
+		if (this.encoding == Encoding.THRIFT) {
+			// a single binary annotation, so there's nothing the order could differ in
+			then(this.encoder.encode(span)).isEqualTo(this.zipkinEncoder.encode(decoded));
+		}
+	}
+
+	@Test
+	public void should_encode_minimal_span_like_the_zipkin_encoder() {
+		Span span = Span.builder().traceId(1L).spanId(1L).name("minimal").remote(true).build();
+
+		thenEncodedLikeZipkin(span);
+	}
+
+	@Test
+	public void should_add_instance_id_to_rpc_spans() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setProperty("spring.application.name", "foo");
+		environment.setProperty("server.port", "1234");
+		ZipkinSpanEncoder encoder = ZipkinSpanEncoder.forEncoding(this.encoding,
+				this.endpointLocator, environment);
+		Span span = Span.builder().traceId(1L).spanId(2L).name("name").build();
+		span.logEvent(1L, Constants.SERVER_RECV);
+
+		zipkin.Span decoded = this.codec.readSpan(encoder.encode(span));
+
+		then(decoded.binaryAnnotations).extracting("key").contains(Span.INSTANCEID);
+	}
+
+	private zipkin.Span thenEncodedLikeZipkin(Span span) {
+		zipkin.Span expected = new ZipkinSpanConverter().convert(span, this.endpoint);
+
+		zipkin.Span decoded = this.codec.readSpan(this.encoder.encode(span));
+
+		then(decoded).isEqualTo(expected);
+		if (this.encoding == Encoding.THRIFT) {
+			then(this.encoder.encode(span)).hasSameSizeAs(this.zipkinEncoder.encode(expected));
+		}
+		return decoded;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.sleuth.zipkin;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * @author Marcin Grzejszczak
+ */
+public class ZipkinUrlCacheTests {
+
+	ZipkinProperties zipkinProperties = new ZipkinProperties();
+	AtomicInteger resolutions = new AtomicInteger();
+	CountDownLatch resolve = new CountDownLatch(1);
+	ZipkinUrlCache cache;
+
+	@After
+	public void close() {
+		this.resolve.countDown();
+		if (this.cache != null) {
+			this.cache.close();
+		}
+	}
+
+	@Test
+	public void should_resolve_the_url_once_for_invalidations_until_resolution_starts()
+			throws Exception {
+		this.cache = new ZipkinUrlCache(this.zipkinProperties, new ZipkinUrlExtractor() {
+			@Override public URI zipkinUrl(ZipkinProperties zipkinProperties) {
+				ZipkinUrlCacheTests.this.resolutions.incrementAndGet();
+				try {
+					ZipkinUrlCacheTests.this.resolve.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return URI.create("http://zipkin:9411");
+			}
+		}, 0);
+		// the first resolution blocks the resolver thread
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(1));
+
+		for (int i = 0; i < 100; i++) {
+			this.cache.invalidate();
+		}
+		this.resolve.countDown();
+
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(2));
+		then(this.cache.get()).isEqualTo(URI.create("http://zipkin:9411/api/v1/spans"));
+		this.cache.invalidate();
+		await().untilAsserted(() -> then(this.resolutions.get()).isEqualTo(3));
+	}
+}